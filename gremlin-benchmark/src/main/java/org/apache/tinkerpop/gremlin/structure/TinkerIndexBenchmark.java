@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.structure;
+
+import org.apache.tinkerpop.benchmark.util.AbstractBenchmarkBase;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Measures lookup and update throughput of a {@link TinkerGraph} vertex index while several threads read from and
+ * write to the same low-cardinality key.
+ */
+@State(Scope.Benchmark)
+public class TinkerIndexBenchmark extends AbstractBenchmarkBase {
+
+    private static final String KEY = "status";
+    private static final String[] VALUES = {"active", "idle", "blocked", "done"};
+    private static final int VERTEX_COUNT = 100000;
+
+    private TinkerGraph graph;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        graph = TinkerGraph.open();
+        graph.createIndex(KEY, Vertex.class);
+        for (int i = 0; i < VERTEX_COUNT; i++) {
+            graph.addVertex(KEY, VALUES[i % VALUES.length]);
+        }
+    }
+
+    /**
+     * Each writer thread owns a vertex so that only the index, and not the vertex itself, is contended.
+     */
+    @State(Scope.Thread)
+    public static class WriterState {
+        private Vertex vertex;
+
+        @Setup(Level.Trial)
+        public void prepare(final TinkerIndexBenchmark benchmark) {
+            vertex = benchmark.graph.addVertex(KEY, VALUES[0]);
+        }
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public long testIndexCount() {
+        return TinkerHelper.queryVertexIndex(graph, KEY, randomValue()).size();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public long testIndexIterate() {
+        long count = 0;
+        for (final TinkerVertex ignored : TinkerHelper.queryVertexIndex(graph, KEY, randomValue())) {
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(2)
+    public VertexProperty testIndexUpdate(final WriterState state) {
+        return state.vertex.property(KEY, randomValue());
+    }
+
+    private static String randomValue() {
+        return VALUES[ThreadLocalRandom.current().nextInt(VALUES.length)];
+    }
+}
@@ -46,4 +46,14 @@ public interface Messenger<M> {
      */
     public void sendMessage(final MessageScope messageScope, final M message);
 
+    /**
+     * The currently executing vertex votes to halt. A {@link GraphComputer} may then skip the vertex in the following
+     * iterations until it is sent a message, though it is free to ignore the vote and execute the vertex anyway. A
+     * vertex program should therefore only vote to halt when executing the vertex again without new messages would
+     * not change its state, its outgoing messages or the memory. The computation still ends only when
+     * {@link VertexProgram#terminate(Memory)} returns true.
+     */
+    public default void voteToHalt() {
+    }
+
 }
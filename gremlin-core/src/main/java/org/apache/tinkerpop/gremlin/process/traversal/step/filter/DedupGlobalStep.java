@@ -29,6 +29,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.step.GraphComputing;
 import org.apache.tinkerpop.gremlin.process.traversal.step.PathProcessor;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Scoping;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.DedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HashDedupSet;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalUtil;
@@ -53,7 +55,8 @@ import java.util.function.BinaryOperator;
 public final class DedupGlobalStep<S> extends FilterStep<S> implements TraversalParent, Scoping, GraphComputing, Barrier<Map<Object, Traverser.Admin<S>>>, ByModulating, PathProcessor {
 
     private Traversal.Admin<S, Object> dedupTraversal = null;
-    private Set<Object> duplicateSet = new HashSet<>();
+    private DedupSet.Factory duplicateSetFactory = HashDedupSet.FACTORY;
+    private transient DedupSet duplicateSet = null;
     private boolean onGraphComputer = false;
     private final Set<String> dedupLabels;
 
@@ -66,6 +69,8 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
     protected boolean filter(final Traverser.Admin<S> traverser) {
         if (this.onGraphComputer) return true;
         traverser.setBulk(1);
+        if (null == this.duplicateSet)
+            this.duplicateSet = this.duplicateSetFactory.create();
         if (null == this.dedupLabels) {
             return this.duplicateSet.add(TraversalUtil.applyNullable(traverser, this.dedupTraversal));
         } else {
@@ -75,6 +80,18 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
         }
     }
 
+    /**
+     * Sets the factory of the {@link DedupSet} that holds the objects this step has seen in OLTP.
+     */
+    public void setDuplicateSetFactory(final DedupSet.Factory duplicateSetFactory) {
+        this.duplicateSetFactory = duplicateSetFactory;
+        this.duplicateSet = null;
+    }
+
+    public DedupSet.Factory getDuplicateSetFactory() {
+        return this.duplicateSetFactory;
+    }
+
     @Override
     public ElementRequirement getMaxRequirement() {
         return null == this.dedupLabels ? ElementRequirement.ID : PathProcessor.super.getMaxRequirement();
@@ -93,7 +110,7 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
     @Override
     public DedupGlobalStep<S> clone() {
         final DedupGlobalStep<S> clone = (DedupGlobalStep<S>) super.clone();
-        clone.duplicateSet = new HashSet<>();
+        clone.duplicateSet = null;
         if (null != this.dedupTraversal)
             clone.dedupTraversal = this.dedupTraversal.clone();
         return clone;
@@ -118,7 +135,8 @@ public final class DedupGlobalStep<S> extends FilterStep<S> implements Traversal
     @Override
     public void reset() {
         super.reset();
-        this.duplicateSet.clear();
+        if (null != this.duplicateSet)
+            this.duplicateSet.clear();
     }
 
     @Override
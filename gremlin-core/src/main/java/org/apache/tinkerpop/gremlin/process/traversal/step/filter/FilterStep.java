@@ -40,5 +40,16 @@ public abstract class FilterStep<S> extends AbstractStep<S, S> {
         }
     }
 
+    @Override
+    protected int processNextBatch(final Traverser.Admin<S>[] ends, final int offset) {
+        int size = offset;
+        Traverser.Admin<S> start;
+        while (size < ends.length && null != (start = this.nextBatchedStart())) {
+            if (this.filter(start))
+                ends[size++] = start;
+        }
+        return size - offset;
+    }
+
     protected abstract boolean filter(final Traverser.Admin<S> traverser);
 }
@@ -49,6 +49,23 @@ public abstract class FlatMapStep<S, E> extends AbstractStep<S, E> {
         }
     }
 
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        while (size < ends.length) {
+            if (this.iterator.hasNext()) {
+                ends[size++] = this.head.split(this.iterator.next(), this);
+            } else {
+                final Traverser.Admin<S> start = this.nextBatchedStart();
+                if (null == start)
+                    break;
+                this.head = start;
+                this.iterator = this.flatMap(start);
+            }
+        }
+        return size - offset;
+    }
+
     protected abstract Iterator<E> flatMap(final Traverser.Admin<S> traverser);
 
     @Override
@@ -50,6 +50,7 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
     protected final Class<E> returnClass;
     protected Object[] ids;
     protected transient Supplier<Iterator<E>> iteratorSupplier;
+    private boolean defaultIteratorSupplier = true;
     protected boolean isStart;
     protected boolean done = false;
     private Traverser.Admin<S> head = null;
@@ -61,7 +62,11 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
         this.returnClass = returnClass;
         this.ids = (ids.length == 1 && ids[0] instanceof Collection) ? ((Collection) ids[0]).toArray(new Object[((Collection) ids[0]).size()]) : ids;
         this.isStart = isStart;
-        this.iteratorSupplier = () -> (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ?
+        this.iteratorSupplier = this::elements;
+    }
+
+    private Iterator<E> elements() {
+        return (Iterator<E>) (Vertex.class.isAssignableFrom(this.returnClass) ?
                 this.getTraversal().getGraph().get().vertices(this.ids) :
                 this.getTraversal().getGraph().get().edges(this.ids));
     }
@@ -92,6 +97,7 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
 
     public void setIteratorSupplier(final Supplier<Iterator<E>> iteratorSupplier) {
         this.iteratorSupplier = iteratorSupplier;
+        this.defaultIteratorSupplier = false;
     }
 
     public Object[] getIds() {
@@ -112,6 +118,7 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
     @Override
     public void onGraphComputer() {
         this.iteratorSupplier = Collections::emptyIterator;
+        this.defaultIteratorSupplier = false;
         convertElementsToIds();
     }
 
@@ -152,6 +159,16 @@ public class GraphStep<S, E extends Element> extends AbstractStep<S, E> implemen
     }
 
 
+    @Override
+    public GraphStep<S, E> clone() {
+        final GraphStep<S, E> clone = (GraphStep<S, E>) super.clone();
+        clone.ids = this.ids.clone();
+        // the default supplier reads the ids of the step that it was created for
+        if (this.defaultIteratorSupplier)
+            clone.iteratorSupplier = clone::elements;
+        return clone;
+    }
+
     @Override
     public int hashCode() {
         int result = super.hashCode() ^ this.returnClass.hashCode();
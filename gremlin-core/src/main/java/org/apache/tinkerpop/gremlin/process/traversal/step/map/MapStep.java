@@ -37,6 +37,16 @@ public abstract class MapStep<S, E> extends AbstractStep<S, E> {
         return traverser.split(this.map(traverser), this);
     }
 
+    @Override
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        Traverser.Admin<S> start;
+        while (size < ends.length && null != (start = this.nextBatchedStart())) {
+            ends[size++] = start.split(this.map(start), this);
+        }
+        return size - offset;
+    }
+
     protected abstract E map(final Traverser.Admin<S> traverser);
 
 }
@@ -31,6 +31,8 @@ import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.Connec
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
@@ -154,6 +156,44 @@ public final class MatchStep<S, E> extends ComputerAwareStep<S, Map<String, E>>
         return Collections.unmodifiableList(this.matchTraversals);
     }
 
+    /**
+     * Sort the match()-traversals. The {@link CountMatchAlgorithm} tries the traversals of the same type and
+     * multiplicity in this order, so a strategy can place the traversals it expects to be cheapest first.
+     */
+    public void sortGlobalChildren(final Comparator<Traversal.Admin<Object, Object>> comparator) {
+        this.matchTraversals.sort(comparator);
+    }
+
+    /**
+     * Reverse a match()-traversal of the form {@code as('a').out('x').as('b')} to {@code as('b').in('x').as('a')}.
+     * Both forms bind the same pairs of vertices, but they may differ in cost when both variables are bound by the
+     * other match()-traversals. The end variable must already start another match()-traversal and the start variable
+     * must already end another one.
+     *
+     * @return whether the match()-traversal had the form and was reversed
+     */
+    public boolean reverseGlobalChild(final Traversal.Admin<Object, Object> matchTraversal) {
+        if (!this.matchTraversals.contains(matchTraversal) || matchTraversal.getSteps().size() != 3)
+            return false;
+        final Step<?, ?> startStep = matchTraversal.getStartStep();
+        final Step<?, ?> vertexStep = startStep.getNextStep();
+        final Step<?, ?> endStep = matchTraversal.getEndStep();
+        if (!(startStep instanceof MatchStartStep) || !(vertexStep instanceof VertexStep) || !(endStep instanceof MatchEndStep))
+            return false;
+        final Optional<String> startLabel = ((MatchStartStep) startStep).getSelectKey();
+        final Optional<String> endLabel = ((MatchEndStep) endStep).getMatchKey();
+        final VertexStep<?> step = (VertexStep<?>) vertexStep;
+        if (!startLabel.isPresent() || !endLabel.isPresent() || !step.returnsVertex() ||
+                !step.getLabels().isEmpty() || step.getDirection() == Direction.BOTH ||
+                !this.matchStartLabels.contains(endLabel.get()) || !this.matchEndLabels.contains(startLabel.get()))
+            return false;
+        TraversalHelper.replaceStep((Step) startStep, new MatchStartStep(matchTraversal, endLabel.get()), matchTraversal);
+        TraversalHelper.replaceStep((Step) vertexStep, new VertexStep<>(matchTraversal, Vertex.class, step.getDirection().opposite(), step.getEdgeLabels()), matchTraversal);
+        TraversalHelper.replaceStep((Step) endStep, new MatchEndStep(matchTraversal, startLabel.get()), matchTraversal);
+        this.scopeKeys = null;
+        return true;
+    }
+
     @Override
     public Set<String> getScopeKeys() {
         if (null == this.scopeKeys) {
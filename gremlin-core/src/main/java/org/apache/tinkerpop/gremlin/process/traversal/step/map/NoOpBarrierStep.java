@@ -22,10 +22,13 @@ package org.apache.tinkerpop.gremlin.process.traversal.step.map;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.step.LocalBarrier;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Profiling;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.TraverserSet;
 import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.process.traversal.util.MutableMetrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
 import java.util.Collections;
@@ -33,26 +36,58 @@ import java.util.NoSuchElementException;
 import java.util.Set;
 
 /**
+ * A barrier that holds up to a number of unique traversers so that equal traversers are bulked before the next step
+ * processes them. An adaptive barrier starts with an initial size and doubles it, up to its maximum size, while the
+ * traversers that fill it bulk well, and halves it again, down to the initial size, while they do not.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
-public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements LocalBarrier<S> {
+public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements LocalBarrier<S>, Profiling {
+
+    private static final double GROW_BULKING_RATIO = 2.0d;
+    private static final double SHRINK_BULKING_RATIO = 1.1d;
 
+    private int initialBarrierSize;
     private int maxBarrierSize;
+    private int barrierSize;
     private TraverserSet<S> barrier = new TraverserSet<>();
+    private long barrierInput = 0l;
+    private long totalInput = 0l;
+    private long totalOutput = 0l;
+    private int largestBarrierSize = 0;
+    private MutableMetrics metrics = null;
 
     public NoOpBarrierStep(final Traversal.Admin traversal) {
         this(traversal, Integer.MAX_VALUE);
     }
 
     public NoOpBarrierStep(final Traversal.Admin traversal, final int maxBarrierSize) {
+        this(traversal, maxBarrierSize, maxBarrierSize);
+    }
+
+    public NoOpBarrierStep(final Traversal.Admin traversal, final int initialBarrierSize, final int maxBarrierSize) {
         super(traversal);
+        if (initialBarrierSize < 1 || initialBarrierSize > maxBarrierSize)
+            throw new IllegalArgumentException("The initial barrier size must be between one and the max barrier size: " + initialBarrierSize);
+        this.initialBarrierSize = initialBarrierSize;
         this.maxBarrierSize = maxBarrierSize;
+        this.barrierSize = initialBarrierSize;
+    }
+
+    public int getInitialBarrierSize() {
+        return this.initialBarrierSize;
+    }
+
+    public int getMaxBarrierSize() {
+        return this.maxBarrierSize;
     }
 
     @Override
     protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
-        if (this.barrier.isEmpty())
+        if (this.barrier.isEmpty()) {
             this.processAllStarts();
+            this.completeBarrier();
+        }
         return this.barrier.remove();
     }
 
@@ -63,13 +98,36 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
 
     @Override
     public void processAllStarts() {
-        while (this.starts.hasNext() && (this.maxBarrierSize == Integer.MAX_VALUE || this.barrier.size() < this.maxBarrierSize)) {
+        while (this.starts.hasNext() && (this.barrierSize == Integer.MAX_VALUE || this.barrier.size() < this.barrierSize)) {
             final Traverser.Admin<S> traverser = this.starts.next();
             traverser.setStepId(this.getNextStep().getId()); // when barrier is reloaded, the traversers should be at the next step
             this.barrier.add(traverser);
+            this.barrierInput++;
         }
     }
 
+    /**
+     * Records how well the traversers of the filled barrier bulked and resizes an adaptive barrier accordingly.
+     */
+    private void completeBarrier() {
+        final int output = this.barrier.size();
+        if (0 == output)
+            return;
+        this.totalInput = this.totalInput + this.barrierInput;
+        this.totalOutput = this.totalOutput + output;
+        this.largestBarrierSize = Math.max(this.largestBarrierSize, output);
+        if (null != this.metrics) {
+            this.metrics.incrementCount(TraversalMetrics.BARRIER_INPUT_COUNT_ID, this.barrierInput);
+            this.metrics.setAnnotation(TraversalMetrics.BULKING_RATIO_KEY, (double) this.totalInput / this.totalOutput);
+            this.metrics.setAnnotation(TraversalMetrics.BARRIER_SIZE_KEY, this.largestBarrierSize);
+        }
+        if (this.barrierSize < this.maxBarrierSize && output == this.barrierSize && this.barrierInput >= GROW_BULKING_RATIO * output)
+            this.barrierSize = (int) Math.min((long) this.maxBarrierSize, 2l * this.barrierSize);
+        else if (this.barrierSize > this.initialBarrierSize && this.barrierInput < SHRINK_BULKING_RATIO * output)
+            this.barrierSize = Math.max(this.initialBarrierSize, this.barrierSize / 2);
+        this.barrierInput = 0l;
+    }
+
     @Override
     public boolean hasNextBarrier() {
         this.processAllStarts();
@@ -82,6 +140,7 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
         if (this.barrier.isEmpty())
             throw FastNoSuchElementException.instance();
         else {
+            this.completeBarrier();
             final TraverserSet<S> temp = this.barrier;
             this.barrier = new TraverserSet<>();
             return temp;
@@ -97,22 +156,43 @@ public final class NoOpBarrierStep<S> extends AbstractStep<S, S> implements Loca
     public NoOpBarrierStep<S> clone() {
         final NoOpBarrierStep<S> clone = (NoOpBarrierStep<S>) super.clone();
         clone.barrier = new TraverserSet<>();
+        clone.resetBulking();
+        clone.metrics = null;
         return clone;
     }
 
+    @Override
+    public void setMetrics(final MutableMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     @Override
     public String toString() {
-        return StringFactory.stepString(this, this.maxBarrierSize == Integer.MAX_VALUE ? null : this.maxBarrierSize);
+        return StringFactory.stepString(this,
+                this.initialBarrierSize == this.maxBarrierSize ? null : this.initialBarrierSize,
+                this.maxBarrierSize == Integer.MAX_VALUE ? null : this.maxBarrierSize);
     }
 
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.maxBarrierSize;
+        int result = super.hashCode() ^ this.maxBarrierSize;
+        if (this.initialBarrierSize != this.maxBarrierSize)
+            result ^= Integer.rotateLeft(this.initialBarrierSize, 16);
+        return result;
     }
 
     @Override
     public void reset() {
         super.reset();
         this.barrier.clear();
+        this.resetBulking();
+    }
+
+    private void resetBulking() {
+        this.barrierSize = this.initialBarrierSize;
+        this.barrierInput = 0l;
+        this.totalInput = 0l;
+        this.totalOutput = 0l;
+        this.largestBarrierSize = 0;
     }
 }
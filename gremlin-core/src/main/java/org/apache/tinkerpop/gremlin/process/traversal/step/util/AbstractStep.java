@@ -22,8 +22,10 @@ import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.util.EmptyTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -46,6 +48,14 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     protected Step<?, S> previousStep = EmptyStep.instance();
     protected Step<E, ?> nextStep = EmptyStep.instance();
 
+    protected int batchSize = 0;
+    private Traverser.Admin<S>[] startBatch = null;
+    private int startIndex = 0;
+    private int startSize = 0;
+    private Traverser.Admin<E>[] endBatch = null;
+    private int endIndex = 0;
+    private int endSize = 0;
+
     public AbstractStep(final Traversal.Admin traversal) {
         this.traversal = traversal;
         this.starts = new ExpandableStepIterator<>(this);
@@ -81,6 +91,26 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
     public void reset() {
         this.starts.clear();
         this.nextEnd = null;
+        if (this.batchSize > 0) {
+            Arrays.fill(this.startBatch, null);
+            Arrays.fill(this.endBatch, null);
+            this.startIndex = this.startSize = this.endIndex = this.endSize = 0;
+        }
+    }
+
+    /**
+     * Sets the size of the arrays in which the step pulls traversers from the previous step and hands them to the
+     * next step. A size of zero, which is the default, has the step process its traversers one at a time.
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+        this.startBatch = 0 == batchSize ? null : new Traverser.Admin[batchSize];
+        this.endBatch = 0 == batchSize ? null : new Traverser.Admin[batchSize];
+        this.startIndex = this.startSize = this.endIndex = this.endSize = 0;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
     }
 
     @Override
@@ -115,7 +145,13 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public Traverser.Admin<E> next() {
-        if (null != this.nextEnd) {
+        if (this.batchSize > 0) {
+            if (this.endIndex == this.endSize && !this.fillEndBatch())
+                throw FastNoSuchElementException.instance();
+            final Traverser.Admin<E> end = this.endBatch[this.endIndex];
+            this.endBatch[this.endIndex++] = null;
+            return end;
+        } else if (null != this.nextEnd) {
             try {
                 return this.prepareTraversalForNextStep(this.nextEnd);
             } finally {
@@ -132,7 +168,9 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
 
     @Override
     public boolean hasNext() {
-        if (null != this.nextEnd)
+        if (this.batchSize > 0)
+            return this.endIndex < this.endSize || this.fillEndBatch();
+        else if (null != this.nextEnd)
             return true;
         else {
             try {
@@ -159,6 +197,100 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
         this.traversal = traversal;
     }
 
+    /**
+     * Moves the next traversers of the step into the array from the offset onwards. This is how a step that is
+     * processing traversers in batches pulls its starts from the previous step.
+     *
+     * @return the number of traversers that were moved, which is zero only if the step has no more traversers
+     */
+    public int nextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        if (0 == this.batchSize) {
+            while (size < ends.length && this.hasNext()) {
+                ends[size++] = this.next();
+            }
+        } else {
+            while (size < ends.length && this.endIndex < this.endSize) {
+                ends[size++] = this.endBatch[this.endIndex];
+                this.endBatch[this.endIndex++] = null;
+            }
+            if (size == offset) {
+                try {
+                    size += this.processBatch(ends, offset);
+                } catch (final NoSuchElementException e) {
+                    // the step has no more traversers
+                }
+            }
+        }
+        return size - offset;
+    }
+
+    private boolean fillEndBatch() {
+        this.endIndex = 0;
+        try {
+            this.endSize = this.processBatch(this.endBatch, 0);
+        } catch (final NoSuchElementException e) {
+            this.endSize = 0;
+        }
+        return this.endSize > 0;
+    }
+
+    private int processBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        while (true) {
+            final int end = offset + this.processNextBatch(ends, offset);
+            if (end == offset)
+                return 0;
+            int size = offset;
+            for (int i = offset; i < end; i++) {
+                final Traverser.Admin<E> traverser = ends[i];
+                ends[i] = null;
+                if (null != traverser.get() && 0 != traverser.bulk())
+                    ends[size++] = this.prepareTraversalForNextStep(traverser);
+            }
+            if (size > offset)
+                return size - offset;
+        }
+    }
+
+    /**
+     * Gets the next start of the batch that was last pulled from the previous step, pulling the next batch when it
+     * is used up. Steps that override {@link #processNextBatch(Traverser.Admin[], int)} use this in place of
+     * {@link #starts}.
+     *
+     * @return the next start or {@code null} if there are no more starts
+     */
+    protected Traverser.Admin<S> nextBatchedStart() {
+        if (this.startIndex == this.startSize) {
+            this.startIndex = 0;
+            this.startSize = this.starts.next(this.startBatch);
+            if (0 == this.startSize)
+                return null;
+        }
+        final Traverser.Admin<S> start = this.startBatch[this.startIndex];
+        this.startBatch[this.startIndex++] = null;
+        return start;
+    }
+
+    /**
+     * Processes starts into ends that are written to the array from the offset onwards when the step has a batch size.
+     * Ends without an object or a bulk are dropped afterwards. The default pulls the ends one at a time from
+     * {@link #processNextStart()}.
+     *
+     * @return the number of ends that were written, which is zero only if there are no more starts
+     */
+    protected int processNextBatch(final Traverser.Admin<E>[] ends, final int offset) {
+        int size = offset;
+        try {
+            while (size < ends.length) {
+                final Traverser.Admin<E> end = this.processNextStart();
+                ends[size++] = end;
+            }
+        } catch (final NoSuchElementException e) {
+            // there are no more starts
+        }
+        return size - offset;
+    }
+
     protected abstract Traverser.Admin<E> processNextStart() throws NoSuchElementException;
 
     @Override
@@ -176,6 +308,7 @@ public abstract class AbstractStep<S, E> implements Step<S, E> {
             clone.nextStep = EmptyStep.instance();
             clone.nextEnd = null;
             clone.traversal = EmptyTraversal.instance();
+            clone.setBatchSize(this.batchSize);
             clone.reset();
             return clone;
         } catch (final CloneNotSupportedException e) {
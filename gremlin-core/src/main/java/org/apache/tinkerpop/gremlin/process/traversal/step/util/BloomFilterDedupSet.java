@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+/**
+ * An approximate {@link DedupSet} backed by a Bloom filter which takes a fixed amount of memory for the expected
+ * number of objects. An object that was not seen before is taken for a duplicate with the false positive probability,
+ * which grows once more objects than expected are added, so that {@code dedup().count()} may undercount. Objects are
+ * hashed by their {@code hashCode()}, except for vertices and edges with {@code Long} ids and {@code Long} values,
+ * which are hashed by all of their bits.
+ */
+public final class BloomFilterDedupSet implements DedupSet {
+
+    private static final long EDGE_SEED = 0x5bd1e9955bd1e995L;
+    private static final long VALUE_SEED = 0x27d4eb2f165667c5L;
+
+    private final long numberOfBits;
+    private final int numberOfHashes;
+    private long[] bits = null;
+
+    public BloomFilterDedupSet(final long expectedInsertions, final double falsePositiveProbability) {
+        if (expectedInsertions < 1)
+            throw new IllegalArgumentException("The expected insertions must be at least one: " + expectedInsertions);
+        if (falsePositiveProbability <= 0.0d || falsePositiveProbability >= 1.0d)
+            throw new IllegalArgumentException("The false positive probability must be between zero and one: " + falsePositiveProbability);
+        this.numberOfBits = Math.max(Long.SIZE, (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2))));
+        this.numberOfHashes = Math.max(1, (int) Math.round((double) this.numberOfBits / expectedInsertions * Math.log(2)));
+    }
+
+    public static Factory factory(final long expectedInsertions, final double falsePositiveProbability) {
+        return () -> new BloomFilterDedupSet(expectedInsertions, falsePositiveProbability);
+    }
+
+    @Override
+    public boolean add(final Object object) {
+        if (null == this.bits)
+            this.bits = new long[(int) ((this.numberOfBits + Long.SIZE - 1) / Long.SIZE)];
+
+        // double hashing derives the hashes from two halves of one 64-bit hash
+        final long hash = hash(object);
+        final long hash1 = hash >>> 32;
+        final long hash2 = hash & 0xffffffffL | 1l;
+        boolean added = false;
+        for (int i = 0; i < this.numberOfHashes; i++) {
+            final long bit = ((hash1 + i * hash2) & Long.MAX_VALUE) % this.numberOfBits;
+            final int word = (int) (bit >>> 6);
+            final long mask = 1l << bit;
+            if (0l == (this.bits[word] & mask)) {
+                this.bits[word] = this.bits[word] | mask;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    private static long hash(final Object object) {
+        if (object instanceof Vertex) {
+            final Object id = ((Vertex) object).id();
+            return id instanceof Long ? LongHashSet.mix((Long) id) : LongHashSet.mix(id.hashCode());
+        } else if (object instanceof Edge) {
+            final Object id = ((Edge) object).id();
+            return LongHashSet.mix((id instanceof Long ? (Long) id : id.hashCode()) ^ EDGE_SEED);
+        } else if (object instanceof Long)
+            return LongHashSet.mix((Long) object ^ VALUE_SEED);
+        else
+            return LongHashSet.mix((null == object ? 0 : object.hashCode()) ^ VALUE_SEED);
+    }
+
+    @Override
+    public void clear() {
+        this.bits = null;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.io.Serializable;
+
+/**
+ * The set of the objects that {@link org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep} has
+ * already seen. Implementations may trade memory for exactness or keep what they have seen off the heap.
+ */
+public interface DedupSet {
+
+    /**
+     * Add the object to the set.
+     *
+     * @return {@code true} if the object was not in the set
+     */
+    public boolean add(final Object object);
+
+    /**
+     * Remove all of the objects from the set and release any memory or files that hold them.
+     */
+    public void clear();
+
+    /**
+     * Creates the {@link DedupSet} of a step each time it starts anew, so it must be serializable along with the step.
+     */
+    @FunctionalInterface
+    public interface Factory extends Serializable {
+        public DedupSet create();
+    }
+}
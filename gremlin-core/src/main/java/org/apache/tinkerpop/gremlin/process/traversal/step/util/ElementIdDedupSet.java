@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * An exact {@link DedupSet} that keeps the {@code Long} and {@code Integer} ids of vertices and edges, as well as
+ * {@code Long} and {@code Integer} values, in sets of primitive longs. As vertices and edges are equal when their ids
+ * are equal, only the ids need to be kept. Each set of longs moves to a memory-mapped temporary file once it holds
+ * more than the spill threshold. Any other object is held in a {@link HashSet} on the heap.
+ */
+public final class ElementIdDedupSet implements DedupSet {
+
+    private static final int VERTEX = 0;
+    private static final int EDGE = 2;
+    private static final int VALUE = 4;
+
+    private final long spillThreshold;
+    // one set for each of the vertex, edge and value kinds of Long and Integer
+    private final LongHashSet[] longSets = new LongHashSet[6];
+    private Set<Object> objects = null;
+
+    public ElementIdDedupSet(final long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+    }
+
+    public static Factory factory(final long spillThreshold) {
+        return () -> new ElementIdDedupSet(spillThreshold);
+    }
+
+    @Override
+    public boolean add(final Object object) {
+        final int kind;
+        final Object value;
+        if (object instanceof Vertex) {
+            kind = VERTEX;
+            value = ((Vertex) object).id();
+        } else if (object instanceof Edge) {
+            kind = EDGE;
+            value = ((Edge) object).id();
+        } else {
+            kind = VALUE;
+            value = object;
+        }
+
+        if (value instanceof Long)
+            return this.longSet(kind).add((Long) value);
+        else if (value instanceof Integer)
+            return this.longSet(kind + 1).add((Integer) value);
+        else {
+            if (null == this.objects)
+                this.objects = new HashSet<>();
+            return this.objects.add(object);
+        }
+    }
+
+    private LongHashSet longSet(final int index) {
+        if (null == this.longSets[index])
+            this.longSets[index] = new LongHashSet(this.spillThreshold);
+        return this.longSets[index];
+    }
+
+    /**
+     * Determines if any of the sets of longs has moved to a memory-mapped file.
+     */
+    public boolean isSpilled() {
+        for (final LongHashSet longSet : this.longSets) {
+            if (null != longSet && longSet.isSpilled())
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.longSets.length; i++) {
+            this.longSets[i] = null;
+        }
+        this.objects = null;
+    }
+}
@@ -53,6 +53,29 @@ public final class ExpandableStepIterator<S> implements Iterator<Traverser.Admin
         return this.traverserSet.remove();
     }
 
+    /**
+     * Moves the next traversers into the array, first those that were added and then those of the previous step.
+     *
+     * @return the number of traversers that were moved, which is zero only if there are no more traversers
+     */
+    public int next(final Traverser.Admin<S>[] traversers) {
+        int size = 0;
+        while (size < traversers.length && !this.traverserSet.isEmpty()) {
+            traversers[size++] = this.traverserSet.remove();
+        }
+        if (size < traversers.length) {
+            final Step<?, S> previousStep = this.hostStep.getPreviousStep();
+            if (previousStep instanceof AbstractStep)
+                size += ((AbstractStep<?, S>) previousStep).nextBatch(traversers, size);
+            else {
+                while (size < traversers.length && previousStep.hasNext()) {
+                    traversers[size++] = previousStep.next();
+                }
+            }
+        }
+        return size;
+    }
+
     public void add(final Iterator<Traverser.Admin<S>> iterator) {
         iterator.forEachRemaining(this.traverserSet::add);
     }
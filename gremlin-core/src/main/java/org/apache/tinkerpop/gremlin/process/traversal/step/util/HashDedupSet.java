@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A {@link DedupSet} that holds the objects in a {@link HashSet}.
+ */
+public final class HashDedupSet implements DedupSet {
+
+    public static final Factory FACTORY = HashDedupSet::new;
+
+    private final Set<Object> set = new HashSet<>();
+
+    @Override
+    public boolean add(final Object object) {
+        return this.set.add(object);
+    }
+
+    @Override
+    public void clear() {
+        this.set.clear();
+    }
+}
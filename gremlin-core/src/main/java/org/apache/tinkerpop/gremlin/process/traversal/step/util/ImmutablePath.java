@@ -24,19 +24,33 @@ import org.apache.tinkerpop.gremlin.structure.Element;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
+ * A path that shares its prefix with the paths it was extended from. Each step of the path holds a reference to the
+ * object and an interned, unmodifiable set of its labels, so extending a path by a step without labels allocates the
+ * step alone and the steps of all traversers that passed through the same labeled step share one label set.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Cloneable {
 
+    /**
+     * The most distinct label sets that are interned. Label sets beyond it are copied for each step of a path.
+     */
+    private static final int MAX_INTERNED_LABEL_SETS = 10000;
+    private static final Map<List<String>, Set<String>> INTERNED_LABEL_SETS = new ConcurrentHashMap<>();
+
     private ImmutablePathImpl previousPath = TailPath.instance();
     private Object currentObject;
-    private Set<String> currentLabels = new LinkedHashSet<>();
+    private Set<String> currentLabels = Collections.emptySet();
 
     protected ImmutablePath() {
 
@@ -55,12 +69,34 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
     private ImmutablePath(final ImmutablePathImpl previousPath, final Object currentObject, final Set<String> currentLabels) {
         this.previousPath = previousPath;
         this.currentObject = currentObject;
-        this.currentLabels.addAll(currentLabels);
+        this.currentLabels = internLabels(currentLabels);
+    }
+
+    private static Set<String> internLabels(final Set<String> labels) {
+        if (labels.isEmpty())
+            return Collections.emptySet();
+        // the sets are keyed by the order of their labels as that is the order in which the path returns them
+        final List<String> key = new ArrayList<>(labels);
+        final Set<String> interned = INTERNED_LABEL_SETS.get(key);
+        if (null != interned)
+            return interned;
+        // the labels of a step may change after the fact, so the path keeps a copy of them
+        final Set<String> copy = Collections.unmodifiableSet(new LinkedHashSet<>(labels));
+        if (INTERNED_LABEL_SETS.size() >= MAX_INTERNED_LABEL_SETS)
+            return copy;
+        final Set<String> existing = INTERNED_LABEL_SETS.putIfAbsent(key, copy);
+        return null == existing ? copy : existing;
     }
 
     @Override
     public int size() {
-        return this.previousPath.size() + 1;
+        int size = 1;
+        ImmutablePathImpl path = this.previousPath;
+        while (path instanceof ImmutablePath) {
+            size++;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return size;
     }
 
     @Override
@@ -70,6 +106,8 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
     @Override
     public Path extend(final Set<String> labels) {
+        if (this.currentLabels.containsAll(labels))
+            return this;
         final Set<String> temp = new LinkedHashSet<>();
         temp.addAll(this.currentLabels);
         temp.addAll(labels);
@@ -78,22 +116,27 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
     @Override
     public <A> A get(final int index) {
-        return (this.size() - 1) == index ? (A) this.currentObject : this.previousPath.get(index);
+        final int size = this.size();
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        ImmutablePath path = this;
+        for (int i = size - 1; i > index; i--) {
+            path = (ImmutablePath) path.previousPath;
+        }
+        return (A) path.currentObject;
     }
 
     @Override
     public <A> A getSingleHead(final String label) {
-        // Recursively search for the single value to avoid building throwaway collections, and to stop looking when we
-        // find it.
-        A single;
-        // See if we have a value.
-        if (this.currentLabels.contains(label)) {
-            single = (A) this.currentObject;
-        } else {
-            // Look for a previous value.
-            single = this.previousPath.getSingleHead(label);
+        // Search from the head for the single value to avoid building throwaway collections, and to stop looking
+        // when we find it.
+        ImmutablePathImpl path = this;
+        while (path instanceof ImmutablePath) {
+            if (((ImmutablePath) path).currentLabels.contains(label))
+                return (A) ((ImmutablePath) path).currentObject;
+            path = ((ImmutablePath) path).previousPath;
         }
-        return single;
+        return null;
     }
 
     @Override
@@ -131,23 +174,55 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
     @Override
     public boolean hasLabel(final String label) {
-        return this.currentLabels.contains(label) || this.previousPath.hasLabel(label);
+        ImmutablePathImpl path = this;
+        while (path instanceof ImmutablePath) {
+            if (((ImmutablePath) path).currentLabels.contains(label))
+                return true;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return false;
     }
 
     @Override
     public List<Object> objects() {
-        final List<Object> objectPath = new ArrayList<>();    // TODO: optimize
-        objectPath.addAll(this.previousPath.objects());
-        objectPath.add(this.currentObject);
-        return Collections.unmodifiableList(objectPath);
+        final Object[] objects = new Object[this.size()];
+        ImmutablePathImpl path = this;
+        for (int i = objects.length - 1; i >= 0; i--) {
+            objects[i] = ((ImmutablePath) path).currentObject;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return Collections.unmodifiableList(Arrays.asList(objects));
     }
 
     @Override
     public List<Set<String>> labels() {
-        final List<Set<String>> labelPath = new ArrayList<>();   // TODO: optimize
-        labelPath.addAll(this.previousPath.labels());
-        labelPath.add(this.currentLabels);
-        return Collections.unmodifiableList(labelPath);
+        final Set<String>[] labels = new Set[this.size()];
+        ImmutablePathImpl path = this;
+        for (int i = labels.length - 1; i >= 0; i--) {
+            labels[i] = ((ImmutablePath) path).currentLabels;
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return Collections.unmodifiableList(Arrays.asList(labels));
+    }
+
+    /**
+     * Compares each object of the path with the objects before it without collecting them first, which is what
+     * {@code simplePath()} and {@code cyclicPath()} do for each traverser.
+     */
+    @Override
+    public boolean isSimple() {
+        ImmutablePathImpl path = this;
+        while (path instanceof ImmutablePath) {
+            final Object object = ((ImmutablePath) path).currentObject;
+            ImmutablePathImpl previous = ((ImmutablePath) path).previousPath;
+            while (previous instanceof ImmutablePath) {
+                if (Objects.equals(object, ((ImmutablePath) previous).currentObject))
+                    return false;
+                previous = ((ImmutablePath) previous).previousPath;
+            }
+            path = ((ImmutablePath) path).previousPath;
+        }
+        return true;
     }
 
     @Override
@@ -167,11 +242,15 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
         final Path otherPath = (Path) other;
         if (otherPath.size() != this.size())
             return false;
-        for (int i = this.size() - 1; i >= 0; i--) {
-            if (!this.get(i).equals(otherPath.get(i)))
+        final List<Object> otherObjects = otherPath.objects();
+        final List<Set<String>> otherLabels = otherPath.labels();
+        ImmutablePathImpl path = this;
+        for (int i = otherObjects.size() - 1; i >= 0; i--) {
+            if (!((ImmutablePath) path).currentObject.equals(otherObjects.get(i)))
                 return false;
-            if (!this.labels().get(i).equals(otherPath.labels().get(i)))
+            if (!((ImmutablePath) path).currentLabels.equals(otherLabels.get(i)))
                 return false;
+            path = ((ImmutablePath) path).previousPath;
         }
         return true;
     }
@@ -206,7 +285,7 @@ public class ImmutablePath implements Path, ImmutablePathImpl, Serializable, Clo
 
         @Override
         public <A> A get(final int index) {
-            return (A) Collections.emptyList().get(index);
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: 0");
         }
 
 
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An open addressing set of primitive longs. Once the set holds more longs than its spill threshold, its table is
+ * kept in a memory-mapped temporary file rather than on the heap, so that the operating system pages it to disk as
+ * needed. The file is deleted as soon as it is mapped.
+ */
+final class LongHashSet {
+
+    private static final int SEGMENT_BITS = 27;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_BITS;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final double LOAD_FACTOR = 0.6d;
+
+    private final long spillThreshold;
+    private LongBuffer[] segments;
+    private long capacity;
+    private long size = 0l;
+    // an empty slot holds zero so zero itself is kept aside
+    private boolean containsZero = false;
+
+    LongHashSet(final long spillThreshold) {
+        this.spillThreshold = spillThreshold;
+        this.capacity = INITIAL_CAPACITY;
+        this.segments = this.allocate(this.capacity);
+    }
+
+    public boolean add(final long value) {
+        if (0l == value) {
+            if (this.containsZero)
+                return false;
+            this.containsZero = true;
+            this.size++;
+            return true;
+        }
+        if (!this.insert(this.segments, this.capacity - 1, value))
+            return false;
+        if (++this.size > LOAD_FACTOR * this.capacity)
+            this.grow();
+        return true;
+    }
+
+    public long size() {
+        return this.size;
+    }
+
+    public boolean isSpilled() {
+        return this.segments[0].isDirect();
+    }
+
+    private boolean insert(final LongBuffer[] segments, final long mask, final long value) {
+        long index = mix(value) & mask;
+        while (true) {
+            final LongBuffer segment = segments[(int) (index >>> SEGMENT_BITS)];
+            final int offset = (int) (index & SEGMENT_MASK);
+            final long current = segment.get(offset);
+            if (0l == current) {
+                segment.put(offset, value);
+                return true;
+            } else if (value == current)
+                return false;
+            index = (index + 1) & mask;
+        }
+    }
+
+    private void grow() {
+        final long newCapacity = this.capacity * 2;
+        final LongBuffer[] newSegments = this.allocate(newCapacity);
+        for (final LongBuffer segment : this.segments) {
+            for (int i = 0; i < segment.capacity(); i++) {
+                final long value = segment.get(i);
+                if (0l != value)
+                    this.insert(newSegments, newCapacity - 1, value);
+            }
+        }
+        this.segments = newSegments;
+        this.capacity = newCapacity;
+    }
+
+    private LongBuffer[] allocate(final long capacity) {
+        final int segmentSize = (int) Math.min(capacity, SEGMENT_SIZE);
+        final LongBuffer[] segments = new LongBuffer[(int) (capacity / segmentSize)];
+        if (this.size < this.spillThreshold) {
+            for (int i = 0; i < segments.length; i++) {
+                segments[i] = LongBuffer.wrap(new long[segmentSize]);
+            }
+        } else {
+            try {
+                final File file = File.createTempFile("gremlin-dedup-", ".bin");
+                try (final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+                    final long segmentBytes = (long) segmentSize * Long.BYTES;
+                    randomAccessFile.setLength(segmentBytes * segments.length);
+                    for (int i = 0; i < segments.length; i++) {
+                        segments[i] = randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, i * segmentBytes, segmentBytes).asLongBuffer();
+                    }
+                } finally {
+                    // the mapping outlives the file on most platforms
+                    if (!file.delete())
+                        file.deleteOnExit();
+                }
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+        return segments;
+    }
+
+    /**
+     * The finalizer of MurmurHash3 which spreads sequential ids over the table.
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.DefaultTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * {@code PlanCacheStrategy} has a {@link DefaultTraversal} look up its plan in a {@link TraversalPlanCache} before
+ * the other strategies are applied to it. Traversals that only differ in the values of their has()-steps then share
+ * the plan that the strategies produced for the first of them. The strategy itself does not change a traversal. The
+ * cache counts its hits and misses, which {@link #getPlanCache()} exposes.
+ * <p/>
+ * <pre>
+ * g = graph.traversal().withStrategies(PlanCacheStrategy.build().maxSize(1000).create())
+ * g.V().has("name", "marko").out("knows")  // the strategies are applied and the plan is cached
+ * g.V().has("name", "josh").out("knows")   // the cached plan is cloned with "josh" in place of "marko"
+ * </pre>
+ */
+public final class PlanCacheStrategy extends AbstractTraversalStrategy<TraversalStrategy.DecorationStrategy> implements TraversalStrategy.DecorationStrategy {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private static final PlanCacheStrategy INSTANCE = new PlanCacheStrategy(DEFAULT_MAX_SIZE);
+
+    private final TraversalPlanCache planCache;
+
+    private PlanCacheStrategy(final int maxSize) {
+        this.planCache = new TraversalPlanCache(maxSize);
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        // the plan is looked up by DefaultTraversal.applyStrategies() before any strategy is applied
+    }
+
+    public TraversalPlanCache getPlanCache() {
+        return this.planCache;
+    }
+
+    /**
+     * Gets the plan cache of the {@code PlanCacheStrategy} of the strategies.
+     *
+     * @return the plan cache or {@code null} if there is no {@code PlanCacheStrategy}
+     */
+    public static TraversalPlanCache getPlanCache(final TraversalStrategies traversalStrategies) {
+        for (final TraversalStrategy<?> strategy : traversalStrategies.toList()) {
+            if (strategy instanceof PlanCacheStrategy)
+                return ((PlanCacheStrategy) strategy).planCache;
+        }
+        return null;
+    }
+
+    public static PlanCacheStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.traversalStrategyString(this);
+    }
+
+    public final static class Builder {
+
+        private int maxSize = DEFAULT_MAX_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of traversal shapes whose plans are kept, evicting the least recently used plan first.
+         */
+        public Builder maxSize(final int maxSize) {
+            if (maxSize < 1)
+                throw new IllegalArgumentException("The plan cache must hold at least one plan: " + maxSize);
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public PlanCacheStrategy create() {
+            return new PlanCacheStrategy(this.maxSize);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.BloomFilterDedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.DedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ElementIdDedupSet;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+
+/**
+ * {@code DedupSetStrategy} chooses the {@link DedupSet} that the {@link DedupGlobalStep}s of a traversal use to hold
+ * the objects they have seen in OLTP. By default, an exact {@link ElementIdDedupSet} keeps element ids and numbers as
+ * primitive longs and moves them to a memory-mapped file past the spill threshold. An approximate
+ * {@link BloomFilterDedupSet} takes a fixed amount of memory but may filter out a small fraction of unique objects.
+ * <p/>
+ * <pre>
+ * g.withStrategies(DedupSetStrategy.build().spillThreshold(1000000).create()).V().out().out().dedup()
+ * g.withStrategies(DedupSetStrategy.build().approximate(100000000, 0.01d).create()).V().out().out().dedup().count()
+ * </pre>
+ */
+public final class DedupSetStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final long DEFAULT_SPILL_THRESHOLD = 10000000l;
+
+    private static final DedupSetStrategy INSTANCE = new DedupSetStrategy(ElementIdDedupSet.factory(DEFAULT_SPILL_THRESHOLD));
+
+    private final DedupSet.Factory duplicateSetFactory;
+
+    private DedupSetStrategy(final DedupSet.Factory duplicateSetFactory) {
+        this.duplicateSetFactory = duplicateSetFactory;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof DedupGlobalStep) {
+                ((DedupGlobalStep) step).setDuplicateSetFactory(this.duplicateSetFactory);
+            }
+        }
+    }
+
+    public static DedupSetStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.traversalStrategyString(this);
+    }
+
+    public final static class Builder {
+
+        private DedupSet.Factory duplicateSetFactory = INSTANCE.duplicateSetFactory;
+
+        private Builder() {
+        }
+
+        /**
+         * Use an exact {@link ElementIdDedupSet} that moves each of its sets of longs to a memory-mapped file once it
+         * holds more than the spill threshold.
+         */
+        public Builder spillThreshold(final long spillThreshold) {
+            if (spillThreshold < 0)
+                throw new IllegalArgumentException("The spill threshold can not be negative: " + spillThreshold);
+            this.duplicateSetFactory = ElementIdDedupSet.factory(spillThreshold);
+            return this;
+        }
+
+        /**
+         * Use an approximate {@link BloomFilterDedupSet} sized for the expected number of unique objects.
+         */
+        public Builder approximate(final long expectedInsertions, final double falsePositiveProbability) {
+            // validates the arguments before the first traversal is run
+            new BloomFilterDedupSet(expectedInsertions, falsePositiveProbability);
+            this.duplicateSetFactory = BloomFilterDedupSet.factory(expectedInsertions, falsePositiveProbability);
+            return this;
+        }
+
+        /**
+         * Use the {@link DedupSet} of a provider or user.
+         */
+        public Builder duplicateSetFactory(final DedupSet.Factory duplicateSetFactory) {
+            this.duplicateSetFactory = duplicateSetFactory;
+            return this;
+        }
+
+        public DedupSetStrategy create() {
+            return new DedupSetStrategy(this.duplicateSetFactory);
+        }
+    }
+}
@@ -24,36 +24,64 @@ import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.step.Barrier;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CardinalityEstimator;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
-
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
+ * {@code LazyBarrierStrategy} inserts {@link NoOpBarrierStep}s where traversers are likely to bulk. When the graph is
+ * a {@link CardinalityEstimator}, the strategy estimates how many traversers reach each step of a traversal that
+ * starts with {@code V()} and places a barrier after each vertex-returning step whose traversers are expected to
+ * visit the same vertices at least {@link #MIN_BULKING_RATIO} times on average. Each barrier starts at the number of
+ * unique traversers expected at its step, capped at {@link #MAX_BARRIER_SIZE}, and may grow with the bulking it
+ * observes up to its share of the memory budget. For other graphs, barriers of {@link #MAX_BARRIER_SIZE} are placed
+ * after the steps that follow the first vertex-returning {@link VertexStep} of traversals with a depth of more than
+ * two {@link VertexStep}s.
+ * <p/>
+ * <pre>
+ * g.withStrategies(LazyBarrierStrategy.build().memoryBudget(64 * 1024 * 1024).create()).V().both().both().both()
+ * </pre>
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class LazyBarrierStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
 
-    private static final LazyBarrierStrategy INSTANCE = new LazyBarrierStrategy();
+    private static final LazyBarrierStrategy INSTANCE = new LazyBarrierStrategy(Runtime.getRuntime().maxMemory() / 16);
     private static final Set<Class<? extends FinalizationStrategy>> PRIORS = new HashSet<>();
     private static final Set<Class<? extends FinalizationStrategy>> POSTS = new HashSet<>();
 
     private static final int REQUIRED_DEPTH = 2;
     private static final int BIG_START_SIZE = 5;
     protected static final int MAX_BARRIER_SIZE = 10000;
+    protected static final double MIN_BULKING_RATIO = 2.0d;
+    private static final int BYTES_PER_TRAVERSER = 256;
 
     static {
         POSTS.add(ProfileStrategy.class);
     }
 
+    private final long memoryBudget;
 
-    private LazyBarrierStrategy() {
+    private LazyBarrierStrategy(final long memoryBudget) {
+        this.memoryBudget = memoryBudget;
     }
 
     @Override
@@ -64,6 +92,10 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
         if (traversal.getTraverserRequirements().contains(TraverserRequirement.PATH))
             return;
 
+        final Graph graph = traversal.getGraph().orElse(null);
+        if (graph instanceof CardinalityEstimator && this.applyEstimates(traversal, (CardinalityEstimator) graph))
+            return;
+
         int depth = 0;
         for (final Step<?, ?> step : traversal.getSteps()) {
             if (step instanceof VertexStep)
@@ -92,6 +124,86 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
     }
 
 
+    /**
+     * Places the barriers of a traversal that starts with vertices from the estimated number of traversers at each
+     * step, stopping at the first step that the estimates do not cover.
+     *
+     * @return {@code false} if the traversal does not start with vertices and the estimates can not be used
+     */
+    private boolean applyEstimates(final Traversal.Admin<?, ?> traversal, final CardinalityEstimator estimator) {
+        final List<Step> steps = (List) traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep) || !((GraphStep) steps.get(0)).returnsVertex())
+            return false;
+
+        final GraphStep<?, ?> graphStep = (GraphStep) steps.get(0);
+        final double vertexCount = Math.max(1.0d, estimator.estimateCount(Vertex.class, Collections.emptyList()));
+        double traversers = graphStep.getIds().length > 0 ?
+                graphStep.getIds().length :
+                estimator.estimateCount(Vertex.class, getHasContainers(graphStep));
+        Class<? extends Element> elementClass = Vertex.class;
+
+        final List<Step> barrierSteps = new ArrayList<>();
+        final List<Double> barrierSizes = new ArrayList<>();
+        for (int i = 1; i < steps.size() - 1; i++) {
+            final Step<?, ?> step = steps.get(i);
+            if (step instanceof VertexStep) {
+                traversers = traversers * estimator.estimateDegree(((VertexStep) step).getDirection(), ((VertexStep) step).getEdgeLabels());
+                elementClass = ((VertexStep) step).returnsVertex() ? Vertex.class : Edge.class;
+            } else if (step instanceof EdgeVertexStep && Edge.class.equals(elementClass)) {
+                if (Direction.BOTH == ((EdgeVertexStep) step).getDirection())
+                    traversers = traversers * 2;
+                elementClass = Vertex.class;
+            } else if (step instanceof HasStep) {
+                final double count = Math.max(1.0d, estimator.estimateCount(elementClass, Collections.emptyList()));
+                traversers = traversers * estimator.estimateCount(elementClass, ((HasStep<?>) step).getHasContainers()) / count;
+                continue;
+            } else if (step instanceof NoOpBarrierStep) {
+                if (Vertex.class.equals(elementClass))
+                    traversers = uniqueVertices(traversers, vertexCount);
+                continue;
+            } else if (step instanceof FilterStep)
+                continue;
+            else
+                break;
+
+            if (Vertex.class.equals(elementClass)) {
+                final double unique = uniqueVertices(traversers, vertexCount);
+                if (traversers >= MIN_BULKING_RATIO * unique && !(steps.get(i + 1) instanceof Barrier)) {
+                    barrierSteps.add(step);
+                    barrierSizes.add(unique);
+                    traversers = unique;
+                }
+            }
+        }
+
+        if (!barrierSteps.isEmpty()) {
+            // the barriers may all be full at once so each gets an equal share of the memory budget
+            final int maxBarrierSize = (int) Math.max(1l, Math.min(Integer.MAX_VALUE - 1,
+                    this.memoryBudget / BYTES_PER_TRAVERSER / barrierSteps.size()));
+            for (int i = 0; i < barrierSteps.size(); i++) {
+                final int initialBarrierSize = (int) Math.max(1l, Math.min(Math.min(MAX_BARRIER_SIZE, maxBarrierSize), Math.round(barrierSizes.get(i))));
+                TraversalHelper.insertAfterStep(new NoOpBarrierStep<>(traversal, initialBarrierSize, maxBarrierSize), barrierSteps.get(i), traversal);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The expected number of unique vertices that said number of traversers visit when each traverser is at a vertex
+     * picked at random from the vertices of the graph.
+     */
+    private static double uniqueVertices(final double traversers, final double vertexCount) {
+        return vertexCount * (1.0d - Math.exp(-traversers / vertexCount));
+    }
+
+    private static List<HasContainer> getHasContainers(final Step<?, ?> step) {
+        return step instanceof HasContainerHolder ? ((HasContainerHolder) step).getHasContainers() : Collections.emptyList();
+    }
+
+    public long getMemoryBudget() {
+        return this.memoryBudget;
+    }
+
     @Override
     public Set<Class<? extends FinalizationStrategy>> applyPrior() {
         return PRIORS;
@@ -105,4 +217,31 @@ public final class LazyBarrierStrategy extends AbstractTraversalStrategy<Travers
     public static LazyBarrierStrategy instance() {
         return INSTANCE;
     }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private long memoryBudget = INSTANCE.memoryBudget;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of bytes that the traversers held by the barriers of a traversal may take in all. Defaults to a
+         * sixteenth of the maximum heap size.
+         */
+        public Builder memoryBudget(final long memoryBudget) {
+            if (memoryBudget < BYTES_PER_TRAVERSER)
+                throw new IllegalArgumentException("The memory budget must allow for at least one traverser: " + memoryBudget);
+            this.memoryBudget = memoryBudget;
+            return this;
+        }
+
+        public LazyBarrierStrategy create() {
+            return new LazyBarrierStrategy(this.memoryBudget);
+        }
+    }
 }
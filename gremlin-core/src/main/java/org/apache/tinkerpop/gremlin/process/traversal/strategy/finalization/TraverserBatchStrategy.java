@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.Mutating;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * {@code TraverserBatchStrategy} has the steps of a straight-line OLTP traversal pass traversers to each other in
+ * arrays rather than one at a time. {@link VertexStep}, {@link EdgeVertexStep}, {@link HasStep}, {@link PropertiesStep}
+ * and {@link MapStep} then process each array in a single loop. The strategy only applies if every step of the traversal is one of those
+ * steps, a {@link GraphStep} or a {@link NoOpBarrierStep}, as the steps read ahead of what has been asked of the
+ * traversal. It is not applied by default.
+ * <p/>
+ * <pre>
+ * g.withStrategies(TraverserBatchStrategy.instance()).V().out().out().values("name")
+ * </pre>
+ */
+public final class TraverserBatchStrategy extends AbstractTraversalStrategy<TraversalStrategy.FinalizationStrategy> implements TraversalStrategy.FinalizationStrategy {
+
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final TraverserBatchStrategy INSTANCE = new TraverserBatchStrategy(DEFAULT_BATCH_SIZE);
+    private static final Set<Class<? extends FinalizationStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        PRIORS.add(LazyBarrierStrategy.class);
+        PRIORS.add(ProfileStrategy.class);
+    }
+
+    private final int batchSize;
+
+    private TraverserBatchStrategy(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (!(traversal.getParent() instanceof EmptyStep))
+            return;
+
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (!isBatchable(step))
+                return;
+        }
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            ((AbstractStep) step).setBatchSize(this.batchSize);
+        }
+    }
+
+    private static boolean isBatchable(final Step<?, ?> step) {
+        if (!(step instanceof AbstractStep))
+            return false;
+        else if (step instanceof MapStep)
+            return !(step instanceof TraversalParent) && !(step instanceof Mutating);
+        else
+            return step instanceof GraphStep || step instanceof VertexStep || step instanceof EdgeVertexStep ||
+                    step instanceof PropertiesStep || step instanceof HasStep || step instanceof NoOpBarrierStep;
+    }
+
+    public int getBatchSize() {
+        return this.batchSize;
+    }
+
+    @Override
+    public Set<Class<? extends FinalizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static TraverserBatchStrategy instance() {
+        return INSTANCE;
+    }
+
+    public static Builder build() {
+        return new Builder();
+    }
+
+    public final static class Builder {
+
+        private int batchSize = DEFAULT_BATCH_SIZE;
+
+        private Builder() {
+        }
+
+        /**
+         * The number of traversers that the steps pass to each other at a time.
+         */
+        public Builder batchSize(final int batchSize) {
+            if (batchSize < 1)
+                throw new IllegalArgumentException("The batch size must be at least one: " + batchSize);
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public TraverserBatchStrategy create() {
+            return new TraverserBatchStrategy(this.batchSize);
+        }
+    }
+}
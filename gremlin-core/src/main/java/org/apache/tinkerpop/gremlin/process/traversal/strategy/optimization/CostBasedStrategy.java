@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CardinalityEstimator;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * CostBasedStrategy uses the statistics of a {@link Graph} that is a {@link CardinalityEstimator} to order the work of
+ * a traversal so that the most selective work is done first. It is not a default strategy.
+ * <ul>
+ * <li>The {@link HasContainer}s of a has()-step are ordered by their estimated selectivity, so that the filter that
+ * removes the most elements is tested first and a provider that folds the step into an index lookup sees the most
+ * selective constraint first.</li>
+ * <li>The match()-traversals of a match()-step are ordered by their estimated cost, which is the product of the
+ * degrees of their vertex steps and the selectivities of their has()-steps.</li>
+ * <li>A match()-traversal {@code as('a').out('x').as('b')} whose variables are both bound by the other
+ * match()-traversals is reversed to {@code as('b').in('x').as('a')} when the vertices with {@code x}-edges have fewer
+ * incoming than outgoing such edges (and likewise for the other direction).</li>
+ * </ul>
+ * Without statistics for a predicate, an equality is assumed to select {@link #DEFAULT_EQUALITY_SELECTIVITY} of the
+ * elements and any other predicate {@link #DEFAULT_SELECTIVITY} of them.
+ * @example <pre>
+ * __.has("age", gt(30)).has("name", "marko")        // is replaced by __.has("name", "marko").has("age", gt(30))
+ * g.V().match(as("a").out("created").as("b"),
+ *             as("a").out("knows").as("c"),
+ *             as("c").out("created").as("b"))     // the last pattern may be replaced by as("b").in("created").as("c")
+ * </pre>
+ */
+public final class CostBasedStrategy extends AbstractTraversalStrategy<TraversalStrategy.OptimizationStrategy> implements TraversalStrategy.OptimizationStrategy {
+
+    public static final double DEFAULT_EQUALITY_SELECTIVITY = 0.1d;
+    public static final double DEFAULT_SELECTIVITY = 0.5d;
+
+    private static final CostBasedStrategy INSTANCE = new CostBasedStrategy();
+    private static final Set<Class<? extends OptimizationStrategy>> PRIORS = new HashSet<>();
+
+    static {
+        PRIORS.add(FilterRankingStrategy.class);
+        PRIORS.add(MatchPredicateStrategy.class);
+    }
+
+    private CostBasedStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        final Graph graph = traversal.getGraph().orElse(null);
+        if (!(graph instanceof CardinalityEstimator))
+            return;
+        final CardinalityEstimator estimator = (CardinalityEstimator) graph;
+        for (final HasStep<?> hasStep : TraversalHelper.getStepsOfClass(HasStep.class, traversal)) {
+            final Class<? extends Element> elementClass = getElementClass(hasStep.getPreviousStep());
+            if (null != elementClass && hasStep.getHasContainers().size() > 1)
+                orderHasContainers(hasStep, elementClass, estimator);
+        }
+        for (final MatchStep<?, ?> matchStep : TraversalHelper.getStepsOfClass(MatchStep.class, traversal)) {
+            reverseMatchTraversals(matchStep, estimator);
+            final Map<Traversal.Admin<Object, Object>, Double> costs = new HashMap<>();
+            for (final Traversal.Admin<Object, Object> matchTraversal : matchStep.getGlobalChildren()) {
+                costs.put(matchTraversal, estimateCost(matchTraversal, estimator));
+            }
+            matchStep.sortGlobalChildren(Comparator.comparing(costs::get));
+        }
+    }
+
+    @Override
+    public Set<Class<? extends OptimizationStrategy>> applyPrior() {
+        return PRIORS;
+    }
+
+    public static CostBasedStrategy instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Estimates the fraction of the elements of the class that satisfy the {@link HasContainer}.
+     */
+    public static double estimateSelectivity(final Class<? extends Element> elementClass, final HasContainer hasContainer, final CardinalityEstimator estimator) {
+        final boolean equality = hasContainer.getBiPredicate() == Compare.eq;
+        if (!equality && hasContainer.getBiPredicate() != Contains.within)
+            return DEFAULT_SELECTIVITY;
+        final boolean label = hasContainer.getKey().equals(T.label.getAccessor());
+        final long distinctValues = label ? -1l : estimator.estimateDistinctValues(elementClass, hasContainer.getKey());
+        final long total = estimator.estimateCount(elementClass, Collections.emptyList());
+        if (total <= 0l)
+            return 0.0d;
+        final long count = estimator.estimateCount(elementClass, Collections.singletonList(hasContainer));
+        if (label || distinctValues >= 0l || count < total)
+            return (double) count / total;
+        final int values = equality ? 1 : hasContainer.getValue() instanceof Collection ? ((Collection<?>) hasContainer.getValue()).size() : 1;
+        return Math.min(1.0d, values * DEFAULT_EQUALITY_SELECTIVITY);
+    }
+
+    private static void orderHasContainers(final HasStep<?> hasStep, final Class<? extends Element> elementClass, final CardinalityEstimator estimator) {
+        final List<HasContainer> hasContainers = new ArrayList<>(hasStep.getHasContainers());
+        final Map<HasContainer, Double> selectivities = new HashMap<>();
+        for (final HasContainer hasContainer : hasContainers) {
+            selectivities.put(hasContainer, estimateSelectivity(elementClass, hasContainer, estimator));
+        }
+        hasContainers.sort(Comparator.comparing(selectivities::get));
+        if (hasContainers.equals(hasStep.getHasContainers()))
+            return;
+        final Traversal.Admin<?, ?> traversal = hasStep.getTraversal();
+        final HasStep<?> orderedHasStep = new HasStep<>(traversal, hasContainers.toArray(new HasContainer[hasContainers.size()]));
+        hasStep.getLabels().forEach(orderedHasStep::addLabel);
+        TraversalHelper.replaceStep((Step) hasStep, orderedHasStep, traversal);
+    }
+
+    private static Class<? extends Element> getElementClass(final Step<?, ?> previousStep) {
+        Step<?, ?> step = previousStep;
+        while (step instanceof FilterStep) {
+            step = step.getPreviousStep();
+        }
+        if (step instanceof GraphStep)
+            return ((GraphStep<?, ?>) step).getReturnClass();
+        else if (step instanceof VertexStep)
+            return ((VertexStep<?>) step).getReturnClass();
+        else if (step instanceof EdgeVertexStep)
+            return Vertex.class;
+        else
+            return null;
+    }
+
+    private static double estimateCost(final Traversal.Admin<?, ?> matchTraversal, final CardinalityEstimator estimator) {
+        double cost = 1.0d;
+        for (final Step<?, ?> step : matchTraversal.getSteps()) {
+            if (step instanceof VertexStep)
+                cost = cost * estimator.estimateNonZeroDegree(((VertexStep<?>) step).getDirection(), ((VertexStep<?>) step).getEdgeLabels());
+            else if (step instanceof HasStep) {
+                final Class<? extends Element> elementClass = getElementClass(step.getPreviousStep());
+                if (null != elementClass) {
+                    for (final HasContainer hasContainer : ((HasStep<?>) step).getHasContainers()) {
+                        cost = cost * estimateSelectivity(elementClass, hasContainer, estimator);
+                    }
+                }
+            }
+        }
+        return cost;
+    }
+
+    private static void reverseMatchTraversals(final MatchStep<?, ?> matchStep, final CardinalityEstimator estimator) {
+        for (final Traversal.Admin<Object, Object> matchTraversal : new ArrayList<>(matchStep.getGlobalChildren())) {
+            final List<Step> steps = matchTraversal.getSteps();
+            if (steps.size() != 3 || !(steps.get(0) instanceof MatchStep.MatchStartStep) || !(steps.get(1) instanceof VertexStep))
+                continue;
+            final Optional<String> startLabel = ((MatchStep.MatchStartStep) steps.get(0)).getSelectKey();
+            final Optional<String> endLabel = MatchStep.Helper.getEndLabel(matchTraversal);
+            if (!startLabel.isPresent() || !endLabel.isPresent())
+                continue;
+            final Set<String> bound = getBoundLabels(matchStep, matchTraversal);
+            if (!bound.contains(startLabel.get()) || !bound.contains(endLabel.get()))
+                continue;
+            final VertexStep<?> vertexStep = (VertexStep<?>) steps.get(1);
+            final Direction direction = vertexStep.getDirection();
+            if (direction != Direction.BOTH &&
+                    estimator.estimateNonZeroDegree(direction, vertexStep.getEdgeLabels()) > estimator.estimateNonZeroDegree(direction.opposite(), vertexStep.getEdgeLabels()))
+                matchStep.reverseGlobalChild(matchTraversal);
+        }
+    }
+
+    /**
+     * Determines the variables that the match()-traversals other than the excluded one bind, starting from the
+     * variables that they start from but do not end at.
+     */
+    private static Set<String> getBoundLabels(final MatchStep<?, ?> matchStep, final Traversal.Admin<Object, Object> excluded) {
+        final List<Traversal.Admin<Object, Object>> others = new ArrayList<>(matchStep.getGlobalChildren());
+        others.remove(excluded);
+        final Set<String> bound = new HashSet<>();
+        for (final Traversal.Admin<Object, Object> other : others) {
+            if (other.getStartStep() instanceof MatchStep.MatchStartStep)
+                ((MatchStep.MatchStartStep) other.getStartStep()).getSelectKey().ifPresent(bound::add);
+        }
+        for (final Traversal.Admin<Object, Object> other : others) {
+            MatchStep.Helper.getEndLabel(other).ifPresent(bound::remove);
+        }
+        boolean modified;
+        do {
+            modified = false;
+            for (final Traversal.Admin<Object, Object> other : others) {
+                final Optional<String> endLabel = MatchStep.Helper.getEndLabel(other);
+                if (endLabel.isPresent() && !bound.contains(endLabel.get()) && bound.containsAll(MatchStep.Helper.getStartLabels(other)))
+                    modified = bound.add(endLabel.get()) || modified;
+            }
+        } while (modified);
+        return bound;
+    }
+}
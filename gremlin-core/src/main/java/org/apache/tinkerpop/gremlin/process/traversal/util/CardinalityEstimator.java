@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Element;
+
+import java.util.List;
+
+/**
+ * A {@link org.apache.tinkerpop.gremlin.structure.Graph} may implement this interface so that strategies can estimate
+ * how many traversers flow through the steps of a traversal. Counts per label are requested with a
+ * {@link HasContainer} on {@link org.apache.tinkerpop.gremlin.structure.T#label}. The estimates only guide optimizations and need not be
+ * exact, but they should be cheap to compute as they are requested each time a traversal is compiled.
+ */
+public interface CardinalityEstimator {
+
+    /**
+     * Estimate the number of elements of the class that satisfy all of the {@link HasContainer}s.
+     *
+     * @param elementClass  the element class ({@link org.apache.tinkerpop.gremlin.structure.Vertex} or
+     *                      {@link org.apache.tinkerpop.gremlin.structure.Edge})
+     * @param hasContainers the containers the elements must satisfy, which may be empty
+     * @return the estimated number of elements
+     */
+    public long estimateCount(final Class<? extends Element> elementClass, final List<HasContainer> hasContainers);
+
+    /**
+     * Estimate the average number of incident edges in the direction with one of the labels that a vertex has.
+     *
+     * @param direction  the direction of the edges
+     * @param edgeLabels the labels of the edges or none for edges of any label
+     * @return the estimated average degree of a vertex
+     */
+    public double estimateDegree(final Direction direction, final String... edgeLabels);
+
+    /**
+     * Estimate the average number of incident edges in the direction with one of the labels that a vertex with at
+     * least one such edge has. Unlike {@link #estimateDegree(Direction, String...)}, this differs between the two
+     * directions when the edges leave fewer vertices than they enter or the other way around.
+     *
+     * @param direction  the direction of the edges
+     * @param edgeLabels the labels of the edges or none for edges of any label
+     * @return the estimated average degree of a vertex with such edges
+     */
+    public default double estimateNonZeroDegree(final Direction direction, final String... edgeLabels) {
+        return this.estimateDegree(direction, edgeLabels);
+    }
+
+    /**
+     * Estimate the number of distinct values of the property key among the elements of the class.
+     *
+     * @param elementClass the element class ({@link org.apache.tinkerpop.gremlin.structure.Vertex} or
+     *                     {@link org.apache.tinkerpop.gremlin.structure.Edge})
+     * @param key          the property key
+     * @return the estimated number of distinct values or {@code -1} if it is not known
+     */
+    public default long estimateDistinctValues(final Class<? extends Element> elementClass, final String key) {
+        return -1l;
+    }
+}
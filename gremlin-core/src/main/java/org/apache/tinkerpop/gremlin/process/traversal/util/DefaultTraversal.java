@@ -26,6 +26,7 @@ import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
 import org.apache.tinkerpop.gremlin.process.traversal.TraverserGenerator;
 import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.EmptyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.TraverserRequirement;
 import org.apache.tinkerpop.gremlin.process.traversal.traverser.util.DefaultTraverserGeneratorFactory;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -88,6 +89,15 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
     @Override
     public void applyStrategies() throws IllegalStateException {
         if (this.locked) throw Traversal.Exceptions.traversalIsLocked();
+        final TraversalPlanCache planCache = this.parent instanceof EmptyStep ? PlanCacheStrategy.getPlanCache(this.strategies) : null;
+        final TraversalPlanCache.Shape shape = null == planCache ? null : planCache.getShape(this);
+        if (null != shape) {
+            final Traversal.Admin<S, E> plan = planCache.getPlan(shape);
+            if (null != plan) {
+                this.applyPlan(plan);
+                return;
+            }
+        }
         TraversalHelper.reIdSteps(this.stepPosition, this);
         this.strategies.applyStrategies(this);
         boolean hasGraph = null != this.graph;
@@ -114,6 +124,47 @@ public class DefaultTraversal<S, E> implements Traversal.Admin<S, E> {
             this.getTraverserRequirements();
         }
         this.locked = true;
+        if (null != shape) planCache.putPlan(shape, this);
+    }
+
+    /**
+     * Takes the steps of a cached plan, to which the strategies have already been applied, in place of applying the
+     * strategies to the steps of this traversal.
+     */
+    private void applyPlan(final Traversal.Admin<S, E> plan) {
+        final TraversalSideEffects sideEffects = plan.getSideEffects();
+        this.sideEffects.mergeInto(sideEffects);
+        this.sideEffects = sideEffects;
+        this.steps.clear();
+        for (final Step<?, ?> step : plan.getSteps()) {
+            step.setTraversal(this);
+            this.steps.add(step);
+        }
+        this.integrateChildren(this);
+        this.finalEndStep = this.getEndStep();
+        this.requirements = null;
+        this.getTraverserRequirements();
+        this.locked = true;
+    }
+
+    private void integrateChildren(final Traversal.Admin<?, ?> traversal) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    this.integrateChild(globalChild);
+                }
+                for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                    this.integrateChild(localChild);
+                }
+            }
+        }
+    }
+
+    private void integrateChild(final Traversal.Admin<?, ?> child) {
+        child.setStrategies(this.strategies);
+        child.setSideEffects(this.sideEffects);
+        if (null != this.graph) child.setGraph(this.graph);
+        this.integrateChildren(child);
     }
 
     @Override
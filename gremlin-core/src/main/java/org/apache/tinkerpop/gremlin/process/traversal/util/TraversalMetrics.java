@@ -43,6 +43,23 @@ public interface TraversalMetrics {
      */
     public static final String PERCENT_DURATION_KEY = "percentDur";
 
+    /**
+     * The MetricsId used to obtain the number of traversers that entered a barrier via Metrics.getCount(String countKey)
+     */
+    public static final String BARRIER_INPUT_COUNT_ID = "barrierInputCount";
+
+    /**
+     * The annotation key used to obtain the number of traversers that entered a barrier per traverser that left it via
+     * Metrics.getAnnotation(String key)
+     */
+    public static final String BULKING_RATIO_KEY = "bulkingRatio";
+
+    /**
+     * The annotation key used to obtain the largest number of traversers a barrier held via
+     * Metrics.getAnnotation(String key)
+     */
+    public static final String BARRIER_SIZE_KEY = "barrierSize";
+
     /**
      * Get the total duration taken by the Traversal.
      *
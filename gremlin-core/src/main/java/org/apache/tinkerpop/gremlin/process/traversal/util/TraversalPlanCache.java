@@ -0,0 +1,413 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.TraversalParent;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.LocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.RepeatStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.branch.UnionStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.AndStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CoinStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.CyclicPathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DedupGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.DropStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.IsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.NotStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.OrStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SampleGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.SimplePathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TailGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TimeLimitStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WherePredicateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.WhereTraversalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CoalesceStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.CountLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.DedupLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeOtherVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.FoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupCountStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GroupStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.IdStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LabelStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.LoopsStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MaxLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MeanLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MinLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PathStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.ProjectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertiesStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyKeyStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.PropertyValueStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.RangeLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SampleLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectOneStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SelectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.SumLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TailLocalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalFlatMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TraversalMapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.TreeStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.UnfoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.AggregateStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GroupCountSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.GroupSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StartStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.StoreStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TraversalSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.TreeSideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.ComputerAwareStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.util.function.ArrayListSupplier;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of the traversals that strategies have been applied to, keyed by the shape of the traversal before the
+ * strategies were applied. The shape is the traversal with the values of the {@link HasContainer}s of its has()-steps
+ * lifted out as parameters, so {@code g.V().has("name", "marko").out()} and {@code g.V().has("name", "josh").out()}
+ * share a plan. On a hit, the cached plan is cloned and the parameters of the new traversal are bound to it instead of
+ * applying the strategies again. The cache is used by {@link DefaultTraversal#applyStrategies()} when the strategies
+ * of the traversal include a {@link org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy}.
+ * <p/>
+ * The shape renders every value of the traversal that is not a parameter along with its class, so that
+ * {@code is(1)} and {@code is("1")} or {@code V(1)} and {@code V("1")} do not share a plan. Only the steps that hold
+ * their values where the shape can read them, or that hold no values other than keys, labels and enums, are rendered,
+ * and a traversal with any other step, such as one with lambdas as they can not be compared, is never cached. A plan
+ * is only cached if every parameter is still found in a {@link HasContainerHolder} after the strategies were applied.
+ * Strategies that make decisions from the values of the parameters, such as a cost-based ordering, make them for the
+ * first traversal of a shape only.
+ */
+public final class TraversalPlanCache {
+
+    private static final Plan UNCACHEABLE = new Plan(null, null);
+
+    /**
+     * The steps that are rendered by their {@code toString()} as their arguments are keys, labels, enums, numbers of
+     * a fixed class or child traversals, which are rendered on their own.
+     */
+    private static final Set<Class<?>> VALUE_FREE_STEPS = new HashSet<>(Arrays.asList(
+            AndStep.class, OrStep.class, NotStep.class, TraversalFilterStep.class, WhereTraversalStep.class,
+            DedupGlobalStep.class, RangeGlobalStep.class, TailGlobalStep.class, SimplePathStep.class,
+            CyclicPathStep.class, SampleGlobalStep.class, CoinStep.class, TimeLimitStep.class, DropStep.class,
+            VertexStep.class, EdgeVertexStep.class, EdgeOtherVertexStep.class, PropertiesStep.class,
+            PropertyMapStep.class, PropertyKeyStep.class, PropertyValueStep.class, IdStep.class, LabelStep.class,
+            CountGlobalStep.class, CountLocalStep.class, DedupLocalStep.class, GroupCountStep.class, GroupStep.class,
+            LoopsStep.class, MaxGlobalStep.class, MinGlobalStep.class, MeanGlobalStep.class, SumGlobalStep.class,
+            MaxLocalStep.class, MinLocalStep.class, MeanLocalStep.class, SumLocalStep.class, NoOpBarrierStep.class,
+            OrderGlobalStep.class, OrderLocalStep.class, PathStep.class, ProjectStep.class, RangeLocalStep.class,
+            TailLocalStep.class, SampleLocalStep.class, SelectStep.class, SelectOneStep.class, TraversalMapStep.class,
+            TraversalFlatMapStep.class, TreeStep.class, UnfoldStep.class, CoalesceStep.class, MatchStep.class,
+            MatchStep.MatchStartStep.class, MatchStep.MatchEndStep.class, IdentityStep.class, AggregateStep.class,
+            StoreStep.class, SideEffectCapStep.class, GroupCountSideEffectStep.class, GroupSideEffectStep.class,
+            TreeSideEffectStep.class, TraversalSideEffectStep.class, LocalStep.class, RepeatStep.class,
+            RepeatStep.RepeatEndStep.class, UnionStep.class, ComputerAwareStep.EndStep.class));
+
+    private final Map<List<Object>, Plan> plans;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TraversalPlanCache(final int maxSize) {
+        if (maxSize < 1)
+            throw new IllegalArgumentException("The plan cache must hold at least one plan: " + maxSize);
+        this.plans = Collections.synchronizedMap(new LinkedHashMap<List<Object>, Plan>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<List<Object>, Plan> eldest) {
+                return this.size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Gets the shape of a root traversal to which the strategies have not been applied yet.
+     *
+     * @return the shape or {@code null} if the traversal can not be cached
+     */
+    public Shape getShape(final Traversal.Admin<?, ?> traversal) {
+        final StringBuilder shape = new StringBuilder();
+        final List<HasContainer> parameters = new ArrayList<>();
+        if (!appendShape(traversal, shape, parameters))
+            return null;
+        final List<Object> key = Arrays.asList(
+                traversal.getClass(),
+                traversal.getGraph().map(Object::getClass).orElse(null),
+                new ArrayList<>(traversal.getStrategies().toList()),
+                new TreeSet<>(traversal.getSideEffects().keys()),
+                shape.toString());
+        return new Shape(key, parameters);
+    }
+
+    /**
+     * Gets a copy of the plan for the shape with the parameters of the shape bound to it.
+     *
+     * @return the plan or {@code null} if there is none
+     */
+    public <S, E> Traversal.Admin<S, E> getPlan(final Shape shape) {
+        final Plan plan = this.plans.get(shape.key);
+        if (null == plan || UNCACHEABLE == plan) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        final Traversal.Admin<S, E> traversal = (Traversal.Admin<S, E>) plan.traversal.clone();
+        final List<HasContainer> hasContainers = getHasContainers(traversal, new ArrayList<>());
+        for (int i = 0; i < plan.parameterIndices.length; i++) {
+            if (plan.parameterIndices[i] >= 0)
+                ((P) hasContainers.get(i).getPredicate()).setValue(shape.parameters.get(plan.parameterIndices[i]).getValue());
+        }
+        return traversal;
+    }
+
+    /**
+     * Caches the traversal of the shape once the strategies have been applied to it.
+     */
+    public void putPlan(final Shape shape, final Traversal.Admin<?, ?> traversal) {
+        final Map<HasContainer, Integer> parameters = new IdentityHashMap<>();
+        for (int i = 0; i < shape.parameters.size(); i++) {
+            parameters.put(shape.parameters.get(i), i);
+        }
+        final List<HasContainer> hasContainers = getHasContainers(traversal, new ArrayList<>());
+        final int[] parameterIndices = new int[hasContainers.size()];
+        int found = 0;
+        for (int i = 0; i < hasContainers.size(); i++) {
+            final Integer index = parameters.get(hasContainers.get(i));
+            parameterIndices[i] = null == index ? -1 : index;
+            if (null != index) found++;
+        }
+        // a parameter that a strategy removed, copied or folded into another step can not be bound to the plan
+        final Traversal.Admin<?, ?> template = traversal.clone();
+        this.plans.put(shape.key, found == parameters.size() && hasDistinctIndices(parameterIndices) &&
+                !sharesHasContainers(hasContainers, getHasContainers(template, new ArrayList<>())) ?
+                new Plan(template, parameterIndices) :
+                UNCACHEABLE);
+    }
+
+    /**
+     * The parameters are bound into the {@link HasContainer}s of a clone of the plan, so a step that does not copy
+     * its containers and their predicates when it is cloned would have the values of one traversal bound into all
+     * others that use the plan.
+     */
+    private static boolean sharesHasContainers(final List<HasContainer> original, final List<HasContainer> clone) {
+        if (original.size() != clone.size())
+            return true;
+        for (int i = 0; i < original.size(); i++) {
+            if (original.get(i) == clone.get(i) || original.get(i).getPredicate() == clone.get(i).getPredicate())
+                return true;
+        }
+        return false;
+    }
+
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    public int size() {
+        return this.plans.size();
+    }
+
+    public void clear() {
+        this.plans.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "planCache[size:" + this.size() + ",hits:" + this.getHits() + ",misses:" + this.getMisses() + "]";
+    }
+
+    /**
+     * Renders the steps of the traversal and of its children, lifting the values of the {@link HasContainer}s of the
+     * traversal itself out as parameters if {@code parameters} is not {@code null}.
+     *
+     * @return {@code false} if the traversal has a step whose values can not be rendered
+     */
+    private static boolean appendShape(final Traversal.Admin<?, ?> traversal, final StringBuilder shape, final List<HasContainer> parameters) {
+        shape.append('[');
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            shape.append(step.getClass().getName()).append(step.getLabels()).append('(');
+            if (step instanceof HasContainerHolder) {
+                for (final HasContainer hasContainer : ((HasContainerHolder) step).getHasContainers()) {
+                    shape.append(hasContainer.getKey()).append('.');
+                    if (null != parameters && isParameter(hasContainer)) {
+                        shape.append(hasContainer.getBiPredicate()).append('(').append(getValueClass(hasContainer.getValue())).append(')');
+                        parameters.add(hasContainer);
+                    } else
+                        appendPredicate(shape, hasContainer.getPredicate());
+                    shape.append(',');
+                }
+            } else if (step instanceof GraphStep) {
+                shape.append(((GraphStep<?, ?>) step).getReturnClass().getSimpleName());
+                appendValue(shape, Arrays.asList(((GraphStep<?, ?>) step).getIds()));
+            } else if (step instanceof StartStep) {
+                appendValue(shape, ((StartStep<?>) step).getStart());
+            } else if (step instanceof IsStep) {
+                appendPredicate(shape, ((IsStep<?>) step).getPredicate());
+            } else if (step instanceof WherePredicateStep) {
+                shape.append(step);
+                final Optional<P<?>> predicate = ((WherePredicateStep<?>) step).getPredicate();
+                if (predicate.isPresent()) appendPredicate(shape, predicate.get());
+            } else if (step instanceof FoldStep) {
+                // a fold with a seed holds the seed in a supplier that can not be rendered
+                if (!(((FoldStep<?, ?>) step).getSeedSupplier() instanceof ArrayListSupplier))
+                    return false;
+            } else if (VALUE_FREE_STEPS.contains(step.getClass())) {
+                shape.append(step);
+            } else
+                return false;
+            shape.append(')');
+
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    if (!appendShape(globalChild, shape, null)) return false;
+                }
+                for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                    if (!appendShape(localChild, shape, null)) return false;
+                }
+            }
+            shape.append('|');
+        }
+        shape.append(']');
+        return true;
+    }
+
+    private static void appendPredicate(final StringBuilder shape, final P<?> predicate) {
+        if (predicate instanceof ConnectiveP) {
+            shape.append(predicate.getClass().getSimpleName()).append('(');
+            for (final P<?> child : ((ConnectiveP<?>) predicate).getPredicates()) {
+                appendPredicate(shape, child);
+                shape.append(',');
+            }
+        } else {
+            shape.append(predicate.getBiPredicate()).append('(');
+            appendValue(shape, predicate.getValue());
+        }
+        shape.append(')');
+    }
+
+    private static void appendValue(final StringBuilder shape, final Object value) {
+        if (value instanceof Collection) {
+            shape.append('[');
+            for (final Object element : (Collection<?>) value) {
+                appendValue(shape, element);
+                shape.append(',');
+            }
+            shape.append(']');
+        } else if (null == value)
+            shape.append("null");
+        else
+            shape.append(value).append(':').append(value.getClass().getName());
+    }
+
+    private static boolean isParameter(final HasContainer hasContainer) {
+        return P.class.equals(hasContainer.getPredicate().getClass()) && null != hasContainer.getValue();
+    }
+
+    private static Class<?> getValueClass(final Object value) {
+        // the id containers of a has() compare strings or objects depending on the class of the values
+        return value instanceof Collection && !((Collection) value).isEmpty() ?
+                ((Collection) value).iterator().next().getClass() :
+                value.getClass();
+    }
+
+    private static boolean hasDistinctIndices(final int[] parameterIndices) {
+        final int[] sorted = parameterIndices.clone();
+        Arrays.sort(sorted);
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] >= 0 && sorted[i] == sorted[i - 1])
+                return false;
+        }
+        return true;
+    }
+
+    private static List<HasContainer> getHasContainers(final Traversal.Admin<?, ?> traversal, final List<HasContainer> hasContainers) {
+        for (final Step<?, ?> step : traversal.getSteps()) {
+            if (step instanceof HasContainerHolder)
+                hasContainers.addAll(((HasContainerHolder) step).getHasContainers());
+            if (step instanceof TraversalParent) {
+                for (final Traversal.Admin<?, ?> globalChild : ((TraversalParent) step).getGlobalChildren()) {
+                    getHasContainers(globalChild, hasContainers);
+                }
+                for (final Traversal.Admin<?, ?> localChild : ((TraversalParent) step).getLocalChildren()) {
+                    getHasContainers(localChild, hasContainers);
+                }
+            }
+        }
+        return hasContainers;
+    }
+
+    /**
+     * The key of a traversal in the cache and the values lifted out of it.
+     */
+    public static final class Shape {
+
+        private final List<Object> key;
+        private final List<HasContainer> parameters;
+
+        private Shape(final List<Object> key, final List<HasContainer> parameters) {
+            this.key = key;
+            this.parameters = parameters;
+        }
+    }
+
+    private static final class Plan {
+
+        private final Traversal.Admin<?, ?> traversal;
+        private final int[] parameterIndices;
+
+        private Plan(final Traversal.Admin<?, ?> traversal, final int[] parameterIndices) {
+            this.traversal = traversal;
+            this.parameterIndices = parameterIndices;
+        }
+    }
+}
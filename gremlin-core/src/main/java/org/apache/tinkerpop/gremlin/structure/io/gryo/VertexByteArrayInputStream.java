@@ -25,8 +25,6 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
 
 /**
  * An {@link InputStream} implementation that can independently process a Gryo file written with
@@ -49,26 +47,24 @@ public final class VertexByteArrayInputStream extends FilterInputStream {
      */
     public ByteArrayOutputStream readVertexBytes() throws IOException {
         final ByteArrayOutputStream stream = new ByteArrayOutputStream();
-        final LinkedList<Byte> buffer = new LinkedList<>();
 
-        int current = read();
-        while (current > -1 && (buffer.size() < 12 || !isMatch(buffer))) {
+        // the last bytes read are kept in a ring so that the terminator can be matched without boxing every byte
+        final byte[] window = new byte[pattern.length];
+        int count = 0;
+        int current;
+        while ((current = read()) > -1) {
             stream.write(current);
-
-            current = read();
-            if (buffer.size() > 11)
-                buffer.removeFirst();
-
-            buffer.addLast((byte) current);
+            window[count++ % pattern.length] = (byte) current;
+            if (count >= pattern.length && isMatch(window, count))
+                break;
         }
 
-        stream.write(current);
         return stream;
     }
 
-    private static boolean isMatch(final List<Byte> input) {
+    private static boolean isMatch(final byte[] window, final int count) {
         for (int i = 0; i < pattern.length; i++) {
-            if (pattern[i] != input.get(i)) {
+            if (pattern[i] != window[(count + i) % pattern.length]) {
                 return false;
             }
         }
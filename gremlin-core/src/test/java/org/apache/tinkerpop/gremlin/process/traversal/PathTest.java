@@ -24,12 +24,14 @@ import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedPath;
 import org.apache.tinkerpop.gremlin.structure.util.reference.ReferencePath;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -198,6 +200,43 @@ public class PathTest {
         });
     }
 
+    @Test
+    public void shouldShareThePrefixAndLabelsOfImmutablePaths() {
+        final Set<String> labels = new LinkedHashSet<>(Arrays.asList("a", "b"));
+        final Path prefix = ImmutablePath.make().extend(1, labels).extend(2, Collections.emptySet());
+        final Path first = prefix.extend(3, labels);
+        final Path second = prefix.extend(4, new LinkedHashSet<>(Arrays.asList("a", "b")));
+        assertSame(first.labels().get(0), first.labels().get(2));
+        assertSame(first.labels().get(2), second.labels().get(2));
+        assertSame(prefix, prefix.extend(Collections.emptySet()));
+        // the path keeps its own copy of the labels of a step
+        labels.add("c");
+        assertFalse(first.hasLabel("c"));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(first.labels().get(2)));
+        assertEquals(Arrays.asList(1, 2, 3), first.objects());
+        assertEquals(Arrays.asList(1, 2, 4), second.objects());
+        assertEquals(Integer.valueOf(3), first.get(Pop.last, "a"));
+        assertEquals(Integer.valueOf(1), first.get(Pop.first, "a"));
+        assertTrue(first.isSimple());
+        assertFalse(first.extend(2, Collections.emptySet()).isSimple());
+        try {
+            first.labels().get(0).add("d");
+            fail("The labels of an immutable path should not be modifiable");
+        } catch (final UnsupportedOperationException e) {
+            assertFalse(first.hasLabel("d"));
+        }
+        // label sets of the same labels in another order are not shared as the order is that of the step
+        final Path reversed = prefix.extend(5, new LinkedHashSet<>(Arrays.asList("b", "a")));
+        assertEquals(Arrays.asList("b", "a"), new ArrayList<>(reversed.labels().get(2)));
+        assertEquals(Arrays.asList("a", "b"), new ArrayList<>(first.labels().get(2)));
+        try {
+            first.get(3);
+            fail("An index beyond the size of the path should not be accessible");
+        } catch (final IndexOutOfBoundsException e) {
+            assertEquals("Index: 3, Size: 3", e.getMessage());
+        }
+    }
+
     @Test
     public void shouldHaveEquality() {
         PATH_SUPPLIERS.forEach(supplier -> {
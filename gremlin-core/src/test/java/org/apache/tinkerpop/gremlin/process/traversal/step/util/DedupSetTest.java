@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.process.traversal.step.util;
+
+import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DedupSetTest {
+
+    @Test
+    public void shouldDedupExactlyOnAndOffTheHeap() {
+        final ElementIdDedupSet set = new ElementIdDedupSet(1000);
+        for (long i = 0; i < 10000; i++) {
+            assertTrue(set.add(i));
+            assertTrue(set.add(new DetachedVertex(i, "person", Collections.emptyMap())));
+        }
+        assertTrue(set.isSpilled());
+        for (long i = 0; i < 10000; i++) {
+            assertFalse(set.add(i));
+            assertFalse(set.add(new DetachedVertex(i, "person", Collections.emptyMap())));
+        }
+        // an Integer is not equal to a Long and neither are ids of different types
+        assertTrue(set.add(1));
+        assertTrue(set.add(new DetachedVertex(1, "person", Collections.emptyMap())));
+        assertTrue(set.add("marko"));
+        assertTrue(set.add(Arrays.asList(1l, 2l)));
+        assertTrue(set.add(null));
+        assertFalse(set.add(1));
+        assertFalse(set.add("marko"));
+        assertFalse(set.add(Arrays.asList(1l, 2l)));
+        assertFalse(set.add(null));
+
+        set.clear();
+        assertFalse(set.isSpilled());
+        assertTrue(set.add(1l));
+    }
+
+    @Test
+    public void shouldNeverLetADuplicateThroughABloomFilter() {
+        final BloomFilterDedupSet set = new BloomFilterDedupSet(10000, 0.01d);
+        int added = 0;
+        for (long i = 0; i < 10000; i++) {
+            if (set.add(i))
+                added++;
+        }
+        // false positives drop a few unique objects but never let a duplicate through
+        assertTrue(added > 9800);
+        for (long i = 0; i < 10000; i++) {
+            assertFalse(set.add(i));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldNotAllowAFalsePositiveProbabilityOfOne() {
+        new BloomFilterDedupSet(10000, 1.0d);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.tinkerpop.gremlin.process.traversal.util;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.DefaultGraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.AbstractStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class TraversalPlanCacheTest {
+
+    @Test
+    public void shouldBindParametersToACopyOfThePlan() {
+        final TraversalPlanCache planCache = new TraversalPlanCache(10);
+        final Traversal.Admin<?, ?> first = hasTraversal(new HasStepFactory(), "marko");
+        final TraversalPlanCache.Shape firstShape = planCache.getShape(first);
+        assertNotNull(firstShape);
+        planCache.putPlan(firstShape, first);
+
+        final Traversal.Admin<?, ?> second = hasTraversal(new HasStepFactory(), "josh");
+        final Traversal.Admin<?, ?> plan = planCache.getPlan(planCache.getShape(second));
+        assertNotNull(plan);
+        final HasContainer hasContainer = ((HasContainerHolder) plan.getStartStep()).getHasContainers().get(0);
+        assertEquals("josh", hasContainer.getValue());
+        assertNotSame(hasContainer, ((HasContainerHolder) first.getStartStep()).getHasContainers().get(0));
+        assertEquals("marko", ((HasContainerHolder) first.getStartStep()).getHasContainers().get(0).getValue());
+    }
+
+    @Test
+    public void shouldNotCachePlansWhoseHasContainersAreNotCopiedWhenCloned() {
+        final TraversalPlanCache planCache = new TraversalPlanCache(10);
+        final Traversal.Admin<?, ?> first = hasTraversal(new SharingStepFactory(), "marko");
+        final TraversalPlanCache.Shape firstShape = planCache.getShape(first);
+        assertNotNull(firstShape);
+        planCache.putPlan(firstShape, first);
+
+        final Traversal.Admin<?, ?> second = hasTraversal(new SharingStepFactory(), "josh");
+        assertNull(planCache.getPlan(planCache.getShape(second)));
+        assertEquals(1, planCache.size());
+        assertEquals(0, planCache.getHits());
+    }
+
+    private static Traversal.Admin<?, ?> hasTraversal(final StepFactory factory, final String name) {
+        final DefaultGraphTraversal<?, ?> traversal = new DefaultGraphTraversal<>();
+        traversal.addStep(factory.create(traversal, new HasContainer("name", P.eq(name))));
+        return traversal;
+    }
+
+    private interface StepFactory {
+        public AbstractStep<?, ?> create(final Traversal.Admin<?, ?> traversal, final HasContainer hasContainer);
+    }
+
+    private static final class HasStepFactory implements StepFactory {
+        @Override
+        public AbstractStep<?, ?> create(final Traversal.Admin<?, ?> traversal, final HasContainer hasContainer) {
+            return new HasStep<>(traversal, hasContainer);
+        }
+    }
+
+    private static final class SharingStepFactory implements StepFactory {
+        @Override
+        public AbstractStep<?, ?> create(final Traversal.Admin<?, ?> traversal, final HasContainer hasContainer) {
+            final SharingHasStep<?> step = new SharingHasStep<>(traversal);
+            step.addHasContainer(hasContainer);
+            return step;
+        }
+    }
+
+    /**
+     * A third-party step whose {@code clone()} keeps the {@link HasContainer}s of the step it was cloned from.
+     */
+    private static final class SharingHasStep<S> extends AbstractStep<S, S> implements HasContainerHolder {
+
+        private final List<HasContainer> hasContainers = new ArrayList<>();
+
+        private SharingHasStep(final Traversal.Admin traversal) {
+            super(traversal);
+        }
+
+        @Override
+        protected Traverser.Admin<S> processNextStart() throws NoSuchElementException {
+            throw FastNoSuchElementException.instance();
+        }
+
+        @Override
+        public List<HasContainer> getHasContainers() {
+            return Collections.unmodifiableList(this.hasContainers);
+        }
+
+        @Override
+        public void addHasContainer(final HasContainer hasContainer) {
+            this.hasContainers.add(hasContainer);
+        }
+    }
+}
@@ -158,6 +158,7 @@ public final class Cluster {
         final Builder builder = new Builder(settings.hosts.get(0))
                 .port(settings.port)
                 .enableSsl(settings.connectionPool.enableSsl)
+                .enableCompression(settings.connectionPool.enableCompression)
                 .trustCertificateChainFile(settings.connectionPool.trustCertChainFile)
                 .nioPoolSize(settings.nioPoolSize)
                 .workerPoolSize(settings.workerPoolSize)
@@ -307,6 +308,7 @@ public final class Cluster {
         private int resultIterationBatchSize = Connection.RESULT_ITERATION_BATCH_SIZE;
         private String channelizer = Channelizer.WebSocketChannelizer.class.getName();
         private boolean enableSsl = false;
+        private boolean enableCompression = false;
         private String trustCertChainFile = null;
         private LoadBalancingStrategy loadBalancingStrategy = new LoadBalancingStrategy.RoundRobin();
         private AuthProperties authProps = new AuthProperties();
@@ -374,6 +376,15 @@ public final class Cluster {
             return this;
         }
 
+        /**
+         * Offers per-message deflate compression to the server when the WebSocket connection is established - note
+         * that the server should be configured with compression turned on for responses to actually be compressed.
+         */
+        public Builder enableCompression(final boolean enable) {
+            this.enableCompression = enable;
+            return this;
+        }
+
         /**
          * File location for a SSL Certificate Chain to use when SSL is enabled. If this value is not provided and
          * SSL is enabled, the {@link TrustManager} will be established with a self-signed certificate which is NOT
@@ -608,6 +619,7 @@ public final class Cluster {
             connectionPoolSettings.reconnectInterval = this.reconnectInterval;
             connectionPoolSettings.resultIterationBatchSize = this.resultIterationBatchSize;
             connectionPoolSettings.enableSsl = this.enableSsl;
+            connectionPoolSettings.enableCompression = this.enableCompression;
             connectionPoolSettings.trustCertChainFile = this.trustCertChainFile;
             connectionPoolSettings.channelizer = this.channelizer;
             return new Cluster(getContactPoints(), serializer, this.nioPoolSize, this.workerPoolSize,
@@ -171,6 +171,9 @@ final class Settings {
             if (connectionPoolConf.containsKey("enableSsl"))
                 cpSettings.enableSsl = connectionPoolConf.getBoolean("enableSsl");
 
+            if (connectionPoolConf.containsKey("enableCompression"))
+                cpSettings.enableCompression = connectionPoolConf.getBoolean("enableCompression");
+
             if (connectionPoolConf.containsKey("trustCertChainFile"))
                 cpSettings.trustCertChainFile = connectionPoolConf.getString("trustCertChainFile");
 
@@ -220,6 +223,12 @@ final class Settings {
          */
         public boolean enableSsl = false;
 
+        /**
+         * Determines if per-message deflate compression of WebSocket frames should be offered to the server. The
+         * server only compresses responses if it also has compression enabled.
+         */
+        public boolean enableCompression = false;
+
         /**
          * The trusted certificate in PEM format.
          */
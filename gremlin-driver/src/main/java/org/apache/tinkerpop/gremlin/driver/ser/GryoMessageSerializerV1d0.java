@@ -20,6 +20,8 @@ package org.apache.tinkerpop.gremlin.driver.ser;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
 import io.netty.util.ReferenceCountUtil;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
@@ -33,7 +35,6 @@ import org.apache.tinkerpop.shaded.kryo.Serializer;
 import org.apache.tinkerpop.shaded.kryo.io.Input;
 import org.apache.tinkerpop.shaded.kryo.io.Output;
 
-import java.io.ByteArrayOutputStream;
 import java.lang.reflect.Method;
 import java.nio.charset.Charset;
 import java.util.Collection;
@@ -57,6 +58,17 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
         }
     };
 
+    /**
+     * Kryo {@link Output} instances are reused per thread and pointed at the {@code ByteBuf} being written so that
+     * messages are encoded straight into the buffer handed to Netty rather than into an intermediate byte array.
+     */
+    private ThreadLocal<Output> outputThreadLocal = new ThreadLocal<Output>() {
+        @Override
+        protected Output initialValue() {
+            return new Output(bufferSize);
+        }
+    };
+
     private static final Charset UTF8 = Charset.forName("UTF-8");
 
     private static final String MIME_TYPE = SerTokens.MIME_GRYO_V1D0;
@@ -180,15 +192,14 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
     public ResponseMessage deserializeResponse(final ByteBuf msg) throws SerializationException {
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            final byte[] payload = new byte[msg.capacity()];
-            msg.readBytes(payload);
-            try (final Input input = new Input(payload)) {
+            try (final Input input = createInput(msg)) {
                 final UUID requestId = kryo.readObjectOrNull(input, UUID.class);
                 final int status = input.readShort();
                 final String statusMsg = input.readString();
                 final Map<String,Object> statusAttributes = (Map<String,Object>) kryo.readClassAndObject(input);
                 final Object result = kryo.readClassAndObject(input);
                 final Map<String,Object> metaAttributes = (Map<String,Object>) kryo.readClassAndObject(input);
+                msg.skipBytes(msg.readableBytes());
 
                 return ResponseMessage.build(requestId)
                         .code(ResponseStatusCode.getFromValue(status))
@@ -209,9 +220,9 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
         ByteBuf encodedMessage = null;
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                final Output output = new Output(baos, bufferSize);
-
+            encodedMessage = allocator.buffer(bufferSize);
+            final Output output = createOutput(encodedMessage);
+            try {
                 // request id - if present
                 kryo.writeObjectOrNull(output, responseMessage.getRequestId() != null ? responseMessage.getRequestId() : null, UUID.class);
 
@@ -229,8 +240,8 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
                     throw new SerializationException(String.format("Message size of %s exceeds allocatable space", size));
 
                 output.flush();
-                encodedMessage = allocator.buffer((int) size);
-                encodedMessage.writeBytes(baos.toByteArray());
+            } finally {
+                output.setOutputStream(null);
             }
 
             return encodedMessage;
@@ -246,9 +257,7 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
     public RequestMessage deserializeRequest(final ByteBuf msg) throws SerializationException {
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            final byte[] payload = new byte[msg.readableBytes()];
-            msg.readBytes(payload);
-            try (final Input input = new Input(payload)) {
+            try (final Input input = createInput(msg)) {
                 // by the time the message gets here, the mime length/type have been already read, so this part just
                 // needs to process the payload.
                 final UUID id = kryo.readObject(input, UUID.class);
@@ -261,6 +270,7 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
 
                 final Map<String, Object> args = kryo.readObject(input, HashMap.class);
                 args.forEach(builder::addArg);
+                msg.skipBytes(msg.readableBytes());
                 return builder.create();
             }
         } catch (Exception ex) {
@@ -274,8 +284,9 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
         ByteBuf encodedMessage = null;
         try {
             final Kryo kryo = kryoThreadLocal.get();
-            try (final ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                final Output output = new Output(baos, bufferSize);
+            encodedMessage = allocator.buffer(bufferSize);
+            final Output output = createOutput(encodedMessage);
+            try {
                 final String mimeType = serializeToString ? MIME_TYPE_STRINGD : MIME_TYPE;
                 output.writeByte(mimeType.length());
                 output.write(mimeType.getBytes(UTF8));
@@ -290,8 +301,8 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
                     throw new SerializationException(String.format("Message size of %s exceeds allocatable space", size));
 
                 output.flush();
-                encodedMessage = allocator.buffer((int) size);
-                encodedMessage.writeBytes(baos.toByteArray());
+            } finally {
+                output.setOutputStream(null);
             }
 
             return encodedMessage;
@@ -303,6 +314,27 @@ public final class GryoMessageSerializerV1d0 extends AbstractMessageSerializer {
         }
     }
 
+    /**
+     * Points the thread's reusable {@link Output} at the supplied buffer. The {@link Output} still stages bytes in its
+     * own fixed-size array, but that array is flushed directly into the {@code ByteBuf}, so the message is copied once
+     * rather than being collected in a growing byte array and copied again into a buffer sized from it.
+     */
+    private Output createOutput(final ByteBuf buffer) {
+        final Output output = outputThreadLocal.get();
+        output.setOutputStream(new ByteBufOutputStream(buffer));
+        return output;
+    }
+
+    /**
+     * Reads heap buffers in place through their backing array and streams from any other buffer, so that no
+     * intermediate copy of the payload is made in either case.
+     */
+    private Input createInput(final ByteBuf buffer) {
+        return buffer.hasArray() ?
+                new Input(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes()) :
+                new Input(new ByteBufInputStream(buffer), bufferSize);
+    }
+
     private Object serializeResultToString(final ResponseMessage msg) {
         if (msg.getResult() == null) return "null";
         if (msg.getResult().getData() == null) return "null";
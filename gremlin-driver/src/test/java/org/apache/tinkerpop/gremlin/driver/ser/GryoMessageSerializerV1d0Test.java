@@ -63,6 +63,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -490,6 +491,34 @@ public class GryoMessageSerializerV1d0Test {
         assertEquals("this", deserialized.getArgs().get("test"));
     }
 
+    @Test
+    public void shouldSerializeAndDeserializeWithDirectBuffers() throws Exception {
+        final UUID id = UUID.randomUUID();
+        final ByteBufAllocator directAllocator = new UnpooledByteBufAllocator(true);
+
+        final RequestMessage request = RequestMessage.build("try")
+                .overrideRequestId(id)
+                .processor("pro")
+                .addArg("test", "this")
+                .create();
+        final ByteBuf requestBuffer = directAllocator.directBuffer();
+        requestBuffer.writeBytes(binarySerializer.serializeRequestAsBinary(request, directAllocator));
+        final int mimeLen = requestBuffer.readByte();
+        requestBuffer.readBytes(new byte[mimeLen]);
+        final RequestMessage deserializedRequest = binarySerializer.deserializeRequest(requestBuffer);
+        assertEquals(id, deserializedRequest.getRequestId());
+        assertEquals("this", deserializedRequest.getArgs().get("test"));
+        assertFalse(requestBuffer.isReadable());
+
+        final ByteBuf responseBuffer = binarySerializer.serializeResponseAsBinary(
+                ResponseMessage.build(id).result(Arrays.asList(1, 2, 3)).create(), directAllocator);
+        assertTrue(responseBuffer.isDirect());
+        final ResponseMessage deserializedResponse = binarySerializer.deserializeResponse(responseBuffer);
+        assertEquals(id, deserializedResponse.getRequestId());
+        assertEquals(Arrays.asList(1, 2, 3), deserializedResponse.getResult().getData());
+        assertFalse(responseBuffer.isReadable());
+    }
+
     @Test
     public void shouldHaveTooSmallBufferToSerializeRequestMessage() throws Exception {
         final UUID id = UUID.randomUUID();
@@ -91,6 +91,7 @@ public class GremlinExecutor implements AutoCloseable {
     private final Set<String> enabledPlugins;
     private final boolean suppliedExecutor;
     private final boolean suppliedScheduledExecutor;
+    private final boolean suppliedScriptEngines;
 
     private GremlinExecutor(final Builder builder, final boolean suppliedExecutor,
                             final boolean suppliedScheduledExecutor) {
@@ -106,7 +107,8 @@ public class GremlinExecutor implements AutoCloseable {
         this.scriptEvaluationTimeout = builder.scriptEvaluationTimeout;
         this.globalBindings = builder.globalBindings;
         this.enabledPlugins = builder.enabledPlugins;
-        this.scriptEngines = createScriptEngines();
+        this.suppliedScriptEngines = builder.scriptEngines != null;
+        this.scriptEngines = suppliedScriptEngines ? builder.scriptEngines : createScriptEngines();
         this.suppliedExecutor = suppliedExecutor;
         this.suppliedScheduledExecutor = suppliedScheduledExecutor;
     }
@@ -375,10 +377,13 @@ public class GremlinExecutor implements AutoCloseable {
                 }
             }
 
-            try {
-                scriptEngines.close();
-            } catch (Exception ex) {
-                logger.warn("Error while shutting down the ScriptEngines in the GremlinExecutor", ex);
+            // leave the engines open if they are supplied externally as they may be shared
+            if (!suppliedScriptEngines) {
+                try {
+                    scriptEngines.close();
+                } catch (Exception ex) {
+                    logger.warn("Error while shutting down the ScriptEngines in the GremlinExecutor", ex);
+                }
             }
 
             future.complete(null);
@@ -494,6 +499,7 @@ public class GremlinExecutor implements AutoCloseable {
         };
         private List<List<String>> use = new ArrayList<>();
         private Bindings globalBindings = new ConcurrentBindings();
+        private ScriptEngines scriptEngines = null;
 
         private Builder() {
         }
@@ -557,6 +563,17 @@ public class GremlinExecutor implements AutoCloseable {
             return this;
         }
 
+        /**
+         * An existing {@link ScriptEngines} instance to evaluate scripts with, typically taken from another
+         * {@code GremlinExecutor} so that compiled scripts are shared between them.  When supplied, the engine
+         * settings, plugins, dependencies and initialization scripts of this builder are not applied and the
+         * {@link ScriptEngines} is not closed along with the {@code GremlinExecutor}.
+         */
+        public Builder scriptEngines(final ScriptEngines scriptEngines) {
+            this.scriptEngines = scriptEngines;
+            return this;
+        }
+
         /**
          * The thread pool used to schedule timeouts on scripts.
          */
@@ -126,6 +126,14 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
      */
     public static final String REFERENCE_TYPE_HARD = "hard";
 
+    /**
+     * A key to the bindings of a script whose value is a {@code Map<String, Closure>} in which the functions that the
+     * script defines are registered rather than in the global functions of the engine. Functions are looked up in
+     * this map before the global ones, so scripts whose bindings carry the same map share their functions with each
+     * other but not with other scripts evaluated by the engine.
+     */
+    public static final String KEY_FUNCTIONS = "#jsr223.groovy.engine.functions";
+
     /**
      * Name of variable that holds local variables to be globally bound if "interpreter mode" is enabled with
      * {@link InterpreterModeCustomizerProvider}.
@@ -504,11 +512,15 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
             }
         };
 
+        final Map<String, Closure> closures = getFunctions(context);
         try {
             final Script scriptObject = InvokerHelper.createScript(scriptClass, binding);
             for (Method m : scriptClass.getMethods()) {
                 final String name = m.getName();
-                globalClosures.put(name, new MethodClosure(scriptObject, name));
+                if (null == closures)
+                    globalClosures.put(name, new MethodClosure(scriptObject, name));
+                else
+                    closures.put(name, new MethodClosure(scriptObject, name));
             }
 
             final MetaClass oldMetaClass = scriptObject.getMetaClass();
@@ -553,8 +565,12 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
                 if (localVars != null) {
                     localVars.entrySet().forEach(e -> {
                         // closures need to be cached for later use
-                        if (e.getValue() instanceof Closure)
-                            globalClosures.put(e.getKey(), (Closure) e.getValue());
+                        if (e.getValue() instanceof Closure) {
+                            if (null == closures)
+                                globalClosures.put(e.getKey(), (Closure) e.getValue());
+                            else
+                                closures.put(e.getKey(), (Closure) e.getValue());
+                        }
 
                         context.setAttribute(e.getKey(), e.getValue(), ScriptContext.ENGINE_SCOPE);
                     });
@@ -624,7 +640,8 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
     }
 
     private Object callGlobal(final String name, final Object args[], final ScriptContext ctx) {
-        final Closure closure = globalClosures.get(name);
+        final Map<String, Closure> closures = getFunctions(ctx);
+        final Closure closure = null == closures || !closures.containsKey(name) ? globalClosures.get(name) : closures.get(name);
         if (closure != null) {
             return closure.call(args);
         }
@@ -637,6 +654,11 @@ public class GremlinGroovyScriptEngine extends GroovyScriptEngineImpl implements
         }
     }
 
+    private static Map<String, Closure> getFunctions(final ScriptContext context) {
+        final Object functions = context.getAttribute(KEY_FUNCTIONS);
+        return functions instanceof Map ? (Map<String, Closure>) functions : null;
+    }
+
     private synchronized String generateScriptName() {
         return SCRIPT + counter.incrementAndGet() + DOT_GROOVY;
     }
@@ -176,6 +176,9 @@ public class GremlinServer {
                 }
             });
 
+            // processors are closed on stop() so they are initialized on every start
+            OpLoader.getProcessors().values().forEach(op -> op.init(serverGremlinExecutor));
+
             final Channelizer channelizer = createChannelizer(settings);
             channelizer.init(serverGremlinExecutor);
             b.group(bossGroup, workerGroup)
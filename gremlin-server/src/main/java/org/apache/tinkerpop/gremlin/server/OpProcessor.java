@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.server;
 
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
+import org.apache.tinkerpop.gremlin.server.util.ServerGremlinExecutor;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 
 import java.io.Closeable;
@@ -35,6 +36,14 @@ public interface OpProcessor extends AutoCloseable {
      */
     public String getName();
 
+    /**
+     * Called once when Gremlin Server starts, before any request is selected, so that the processor can create
+     * resources from the server configuration that it releases again in {@link #close()}.
+     */
+    public default void init(final ServerGremlinExecutor<?> serverGremlinExecutor) {
+        // do nothing
+    }
+
     /**
      * Given the context (which contains the RequestMessage), return back a Consumer function that will be
      * executed with the context.  A typical implementation will simply check the "op" field on the RequestMessage
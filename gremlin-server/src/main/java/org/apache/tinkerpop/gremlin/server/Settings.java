@@ -116,6 +116,23 @@ public class Settings {
      */
     public int resultIterationBatchSize = 64;
 
+    /**
+     * The approximate number of serialized bytes to target for each batch of results pushed down the wire to the
+     * client.  The number of items in a batch is adapted to the average serialized size of the results already
+     * written for the request, but never exceeds {@link #resultIterationBatchSize} (or the {@code batchSize} given
+     * on the request).  Set to zero or less to batch by item count alone.  Defaults to 1048576.
+     */
+    public int resultIterationBatchTargetBytes = 1048576;
+
+    /**
+     * Time in milliseconds that results may be held in an incomplete batch before it is pushed down the wire to
+     * the client, which keeps slowly produced results flowing.  The age of a batch is checked each time an item is
+     * added to it, so the limit applies between items: a batch is not pushed while the thread iterating the
+     * results waits on the next one, as serialization must happen on that thread.  Set to zero or less to only push
+     * complete batches.  Defaults to 0.
+     */
+    public long resultIterationBatchMaxLatency = 0L;
+
     /**
      * The maximum length of the initial line (e.g. {@code "GET / HTTP/1.0"}) processed in a request, which essentially
      * controls the maximum length of the submitted URI. This setting ties to the Netty {@code HttpRequestDecoder}.
@@ -200,6 +217,11 @@ public class Settings {
      */
     public SslSettings ssl = null;
 
+    /**
+     * Configures settings for compression of responses.
+     */
+    public CompressionSettings compression = null;
+
     public AuthenticationSettings authentication = new AuthenticationSettings();
 
     /**
@@ -222,6 +244,10 @@ public class Settings {
         return Optional.ofNullable(ssl);
     }
 
+    public Optional<CompressionSettings> optionalCompression() {
+        return Optional.ofNullable(compression);
+    }
+
     /**
      * Read configuration from a file into a new {@link Settings} object.
      *
@@ -265,6 +291,9 @@ public class Settings {
         final TypeDescription sslSettings = new TypeDescription(SslSettings.class);
         constructor.addTypeDescription(sslSettings);
 
+        final TypeDescription compressionSettings = new TypeDescription(CompressionSettings.class);
+        constructor.addTypeDescription(compressionSettings);
+
         final TypeDescription authenticationSettings = new TypeDescription(AuthenticationSettings.class);
         constructor.addTypeDescription(authenticationSettings);
 
@@ -408,6 +437,28 @@ public class Settings {
         public String trustCertChainFile = null;
     }
 
+    /**
+     * Settings to configure compression of responses.
+     */
+    public static class CompressionSettings {
+        /**
+         * Enables compression.  Other settings will be ignored unless this is set to true.  WebSocket responses
+         * are only compressed for clients that negotiate the {@code permessage-deflate} extension and HTTP responses
+         * are only compressed for requests that send an {@code Accept-Encoding} the server supports.
+         */
+        public boolean enabled = false;
+
+        /**
+         * Responses smaller than this number of bytes are sent uncompressed.  Defaults to 1024.
+         */
+        public int threshold = 1024;
+
+        /**
+         * The deflate compression level between 0 (no compression) and 9 (best compression).  Defaults to 6.
+         */
+        public int level = 6;
+    }
+
     /**
      * Settings for {@code Metrics} recorded by Gremlin Server.
      */
@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
 import org.apache.tinkerpop.gremlin.server.Channelizer;
 import org.apache.tinkerpop.gremlin.server.auth.AllowAllAuthenticator;
 import org.apache.tinkerpop.gremlin.server.handler.HttpBasicAuthenticationHandler;
+import org.apache.tinkerpop.gremlin.server.handler.HttpGremlinContentCompressor;
 import org.apache.tinkerpop.gremlin.server.handler.HttpGremlinEndpointHandler;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.http.HttpObjectAggregator;
@@ -57,6 +58,9 @@ public class HttpChannelizer extends AbstractChannelizer {
 
         pipeline.addLast("http-server", new HttpServerCodec());
 
+        if (settings.optionalCompression().isPresent() && settings.compression.enabled)
+            pipeline.addLast("http-compression", new HttpGremlinContentCompressor(settings.compression.level, settings.compression.threshold));
+
         if (logger.isDebugEnabled())
             pipeline.addLast(new LoggingHandler("http-io", LogLevel.DEBUG));
 
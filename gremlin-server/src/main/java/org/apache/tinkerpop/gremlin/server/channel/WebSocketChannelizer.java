@@ -23,6 +23,7 @@ import org.apache.tinkerpop.gremlin.server.AbstractChannelizer;
 import org.apache.tinkerpop.gremlin.server.auth.AllowAllAuthenticator;
 import org.apache.tinkerpop.gremlin.server.handler.SaslAuthenticationHandler;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinBinaryRequestDecoder;
+import org.apache.tinkerpop.gremlin.server.handler.WsGremlinCompressionHandler;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinCloseRequestDecoder;
 import org.apache.tinkerpop.gremlin.server.handler.GremlinResponseFrameEncoder;
 import org.apache.tinkerpop.gremlin.server.handler.WsGremlinResponseFrameEncoder;
@@ -32,6 +33,9 @@ import io.netty.handler.codec.http.HttpObjectAggregator;
 import io.netty.handler.codec.http.HttpRequestDecoder;
 import io.netty.handler.codec.http.HttpResponseEncoder;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketServerExtensionHandler;
+import io.netty.handler.codec.http.websocketx.extensions.compression.PerMessageDeflateServerExtensionHandshaker;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
 import org.apache.tinkerpop.gremlin.server.util.ServerGremlinExecutor;
@@ -53,6 +57,8 @@ public class WebSocketChannelizer extends AbstractChannelizer {
     private WsGremlinResponseFrameEncoder wsGremlinResponseFrameEncoder;
     private WsGremlinCloseRequestDecoder wsGremlinCloseRequestDecoder;
     private SaslAuthenticationHandler authenticationHandler;
+    private WsGremlinCompressionHandler wsGremlinCompressionHandler;
+    private WsGremlinCompressionHandler.CompressedFrameCounter compressedFrameCounter;
 
     @Override
     public void init(final ServerGremlinExecutor<EventLoopGroup> serverGremlinExecutor) {
@@ -64,6 +70,12 @@ public class WebSocketChannelizer extends AbstractChannelizer {
         wsGremlinCloseRequestDecoder = new WsGremlinCloseRequestDecoder(serializers);
         wsGremlinResponseFrameEncoder = new WsGremlinResponseFrameEncoder();
 
+        // configure compression - null means clients can't negotiate compression of responses
+        if (settings.optionalCompression().isPresent() && settings.compression.enabled) {
+            wsGremlinCompressionHandler = new WsGremlinCompressionHandler(settings.compression.threshold);
+            compressedFrameCounter = new WsGremlinCompressionHandler.CompressedFrameCounter();
+        }
+
         // configure authentication - null means don't bother to add authentication to the pipeline
         if (authenticator != null)
             authenticationHandler = authenticator.getClass() == AllowAllAuthenticator.class ?
@@ -92,7 +104,21 @@ public class WebSocketChannelizer extends AbstractChannelizer {
             pipeline.addLast(new LoggingHandler("log-aggregator-encoder", LogLevel.DEBUG));
 
         pipeline.addLast("http-response-encoder", new HttpResponseEncoder());
-        pipeline.addLast("request-handler", new WebSocketServerProtocolHandler("/gremlin", null, false, settings.maxContentLength));
+
+        // the extension handler negotiates permessage-deflate in the handshake and then adds the deflate
+        // encoder/decoder directly after itself. the compression handler decides which response frames reach
+        // that encoder
+        final boolean compression = wsGremlinCompressionHandler != null;
+        if (compression) {
+            pipeline.addLast("ws-compressed-frame-counter", compressedFrameCounter);
+            pipeline.addLast("ws-compression-extension", new WebSocketServerExtensionHandler(
+                    new PerMessageDeflateServerExtensionHandshaker(settings.compression.level,
+                            ZlibCodecFactory.isSupportingWindowSizeAndMemLevel(), 15, false, false)));
+        }
+
+        pipeline.addLast("request-handler", new WebSocketServerProtocolHandler("/gremlin", null, compression, settings.maxContentLength));
+
+        if (compression) pipeline.addLast("ws-compression", wsGremlinCompressionHandler);
 
         if (logger.isDebugEnabled())
             pipeline.addLast(new LoggingHandler("log-aggregator-encoder", LogLevel.DEBUG));
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpResponse;
+
+/**
+ * Compresses HTTP responses for clients that send a supported {@code Accept-Encoding}, unless the response is
+ * smaller than the configured threshold.
+ */
+public class HttpGremlinContentCompressor extends HttpContentCompressor {
+    private final int threshold;
+
+    public HttpGremlinContentCompressor(final int compressionLevel, final int threshold) {
+        super(compressionLevel);
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected Result beginEncode(final HttpResponse headers, final String acceptEncoding) throws Exception {
+        // responses of unknown length are always candidates for compression
+        final long contentLength = HttpHeaders.getContentLength(headers, -1);
+        if (contentLength >= 0 && contentLength < threshold) return null;
+        return super.beginEncode(headers, acceptEncoding);
+    }
+}
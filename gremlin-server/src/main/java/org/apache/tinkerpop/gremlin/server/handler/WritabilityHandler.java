@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.util.Attribute;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Signals result iteration that has exceeded the {@code writeBufferHighWaterMark} of a channel when that channel
+ * becomes writable again (or is closed). Iteration either registers a continuation with
+ * {@link #whenWritable(Channel, Runnable)} and releases its thread, or, where it is bound to its thread, blocks in
+ * {@link #awaitWritable(Channel, long)} until the {@code channelWritabilityChanged} event rather than polling
+ * {@link Channel#isWritable()}.
+ */
+@ChannelHandler.Sharable
+public class WritabilityHandler extends ChannelInboundHandlerAdapter {
+    private static final Logger logger = LoggerFactory.getLogger(WritabilityHandler.class);
+
+    /**
+     * The longest single wait before writability is checked again, which covers pipelines that were not built
+     * with this handler in them and will therefore never signal.
+     */
+    private static final long MAX_WAIT_MILLIS = 100;
+
+    @Override
+    public void channelWritabilityChanged(final ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) signal(ctx.channel());
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(final ChannelHandlerContext ctx) throws Exception {
+        signal(ctx.channel());
+        ctx.fireChannelInactive();
+    }
+
+    /**
+     * Blocks until the channel is writable, is closed or the timeout expires.
+     *
+     * @param channel the channel to wait on
+     * @param timeoutMillis the maximum time to wait in milliseconds
+     * @return {@code true} if the channel is writable
+     */
+    public static boolean awaitWritable(final Channel channel, final long timeoutMillis) throws InterruptedException {
+        final Object monitor = getMonitor(channel);
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (monitor) {
+            long remaining = timeoutMillis;
+            while (!channel.isWritable() && channel.isActive() && remaining > 0) {
+                monitor.wait(Math.min(remaining, MAX_WAIT_MILLIS));
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+
+        return channel.isWritable();
+    }
+
+    /**
+     * Runs the continuation once the channel is writable or is closed. The continuation runs on the event loop of the
+     * channel, or on the calling thread if the channel became writable while it was being registered, so it should
+     * do no more than hand the remaining work to another thread.
+     *
+     * @param channel the channel to wait on
+     * @param continuation the work to run once, when the channel is writable or closed
+     * @return {@code false} if the pipeline of the channel has no {@code WritabilityHandler} to signal it, in which
+     * case the continuation is not registered
+     */
+    public static boolean whenWritable(final Channel channel, final Runnable continuation) {
+        if (!canSignal(channel)) return false;
+        getContinuations(channel).add(continuation);
+
+        // the event may have fired between the caller finding the channel not writable and the continuation being
+        // added, in which case nothing else would ever run it
+        if (channel.isWritable() || !channel.isActive()) runContinuations(channel);
+        return true;
+    }
+
+    /**
+     * Determines if the pipeline of the channel has a {@code WritabilityHandler} to run the continuations registered
+     * with {@link #whenWritable(Channel, Runnable)}.
+     */
+    public static boolean canSignal(final Channel channel) {
+        return null != channel.pipeline().get(WritabilityHandler.class);
+    }
+
+    /**
+     * Removes a continuation registered with {@link #whenWritable(Channel, Runnable)} that has not run yet.
+     *
+     * @return {@code true} if the continuation was removed and so will not run
+     */
+    public static boolean cancel(final Channel channel, final Runnable continuation) {
+        final Queue<Runnable> continuations = channel.attr(StateKey.WRITABILITY_CONTINUATIONS).get();
+        return continuations != null && continuations.remove(continuation);
+    }
+
+    private static void signal(final Channel channel) {
+        final Object monitor = channel.attr(StateKey.WRITABILITY_MONITOR).get();
+        if (monitor != null) {
+            synchronized (monitor) {
+                monitor.notifyAll();
+            }
+        }
+
+        runContinuations(channel);
+    }
+
+    private static void runContinuations(final Channel channel) {
+        final Queue<Runnable> continuations = channel.attr(StateKey.WRITABILITY_CONTINUATIONS).get();
+        if (null == continuations) return;
+
+        // polling hands each continuation to exactly one of the threads that may be running them
+        Runnable continuation;
+        while ((continuation = continuations.poll()) != null) {
+            try {
+                continuation.run();
+            } catch (Exception ex) {
+                logger.warn(String.format("Continuation for writability of %s failed", channel), ex);
+            }
+        }
+    }
+
+    private static Queue<Runnable> getContinuations(final Channel channel) {
+        final Attribute<Queue<Runnable>> attribute = channel.attr(StateKey.WRITABILITY_CONTINUATIONS);
+        final Queue<Runnable> continuations = new ConcurrentLinkedQueue<>();
+        final Queue<Runnable> existing = attribute.setIfAbsent(continuations);
+        return null == existing ? continuations : existing;
+    }
+
+    private static Object getMonitor(final Channel channel) {
+        final Attribute<Object> attribute = channel.attr(StateKey.WRITABILITY_MONITOR);
+        final Object monitor = new Object();
+        final Object existing = attribute.setIfAbsent(monitor);
+        return null == existing ? monitor : existing;
+    }
+}
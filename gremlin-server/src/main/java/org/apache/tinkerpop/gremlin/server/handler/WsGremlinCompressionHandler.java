@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.handler;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Timer;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.websocketx.BinaryWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.TextWebSocketFrame;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtension;
+import io.netty.handler.codec.http.websocketx.extensions.WebSocketExtensionEncoder;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Decides which response frames are compressed once a client has negotiated a compression extension for the
+ * WebSocket. This handler must sit between the {@link WsGremlinResponseFrameEncoder} and the Netty extension
+ * handler: frames smaller than the threshold are written past the extension encoder so that they go out
+ * uncompressed, and all other frames pass through it and are timed. {@link CompressedFrameCounter} must sit in
+ * front of the extension handler so that it sees the compressed frames.
+ */
+@ChannelHandler.Sharable
+public class WsGremlinCompressionHandler extends ChannelOutboundHandlerAdapter {
+    static final Timer compressionTimer = MetricManager.INSTANCE.getTimer(name(GremlinServer.class, "compression"));
+    static final Counter uncompressedBytes = MetricManager.INSTANCE.getCounter(name(GremlinServer.class, "compression", "uncompressedBytes"));
+    static final Counter compressedBytes = MetricManager.INSTANCE.getCounter(name(GremlinServer.class, "compression", "compressedBytes"));
+
+    static {
+        MetricManager.INSTANCE.getGuage(() -> uncompressedBytes.getCount() == 0 ? 1.0d :
+                (double) compressedBytes.getCount() / uncompressedBytes.getCount(), name(GremlinServer.class, "compression", "ratio"));
+    }
+
+    private final int threshold;
+
+    public WsGremlinCompressionHandler(final int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+        if (msg instanceof BinaryWebSocketFrame || msg instanceof TextWebSocketFrame) {
+            // the extension encoder is only added to the pipeline if the client negotiated compression
+            final ChannelHandlerContext encoderContext = ctx.pipeline().context(WebSocketExtensionEncoder.class);
+            if (encoderContext != null) {
+                final int size = ((WebSocketFrame) msg).content().readableBytes();
+                if (size < threshold) {
+                    // writing from the context of the encoder skips the encoder itself
+                    encoderContext.write(msg, promise);
+                } else {
+                    // writes that start on the event loop are processed inline so this times the compression
+                    uncompressedBytes.inc(size);
+                    final Timer.Context timer = compressionTimer.time();
+                    try {
+                        ctx.write(msg, promise);
+                    } finally {
+                        timer.stop();
+                    }
+                }
+
+                return;
+            }
+        }
+
+        ctx.write(msg, promise);
+    }
+
+    /**
+     * Counts the bytes of frames that were compressed by the extension encoder.
+     */
+    @ChannelHandler.Sharable
+    public static class CompressedFrameCounter extends ChannelOutboundHandlerAdapter {
+        @Override
+        public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+            if (msg instanceof WebSocketFrame && (((WebSocketFrame) msg).rsv() & WebSocketExtension.RSV1) != 0)
+                compressedBytes.inc(((WebSocketFrame) msg).content().readableBytes());
+
+            ctx.write(msg, promise);
+        }
+    }
+}
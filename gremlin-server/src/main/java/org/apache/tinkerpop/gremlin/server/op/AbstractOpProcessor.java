@@ -18,6 +18,9 @@
  */
 package org.apache.tinkerpop.gremlin.server.op;
 
+import com.codahale.metrics.Histogram;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import org.apache.commons.lang.time.StopWatch;
 import org.apache.tinkerpop.gremlin.driver.MessageSerializer;
@@ -26,12 +29,16 @@ import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
 import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
+import org.apache.tinkerpop.gremlin.server.GremlinServer;
 import org.apache.tinkerpop.gremlin.server.OpProcessor;
 import org.apache.tinkerpop.gremlin.server.Settings;
 import org.apache.tinkerpop.gremlin.server.handler.Frame;
 import org.apache.tinkerpop.gremlin.server.handler.StateKey;
+import org.apache.tinkerpop.gremlin.server.handler.WritabilityHandler;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,15 +47,30 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
+import static com.codahale.metrics.MetricRegistry.name;
+
 /**
  * @author Stephen Mallette (http://stephen.genoprime.com)
  */
 public abstract class AbstractOpProcessor implements OpProcessor {
     private static final Logger logger = LoggerFactory.getLogger(AbstractEvalOpProcessor.class);
 
+    /**
+     * The size of each serialized batch of results written by {@link #handleIterator}.  Binary frames are measured
+     * in bytes and text frames in characters.
+     */
+    static final Histogram frameSizeHistogram = MetricManager.INSTANCE.getHistogram(name(GremlinServer.class, "op", "frameSize"));
+
+    /**
+     * The percentage of the maximum batch size that each batch of results written by {@link #handleIterator} filled.
+     */
+    static final Histogram batchFillHistogram = MetricManager.INSTANCE.getHistogram(name(GremlinServer.class, "op", "batchFillRatio"));
+
     protected final boolean manageTransactions;
 
     protected AbstractOpProcessor(final boolean manageTransactions) {
@@ -59,7 +81,13 @@ public abstract class AbstractOpProcessor implements OpProcessor {
      * Provides a generic way of iterating a result set back to the client. Implementers should respect the
      * {@link Settings#serializedResponseTimeout} configuration and break the serialization process if
      * it begins to take too long to do so, throwing a {@link java.util.concurrent.TimeoutException} in such
-     * cases.
+     * cases. Results are batched up to {@link Settings#resultIterationBatchSize} items, with fewer items per batch
+     * when the results serialized so far suggest that a full batch would exceed
+     * {@link Settings#resultIterationBatchTargetBytes}, and incomplete batches are flushed once they are older
+     * than {@link Settings#resultIterationBatchMaxLatency} when the next item arrives.  When the client does not keep up and
+     * {@link #canResumeIteration(Context)} allows it, this method returns once writing is paused and the rest of the
+     * result is written from the {@link #getResumeExecutor(Context) resume executor} when the channel is writable
+     * again, with any failure from that point on written back to the client there rather than thrown from here.
      *
      * @param context The Gremlin Server {@link Context} object containing settings, request message, etc.
      * @param itty The result to iterator
@@ -69,13 +97,9 @@ public abstract class AbstractOpProcessor implements OpProcessor {
         final ChannelHandlerContext ctx = context.getChannelHandlerContext();
         final RequestMessage msg = context.getRequestMessage();
         final Settings settings = context.getSettings();
-        final MessageSerializer serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
-        final boolean useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
-        boolean warnOnce = false;
 
         // sessionless requests are always transaction managed, but in-session requests are configurable.
-        final boolean managedTransactionsForRequest = manageTransactions ?
-                true : (Boolean) msg.getArgs().getOrDefault(Tokens.ARGS_MANAGE_TRANSACTION, false);
+        final boolean managedTransactionsForRequest = isTransactionManaged(msg);
 
         // we have an empty iterator - happens on stuff like: g.V().iterate()
         if (!itty.hasNext()) {
@@ -88,94 +112,273 @@ public abstract class AbstractOpProcessor implements OpProcessor {
             return;
         }
 
-        // timer for the total serialization time
-        final StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        new ResultIteration(context, itty, managedTransactionsForRequest).iterate();
+    }
+
+    /**
+     * Determines if result iteration that is paused because the client is not keeping up may release its thread and
+     * be resumed from another thread of the {@link GremlinExecutor} once the channel is writable again.  That is only
+     * safe when nothing binds the iteration to the thread it started on, so by default it is allowed when none of
+     * the graphs support transactions, as those are bound to the thread that opened them.  Processors that rely on
+     * their thread in other ways, like sessions do to order their requests, must not allow it unless their
+     * {@link #getResumeExecutor(Context)} keeps that order.
+     */
+    protected boolean canResumeIteration(final Context context) {
+        return context.getGraphManager().getGraphs().values().stream()
+                .noneMatch(graph -> graph.features().graph().supportsTransactions());
+    }
+
+    /**
+     * Gets the {@code Executor} that resumes result iteration paused because the client is not keeping up, which
+     * by default is that of the {@link GremlinExecutor}.  It is called from the thread that paused the iteration,
+     * and the {@code Executor} is given exactly one task, which either resumes the iteration or fails it.
+     */
+    protected Executor getResumeExecutor(final Context context) {
+        return context.getGremlinExecutor().getExecutorService();
+    }
+
+    /**
+     * The state of the iteration of a result by {@link #handleIterator}, kept apart from the thread iterating it so
+     * that iteration paused for a slow client can be resumed by another thread.
+     */
+    private final class ResultIteration {
+        private final Context context;
+        private final Iterator itty;
+        private final boolean managedTransactionsForRequest;
+        private final ChannelHandlerContext ctx;
+        private final RequestMessage msg;
+        private final Settings settings;
+        private final MessageSerializer serializer;
+        private final boolean useBinary;
+        private final int resultIterationBatchSize;
+        private final int targetBytes;
+        private final long maxLatency;
 
-        // the batch size can be overridden by the request
-        final int resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
-                .orElse(settings.resultIterationBatchSize);
-        List<Object> aggregate = new ArrayList<>(resultIterationBatchSize);
+        // timer for the total serialization time
+        private final StopWatch stopWatch = new StopWatch();
 
         // use an external control to manage the loop as opposed to just checking hasNext() in the while.  this
         // prevent situations where auto transactions create a new transaction after calls to commit() withing
-        // the loop on calls to hasNext().
-        boolean hasMore = itty.hasNext();
-
-        while (hasMore) {
-            if (Thread.interrupted()) throw new InterruptedException();
-
-            // have to check the aggregate size because it is possible that the channel is not writeable (below)
-            // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
-            // the expected resultIterationBatchSize.  Total serialization time for the response remains in
-            // effect so if the client is "slow" it may simply timeout.
-            if (aggregate.size() < resultIterationBatchSize) aggregate.add(itty.next());
-
-            // send back a page of results if batch size is met or if it's the end of the results being iterated.
-            // also check writeability of the channel to prevent OOME for slow clients.
-            if (ctx.channel().isWritable()) {
-                if (aggregate.size() == resultIterationBatchSize || !itty.hasNext()) {
-                    final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
-
-                    // serialize here because in sessionless requests the serialization must occur in the same
-                    // thread as the eval.  as eval occurs in the GremlinExecutor there's no way to get back to the
-                    // thread that processed the eval of the script so, we have to push serialization down into that
-                    Frame frame;
-                    try {
-                        frame = makeFrame(ctx, msg, serializer, useBinary, aggregate, code);
-                    } catch (Exception ex) {
-                        // exception is handled in makeFrame() - serialization error gets written back to driver
-                        // at that point
-                        if (manageTransactions) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
-                        break;
-                    }
+        // the loop on calls to hasNext(). it also carries over a pause, when the last items may still be in the
+        // aggregate after the iterator is exhausted
+        private boolean hasMore = true;
+        private boolean warnOnce = false;
+        private int batchLimit;
+        private long itemsWritten = 0;
+        private long bytesWritten = 0;
+        private long batchStarted = 0;
+        private List<Object> aggregate;
+        private volatile ScheduledFuture<?> pauseTimeout;
 
-                    // only need to reset the aggregation list if there's more stuff to write
-                    if (itty.hasNext())
-                        aggregate = new ArrayList<>(resultIterationBatchSize);
-                    else {
-                        // iteration and serialization are both complete which means this finished successfully. note that
-                        // errors internal to script eval or timeout will rollback given GremlinServer's global configurations.
-                        // local errors will get rolledback below because the exceptions aren't thrown in those cases to be
-                        // caught by the GremlinExecutor for global rollback logic. this only needs to be committed if
-                        // there are no more items to iterate and serialization is complete
-                        if (managedTransactionsForRequest) attemptCommit(msg, context.getGraphManager(), settings.strictTransactionManagement);
-
-                        // exit the result iteration loop as there are no more results left.  using this external control
-                        // because of the above commit.  some graphs may open a new transaction on the call to
-                        // hasNext()
-                        hasMore = false;
-                    }
+        private ResultIteration(final Context context, final Iterator itty, final boolean managedTransactionsForRequest) {
+            this.context = context;
+            this.itty = itty;
+            this.managedTransactionsForRequest = managedTransactionsForRequest;
+            this.ctx = context.getChannelHandlerContext();
+            this.msg = context.getRequestMessage();
+            this.settings = context.getSettings();
+            this.serializer = ctx.channel().attr(StateKey.SERIALIZER).get();
+            this.useBinary = ctx.channel().attr(StateKey.USE_BINARY).get();
 
-                    // the flush is called after the commit has potentially occurred.  in this way, if a commit was
-                    // required then it will be 100% complete before the client receives it. the "frame" at this point
-                    // should have completely detached objects from the transaction (i.e. serialization has occurred)
-                    // so a new one should not be opened on the flush down the netty pipeline
-                    ctx.writeAndFlush(frame);
+            // the batch size can be overridden by the request
+            this.resultIterationBatchSize = (Integer) msg.optionalArgs(Tokens.ARGS_BATCH_SIZE)
+                    .orElse(settings.resultIterationBatchSize);
+
+            // the number of items in each batch adapts to the average serialized size of the items written so far so
+            // that frames stay near the target size. the first batch has nothing to go on so it is bounded by count only
+            this.targetBytes = settings.resultIterationBatchTargetBytes;
+            this.maxLatency = settings.resultIterationBatchMaxLatency;
+            this.batchLimit = resultIterationBatchSize;
+            this.aggregate = new ArrayList<>(resultIterationBatchSize);
+
+            stopWatch.start();
+        }
+
+        /**
+         * Iterates the result until it is written in full or until it is paused for a slow client and the rest of
+         * the iteration is left to a continuation.
+         */
+        private void iterate() throws TimeoutException, InterruptedException {
+            while (hasMore) {
+                if (Thread.interrupted()) throw new InterruptedException();
+
+                // have to check the aggregate size because it is possible that the channel is not writeable (below)
+                // so iterating next() if the message is not written and flushed would bump the aggregate size beyond
+                // the expected resultIterationBatchSize.  Total serialization time for the response remains in
+                // effect so if the client is "slow" it may simply timeout.
+                if (aggregate.size() < batchLimit && itty.hasNext()) {
+                    if (aggregate.isEmpty()) batchStarted = System.currentTimeMillis();
+                    aggregate.add(itty.next());
                 }
-            } else {
-                // don't keep triggering this warning over and over again for the same request
-                if (!warnOnce) {
-                    logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
-                    warnOnce = true;
+
+                // send back a page of results if batch size is met or if it's the end of the results being iterated.
+                // the age of the batch can only be checked here, after next() returned, as the batch has to be
+                // serialized by this thread, so the max latency bounds the time between items and not the time spent
+                // waiting within next(). also check writeability of the channel to prevent OOME for slow clients.
+                if (ctx.channel().isWritable()) {
+                    if (aggregate.size() >= batchLimit || !itty.hasNext() ||
+                            (maxLatency > 0 && System.currentTimeMillis() - batchStarted >= maxLatency)) {
+                        final ResponseStatusCode code = itty.hasNext() ? ResponseStatusCode.PARTIAL_CONTENT : ResponseStatusCode.SUCCESS;
+
+                        // serialize here because in sessionless requests the serialization must occur in the same
+                        // thread as the eval.  as eval occurs in the GremlinExecutor there's no way to get back to the
+                        // thread that processed the eval of the script so, we have to push serialization down into that
+                        Frame frame;
+                        try {
+                            frame = makeFrame(ctx, msg, serializer, useBinary, aggregate, code);
+                        } catch (Exception ex) {
+                            // exception is handled in makeFrame() - serialization error gets written back to driver
+                            // at that point
+                            if (managedTransactionsForRequest) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
+                            break;
+                        }
+
+                        final int frameSize = getFrameSize(frame);
+                        frameSizeHistogram.update(frameSize);
+                        batchFillHistogram.update(aggregate.size() * 100 / resultIterationBatchSize);
+
+                        if (targetBytes > 0) {
+                            itemsWritten += aggregate.size();
+                            bytesWritten += frameSize;
+                            batchLimit = bytesWritten == 0 ? resultIterationBatchSize :
+                                    (int) Math.max(1, Math.min(resultIterationBatchSize, targetBytes * itemsWritten / bytesWritten));
+                        }
+
+                        // only need to reset the aggregation list if there's more stuff to write
+                        if (itty.hasNext())
+                            aggregate = new ArrayList<>(batchLimit);
+                        else {
+                            // iteration and serialization are both complete which means this finished successfully. note that
+                            // errors internal to script eval or timeout will rollback given GremlinServer's global configurations.
+                            // local errors will get rolledback below because the exceptions aren't thrown in those cases to be
+                            // caught by the GremlinExecutor for global rollback logic. this only needs to be committed if
+                            // there are no more items to iterate and serialization is complete
+                            if (managedTransactionsForRequest) attemptCommit(msg, context.getGraphManager(), settings.strictTransactionManagement);
+
+                            // exit the result iteration loop as there are no more results left.  using this external control
+                            // because of the above commit.  some graphs may open a new transaction on the call to
+                            // hasNext()
+                            hasMore = false;
+                        }
+
+                        // the flush is called after the commit has potentially occurred.  in this way, if a commit was
+                        // required then it will be 100% complete before the client receives it. the "frame" at this point
+                        // should have completely detached objects from the transaction (i.e. serialization has occurred)
+                        // so a new one should not be opened on the flush down the netty pipeline
+                        ctx.writeAndFlush(frame);
+                    }
+                } else {
+                    // don't keep triggering this warning over and over again for the same request
+                    if (!warnOnce) {
+                        logger.warn("Pausing response writing as writeBufferHighWaterMark exceeded on {} - writing will continue once client has caught up", msg);
+                        warnOnce = true;
+                    }
+
+                    // since the client is lagging the iteration holds until netty signals that the channel is writable
+                    // again (or closed) rather than polling it. where nothing binds the iteration to this thread it
+                    // is left to a continuation so that the worker is free in the meantime, otherwise the worker
+                    // waits, bounded by whatever remains of the serializedResponseTimeout. neither blocks the IO thread.
+                    if (canResumeIteration(context) && pause()) return;
+
+                    WritabilityHandler.awaitWritable(ctx.channel(),
+                            Math.max(1, settings.serializedResponseTimeout - stopWatch.getTime()));
+
+                    // a closed channel will never become writable again so there is no point in continuing iteration
+                    if (!ctx.channel().isActive())
+                        throw new IllegalStateException(String.format("Channel closed before the response to %s could be written", msg));
                 }
 
-                // since the client is lagging we can hold here for a period of time for the client to catch up.
-                // this isn't blocking the IO thread - just a worker.
-                TimeUnit.MILLISECONDS.sleep(10);
+                stopWatch.split();
+                if (stopWatch.getSplitTime() > settings.serializedResponseTimeout)
+                    throw new TimeoutException(getTimeoutMessage());
+
+                stopWatch.unsplit();
+            }
+
+            stopWatch.stop();
+        }
+
+        /**
+         * Leaves the rest of the iteration to a continuation that resumes it on the {@link GremlinExecutor} once the
+         * channel is writable, or that fails the request if that does not happen within the
+         * {@link Settings#serializedResponseTimeout}.
+         *
+         * @return {@code false} if the channel can not signal writability, in which case nothing was registered and
+         * the resume executor was not asked for
+         */
+        private boolean pause() {
+            final Channel channel = ctx.channel();
+            if (!WritabilityHandler.canSignal(channel)) return false;
+
+            final Executor resumeExecutor = getResumeExecutor(context);
+            final Runnable continuation = () -> {
+                final ScheduledFuture<?> timeout = pauseTimeout;
+                if (timeout != null) timeout.cancel(false);
+                resumeExecutor.execute(this::resume);
+            };
+
+            WritabilityHandler.whenWritable(channel, continuation);
+
+            // the continuation is cancelled by the timeout only if it has not run yet, so exactly one of them acts
+            pauseTimeout = context.getScheduledExecutorService().schedule(() -> {
+                if (WritabilityHandler.cancel(channel, continuation))
+                    resumeExecutor.execute(() -> fail(new TimeoutException(getTimeoutMessage())));
+            }, Math.max(1, settings.serializedResponseTimeout - stopWatch.getTime()), TimeUnit.MILLISECONDS);
+            return true;
+        }
+
+        private void resume() {
+            try {
+                // a closed channel will never become writable again so there is no point in continuing iteration
+                if (!ctx.channel().isActive())
+                    throw new IllegalStateException(String.format("Channel closed before the response to %s could be written", msg));
+                iterate();
+            } catch (Exception ex) {
+                fail(ex);
             }
+        }
 
-            stopWatch.split();
-            if (stopWatch.getSplitTime() > settings.serializedResponseTimeout) {
-                final String timeoutMsg = String.format("Serialization of the entire response exceeded the 'serializeResponseTimeout' setting %s",
-                        warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "");
-                throw new TimeoutException(timeoutMsg.trim());
+        /**
+         * Writes the failure of iteration resumed by a continuation back to the client as nothing is left on the
+         * thread that started the iteration to do it.
+         */
+        private void fail(final Exception ex) {
+            if (ex instanceof TimeoutException) {
+                final String errorMessage = String.format("Response iteration exceeded the configured threshold for request [%s] - %s", msg, ex.getMessage());
+                logger.warn(errorMessage);
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR_TIMEOUT).statusMessage(errorMessage).create());
+            } else {
+                logger.warn(String.format("Exception on resumed result iteration for request [%s].", msg), ex);
+                final String err = ex.getMessage();
+                ctx.writeAndFlush(ResponseMessage.build(msg).code(ResponseStatusCode.SERVER_ERROR)
+                        .statusMessage(null == err || err.isEmpty() ? ex.getClass().getSimpleName() : err).create());
             }
 
-            stopWatch.unsplit();
+            if (managedTransactionsForRequest) attemptRollback(msg, context.getGraphManager(), settings.strictTransactionManagement);
         }
 
-        stopWatch.stop();
+        private String getTimeoutMessage() {
+            return String.format("Serialization of the entire response exceeded the 'serializeResponseTimeout' setting %s",
+                    warnOnce ? "[Gremlin Server paused writes to client as messages were not being consumed quickly enough]" : "").trim();
+        }
+    }
+
+    private static int getFrameSize(final Frame frame) {
+        final Object msg = frame.getMsg();
+        if (msg instanceof ByteBuf)
+            return ((ByteBuf) msg).readableBytes();
+        else if (msg instanceof String)
+            return ((String) msg).length();
+        else
+            return 0;
+    }
+
+    /**
+     * Determines if the server commits the transaction of a request once its results are iterated and rolls it back
+     * on failure.  Sessionless requests are always transaction managed, but in-session requests are configurable.
+     */
+    protected boolean isTransactionManaged(final RequestMessage msg) {
+        return manageTransactions || (Boolean) msg.getArgs().getOrDefault(Tokens.ARGS_MANAGE_TRANSACTION, false);
     }
 
     protected static Frame makeFrame(final ChannelHandlerContext ctx, final RequestMessage msg,
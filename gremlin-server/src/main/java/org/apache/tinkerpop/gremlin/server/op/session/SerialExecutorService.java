@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.session;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An {@code ExecutorService} that queues its tasks and hands them one at a time to a shared {@code Executor}, so
+ * that tasks submitted to it run in order and never concurrently while not holding a thread of their own. Each
+ * completed task re-submits the next one, so many instances sharing the same {@code Executor} take turns on it. A
+ * running task may {@link #hold()} its turn to finish its work later without keeping its thread in the meantime.
+ */
+class SerialExecutorService extends AbstractExecutorService {
+    private final Executor executor;
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private boolean active = false;
+    private boolean shutdown = false;
+
+    /**
+     * The parts of the active task that have yet to complete: the task itself and the continuations it holds.
+     */
+    private int parts = 0;
+
+    SerialExecutorService(final Executor executor) {
+        this.executor = executor;
+    }
+
+    @Override
+    public synchronized void execute(final Runnable command) {
+        if (shutdown) throw new RejectedExecutionException("The executor has been shutdown");
+        tasks.add(command);
+        if (!active) scheduleNext();
+    }
+
+    private synchronized void scheduleNext() {
+        final Runnable task = tasks.poll();
+        active = task != null;
+        if (active) {
+            parts = 1;
+            try {
+                executor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException ree) {
+                active = false;
+                tasks.clear();
+                if (shutdown) terminated.countDown();
+                throw ree;
+            }
+        } else if (shutdown) {
+            terminated.countDown();
+        }
+    }
+
+    private synchronized void complete() {
+        if (--parts == 0) scheduleNext();
+    }
+
+    /**
+     * Keeps the next task from starting once the running task returns until a continuation of the running task has
+     * completed, so the running task can leave the rest of its work to that continuation rather than wait for it on
+     * its thread.  Must only be called from the running task.
+     *
+     * @return an {@code Executor} that must be given exactly one continuation, which runs on the shared
+     * {@code Executor} in place of the next task
+     */
+    synchronized Executor hold() {
+        if (!active) throw new IllegalStateException("Only a running task can hold its turn");
+        parts++;
+        return continuation -> {
+            try {
+                executor.execute(() -> {
+                    try {
+                        continuation.run();
+                    } finally {
+                        complete();
+                    }
+                });
+            } catch (RejectedExecutionException ree) {
+                complete();
+                throw ree;
+            }
+        };
+    }
+
+    @Override
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (!active) terminated.countDown();
+    }
+
+    @Override
+    public synchronized List<Runnable> shutdownNow() {
+        final List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        shutdown();
+        return pending;
+    }
+
+    @Override
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminated.getCount() == 0;
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+}
@@ -19,6 +19,7 @@
 package org.apache.tinkerpop.gremlin.server.op.session;
 
 import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
+import org.apache.tinkerpop.gremlin.groovy.jsr223.GremlinGroovyScriptEngine;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GraphManager;
 import org.apache.tinkerpop.gremlin.server.Settings;
@@ -55,19 +56,34 @@ public class Session {
     /**
      * Each session gets its own ScriptEngine so as to isolate its configuration and the classes loaded to it.
      * This is important as it enables user interfaces built on Gremlin Server to have isolation in what
-     * libraries they use and what classes exist.
+     * libraries they use and what classes exist. Lightweight sessions instead share the ScriptEngine of a
+     * common {@link GremlinExecutor} (and therefore its compiled scripts) and keep their bindings, along with the
+     * functions that their scripts define, isolated.
      */
     private final GremlinExecutor gremlinExecutor;
 
     /**
      * By binding the session to run ScriptEngine evaluations in a specific thread, each request will respect
-     * the ThreadLocal nature of Graph implementations.
+     * the ThreadLocal nature of Graph implementations. Lightweight sessions queue their requests to run one at
+     * a time on a shared pool instead, so they are ordered but not bound to a particular thread.
      */
-    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService executor;
+
+    private final boolean lightweight;
 
     private final ConcurrentHashMap<String, Session> sessions;
 
     public Session(final String session, final Context context, final ConcurrentHashMap<String, Session> sessions) {
+        this(session, context, sessions, null, null);
+    }
+
+    /**
+     * Creates a lightweight session when a shared {@code ExecutorService} and {@link GremlinExecutor} are supplied.
+     * A lightweight session does not hold a thread or a ScriptEngine of its own.  As its requests may execute on
+     * any thread of the shared pool, transactions are not carried over from one request to the next.
+     */
+    public Session(final String session, final Context context, final ConcurrentHashMap<String, Session> sessions,
+                   final ExecutorService sharedExecutor, final GremlinExecutor sharedGremlinExecutor) {
         logger.info("New session established for {}", session);
         this.session = session;
         this.bindings = new SimpleBindings();
@@ -81,7 +97,13 @@ public class Session {
                 .findAny().orElse(SessionOpProcessor.DEFAULT_SETTINGS);
         this.configuredSessionTimeout = Long.parseLong(processorSettings.config.get(SessionOpProcessor.CONFIG_SESSION_TIMEOUT).toString());
 
-        this.gremlinExecutor = initializeGremlinExecutor().create();
+        this.lightweight = sharedExecutor != null && sharedGremlinExecutor != null;
+        this.executor = lightweight ? new SerialExecutorService(sharedExecutor) : Executors.newSingleThreadExecutor();
+
+        // functions are registered with the bindings of the session rather than with the shared ScriptEngine, where
+        // every other session would see them and they would pile up for as long as the server runs
+        if (lightweight) this.bindings.put(GremlinGroovyScriptEngine.KEY_FUNCTIONS, new ConcurrentHashMap<String, Object>());
+        this.gremlinExecutor = initializeGremlinExecutor(lightweight ? sharedGremlinExecutor : null).create();
     }
 
     public GremlinExecutor getGremlinExecutor() {
@@ -96,6 +118,13 @@ public class Session {
         return executor;
     }
 
+    /**
+     * Determines if this session runs on a shared pool with a shared ScriptEngine.
+     */
+    public boolean isLightweight() {
+        return lightweight;
+    }
+
     public void touch() {
         // if the task of killing is cancelled successfully then reset the session monitor. otherwise this session
         // has already been killed and there's nothing left to do with this session.
@@ -153,7 +182,7 @@ public class Session {
         logger.info("Session {} closed", session);
     }
 
-    private GremlinExecutor.Builder initializeGremlinExecutor() {
+    private GremlinExecutor.Builder initializeGremlinExecutor(final GremlinExecutor sharedGremlinExecutor) {
         final GremlinExecutor.Builder gremlinExecutorBuilder = GremlinExecutor.build()
                 .scriptEvaluationTimeout(settings.scriptEvaluationTimeout)
                 .afterTimeout(b -> {
@@ -165,11 +194,28 @@ public class Session {
                     this.bindings.clear();
                     this.bindings.putAll(b);
                 })
-                .enabledPlugins(new HashSet<>(settings.plugins))
-                .globalBindings(graphManager.getAsBindings())
+                .afterFailure((b, t) -> {
+                    // a lightweight session can't leave a transaction open on a pool thread that other sessions use
+                    if (lightweight) graphManager.rollbackAll();
+                })
                 .executorService(executor)
                 .scheduledExecutorService(scheduledExecutorService);
 
+        if (null == sharedGremlinExecutor)
+            return configureScriptEngines(gremlinExecutorBuilder, settings, graphManager);
+        else
+            return gremlinExecutorBuilder.globalBindings(sharedGremlinExecutor.getGlobalBindings())
+                    .scriptEngines(sharedGremlinExecutor.getScriptEngines());
+    }
+
+    /**
+     * Applies the plugins, global bindings and script engine settings of the server to a {@link GremlinExecutor}.
+     */
+    static GremlinExecutor.Builder configureScriptEngines(final GremlinExecutor.Builder gremlinExecutorBuilder,
+                                                          final Settings settings, final GraphManager graphManager) {
+        gremlinExecutorBuilder.enabledPlugins(new HashSet<>(settings.plugins))
+                .globalBindings(graphManager.getAsBindings());
+
         settings.scriptEngines.forEach((k, v) -> {
             // make sure that server related classes are available at init - not really necessary here because
             // lifecycle hooks are not executed per session, but there should be some consistency .... i guess
@@ -22,6 +22,7 @@ import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.groovy.engine.GremlinExecutor;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalSource;
 import org.apache.tinkerpop.gremlin.server.Context;
 import org.apache.tinkerpop.gremlin.server.GremlinServer;
@@ -30,6 +31,8 @@ import org.apache.tinkerpop.gremlin.server.handler.StateKey;
 import org.apache.tinkerpop.gremlin.server.op.AbstractEvalOpProcessor;
 import org.apache.tinkerpop.gremlin.server.op.OpProcessorException;
 import org.apache.tinkerpop.gremlin.server.util.MetricManager;
+import org.apache.tinkerpop.gremlin.server.util.ServerGremlinExecutor;
+import org.apache.tinkerpop.gremlin.server.util.ThreadFactoryUtil;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.util.function.ThrowingConsumer;
 import org.slf4j.Logger;
@@ -41,6 +44,9 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -76,12 +82,30 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
      */
     public static final long DEFAULT_SESSION_TIMEOUT = 28800000l;
 
+    /**
+     * Configuration setting for the number of threads shared by lightweight sessions.  When greater than zero,
+     * sessions do not get a thread and ScriptEngine of their own.  Instead their requests are queued to run one at
+     * a time on a pool of this size and scripts are evaluated with a ScriptEngine that all sessions share, so
+     * compiled scripts are reused across sessions while bindings and the functions defined in scripts remain
+     * isolated.  As requests are not bound to a particular thread, every request is transaction managed.
+     */
+    public static final String CONFIG_SESSION_THREAD_POOL_SIZE = "sessionThreadPoolSize";
+
+    /**
+     * By default every session has its own thread and ScriptEngine.
+     */
+    public static final int DEFAULT_SESSION_THREAD_POOL_SIZE = 0;
+
+    private ExecutorService sharedSessionExecutor = null;
+    private GremlinExecutor sharedSessionGremlinExecutor = null;
+
     static final Settings.ProcessorSettings DEFAULT_SETTINGS = new Settings.ProcessorSettings();
 
     static {
         DEFAULT_SETTINGS.className = SessionOpProcessor.class.getCanonicalName();
         DEFAULT_SETTINGS.config = new HashMap<String, Object>() {{
             put(CONFIG_SESSION_TIMEOUT, DEFAULT_SESSION_TIMEOUT);
+            put(CONFIG_SESSION_THREAD_POOL_SIZE, DEFAULT_SESSION_THREAD_POOL_SIZE);
         }};
     }
 
@@ -94,6 +118,28 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
         return OP_PROCESSOR_NAME;
     }
 
+    /**
+     * Creates the thread pool and {@link GremlinExecutor} that lightweight sessions share if
+     * {@link #CONFIG_SESSION_THREAD_POOL_SIZE} is configured.
+     */
+    @Override
+    public void init(final ServerGremlinExecutor<?> serverGremlinExecutor) {
+        final Settings settings = serverGremlinExecutor.getSettings();
+        final Settings.ProcessorSettings processorSettings = settings.processors.stream()
+                .filter(p -> p.className.equals(SessionOpProcessor.class.getCanonicalName()))
+                .findAny().orElse(DEFAULT_SETTINGS);
+        final int sessionThreadPoolSize = Integer.parseInt(processorSettings.config.getOrDefault(
+                CONFIG_SESSION_THREAD_POOL_SIZE, DEFAULT_SESSION_THREAD_POOL_SIZE).toString());
+        if (sessionThreadPoolSize <= 0) return;
+
+        sharedSessionExecutor = Executors.newFixedThreadPool(sessionThreadPoolSize, ThreadFactoryUtil.create("session-%d"));
+        sharedSessionGremlinExecutor = Session.configureScriptEngines(GremlinExecutor.build()
+                .scriptEvaluationTimeout(settings.scriptEvaluationTimeout)
+                .executorService(sharedSessionExecutor)
+                .scheduledExecutorService(serverGremlinExecutor.getScheduledExecutorService()), settings, serverGremlinExecutor.getGraphManager())
+                .create();
+    }
+
     /**
      * Session based requests accept a "close" operator in addition to "eval".  A close will trigger the session to be
      * killed and any uncommitted transaction to be rolled-back.
@@ -139,9 +185,39 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
         return Optional.empty();
     }
 
+    @Override
+    protected boolean isTransactionManaged(final RequestMessage msg) {
+        // lightweight sessions move between threads so a transaction can't be left open from one request to the next
+        final Session session = sessions.get(msg.getArgs().get(Tokens.ARGS_SESSION).toString());
+        return super.isTransactionManaged(msg) || (session != null && session.isLightweight());
+    }
+
+    /**
+     * Iteration of the requests of a session that has a thread of its own is never resumed from another thread.
+     * A lightweight session is not bound to a thread, so its iteration is resumed, if no graph is transactional,
+     * through the executor that runs its requests one at a time and that holds back the next request until then.
+     */
+    @Override
+    protected boolean canResumeIteration(final Context context) {
+        final Session session = sessions.get(context.getRequestMessage().getArgs().get(Tokens.ARGS_SESSION).toString());
+        return session != null && session.isLightweight() && super.canResumeIteration(context);
+    }
+
+    @Override
+    protected Executor getResumeExecutor(final Context context) {
+        final Session session = sessions.get(context.getRequestMessage().getArgs().get(Tokens.ARGS_SESSION).toString());
+        // a session closed in the meantime has no further requests to hold back
+        return null == session ? super.getResumeExecutor(context) : ((SerialExecutorService) session.getExecutor()).hold();
+    }
+
     @Override
     public void close() throws Exception {
        sessions.values().forEach(Session::manualKill);
+
+       if (sharedSessionGremlinExecutor != null) sharedSessionGremlinExecutor.close();
+       if (sharedSessionExecutor != null) sharedSessionExecutor.shutdown();
+       sharedSessionGremlinExecutor = null;
+       sharedSessionExecutor = null;
     }
 
     protected void evalOp(final Context context) throws OpProcessorException {
@@ -160,17 +236,23 @@ public class SessionOpProcessor extends AbstractEvalOpProcessor {
      * Examines the {@link RequestMessage} and extracts the session token. The session is then either found or a new
      * one is created.
      */
-    protected static Session getSession(final Context context, final RequestMessage msg) {
+    protected Session getSession(final Context context, final RequestMessage msg) {
         final String sessionId = (String) msg.getArgs().get(Tokens.ARGS_SESSION);
 
         logger.debug("In-session request {} for eval for session {} in thread {}",
                 msg.getRequestId(), sessionId, Thread.currentThread().getName());
 
-        final Session session = sessions.computeIfAbsent(sessionId, k -> new Session(k, context, sessions));
+        final Session session = sessions.computeIfAbsent(sessionId, k -> createSession(k, context));
         session.touch();
         return session;
     }
 
+    private Session createSession(final String sessionId, final Context context) {
+        // the shared pool only exists if lightweight sessions are configured
+        return null == sharedSessionExecutor ? new Session(sessionId, context, sessions) :
+                new Session(sessionId, context, sessions, sharedSessionExecutor, sharedSessionGremlinExecutor);
+    }
+
     /**
      * A useful method for those extending this class, where the means for binding construction can be supplied
      * to this class.  This function is used in {@link #evalOp(Context)} to create the final argument to
@@ -40,8 +40,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Integration tests for server-side settings and processing.
@@ -76,6 +78,11 @@ public class GremlinServerHttpIntegrateTest extends AbstractGremlinServerIntegra
                 deleteDirectory(new File("/tmp/neo4j"));
                 settings.graphs.put("graph", "conf/neo4j-empty.properties");
                 break;
+            case "should200OnPOSTWithGzipEncodedResponseWhenAboveThreshold":
+                settings.compression = new Settings.CompressionSettings();
+                settings.compression.enabled = true;
+                settings.compression.threshold = 256;
+                break;
             case "should401OnGETWithNoAuthorizationHeader":
             case "should401OnPOSTWithNoAuthorizationHeader":
             case "should401OnGETWithBadAuthorizationHeader":
@@ -334,6 +341,36 @@ public class GremlinServerHttpIntegrateTest extends AbstractGremlinServerIntegra
         }
     }
 
+    @Test
+    public void should200OnPOSTWithGzipEncodedResponseWhenAboveThreshold() throws Exception {
+        // content compression of the client is disabled so that the encoding of the response can be seen
+        final CloseableHttpClient httpclient = HttpClients.custom().disableContentCompression().build();
+
+        final HttpPost small = new HttpPost("http://localhost:8182");
+        small.addHeader("Content-Type", "application/json");
+        small.addHeader("Accept-Encoding", "gzip");
+        small.setEntity(new StringEntity("{\"gremlin\":\"1-1\"}", Consts.UTF_8));
+
+        try (final CloseableHttpResponse response = httpclient.execute(small)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertNull(response.getFirstHeader("Content-Encoding"));
+            final JsonNode node = mapper.readTree(EntityUtils.toString(response.getEntity()));
+            assertEquals(0, node.get("result").get("data").get(0).intValue());
+        }
+
+        final HttpPost large = new HttpPost("http://localhost:8182");
+        large.addHeader("Content-Type", "application/json");
+        large.addHeader("Accept-Encoding", "gzip");
+        large.setEntity(new StringEntity("{\"gremlin\":\"'x' * 1000\"}", Consts.UTF_8));
+
+        try (final CloseableHttpResponse response = httpclient.execute(large)) {
+            assertEquals(200, response.getStatusLine().getStatusCode());
+            assertEquals("gzip", response.getFirstHeader("Content-Encoding").getValue());
+            final JsonNode node = mapper.readTree(new GZIPInputStream(response.getEntity().getContent()));
+            assertEquals(String.join("", Collections.nCopies(1000, "x")), node.get("result").get("data").get(0).textValue());
+        }
+    }
+
     @Test
     public void should200OnGETWithGremlinQueryStringArgument() throws Exception {
         final CloseableHttpClient httpclient = HttpClients.createDefault();
@@ -19,6 +19,8 @@
 package org.apache.tinkerpop.gremlin.server;
 
 import java.io.File;
+
+import com.codahale.metrics.Counter;
 import org.apache.commons.lang.exception.ExceptionUtils;
 import org.apache.log4j.Logger;
 import org.apache.tinkerpop.gremlin.driver.Client;
@@ -29,6 +31,7 @@ import org.apache.tinkerpop.gremlin.driver.Tokens;
 import org.apache.tinkerpop.gremlin.driver.message.RequestMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseMessage;
 import org.apache.tinkerpop.gremlin.driver.message.ResponseStatusCode;
+import org.apache.tinkerpop.gremlin.driver.ser.MessageTextSerializer;
 import org.apache.tinkerpop.gremlin.driver.ser.Serializers;
 import org.apache.tinkerpop.gremlin.driver.simple.NioClient;
 import org.apache.tinkerpop.gremlin.driver.simple.SimpleClient;
@@ -41,6 +44,7 @@ import org.apache.tinkerpop.gremlin.groovy.jsr223.customizer.TimedInterruptCusto
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.server.channel.NioChannelizer;
 import org.apache.tinkerpop.gremlin.server.op.session.SessionOpProcessor;
+import org.apache.tinkerpop.gremlin.server.util.MetricManager;
 import org.apache.tinkerpop.gremlin.structure.util.detached.DetachedVertex;
 import org.apache.tinkerpop.gremlin.util.Log4jRecordingAppender;
 import org.hamcrest.CoreMatchers;
@@ -48,7 +52,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
 import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -63,6 +73,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import static com.codahale.metrics.MetricRegistry.name;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.core.IsInstanceOf.instanceOf;
@@ -105,6 +116,18 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
                 settings.writeBufferHighWaterMark = 64;
                 settings.writeBufferLowWaterMark = 32;
                 break;
+            case "shouldFreeWorkerWhileResponseIsPausedForSlowReader":
+                settings.gremlinPool = 1;
+                break;
+            case "shouldFreeLightweightSessionThreadWhileResponseIsPausedForSlowReader":
+                settings.processors.clear();
+                final Settings.ProcessorSettings lightweightSettings = new Settings.ProcessorSettings();
+                lightweightSettings.className = SessionOpProcessor.class.getCanonicalName();
+                lightweightSettings.config = new HashMap<>();
+                lightweightSettings.config.put(SessionOpProcessor.CONFIG_SESSION_TIMEOUT, SessionOpProcessor.DEFAULT_SESSION_TIMEOUT);
+                lightweightSettings.config.put(SessionOpProcessor.CONFIG_SESSION_THREAD_POOL_SIZE, 1);
+                settings.processors.add(lightweightSettings);
+                break;
             case "shouldReceiveFailureTimeOutOnScriptEval":
                 settings.scriptEvaluationTimeout = 200;
                 break;
@@ -117,6 +140,14 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
             case "shouldBatchResultsByTwos":
                 settings.resultIterationBatchSize = 2;
                 break;
+            case "shouldCompressResponsesWhenNegotiated":
+                settings.compression = new Settings.CompressionSettings();
+                settings.compression.enabled = true;
+                settings.compression.threshold = 256;
+                break;
+            case "shouldBatchResultsByTargetBytes":
+                settings.resultIterationBatchTargetBytes = 1024;
+                break;
             case "shouldWorkOverNioTransport":
                 settings.channelizer = NioChannelizer.class.getName();
                 break;
@@ -339,6 +370,115 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldFreeWorkerWhileResponseIsPausedForSlowReader() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect();
+
+        // a raw websocket that stops reading after its request so that the server has to pause the response
+        try (final Socket slowReader = new Socket()) {
+            slowReader.setReceiveBufferSize(1024);
+            slowReader.setSoTimeout(30000);
+            slowReader.connect(new InetSocketAddress("localhost", 8182));
+            final OutputStream out = slowReader.getOutputStream();
+            final InputStream in = slowReader.getInputStream();
+            out.write(("GET /gremlin HTTP/1.1\r\nHost: localhost:8182\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n" +
+                    "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            readUntil(in, "\r\n\r\n");
+
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_BATCH_SIZE, 64)
+                    .addArg(Tokens.ARGS_GREMLIN, "def s = 'x' * 10000; (1..5000).collect{s}").create();
+            out.write(maskedTextFrame(((MessageTextSerializer) Serializers.DEFAULT_REQUEST_SERIALIZER).serializeRequestAsString(request)));
+            out.flush();
+
+            // with a single worker in the pool the next request can only be served if the paused response released it
+            final long start = System.currentTimeMillis();
+            while (!recordingAppender.getMessages().stream().anyMatch(m -> m.contains("Pausing response writing as writeBufferHighWaterMark exceeded on"))) {
+                assertTrue("The response to the slow reader was never paused", System.currentTimeMillis() - start < 30000);
+                Thread.sleep(50);
+            }
+            assertEquals(2, client.submit("1+1").all().get(10, TimeUnit.SECONDS).get(0).getInt());
+
+            // and the paused response resumes to completion once the reader catches up
+            readUntil(in, "\"code\":200");
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldFreeLightweightSessionThreadWhileResponseIsPausedForSlowReader() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client client = cluster.connect(name.getMethodName() + "Other");
+
+        // a raw websocket that stops reading after its request so that the server has to pause the response
+        try (final Socket slowReader = new Socket()) {
+            slowReader.setReceiveBufferSize(1024);
+            slowReader.setSoTimeout(30000);
+            slowReader.connect(new InetSocketAddress("localhost", 8182));
+            final OutputStream out = slowReader.getOutputStream();
+            final InputStream in = slowReader.getInputStream();
+            out.write(("GET /gremlin HTTP/1.1\r\nHost: localhost:8182\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n" +
+                    "Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==\r\nSec-WebSocket-Version: 13\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            readUntil(in, "\r\n\r\n");
+
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL).processor("session")
+                    .addArg(Tokens.ARGS_SESSION, name.getMethodName() + "Slow")
+                    .addArg(Tokens.ARGS_BATCH_SIZE, 64)
+                    .addArg(Tokens.ARGS_GREMLIN, "def s = 'x' * 10000; (1..5000).collect{s}").create();
+            out.write(maskedTextFrame(((MessageTextSerializer) Serializers.DEFAULT_REQUEST_SERIALIZER).serializeRequestAsString(request)));
+            out.flush();
+
+            // with a single thread shared by the sessions another session can only be served if the paused
+            // response released it
+            final long start = System.currentTimeMillis();
+            while (!recordingAppender.getMessages().stream().anyMatch(m -> m.contains("Pausing response writing as writeBufferHighWaterMark exceeded on"))) {
+                assertTrue("The response to the slow reader was never paused", System.currentTimeMillis() - start < 30000);
+                Thread.sleep(50);
+            }
+            assertEquals(2, client.submit("1+1").all().get(10, TimeUnit.SECONDS).get(0).getInt());
+
+            // and the paused response resumes to completion once the reader catches up
+            readUntil(in, "\"code\":200");
+        } finally {
+            cluster.close();
+        }
+    }
+
+    private static void readUntil(final InputStream in, final String marker) throws Exception {
+        final byte[] buffer = new byte[8192];
+        String tail = "";
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            final String chunk = tail + new String(buffer, 0, read, StandardCharsets.ISO_8859_1);
+            if (chunk.contains(marker)) return;
+            tail = chunk.substring(Math.max(0, chunk.length() - marker.length()));
+        }
+
+        fail(String.format("The stream ended before %s was read", marker));
+    }
+
+    private static byte[] maskedTextFrame(final String text) {
+        final byte[] payload = text.getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        frame.write(0x81);
+        if (payload.length < 126)
+            frame.write(0x80 | payload.length);
+        else {
+            frame.write(0x80 | 126);
+            frame.write(payload.length >>> 8);
+            frame.write(payload.length & 0xff);
+        }
+
+        // client frames must be masked and a mask of zeros leaves the payload as it is
+        frame.write(new byte[4], 0, 4);
+        frame.write(payload, 0, payload.length);
+        return frame.toByteArray();
+    }
+
     @Test
     public void shouldReturnInvalidRequestArgsWhenGremlinArgIsNotSupplied() throws Exception {
         try (SimpleClient client = new WebSocketClient()) {
@@ -440,6 +580,54 @@ public class GremlinServerIntegrateTest extends AbstractGremlinServerIntegration
         }
     }
 
+    @Test
+    public void shouldCompressResponsesWhenNegotiated() throws Exception {
+        final Cluster cluster = Cluster.build().enableCompression(true).create();
+        final Client client = cluster.connect();
+
+        final Counter uncompressedBytes = MetricManager.INSTANCE.getCounter(name(GremlinServer.class, "compression", "uncompressedBytes"));
+        final Counter compressedBytes = MetricManager.INSTANCE.getCounter(name(GremlinServer.class, "compression", "compressedBytes"));
+
+        try {
+            // one small response that goes out uncompressed and one large response that is compressed
+            final long uncompressedBeforeSmall = uncompressedBytes.getCount();
+            final long compressedBeforeSmall = compressedBytes.getCount();
+            assertEquals(2, client.submit("1+1").all().get().get(0).getInt());
+            assertEquals(uncompressedBeforeSmall, uncompressedBytes.getCount());
+            assertEquals(compressedBeforeSmall, compressedBytes.getCount());
+
+            final String fatty = IntStream.range(0, 175).mapToObj(String::valueOf).collect(Collectors.joining());
+            final List<Result> results = client.submit("['" + fatty + "'] * 100").all().get();
+            assertEquals(100, results.size());
+            results.forEach(r -> assertEquals(fatty, r.getString()));
+
+            // the repeated results deflate to far less than they take up serialized
+            final long uncompressed = uncompressedBytes.getCount() - uncompressedBeforeSmall;
+            final long compressed = compressedBytes.getCount() - compressedBeforeSmall;
+            assertTrue(uncompressed > 100L * fatty.length());
+            assertTrue(compressed > 0);
+            assertTrue(compressed < uncompressed);
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldBatchResultsByTargetBytes() throws Exception {
+        try (SimpleClient client = new WebSocketClient()) {
+            final RequestMessage request = RequestMessage.build(Tokens.OPS_EVAL)
+                    .addArg(Tokens.ARGS_GREMLIN, "['x' * 100] * 200").create();
+
+            // the first batch is bounded by count alone but the rest shrink to roughly 1024 bytes each
+            final List<ResponseMessage> msgs = client.submit(request);
+            assertEquals(64, ((List<String>) msgs.get(0).getResult().getData()).size());
+            assertTrue(msgs.size() > 4);
+            msgs.stream().skip(1).forEach(m -> assertTrue(((List<String>) m.getResult().getData()).size() < 64));
+            assertEquals(200, msgs.stream().mapToInt(m -> ((List<String>) m.getResult().getData()).size()).sum());
+        }
+    }
+
     @Test
     @SuppressWarnings("unchecked")
     public void shouldBatchResultsByOnesByOverridingFromClientSide() throws Exception {
@@ -95,6 +95,16 @@ public class GremlinServerSessionIntegrateTest  extends AbstractGremlinServerInt
 
                 Logger.getRootLogger().setLevel(Level.INFO);
                 break;
+            case "shouldIsolateBindingsOfLightweightSessions":
+            case "shouldIsolateFunctionsOfLightweightSessions":
+                settings.processors.clear();
+                final Settings.ProcessorSettings lightweightSettings = new Settings.ProcessorSettings();
+                lightweightSettings.className = SessionOpProcessor.class.getCanonicalName();
+                lightweightSettings.config = new HashMap<>();
+                lightweightSettings.config.put(SessionOpProcessor.CONFIG_SESSION_TIMEOUT, SessionOpProcessor.DEFAULT_SESSION_TIMEOUT);
+                lightweightSettings.config.put(SessionOpProcessor.CONFIG_SESSION_THREAD_POOL_SIZE, 1);
+                settings.processors.add(lightweightSettings);
+                break;
             case "shouldExecuteInSessionAndSessionlessWithoutOpeningTransactionWithSingleClient":
             case "shouldExecuteInSessionWithTransactionManagement":
                 deleteDirectory(new File("/tmp/neo4j"));
@@ -175,6 +185,61 @@ public class GremlinServerSessionIntegrateTest  extends AbstractGremlinServerInt
 
     }
 
+    @Test
+    public void shouldIsolateBindingsOfLightweightSessions() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client clientA = cluster.connect(name.getMethodName() + "A");
+        final Client clientB = cluster.connect(name.getMethodName() + "B");
+
+        try {
+            // both sessions share a single thread and evaluate the same script, but each keeps its own bindings
+            clientA.submit("x = 1").all().get();
+            clientB.submit("x = 100").all().get();
+
+            final List<CompletableFuture<ResultSet>> futuresA = new ArrayList<>();
+            final List<CompletableFuture<ResultSet>> futuresB = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                futuresA.add(clientA.submitAsync("x = x + 1"));
+                futuresB.add(clientB.submitAsync("x = x + 1"));
+            }
+
+            // requests within a session are evaluated in the order they were submitted
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i + 2, futuresA.get(i).get().one().getInt());
+                assertEquals(i + 101, futuresB.get(i).get().one().getInt());
+            }
+        } finally {
+            cluster.close();
+        }
+    }
+
+    @Test
+    public void shouldIsolateFunctionsOfLightweightSessions() throws Exception {
+        final Cluster cluster = Cluster.open();
+        final Client clientA = cluster.connect(name.getMethodName() + "A");
+        final Client clientB = cluster.connect(name.getMethodName() + "B");
+
+        try {
+            // the same script defines the function in both sessions but each keeps its own version of it
+            assertEquals(3, clientA.submit("def addItUp(x, y) { x + y }; addItUp(1, 2)").all().get().get(0).getInt());
+            assertEquals(3, clientA.submit("addItUp(1, 2)").all().get().get(0).getInt());
+
+            try {
+                clientB.submit("addItUp(1, 2)").all().get();
+                fail("The function of another session should not be visible");
+            } catch (Exception ex) {
+                final Throwable root = ExceptionUtils.getRootCause(ex);
+                assertThat(root, instanceOf(ResponseException.class));
+            }
+
+            assertEquals(-1, clientB.submit("def addItUp(x, y) { x - y }; addItUp(1, 2)").all().get().get(0).getInt());
+            assertEquals(3, clientA.submit("addItUp(1, 2)").all().get().get(0).getInt());
+            assertEquals(-1, clientB.submit("addItUp(1, 2)").all().get().get(0).getInt());
+        } finally {
+            cluster.close();
+        }
+    }
+
     @Test
     public void shouldEnsureSessionBindingsAreThreadSafe() throws Exception {
         final Cluster cluster = Cluster.open();
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.server.op.session;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SerialExecutorServiceTest {
+
+    @Test
+    public void shouldRunTasksInOrder() throws Exception {
+        final ExecutorService shared = Executors.newFixedThreadPool(4);
+        try {
+            final SerialExecutorService serial = new SerialExecutorService(shared);
+            final List<Integer> order = new CopyOnWriteArrayList<>();
+            Future<?> last = null;
+            for (int i = 0; i < 100; i++) {
+                final int task = i;
+                last = serial.submit(() -> order.add(task));
+            }
+            last.get(10, TimeUnit.SECONDS);
+
+            assertEquals(100, order.size());
+            for (int i = 0; i < 100; i++) {
+                assertEquals(i, order.get(i).intValue());
+            }
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldHoldNextTaskUntilContinuationCompletes() throws Exception {
+        // a single shared thread shows that the held task does not keep its thread while the continuation is pending
+        final ExecutorService shared = Executors.newSingleThreadExecutor();
+        try {
+            final SerialExecutorService serial = new SerialExecutorService(shared);
+            final SerialExecutorService other = new SerialExecutorService(shared);
+            final List<String> order = new CopyOnWriteArrayList<>();
+            final AtomicReference<Executor> held = new AtomicReference<>();
+
+            serial.submit(() -> {
+                order.add("first");
+                held.set(serial.hold());
+            }).get(10, TimeUnit.SECONDS);
+            final Future<?> second = serial.submit(() -> order.add("second"));
+
+            // another serial executor on the same thread still gets its turn
+            other.submit(() -> order.add("other")).get(10, TimeUnit.SECONDS);
+            assertFalse(second.isDone());
+
+            final CountDownLatch continued = new CountDownLatch(1);
+            held.get().execute(() -> {
+                order.add("continuation");
+                continued.countDown();
+            });
+            assertTrue(continued.await(10, TimeUnit.SECONDS));
+            second.get(10, TimeUnit.SECONDS);
+
+            assertEquals(Arrays.asList("first", "other", "continuation", "second"), order);
+        } finally {
+            shared.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldOnlyHoldFromRunningTask() {
+        final ExecutorService shared = Executors.newSingleThreadExecutor();
+        try {
+            new SerialExecutorService(shared).hold();
+        } finally {
+            shared.shutdown();
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.apache.tinkerpop.gremlin.neo4j.AbstractNeo4jGremlinTest;
 import org.apache.tinkerpop.gremlin.neo4j.process.traversal.LabelP;
 import org.apache.tinkerpop.gremlin.neo4j.structure.trait.MultiMetaNeo4jTrait;
 import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.structure.Graph;
@@ -40,7 +41,13 @@ import org.neo4j.tinkerpop.api.Neo4jTx;
 
 import javax.script.Bindings;
 import javax.script.ScriptException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
@@ -111,6 +118,39 @@ public class NativeNeo4jStructureCheck extends AbstractNeo4jGremlinTest {
         assertEquals(0, IteratorUtils.count(this.graph.vertices()), 0);
     }
 
+    @Test
+    public void shouldBindCachedPlansOfConcurrentTraversals() throws Exception {
+        this.graph.addVertex("name", "marko", "age", 29);
+        this.graph.addVertex("name", "josh", "age", 32);
+        this.graph.tx().commit();
+
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(10).create();
+        final GraphTraversalSource g = this.graph.traversal().withStrategies(strategy);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Object[] binding : Arrays.asList(new Object[]{29, "marko"}, new Object[]{32, "josh"})) {
+                futures.add(executor.submit(() -> {
+                    try {
+                        for (int i = 0; i < 200; i++) {
+                            assertEquals(Collections.singletonList(binding[1]), g.V().has("age", binding[0]).values("name").toList());
+                        }
+                    } finally {
+                        this.graph.tx().close();
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, strategy.getPlanCache().size());
+        assertTrue(strategy.getPlanCache().getHits() > 0);
+    }
+
     @Test
     public void shouldTraverseWithoutLabels() {
         final Neo4jGraphAPI service = this.getGraph().getBaseGraph();
@@ -41,11 +41,17 @@ public final class SparkMessenger<M> implements Messenger<M> {
     private Vertex vertex;
     private Iterable<M> incomingMessages;
     private List<Tuple2<Object, M>> outgoingMessages = new ArrayList<>();
+    private boolean halted = false;
 
     public void setVertexAndIncomingMessages(final Vertex vertex, final Iterable<M> incomingMessages) {
         this.vertex = vertex;
         this.incomingMessages = incomingMessages;
         this.outgoingMessages = new ArrayList<>();
+        this.halted = false;
+    }
+
+    public boolean isHalted() {
+        return this.halted;
     }
 
     public List<Tuple2<Object, M>> getOutgoingMessages() {
@@ -69,6 +75,11 @@ public final class SparkMessenger<M> implements Messenger<M> {
         }
     }
 
+    @Override
+    public void voteToHalt() {
+        this.halted = true;
+    }
+
     ///////////
 
     private static <T extends Traversal.Admin<Vertex, Edge>> T setVertexStart(final Traversal.Admin<Vertex, Edge> incidentTraversal, final Vertex vertex) {
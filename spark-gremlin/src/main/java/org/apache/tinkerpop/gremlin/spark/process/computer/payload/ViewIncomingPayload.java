@@ -32,6 +32,7 @@ public final class ViewIncomingPayload<M> implements Payload {
 
     private List<DetachedVertexProperty<Object>> view = null;
     private List<M> incomingMessages;
+    private boolean halted = false;
 
 
     private ViewIncomingPayload() {
@@ -45,6 +46,7 @@ public final class ViewIncomingPayload<M> implements Payload {
     public ViewIncomingPayload(final ViewPayload viewPayload) {
         this.incomingMessages = null;
         this.view = viewPayload.getView();
+        this.halted = viewPayload.isHalted();
     }
 
 
@@ -61,6 +63,13 @@ public final class ViewIncomingPayload<M> implements Payload {
         return null != view;
     }
 
+    /**
+     * Determines if the vertex voted to halt in the previous iteration.
+     */
+    public boolean isHalted() {
+        return this.halted;
+    }
+
     ////////////////////
 
 
@@ -72,9 +81,10 @@ public final class ViewIncomingPayload<M> implements Payload {
     }
 
     private void mergeViewIncomingPayload(final ViewIncomingPayload<M> viewIncomingPayload, final MessageCombiner<M> messageCombiner) {
-        if (this.view == null)
+        if (this.view == null) {
             this.view = viewIncomingPayload.view;
-        else
+            this.halted = viewIncomingPayload.halted;
+        } else
             this.view.addAll(viewIncomingPayload.getView());
 
         for (final M message : viewIncomingPayload.getIncomingMessages()) {
@@ -85,9 +95,10 @@ public final class ViewIncomingPayload<M> implements Payload {
     public void mergePayload(final Payload payload, final MessageCombiner<M> messageCombiner) {
         if (null == payload)
             return;
-        if (payload instanceof ViewPayload)
+        if (payload instanceof ViewPayload) {
             this.view = ((ViewPayload) payload).getView();
-        else if (payload instanceof MessagePayload)
+            this.halted = ((ViewPayload) payload).isHalted();
+        } else if (payload instanceof MessagePayload)
             this.mergeMessage(((MessagePayload<M>) payload).getMessage(), messageCombiner);
         else if (payload instanceof ViewIncomingPayload)
             this.mergeViewIncomingPayload((ViewIncomingPayload<M>) payload, messageCombiner);
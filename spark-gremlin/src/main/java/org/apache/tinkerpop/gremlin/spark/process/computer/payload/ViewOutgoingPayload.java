@@ -30,18 +30,24 @@ public final class ViewOutgoingPayload<M> implements Payload {
 
     private List<DetachedVertexProperty<Object>> view;
     private List<Tuple2<Object, M>> outgoingMessages;
+    private boolean halted;
 
     private ViewOutgoingPayload() {
 
     }
 
     public ViewOutgoingPayload(final List<DetachedVertexProperty<Object>> view, final List<Tuple2<Object, M>> outgoingMessages) {
+        this(view, outgoingMessages, false);
+    }
+
+    public ViewOutgoingPayload(final List<DetachedVertexProperty<Object>> view, final List<Tuple2<Object, M>> outgoingMessages, final boolean halted) {
         this.view = view;
         this.outgoingMessages = outgoingMessages;
+        this.halted = halted;
     }
 
     public ViewPayload getView() {
-        return new ViewPayload(this.view);
+        return new ViewPayload(this.view, this.halted);
     }
 
     public List<Tuple2<Object, M>> getOutgoingMessages() {
@@ -21,6 +21,7 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 import org.apache.tinkerpop.gremlin.process.computer.VertexProgram;
 import org.apache.tinkerpop.gremlin.process.computer.util.ComputerGraph;
@@ -33,16 +34,22 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -50,20 +57,27 @@ import java.util.concurrent.Future;
  */
 public final class TinkerGraphComputer implements GraphComputer {
 
+    private static final Logger logger = LoggerFactory.getLogger(TinkerGraphComputer.class);
+
+    private static final int DEFAULT_SPILL_THRESHOLD = 1000000;
+    private static final int CHUNKS_PER_WORKER = 16;
+    private static final int STREAM_CHUNK_SIZE = 64;
+
     private ResultGraph resultGraph = null;
     private Persist persist = null;
 
     private VertexProgram<?> vertexProgram;
     private final TinkerGraph graph;
     private TinkerMemory memory;
-    private final TinkerMessageBoard messageBoard = new TinkerMessageBoard();
     private boolean executed = false;
     private final Set<MapReduce> mapReducers = new HashSet<>();
     private int workers = Runtime.getRuntime().availableProcessors();
     private final GraphFilter graphFilter = new GraphFilter();
+    private int spillThreshold;
 
     public TinkerGraphComputer(final TinkerGraph graph) {
         this.graph = graph;
+        this.spillThreshold = graph.configuration().getInt(TinkerGraph.GREMLIN_TINKERGRAPH_SPILL_THRESHOLD, DEFAULT_SPILL_THRESHOLD);
     }
 
     @Override
@@ -108,6 +122,17 @@ public final class TinkerGraphComputer implements GraphComputer {
         return this;
     }
 
+    /**
+     * Accepts {@link TinkerGraph#GREMLIN_TINKERGRAPH_SPILL_THRESHOLD} to override the setting of the graph for this
+     * computation.
+     */
+    @Override
+    public GraphComputer configure(final String key, final Object value) {
+        if (key.equals(TinkerGraph.GREMLIN_TINKERGRAPH_SPILL_THRESHOLD))
+            this.spillThreshold = Integer.parseInt(value.toString());
+        return this;
+    }
+
     @Override
     public Future<ComputerResult> submit() {
         // a graph computer can only be executed once
@@ -137,29 +162,34 @@ public final class TinkerGraphComputer implements GraphComputer {
         return CompletableFuture.<ComputerResult>supplyAsync(() -> {
             final long time = System.currentTimeMillis();
             final TinkerGraphComputerView view;
+            final TinkerVertexPartitions partitions;
             try (final TinkerWorkerPool workers = new TinkerWorkerPool(this.workers)) {
                 if (null != this.vertexProgram) {
                     view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, this.vertexProgram.getVertexComputeKeys());
+                    partitions = new TinkerVertexPartitions(view.getVertices(), workers.getNumberOfWorkers());
+                    final TinkerMessageBoard messageBoard = new TinkerMessageBoard(view, workers.getNumberOfWorkers(), this.vertexProgram.getMessageCombiner());
                     // execute the vertex program
                     this.vertexProgram.setup(this.memory);
                     while (true) {
                         this.memory.completeSubRound();
                         workers.setVertexProgram(this.vertexProgram);
-                        final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
-                        workers.executeVertexProgram(vertexProgram -> {
+                        partitions.reset();
+                        workers.executeVertexProgram((worker, vertexProgram) -> {
                             vertexProgram.workerIterationStart(this.memory.asImmutable());
-                            while (true) {
-                                final Vertex vertex = vertices.next();
-                                if (null == vertex) break;
-                                vertexProgram.execute(
-                                        ComputerGraph.vertexProgram(vertex, vertexProgram),
-                                        new TinkerMessenger<>(vertex, this.messageBoard, vertexProgram.getMessageCombiner()),
-                                        this.memory
-                                );
-                            }
+                            partitions.forEach(worker, vertex -> {
+                                if (view.legalVertex(vertex) && messageBoard.isActive(vertex))
+                                    vertexProgram.execute(
+                                            ComputerGraph.vertexProgram(vertex, vertexProgram),
+                                            new TinkerMessenger<>(vertex, messageBoard, worker),
+                                            this.memory
+                                    );
+                            });
                             vertexProgram.workerIterationEnd(this.memory.asImmutable());
                         });
-                        this.messageBoard.completeIteration();
+                        if (logger.isDebugEnabled())
+                            logger.debug("Iteration {} of {} over {} partitions took {} ns per worker", this.memory.getIteration(),
+                                    this.vertexProgram, partitions.getNumberOfPartitions(), Arrays.toString(workers.getWorkerRuntimes()));
+                        messageBoard.completeIteration();
                         this.memory.completeSubRound();
                         if (this.vertexProgram.terminate(this.memory)) {
                             this.memory.incrIteration();
@@ -172,42 +202,53 @@ public final class TinkerGraphComputer implements GraphComputer {
                 } else {
                     // MapReduce only
                     view = TinkerHelper.createGraphComputerView(this.graph, this.graphFilter, Collections.emptySet());
+                    partitions = new TinkerVertexPartitions(view.getVertices(), workers.getNumberOfWorkers());
                 }
 
                 // execute mapreduce jobs
                 for (final MapReduce mapReduce : mapReducers) {
-                    final TinkerMapEmitter<?, ?> mapEmitter = new TinkerMapEmitter<>(mapReduce.doStage(MapReduce.Stage.REDUCE));
-                    final SynchronizedIterator<Vertex> vertices = new SynchronizedIterator<>(this.graph.vertices());
-                    workers.setMapReduce(mapReduce);
-                    workers.executeMapReduce(workerMapReduce -> {
-                        workerMapReduce.workerStart(MapReduce.Stage.MAP);
-                        while (true) {
-                            final Vertex vertex = vertices.next();
-                            if (null == vertex) break;
-                            workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
-                        }
-                        workerMapReduce.workerEnd(MapReduce.Stage.MAP);
-                    });
-                    // sort results if a map output sort is defined
-                    mapEmitter.complete(mapReduce);
-
-                    // no need to run combiners as this is single machine
-                    if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
-                        final TinkerReduceEmitter<?, ?> reduceEmitter = new TinkerReduceEmitter<>();
-                        final SynchronizedIterator<Map.Entry<?, Queue<?>>> keyValues = new SynchronizedIterator((Iterator) mapEmitter.reduceMap.entrySet().iterator());
-                        workers.executeMapReduce(workerMapReduce -> {
-                            workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
-                            while (true) {
-                                final Map.Entry<?, Queue<?>> entry = keyValues.next();
-                                if (null == entry) break;
-                                workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter);
-                            }
-                            workerMapReduce.workerEnd(MapReduce.Stage.REDUCE);
+                    final TinkerMapEmitter[] mapEmitters = new TinkerMapEmitter[workers.getNumberOfWorkers()];
+                    try (final TinkerSpillFiles mapSpillFiles = new TinkerSpillFiles<>(this.graph, TinkerMapEmitter.getSpillOrder(mapReduce));
+                         final TinkerSpillFiles reduceSpillFiles = new TinkerSpillFiles<>(this.graph, (Comparator) mapReduce.getReduceKeySort().orElse(null))) {
+                        partitions.reset();
+                        workers.setMapReduce(mapReduce);
+                        workers.executeMapReduce((worker, workerMapReduce) -> {
+                            final TinkerMapEmitter mapEmitter = new TinkerMapEmitter(workerMapReduce, mapSpillFiles, this.spillThreshold);
+                            mapEmitters[worker] = mapEmitter;
+                            workerMapReduce.workerStart(MapReduce.Stage.MAP);
+                            partitions.forEach(worker, vertex -> {
+                                if (view.legalVertex(vertex))
+                                    workerMapReduce.map(ComputerGraph.mapReduce(vertex), mapEmitter);
+                            });
+                            workerMapReduce.workerEnd(MapReduce.Stage.MAP);
                         });
-                        reduceEmitter.complete(mapReduce); // sort results if a reduce output sort is defined
-                        mapReduce.addResultToMemory(this.memory, reduceEmitter.reduceQueue.iterator());
-                    } else {
-                        mapReduce.addResultToMemory(this.memory, mapEmitter.mapQueue.iterator());
+                        // combine what was not spilled if a combine is defined and sort it if it must be merged with
+                        // the spill files or a map output sort is defined
+                        final boolean merge = !mapSpillFiles.isEmpty() || mapReduce.getMapKeySort().isPresent();
+                        workers.executeMapReduce((worker, workerMapReduce) -> mapEmitters[worker].complete(merge));
+
+                        if (mapReduce.doStage(MapReduce.Stage.REDUCE)) {
+                            final ChunkedIterator<Map.Entry<?, List<?>>> entries;
+                            if (merge)
+                                entries = new ChunkedIterator<>(mapSpillFiles.group(mapSpillFiles.merge(keyValues(mapEmitters))), STREAM_CHUNK_SIZE);
+                            else {
+                                final Map<?, List<?>> reduceMap = TinkerMapEmitter.gather(mapEmitters);
+                                entries = new ChunkedIterator(reduceMap.entrySet().iterator(),
+                                        Math.max(1, reduceMap.size() / (workers.getNumberOfWorkers() * CHUNKS_PER_WORKER)));
+                            }
+                            final TinkerReduceEmitter[] reduceEmitters = new TinkerReduceEmitter[workers.getNumberOfWorkers()];
+                            workers.executeMapReduce((worker, workerMapReduce) -> {
+                                final TinkerReduceEmitter reduceEmitter = new TinkerReduceEmitter(reduceSpillFiles, this.spillThreshold);
+                                reduceEmitters[worker] = reduceEmitter;
+                                workerMapReduce.workerStart(MapReduce.Stage.REDUCE);
+                                entries.forEach(entry -> workerMapReduce.reduce(entry.getKey(), entry.getValue().iterator(), reduceEmitter));
+                                workerMapReduce.workerEnd(MapReduce.Stage.REDUCE);
+                                reduceEmitter.complete(); // sort what was not spilled if a reduce output sort is defined
+                            });
+                            mapReduce.addResultToMemory(this.memory, reduceSpillFiles.merge(keyValues(reduceEmitters)));
+                        } else {
+                            mapReduce.addResultToMemory(this.memory, mapSpillFiles.merge(keyValues(mapEmitters)));
+                        }
                     }
                 }
                 // update runtime and return the newly computed graph
@@ -229,16 +270,48 @@ public final class TinkerGraphComputer implements GraphComputer {
         return StringFactory.graphComputerString(this);
     }
 
-    private static class SynchronizedIterator<V> {
+    private static List<Iterator<KeyValue>> keyValues(final TinkerMapEmitter[] mapEmitters) {
+        final List<Iterator<KeyValue>> keyValues = new ArrayList<>(mapEmitters.length);
+        for (final TinkerMapEmitter mapEmitter : mapEmitters) {
+            keyValues.add(mapEmitter.keyValues());
+        }
+        return keyValues;
+    }
+
+    private static List<Iterator<KeyValue>> keyValues(final TinkerReduceEmitter[] reduceEmitters) {
+        final List<Iterator<KeyValue>> keyValues = new ArrayList<>(reduceEmitters.length);
+        for (final TinkerReduceEmitter reduceEmitter : reduceEmitters) {
+            keyValues.add(reduceEmitter.keyValues());
+        }
+        return keyValues;
+    }
 
-        private final Iterator<V> iterator;
+    /**
+     * Hands out the values of an iterator in chunks that workers claim one at a time.
+     */
+    static class ChunkedIterator<V> {
 
-        public SynchronizedIterator(final Iterator<V> iterator) {
-            this.iterator = iterator;
+        private final Iterator<V> values;
+        private final int chunkSize;
+
+        public ChunkedIterator(final Iterator<V> values, final int chunkSize) {
+            this.values = values;
+            this.chunkSize = chunkSize;
         }
 
-        public synchronized V next() {
-            return this.iterator.hasNext() ? this.iterator.next() : null;
+        public void forEach(final Consumer<V> consumer) {
+            List<V> chunk;
+            while (!(chunk = this.nextChunk()).isEmpty()) {
+                chunk.forEach(consumer);
+            }
+        }
+
+        synchronized List<V> nextChunk() {
+            final List<V> chunk = new ArrayList<>(this.chunkSize);
+            while (chunk.size() < this.chunkSize && this.values.hasNext()) {
+                chunk.add(this.values.next());
+            }
+            return chunk;
         }
     }
 
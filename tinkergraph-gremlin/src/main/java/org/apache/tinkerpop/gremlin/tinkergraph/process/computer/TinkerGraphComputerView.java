@@ -22,7 +22,6 @@ import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
 import org.apache.tinkerpop.gremlin.structure.Edge;
-import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.T;
@@ -30,54 +29,96 @@ import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.empty.EmptyGraph;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
+ * The state of a {@link TinkerGraph} while a {@link GraphComputer} job runs on it. Every vertex of the graph is
+ * given an ordinal and the vertex compute keys of each vertex are held in arrays by that ordinal. A vertex is only
+ * executed by one worker at a time and there is a barrier between iterations, so the arrays need no synchronization.
+ * The edge filter of the {@link GraphFilter} is only applied to the vertices whose edges are read.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerGraphComputerView {
 
     private final TinkerGraph graph;
     protected final Map<String, VertexComputeKey> computeKeys;
-    private Map<Element, Map<String, List<VertexProperty<?>>>> computeProperties;
-    private final Set<Object> legalVertices = new HashSet<>();
-    private final Map<Object, Set<Object>> legalEdges = new HashMap<>();
+    private final Map<String, Integer> computeKeyIndices = new HashMap<>();
+    private final TinkerVertex[] vertices;
+    private final List<VertexProperty<?>>[][] computeProperties;
+    private final boolean[] legalVertices;
+    private final AtomicReferenceArray<Set<Object>> legalEdges;
+    private final ThreadLocal<EdgeFilter> edgeFilters;
     private final GraphFilter graphFilter;
 
     public TinkerGraphComputerView(final TinkerGraph graph, final GraphFilter graphFilter, final Set<VertexComputeKey> computeKeys) {
         this.graph = graph;
         this.computeKeys = new HashMap<>();
-        computeKeys.forEach(key -> this.computeKeys.put(key.getKey(), key));
-        this.computeProperties = new ConcurrentHashMap<>();
+        for (final VertexComputeKey computeKey : computeKeys) {
+            if (!this.computeKeyIndices.containsKey(computeKey.getKey()))
+                this.computeKeyIndices.put(computeKey.getKey(), this.computeKeyIndices.size());
+            this.computeKeys.put(computeKey.getKey(), computeKey);
+        }
+        final List<Vertex> vertices = IteratorUtils.list(graph.vertices());
+        this.vertices = new TinkerVertex[vertices.size()];
+        for (int i = 0; i < this.vertices.length; i++) {
+            this.vertices[i] = (TinkerVertex) vertices.get(i);
+            TinkerHelper.setComputeOrdinal(this.vertices[i], i);
+        }
+        this.computeProperties = new List[this.computeKeyIndices.size()][this.vertices.length];
         this.graphFilter = graphFilter;
-        if (this.graphFilter.hasFilter()) {
-            graph.vertices().forEachRemaining(vertex -> {
-                boolean legalVertex = false;
-                if (this.graphFilter.hasVertexFilter() && this.graphFilter.legalVertex(vertex)) {
-                    this.legalVertices.add(vertex.id());
-                    legalVertex = true;
-                }
-                if ((legalVertex || !this.graphFilter.hasVertexFilter()) && this.graphFilter.hasEdgeFilter()) {
-                    final Set<Object> edges = new HashSet<>();
-                    this.legalEdges.put(vertex.id(), edges);
-                    this.graphFilter.legalEdges(vertex).forEachRemaining(edge -> edges.add(edge.id()));
-                }
-            });
+        if (this.graphFilter.hasVertexFilter()) {
+            this.legalVertices = new boolean[this.vertices.length];
+            for (int i = 0; i < this.vertices.length; i++) {
+                this.legalVertices[i] = this.graphFilter.legalVertex(this.vertices[i]);
+            }
+        } else
+            this.legalVertices = null;
+        if (this.graphFilter.hasEdgeFilter()) {
+            this.legalEdges = new AtomicReferenceArray<>(this.vertices.length);
+            this.edgeFilters = ThreadLocal.withInitial(() -> new EdgeFilter(this.graphFilter.clone()));
+        } else {
+            this.legalEdges = null;
+            this.edgeFilters = null;
+        }
+    }
+
+    /**
+     * Gets the vertices of the graph by their ordinal.
+     */
+    TinkerVertex[] getVertices() {
+        return this.vertices;
+    }
+
+    /**
+     * Gets the ordinal of a vertex of the graph that may be wrapped or be a reference to it, or {@code -1} if it is
+     * not in the view.
+     */
+    int getOrdinal(final Vertex vertex) {
+        Vertex baseVertex = vertex;
+        while (baseVertex instanceof WrappedVertex) {
+            baseVertex = ((WrappedVertex<?>) baseVertex).getBaseVertex();
         }
+        if (baseVertex instanceof TinkerVertex)
+            return this.ordinal(baseVertex);
+        final Iterator<Vertex> vertices = this.graph.vertices(vertex.id());
+        return vertices.hasNext() ? this.ordinal(vertices.next()) : -1;
     }
 
     public <V> Property<V> addProperty(final TinkerVertex vertex, final String key, final V value) {
@@ -104,11 +145,16 @@ public final class TinkerGraphComputerView {
     }
 
     public List<Property> getProperties(final TinkerVertex vertex) {
-        final Stream<Property> a = TinkerHelper.getProperties(vertex).values().stream().flatMap(list -> list.stream());
-        final Stream<Property> b = this.computeProperties.containsKey(vertex) ?
-                this.computeProperties.get(vertex).values().stream().flatMap(list -> list.stream()) :
-                Stream.empty();
-        return Stream.concat(a, b).collect(Collectors.toList());
+        final List<Property> properties = new ArrayList<>();
+        TinkerHelper.getProperties(vertex).values().forEach(properties::addAll);
+        final int ordinal = this.ordinal(vertex);
+        if (-1 != ordinal) {
+            for (final List<VertexProperty<?>>[] values : this.computeProperties) {
+                if (null != values[ordinal])
+                    properties.addAll(values[ordinal]);
+            }
+        }
+        return properties;
     }
 
     public void removeProperty(final TinkerVertex vertex, final String key, final VertexProperty property) {
@@ -120,21 +166,32 @@ public final class TinkerGraphComputerView {
     }
 
     public boolean legalVertex(final Vertex vertex) {
-        return !this.graphFilter.hasVertexFilter() || this.legalVertices.contains(vertex.id());
+        if (null == this.legalVertices) return true;
+        final int ordinal = this.ordinal(vertex);
+        return -1 != ordinal && this.legalVertices[ordinal];
     }
 
     public boolean legalEdge(final Vertex vertex, final Edge edge) {
-        return !this.graphFilter.hasEdgeFilter() || this.legalEdges.get(vertex.id()).contains(edge.id());
+        if (null == this.legalEdges) return true;
+        final int ordinal = this.ordinal(vertex);
+        if (-1 == ordinal || (null != this.legalVertices && !this.legalVertices[ordinal])) return false;
+        Set<Object> edges = this.legalEdges.get(ordinal);
+        if (null == edges) {
+            final EdgeFilter edgeFilter = this.edgeFilters.get();
+            // the edge filter itself reads all the edges of the vertex
+            if (edgeFilter.evaluating) return true;
+            edges = edgeFilter.legalEdges(vertex);
+            this.legalEdges.set(ordinal, edges);
+        }
+        return edges.contains(edge.id());
     }
 
     protected void complete() {
         // remove all transient properties from the vertices
-        for (final VertexComputeKey computeKey : this.computeKeys.values()) {
-            if (computeKey.isTransient()) {
-                final List<VertexProperty<?>> toRemove = this.computeProperties.values().stream().flatMap(map -> map.getOrDefault(computeKey.getKey(), Collections.emptyList()).stream()).collect(Collectors.toList());
-                toRemove.forEach(VertexProperty::remove);
-            }
-        }
+        this.computeKeyIndices.forEach((key, index) -> {
+            if (this.computeKeys.get(key).isTransient())
+                Arrays.fill(this.computeProperties[index], null);
+        });
     }
 
     //////////////////////
@@ -191,17 +248,18 @@ public final class TinkerGraphComputerView {
 
     private void addPropertiesToOriginalGraph() {
         TinkerHelper.dropGraphComputerView(this.graph);
-        this.computeProperties.forEach((element, properties) -> {
-            properties.forEach((key, vertexProperties) -> {
-                vertexProperties.forEach(vertexProperty -> {
-                    final VertexProperty<?> newVertexProperty = ((Vertex) element).property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
+        for (final List<VertexProperty<?>>[] values : this.computeProperties) {
+            for (int i = 0; i < values.length; i++) {
+                if (null == values[i]) continue;
+                for (final VertexProperty<?> vertexProperty : values[i]) {
+                    final VertexProperty<?> newVertexProperty = this.vertices[i].property(VertexProperty.Cardinality.list, vertexProperty.key(), vertexProperty.value(), T.id, vertexProperty.id());
                     vertexProperty.properties().forEachRemaining(property -> {
                         newVertexProperty.property(property.key(), property.value());
                     });
-                });
-            });
-        });
-        this.computeProperties.clear();
+                }
+                values[i] = null;
+            }
+        }
     }
 
     //////////////////////
@@ -210,26 +268,56 @@ public final class TinkerGraphComputerView {
         return this.computeKeys.containsKey(key);
     }
 
+    private int ordinal(final Vertex vertex) {
+        final int ordinal = TinkerHelper.getComputeOrdinal((TinkerVertex) vertex);
+        return ordinal >= 0 && ordinal < this.vertices.length && this.vertices[ordinal] == vertex ? ordinal : -1;
+    }
+
     private void addValue(final Vertex vertex, final String key, final VertexProperty property) {
-        final Map<String, List<VertexProperty<?>>> elementProperties = this.computeProperties.computeIfAbsent(vertex, k -> new ConcurrentHashMap<>());
-        elementProperties.compute(key, (k, v) -> {
-            if (null == v) v = Collections.synchronizedList(new ArrayList<>());
-            v.add(property);
-            return v;
-        });
+        final int ordinal = this.ordinal(vertex);
+        if (-1 == ordinal)
+            throw new IllegalStateException("The vertex was not in the graph when the computation started: " + vertex);
+        final List<VertexProperty<?>>[] values = this.computeProperties[this.computeKeyIndices.get(key)];
+        if (null == values[ordinal]) values[ordinal] = new ArrayList<>(1);
+        values[ordinal].add(property);
     }
 
     private void removeValue(final Vertex vertex, final String key, final VertexProperty property) {
-        this.computeProperties.computeIfPresent(vertex, (k, v) -> {
-            v.computeIfPresent(key, (k1, v1) -> {
-                v1.remove(property);
-                return v1;
-            });
-            return v;
-        });
+        final int ordinal = this.ordinal(vertex);
+        if (-1 == ordinal) return;
+        final List<VertexProperty<?>> values = this.computeProperties[this.computeKeyIndices.get(key)][ordinal];
+        if (null != values) values.remove(property);
     }
 
     private List<VertexProperty<?>> getValue(final Vertex vertex, final String key) {
-        return this.computeProperties.getOrDefault(vertex, Collections.emptyMap()).getOrDefault(key, Collections.emptyList());
+        final Integer index = this.computeKeyIndices.get(key);
+        final int ordinal = null == index ? -1 : this.ordinal(vertex);
+        if (-1 == ordinal) return Collections.emptyList();
+        final List<VertexProperty<?>> values = this.computeProperties[index][ordinal];
+        return null == values ? Collections.emptyList() : values;
+    }
+
+    /**
+     * Applies a clone of the edge filter for each worker as traversals are not thread safe.
+     */
+    private static final class EdgeFilter {
+
+        private final GraphFilter graphFilter;
+        private boolean evaluating = false;
+
+        private EdgeFilter(final GraphFilter graphFilter) {
+            this.graphFilter = graphFilter;
+        }
+
+        private Set<Object> legalEdges(final Vertex vertex) {
+            this.evaluating = true;
+            try {
+                final Set<Object> edges = new HashSet<>();
+                this.graphFilter.legalEdges(vertex).forEachRemaining(edge -> edges.add(edge.id()));
+                return edges;
+            } finally {
+                this.evaluating = false;
+            }
+        }
     }
-}
\ No newline at end of file
+}
@@ -20,56 +20,152 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
 import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Objects;
 
 /**
+ * Buffers the key/values that a single worker emits in the map stage. If the {@link MapReduce} has a combine stage,
+ * the values of each key are combined whenever the worker has buffered as many values as the spill threshold. If the
+ * buffer is still more than half full after that, or if there is no combine stage, it is sorted and spilled to the
+ * {@link TinkerSpillFiles} that the workers share.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerMapEmitter<K, V> implements MapReduce.MapEmitter<K, V> {
 
-    public Map<K, Queue<V>> reduceMap;
-    public Queue<KeyValue<K, V>> mapQueue;
+    private final MapReduce<K, V, ?, ?, ?> mapReduce;
+    private final TinkerSpillFiles<K, V> spillFiles;
+    private final int spillThreshold;
     private final boolean doReduce;
+    private final boolean doCombine;
+    private boolean combining = false;
+    private int size = 0;
+
+    private Map<K, List<V>> reduceMap;
+    private List<KeyValue<K, V>> mapList;
+    private Iterator<KeyValue<K, V>> sorted = null;
 
-    public TinkerMapEmitter(final boolean doReduce) {
-        this.doReduce = doReduce;
+    public TinkerMapEmitter(final MapReduce<K, V, ?, ?, ?> mapReduce, final TinkerSpillFiles<K, V> spillFiles, final int spillThreshold) {
+        this.mapReduce = mapReduce;
+        this.spillFiles = spillFiles;
+        this.spillThreshold = spillThreshold;
+        this.doReduce = mapReduce.doStage(MapReduce.Stage.REDUCE);
+        this.doCombine = this.doReduce && mapReduce.doStage(MapReduce.Stage.COMBINE);
         if (this.doReduce)
-            this.reduceMap = new ConcurrentHashMap<>();
+            this.reduceMap = new HashMap<>();
+        else
+            this.mapList = new ArrayList<>();
+    }
+
+    /**
+     * Gets the order in which the key/values emitted by the map stage are spilled. A reduce stage needs the values of
+     * a key to be next to each other, so the keys are ordered by their hash code when there is no map key sort.
+     */
+    public static <K> Comparator<K> getSpillOrder(final MapReduce<K, ?, ?, ?, ?> mapReduce) {
+        if (mapReduce.getMapKeySort().isPresent())
+            return mapReduce.getMapKeySort().get();
         else
-            this.mapQueue = new ConcurrentLinkedQueue<>();
+            return mapReduce.doStage(MapReduce.Stage.REDUCE) ? Comparator.comparingInt(Objects::hashCode) : null;
     }
 
     @Override
-    public void emit(K key, V value) {
+    public void emit(final K key, final V value) {
+        this.add(key, value);
+        if (this.size >= this.spillThreshold) {
+            if (this.doCombine)
+                this.combine();
+            if (this.size > this.spillThreshold / 2)
+                this.spill();
+        }
+    }
+
+    private void add(final K key, final V value) {
         if (this.doReduce)
-            this.reduceMap.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(value);
+            this.reduceMap.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
         else
-            this.mapQueue.add(new KeyValue<>(key, value));
+            this.mapList.add(new KeyValue<>(key, value));
+        this.size++;
+    }
+
+    private void combine() {
+        if (!this.combining) {
+            this.mapReduce.workerStart(MapReduce.Stage.COMBINE);
+            this.combining = true;
+        }
+        final Map<K, List<V>> uncombined = this.reduceMap;
+        final MapReduce.ReduceEmitter combineEmitter = (key, value) -> this.add((K) key, (V) value);
+        this.reduceMap = new HashMap<>();
+        this.size = 0;
+        for (final Map.Entry<K, List<V>> entry : uncombined.entrySet()) {
+            if (entry.getValue().size() > 1)
+                this.mapReduce.combine(entry.getKey(), entry.getValue().iterator(), combineEmitter);
+            else
+                this.add(entry.getKey(), entry.getValue().get(0));
+        }
+    }
+
+    private void spill() {
+        this.spillFiles.spill(this.sort(this.spillFiles.getComparator()));
+        if (this.doReduce)
+            this.reduceMap = new HashMap<>();
+        else
+            this.mapList = new ArrayList<>();
+        this.size = 0;
+    }
+
+    private Iterator<KeyValue<K, V>> sort(final Comparator<K> comparator) {
+        if (this.doReduce) {
+            final Map<K, List<V>> map = this.reduceMap;
+            final List<K> keys = new ArrayList<>(map.keySet());
+            if (null != comparator)
+                keys.sort(comparator);
+            return IteratorUtils.flatMap(keys.iterator(), key -> IteratorUtils.map(map.get(key).iterator(), value -> new KeyValue<>(key, value)));
+        } else {
+            if (null != comparator)
+                this.mapList.sort(Comparator.comparing(KeyValue::getKey, comparator));
+            return this.mapList.iterator();
+        }
+    }
+
+    /**
+     * Combines what the worker still buffers once the map stage of all workers is complete and sorts it if it must be
+     * merged with the spill files or if there is a map key sort.
+     */
+    protected void complete(final boolean sort) {
+        if (this.doCombine && this.size > 0)
+            this.combine();
+        if (this.combining)
+            this.mapReduce.workerEnd(MapReduce.Stage.COMBINE);
+        if (sort)
+            this.sorted = this.sort(this.spillFiles.getComparator());
+    }
+
+    /**
+     * Gets the key/values that the worker still buffers, sorted if {@link #complete(boolean)} sorted it.
+     */
+    protected Iterator<KeyValue<K, V>> keyValues() {
+        return null == this.sorted ? this.sort(null) : this.sorted;
     }
 
-    protected void complete(final MapReduce<K, V, ?, ?, ?> mapReduce) {
-        if (!this.doReduce && mapReduce.getMapKeySort().isPresent()) {
-            final Comparator<K> comparator = mapReduce.getMapKeySort().get();
-            final List<KeyValue<K, V>> list = new ArrayList<>(this.mapQueue);
-            Collections.sort(list, Comparator.comparing(KeyValue::getKey, comparator));
-            this.mapQueue.clear();
-            this.mapQueue.addAll(list);
-        } else if (mapReduce.getMapKeySort().isPresent()) {
-            final Comparator<K> comparator = mapReduce.getMapKeySort().get();
-            final List<Map.Entry<K, Queue<V>>> list = new ArrayList<>();
-            list.addAll(this.reduceMap.entrySet());
-            Collections.sort(list, Comparator.comparing(Map.Entry::getKey, comparator));
-            this.reduceMap = new LinkedHashMap<>();
-            list.forEach(entry -> this.reduceMap.put(entry.getKey(), entry.getValue()));
+    /**
+     * Gathers the values of each key that the workers buffer into a single map, which is only possible if nothing
+     * was spilled.
+     */
+    protected static <K, V> Map<K, List<V>> gather(final TinkerMapEmitter<K, V>[] mapEmitters) {
+        final Map<K, List<V>> reduceMap = mapEmitters[0].reduceMap;
+        for (int i = 1; i < mapEmitters.length; i++) {
+            mapEmitters[i].reduceMap.forEach((key, values) -> reduceMap.merge(key, values, (a, b) -> {
+                a.addAll(b);
+                return a;
+            }));
         }
+        return reduceMap;
     }
 }
@@ -18,29 +18,254 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
 
+import org.apache.tinkerpop.gremlin.process.computer.MessageCombiner;
 import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.Map;
-import java.util.Queue;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
+ * Holds the messages sent to each vertex by the ordinal of the vertex in the {@link TinkerGraphComputerView}. With a
+ * {@link MessageCombiner}, the messages to a vertex are combined into a single slot as they are sent. A combiner may
+ * change the messages it combines, so a slot is only read and combined into while holding the lock of its stripe of
+ * slots and a message that is sent belongs to the message board from then on. Without one,
+ * each worker appends the messages it sends to a buffer of its own and the buffers are grouped by vertex when the
+ * iteration completes. The arrays and buffers are reused from one iteration to the next.
+ * <p/>
+ * The message board also keeps the frontier of the vertices that are executed in the next iteration as a bitmap. Once
+ * a vertex votes to halt, it is not executed again until it is sent a message. Receivers of messages with a
+ * {@link MessageScope.Local} are only known to the sender, so they are woken from the iteration after the one in
+ * which the first vertex voted to halt, and until then every vertex is executed.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 final class TinkerMessageBoard<M> {
 
-    public Map<Vertex, Queue<M>> sendMessages = new ConcurrentHashMap<>();
-    public Map<Vertex, Queue<M>> receiveMessages = new ConcurrentHashMap<>();
+    private static final int LOCK_STRIPES = 256;
+
     public Set<MessageScope> previousMessageScopes = new HashSet<>();
-    public Set<MessageScope> currentMessageScopes = new HashSet<>();
+    public Set<MessageScope> currentMessageScopes = ConcurrentHashMap.newKeySet();
+
+    private final TinkerGraphComputerView view;
+    private final MessageCombiner<M> combiner;
+
+    private Object[] sendCombined;
+    private Object[] receiveCombined;
+    private final Object[] combineLocks;
+
+    private final SendBuffer[] sendBuffers;
+    private final int[] receiveOffsets;
+    private final int[] receiveCursors;
+    private Object[] receiveMessages = new Object[0];
+
+    private final AtomicLongArray halted;
+    private final AtomicLongArray woken;
+    private long[] active = null;
+    private volatile boolean haltVoted = false;
+    private boolean wakingReceivers = false;
+
+    public TinkerMessageBoard(final TinkerGraphComputerView view, final int numberOfWorkers, final Optional<MessageCombiner<M>> combiner) {
+        this.view = view;
+        this.combiner = combiner.orElse(null);
+        final int numberOfVertices = view.getVertices().length;
+        this.halted = new AtomicLongArray((numberOfVertices + 63) >>> 6);
+        this.woken = new AtomicLongArray((numberOfVertices + 63) >>> 6);
+        if (null != this.combiner) {
+            this.sendCombined = new Object[numberOfVertices];
+            this.receiveCombined = new Object[numberOfVertices];
+            this.combineLocks = new Object[LOCK_STRIPES];
+            for (int i = 0; i < LOCK_STRIPES; i++) {
+                this.combineLocks[i] = new Object();
+            }
+            this.sendBuffers = null;
+            this.receiveOffsets = null;
+            this.receiveCursors = null;
+        } else {
+            this.combineLocks = null;
+            this.sendBuffers = new SendBuffer[numberOfWorkers];
+            for (int i = 0; i < numberOfWorkers; i++) {
+                this.sendBuffers[i] = new SendBuffer();
+            }
+            this.receiveOffsets = new int[numberOfVertices + 1];
+            this.receiveCursors = new int[numberOfVertices];
+        }
+    }
+
+    /**
+     * Sends a message to the vertex from the worker, which must be the only thread sending with that worker index.
+     */
+    public void sendMessage(final int worker, final Vertex vertex, final M message) {
+        final int ordinal = this.view.getOrdinal(vertex);
+        if (-1 == ordinal) return;
+        if (null != this.combiner) {
+            synchronized (this.combineLocks[ordinal & (LOCK_STRIPES - 1)]) {
+                final M current = (M) this.sendCombined[ordinal];
+                this.sendCombined[ordinal] = null == current ? message : this.combiner.combine(current, message);
+            }
+        } else
+            this.sendBuffers[worker].add(ordinal, message);
+    }
+
+    /**
+     * Determines if the receivers of messages with a {@link MessageScope.Local} must be woken by the sender.
+     */
+    public boolean isWakingReceivers() {
+        return this.wakingReceivers;
+    }
+
+    public void wake(final Vertex vertex) {
+        final int ordinal = this.view.getOrdinal(vertex);
+        if (-1 != ordinal) setBit(this.woken, ordinal);
+    }
+
+    public void voteToHalt(final Vertex vertex) {
+        final int ordinal = this.view.getOrdinal(vertex);
+        if (-1 == ordinal) return;
+        setBit(this.halted, ordinal);
+        if (!this.haltVoted) this.haltVoted = true;
+    }
+
+    /**
+     * Determines if the vertex is to be executed in the current iteration.
+     */
+    public boolean isActive(final Vertex vertex) {
+        if (null == this.active) return true;
+        final int ordinal = this.view.getOrdinal(vertex);
+        return -1 != ordinal && 0 != (this.active[ordinal >>> 6] & (1L << ordinal));
+    }
+
+    public Iterator<M> receiveMessages(final Vertex vertex) {
+        final int ordinal = this.view.getOrdinal(vertex);
+        if (-1 == ordinal) return Collections.emptyIterator();
+        if (null != this.combiner) {
+            final M message = (M) this.receiveCombined[ordinal];
+            return null == message ? Collections.emptyIterator() : IteratorUtils.of(message);
+        } else {
+            final int start = this.receiveOffsets[ordinal];
+            final int end = this.receiveOffsets[ordinal + 1];
+            return start == end ? Collections.emptyIterator() : new MessageIterator<>(this.receiveMessages, start, end);
+        }
+    }
 
     public void completeIteration() {
-        this.receiveMessages = this.sendMessages;
-        this.sendMessages = new ConcurrentHashMap<>();
+        if (null != this.combiner) {
+            // the workers have completed the iteration so the slots are no longer combined into
+            final Object[] combined = this.receiveCombined;
+            this.receiveCombined = this.sendCombined;
+            Arrays.fill(combined, null);
+            this.sendCombined = combined;
+        } else {
+            // group the buffered messages by vertex with a counting sort
+            Arrays.fill(this.receiveOffsets, 0);
+            int size = 0;
+            for (final SendBuffer buffer : this.sendBuffers) {
+                for (int i = 0; i < buffer.size; i++) {
+                    this.receiveOffsets[buffer.ordinals[i] + 1]++;
+                }
+                size = size + buffer.size;
+            }
+            for (int i = 0; i < this.receiveCursors.length; i++) {
+                this.receiveOffsets[i + 1] = this.receiveOffsets[i + 1] + this.receiveOffsets[i];
+                this.receiveCursors[i] = this.receiveOffsets[i];
+            }
+            if (this.receiveMessages.length < size)
+                this.receiveMessages = new Object[size];
+            else
+                Arrays.fill(this.receiveMessages, size, this.receiveMessages.length, null);
+            for (final SendBuffer buffer : this.sendBuffers) {
+                for (int i = 0; i < buffer.size; i++) {
+                    this.receiveMessages[this.receiveCursors[buffer.ordinals[i]]++] = buffer.messages[i];
+                }
+                buffer.clear();
+            }
+        }
         this.previousMessageScopes = this.currentMessageScopes;
-        this.currentMessageScopes = new HashSet<>();
+        this.currentMessageScopes = ConcurrentHashMap.newKeySet();
+        this.completeFrontier();
+    }
+
+    private void completeFrontier() {
+        if (this.wakingReceivers && (this.haltVoted || null != this.active)) {
+            if (null == this.active) {
+                this.active = new long[this.halted.length()];
+                Arrays.fill(this.active, -1L);
+            }
+            // a vertex that was not executed stays halted until it is woken
+            for (int i = 0; i < this.active.length; i++) {
+                this.active[i] = (this.active[i] & ~this.halted.get(i)) | this.woken.get(i);
+            }
+        } else
+            this.active = null;
+        if (this.haltVoted || this.wakingReceivers) {
+            for (int i = 0; i < this.halted.length(); i++) {
+                this.halted.set(i, 0L);
+                this.woken.set(i, 0L);
+            }
+        }
+        this.wakingReceivers = this.wakingReceivers || this.haltVoted;
+        this.haltVoted = false;
+    }
+
+    private static void setBit(final AtomicLongArray bitmap, final int ordinal) {
+        final long bit = 1L << ordinal;
+        long word;
+        do {
+            word = bitmap.get(ordinal >>> 6);
+        } while (0 == (word & bit) && !bitmap.compareAndSet(ordinal >>> 6, word, word | bit));
+    }
+
+    private static final class SendBuffer {
+
+        private int[] ordinals = new int[16];
+        private Object[] messages = new Object[16];
+        private int size = 0;
+
+        private void add(final int ordinal, final Object message) {
+            if (this.size == this.ordinals.length) {
+                this.ordinals = Arrays.copyOf(this.ordinals, this.size * 2);
+                this.messages = Arrays.copyOf(this.messages, this.size * 2);
+            }
+            this.ordinals[this.size] = ordinal;
+            this.messages[this.size++] = message;
+        }
+
+        private void clear() {
+            Arrays.fill(this.messages, 0, this.size, null);
+            this.size = 0;
+        }
+    }
+
+    private static final class MessageIterator<M> implements Iterator<M> {
+
+        private final Object[] messages;
+        private final int end;
+        private int current;
+
+        private MessageIterator(final Object[] messages, final int start, final int end) {
+            this.messages = messages;
+            this.current = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.current < this.end;
+        }
+
+        @Override
+        public M next() {
+            if (this.current >= this.end)
+                throw new NoSuchElementException();
+            return (M) this.messages[this.current++];
+        }
     }
 }
@@ -22,31 +22,47 @@ import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
 import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
+ * Buffers the key/values that a single worker emits in the reduce stage and spills them, sorted if there is a reduce
+ * key sort, to the {@link TinkerSpillFiles} that the workers share once it has buffered as many as the spill threshold.
+ *
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
 public final class TinkerReduceEmitter<OK, OV> implements MapReduce.ReduceEmitter<OK, OV> {
 
-    protected Queue<KeyValue<OK, OV>> reduceQueue = new ConcurrentLinkedQueue<>();
+    private final TinkerSpillFiles<OK, OV> spillFiles;
+    private final int spillThreshold;
+    private List<KeyValue<OK, OV>> reduceList = new ArrayList<>();
+
+    public TinkerReduceEmitter(final TinkerSpillFiles<OK, OV> spillFiles, final int spillThreshold) {
+        this.spillFiles = spillFiles;
+        this.spillThreshold = spillThreshold;
+    }
 
     @Override
     public void emit(final OK key, final OV value) {
-        this.reduceQueue.add(new KeyValue<>(key, value));
+        this.reduceList.add(new KeyValue<>(key, value));
+        if (this.reduceList.size() >= this.spillThreshold) {
+            this.complete();
+            this.spillFiles.spill(this.reduceList.iterator());
+            this.reduceList = new ArrayList<>();
+        }
     }
 
-    protected void complete(final MapReduce<?, ?, OK, OV, ?> mapReduce) {
-        if (mapReduce.getReduceKeySort().isPresent()) {
-            final Comparator<OK> comparator = mapReduce.getReduceKeySort().get();
-            final List<KeyValue<OK, OV>> list = new ArrayList<>(this.reduceQueue);
-            Collections.sort(list, Comparator.comparing(KeyValue::getKey, comparator));
-            this.reduceQueue.clear();
-            this.reduceQueue.addAll(list);
-        }
+    /**
+     * Sorts what the worker still buffers if there is a reduce key sort.
+     */
+    protected void complete() {
+        final Comparator<OK> comparator = this.spillFiles.getComparator();
+        if (null != comparator)
+            this.reduceList.sort(Comparator.comparing(KeyValue::getKey, comparator));
+    }
+
+    protected Iterator<KeyValue<OK, OV>> keyValues() {
+        return this.reduceList.iterator();
     }
 }
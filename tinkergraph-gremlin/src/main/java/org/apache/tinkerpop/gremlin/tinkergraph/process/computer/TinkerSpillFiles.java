@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.traversal.util.FastNoSuchElementException;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * The key/values of a {@link MapReduce} stage that the workers of {@link TinkerGraphComputer} could not hold in memory.
+ * Each spill is a run of key/values written to a Gryo file in the order of the comparator, if there is one. Once the
+ * stage is complete, the runs are streamed back in a single merge with what the workers still hold in memory. The
+ * files are deleted on {@link #close()}.
+ */
+public final class TinkerSpillFiles<K, V> implements AutoCloseable {
+
+    private static final int BUFFER_SIZE = 65536;
+
+    private final TinkerGraph graph;
+    private final Comparator<K> comparator;
+    private final List<File> files = new ArrayList<>();
+    private Kryo kryo = null;
+
+    /**
+     * @param comparator the order of the key/values in each run or {@code null} if they are in no particular order
+     */
+    public TinkerSpillFiles(final TinkerGraph graph, final Comparator<K> comparator) {
+        this.graph = graph;
+        this.comparator = comparator;
+    }
+
+    public Comparator<K> getComparator() {
+        return this.comparator;
+    }
+
+    public synchronized boolean isEmpty() {
+        return this.files.isEmpty();
+    }
+
+    /**
+     * Writes the key/values, which must already be in the order of the comparator, to a new spill file.
+     */
+    public synchronized void spill(final Iterator<KeyValue<K, V>> keyValues) {
+        if (null == this.kryo)
+            this.kryo = this.graph.io(IoCore.gryo()).mapper().create().createMapper();
+        try {
+            final File file = File.createTempFile("tinkergraph-spill-", ".kryo");
+            this.files.add(file);
+            try (final Output output = new Output(new FileOutputStream(file), BUFFER_SIZE)) {
+                while (keyValues.hasNext()) {
+                    final KeyValue<K, V> keyValue = keyValues.next();
+                    output.writeBoolean(true);
+                    this.kryo.writeClassAndObject(output, keyValue.getKey());
+                    this.kryo.writeClassAndObject(output, keyValue.getValue());
+                }
+                output.writeBoolean(false);
+            }
+        } catch (final IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Streams the spilled runs together with the given runs that are still in memory. The key/values are merged in
+     * the order of the comparator if there is one and are otherwise streamed one run after the other.
+     */
+    public Iterator<KeyValue<K, V>> merge(final List<Iterator<KeyValue<K, V>>> runs) {
+        final List<Iterator<KeyValue<K, V>>> allRuns = new ArrayList<>(runs);
+        for (final File file : this.files) {
+            allRuns.add(new SpillIterator(file));
+        }
+        return null == this.comparator ?
+                IteratorUtils.flatMap(allRuns.iterator(), run -> run) :
+                new MergeIterator(allRuns);
+    }
+
+    /**
+     * Groups the values of each key in key/values that are in the order of the comparator. The comparator may
+     * consider keys to be the same that are not equal, so the values of such keys are only grouped by equality.
+     */
+    public Iterator<Map.Entry<K, List<V>>> group(final Iterator<KeyValue<K, V>> keyValues) {
+        return new GroupIterator(keyValues);
+    }
+
+    @Override
+    public synchronized void close() {
+        this.files.forEach(File::delete);
+        this.files.clear();
+    }
+
+    private final class SpillIterator implements Iterator<KeyValue<K, V>> {
+
+        private final Input input;
+        private KeyValue<K, V> next;
+
+        public SpillIterator(final File file) {
+            try {
+                this.input = new Input(new FileInputStream(file), BUFFER_SIZE);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+            this.advance();
+        }
+
+        private void advance() {
+            if (this.input.readBoolean()) {
+                final K key = (K) kryo.readClassAndObject(this.input);
+                this.next = new KeyValue<>(key, (V) kryo.readClassAndObject(this.input));
+            } else {
+                this.next = null;
+                this.input.close();
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return null != this.next;
+        }
+
+        @Override
+        public KeyValue<K, V> next() {
+            if (null == this.next)
+                throw FastNoSuchElementException.instance();
+            final KeyValue<K, V> keyValue = this.next;
+            this.advance();
+            return keyValue;
+        }
+    }
+
+    private final class MergeIterator implements Iterator<KeyValue<K, V>> {
+
+        private final List<Iterator<KeyValue<K, V>>> runs;
+        private final List<KeyValue<K, V>> heads;
+        // run indices ordered by their head and then by run so that equal keys keep the order of the runs
+        private final PriorityQueue<Integer> queue;
+
+        public MergeIterator(final List<Iterator<KeyValue<K, V>>> runs) {
+            this.runs = runs;
+            this.heads = new ArrayList<>(Collections.nCopies(runs.size(), null));
+            this.queue = new PriorityQueue<>(Math.max(1, runs.size()), (a, b) -> {
+                final int compare = comparator.compare(this.heads.get(a).getKey(), this.heads.get(b).getKey());
+                return 0 != compare ? compare : Integer.compare(a, b);
+            });
+            for (int i = 0; i < runs.size(); i++) {
+                this.advance(i);
+            }
+        }
+
+        private void advance(final int run) {
+            if (this.runs.get(run).hasNext()) {
+                this.heads.set(run, this.runs.get(run).next());
+                this.queue.add(run);
+            } else
+                this.heads.set(run, null);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !this.queue.isEmpty();
+        }
+
+        @Override
+        public KeyValue<K, V> next() {
+            if (this.queue.isEmpty())
+                throw FastNoSuchElementException.instance();
+            final int run = this.queue.poll();
+            final KeyValue<K, V> keyValue = this.heads.get(run);
+            this.advance(run);
+            return keyValue;
+        }
+    }
+
+    private final class GroupIterator implements Iterator<Map.Entry<K, List<V>>> {
+
+        private final Iterator<KeyValue<K, V>> keyValues;
+        private KeyValue<K, V> pending;
+        private Iterator<Map.Entry<K, List<V>>> group = Collections.emptyIterator();
+
+        public GroupIterator(final Iterator<KeyValue<K, V>> keyValues) {
+            this.keyValues = keyValues;
+            this.pending = keyValues.hasNext() ? keyValues.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!this.group.hasNext() && null != this.pending) {
+                final Map<K, List<V>> values = new LinkedHashMap<>();
+                final K first = this.pending.getKey();
+                do {
+                    values.computeIfAbsent(this.pending.getKey(), k -> new ArrayList<>()).add(this.pending.getValue());
+                    this.pending = this.keyValues.hasNext() ? this.keyValues.next() : null;
+                } while (null != this.pending && 0 == comparator.compare(first, this.pending.getKey()));
+                this.group = values.entrySet().iterator();
+            }
+            return this.group.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K, List<V>> next() {
+            if (!this.hasNext())
+                throw FastNoSuchElementException.instance();
+            return this.group.next();
+        }
+    }
+}
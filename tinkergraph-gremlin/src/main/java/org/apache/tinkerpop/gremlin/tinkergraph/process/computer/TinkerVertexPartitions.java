@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Splits the vertices of a {@link TinkerGraphComputerView} into partitions of about the same number of incident
+ * edges so that a vertex with many edges makes up a partition of its own. Each worker is assigned a contiguous run of
+ * partitions that together hold about an equal share of the edges. A worker first executes its own partitions and
+ * then steals the partitions that other workers have not started yet, so no worker waits at the end of an iteration
+ * while another still has more than one partition left.
+ */
+public final class TinkerVertexPartitions {
+
+    private static final int PARTITIONS_PER_WORKER = 16;
+
+    private final TinkerVertex[] vertices;
+    private final int[] partitionStarts;
+    private final int[] workerStarts;
+    private final AtomicInteger[] cursors;
+
+    public TinkerVertexPartitions(final TinkerVertex[] vertices, final int numberOfWorkers) {
+        this.vertices = vertices;
+        final long[] weights = new long[vertices.length];
+        long totalWeight = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            weights[i] = 1 + TinkerHelper.getDegree(vertices[i]);
+            totalWeight = totalWeight + weights[i];
+        }
+
+        // close a partition once it holds its share of the weight
+        final long partitionWeight = Math.max(1, totalWeight / ((long) numberOfWorkers * PARTITIONS_PER_WORKER));
+        final List<Integer> partitionStarts = new ArrayList<>();
+        final List<Long> partitionWeights = new ArrayList<>();
+        long weight = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            if (0 == weight) partitionStarts.add(i);
+            weight = weight + weights[i];
+            if (weight >= partitionWeight || i == vertices.length - 1) {
+                partitionWeights.add(weight);
+                weight = 0;
+            }
+        }
+        this.partitionStarts = new int[partitionStarts.size() + 1];
+        for (int i = 0; i < partitionStarts.size(); i++) {
+            this.partitionStarts[i] = partitionStarts.get(i);
+        }
+        this.partitionStarts[partitionStarts.size()] = vertices.length;
+
+        // give each worker the partitions that start within its share of the weight
+        this.workerStarts = new int[numberOfWorkers + 1];
+        int worker = 0;
+        weight = 0;
+        for (int i = 0; i < partitionWeights.size(); i++) {
+            while (worker < numberOfWorkers - 1 && weight * numberOfWorkers >= (worker + 1) * totalWeight) {
+                this.workerStarts[++worker] = i;
+            }
+            weight = weight + partitionWeights.get(i);
+        }
+        while (worker < numberOfWorkers) {
+            this.workerStarts[++worker] = partitionWeights.size();
+        }
+
+        this.cursors = new AtomicInteger[numberOfWorkers];
+        for (int i = 0; i < numberOfWorkers; i++) {
+            this.cursors[i] = new AtomicInteger();
+        }
+        this.reset();
+    }
+
+    /**
+     * Makes all the partitions available again for the next iteration.
+     */
+    public void reset() {
+        for (int i = 0; i < this.cursors.length; i++) {
+            this.cursors[i].set(this.workerStarts[i]);
+        }
+    }
+
+    public int getNumberOfPartitions() {
+        return this.partitionStarts.length - 1;
+    }
+
+    /**
+     * Hands the vertices of the partitions that the worker claims to the consumer until no partition is left, first
+     * claiming the partitions assigned to the worker and then those assigned to the other workers.
+     */
+    public void forEach(final int worker, final Consumer<TinkerVertex> consumer) {
+        for (int i = 0; i < this.cursors.length; i++) {
+            final int owner = (worker + i) % this.cursors.length;
+            int partition;
+            while ((partition = this.cursors[owner].getAndIncrement()) < this.workerStarts[owner + 1]) {
+                for (int j = this.partitionStarts[partition]; j < this.partitionStarts[partition + 1]; j++) {
+                    consumer.accept(this.vertices[j]);
+                }
+            }
+        }
+    }
+}
@@ -28,7 +28,7 @@ import java.util.concurrent.CompletionService;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.function.Consumer;
+import java.util.function.BiConsumer;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -44,9 +44,11 @@ public final class TinkerWorkerPool implements AutoCloseable {
 
     private VertexProgramPool vertexProgramPool;
     private MapReducePool mapReducePool;
+    private final long[] workerRuntimes;
 
     public TinkerWorkerPool(final int numberOfWorkers) {
         this.numberOfWorkers = numberOfWorkers;
+        this.workerRuntimes = new long[numberOfWorkers];
         this.workerPool = Executors.newFixedThreadPool(numberOfWorkers, THREAD_FACTORY_WORKER);
         this.completionService = new ExecutorCompletionService<>(this.workerPool);
     }
@@ -59,12 +61,29 @@ public final class TinkerWorkerPool implements AutoCloseable {
         this.mapReducePool = new MapReducePool(mapReduce, this.numberOfWorkers);
     }
 
-    public void executeVertexProgram(final Consumer<VertexProgram> worker) {
+    public int getNumberOfWorkers() {
+        return this.numberOfWorkers;
+    }
+
+    /**
+     * Gets the time in nanoseconds that each worker spent in the last {@link #executeVertexProgram(BiConsumer)}.
+     */
+    public long[] getWorkerRuntimes() {
+        return this.workerRuntimes.clone();
+    }
+
+    /**
+     * Runs the worker once for each worker index with a {@link VertexProgram} of its own.
+     */
+    public void executeVertexProgram(final BiConsumer<Integer, VertexProgram> worker) {
         for (int i = 0; i < this.numberOfWorkers; i++) {
+            final int index = i;
             this.completionService.submit(() -> {
+                final long time = System.nanoTime();
                 final VertexProgram vp = this.vertexProgramPool.take();
-                worker.accept(vp);
+                worker.accept(index, vp);
                 this.vertexProgramPool.offer(vp);
+                this.workerRuntimes[index] = System.nanoTime() - time;
                 return null;
             });
         }
@@ -77,11 +96,15 @@ public final class TinkerWorkerPool implements AutoCloseable {
         }
     }
 
-    public void executeMapReduce(final Consumer<MapReduce> worker) {
+    /**
+     * Runs the worker once for each worker index with a {@link MapReduce} of its own.
+     */
+    public void executeMapReduce(final BiConsumer<Integer, MapReduce> worker) {
         for (int i = 0; i < this.numberOfWorkers; i++) {
+            final int index = i;
             this.completionService.submit(() -> {
                 final MapReduce mr = this.mapReducePool.take();
-                worker.accept(mr);
+                worker.accept(index, mr);
                 this.mapReducePool.offer(mr);
                 return null;
             });
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Traverser;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A {@link VertexStep} that seeks the incident edges of a vertex in the vertex-centric indices of a
+ * {@link TinkerGraph} rather than scanning all of them. The has-containers that follow the step are folded into it
+ * and tested against its results.
+ */
+public final class TinkerVertexStep<E extends Element> extends VertexStep<E> implements HasContainerHolder {
+
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private Object adjacentVertexId = null;
+
+    public TinkerVertexStep(final VertexStep<E> originalVertexStep) {
+        super(originalVertexStep.getTraversal(), originalVertexStep.getReturnClass(), originalVertexStep.getDirection(), originalVertexStep.getEdgeLabels());
+        originalVertexStep.getLabels().forEach(this::addLabel);
+    }
+
+    @Override
+    protected Iterator<E> flatMap(final Traverser.Admin<Vertex> traverser) {
+        final Iterator<TinkerEdge> indexedEdges = traverser.get() instanceof TinkerVertex ?
+                this.indexedEdges((TinkerVertex) traverser.get()) :
+                null;
+        final Iterator<? extends Element> elements;
+        if (null == indexedEdges)
+            elements = super.flatMap(traverser);
+        else if (this.returnsVertex()) {
+            final Vertex vertex = traverser.get();
+            elements = IteratorUtils.map(indexedEdges, edge -> edge.outVertex().equals(vertex) ? edge.inVertex() : edge.outVertex());
+        } else
+            elements = indexedEdges;
+        return this.hasContainers.isEmpty() ?
+                (Iterator<E>) elements :
+                (Iterator<E>) IteratorUtils.filter(elements, element -> HasContainer.testAll(element, this.hasContainers));
+    }
+
+    /**
+     * Seeks the first vertex-centric index that applies: the adjacent vertex id for an {@code out()} followed by
+     * {@code hasId()} or for a {@link #setAdjacentVertexId hinted} {@code outE()}, otherwise an edge property with an
+     * {@code eq} has-container.
+     *
+     * @return the incident edges found in the index or {@code null} if no index applies
+     */
+    private Iterator<TinkerEdge> indexedEdges(final TinkerVertex vertex) {
+        if (TinkerHelper.inComputerMode((TinkerGraph) vertex.graph()))
+            return null;
+
+        if (this.returnsVertex()) {
+            for (final HasContainer hasContainer : this.hasContainers) {
+                if (T.id.getAccessor().equals(hasContainer.getKey()) && hasContainer.getBiPredicate() == Compare.eq)
+                    return TinkerHelper.getEdges(vertex, this.getDirection(), TinkerGraph.ADJACENT_VERTEX_ID, hasContainer.getValue(), this.getEdgeLabels());
+            }
+            return null;
+        }
+
+        if (null != this.adjacentVertexId) {
+            final Iterator<TinkerEdge> edges = TinkerHelper.getEdges(vertex, this.getDirection(), TinkerGraph.ADJACENT_VERTEX_ID, this.adjacentVertexId, this.getEdgeLabels());
+            if (null != edges)
+                return edges;
+        }
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getBiPredicate() == Compare.eq) {
+                final Iterator<TinkerEdge> edges = TinkerHelper.getEdges(vertex, this.getDirection(), hasContainer.getKey(), hasContainer.getValue(), this.getEdgeLabels());
+                if (null != edges)
+                    return edges;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Informs the step that the edges it returns are subsequently filtered to those whose adjacent vertex has the
+     * specified id, as in {@code outE().where(inV().hasId(id))}. The filter remains in the traversal, this only
+     * allows the step to seek the edges by the id of the adjacent vertex.
+     */
+    public void setAdjacentVertexId(final Object adjacentVertexId) {
+        this.adjacentVertexId = adjacentVertexId;
+    }
+
+    public Object getAdjacentVertexId() {
+        return this.adjacentVertexId;
+    }
+
+    @Override
+    public List<HasContainer> getHasContainers() {
+        return Collections.unmodifiableList(this.hasContainers);
+    }
+
+    @Override
+    public void addHasContainer(final HasContainer hasContainer) {
+        this.hasContainers.add(hasContainer);
+    }
+
+    @Override
+    public String toString() {
+        return this.hasContainers.isEmpty() ?
+                super.toString() :
+                StringFactory.stepString(this, this.getDirection(), Arrays.asList(this.getEdgeLabels()), this.getReturnClass().getSimpleName().toLowerCase(), this.hasContainers);
+    }
+
+    @Override
+    public TinkerVertexStep<E> clone() {
+        final TinkerVertexStep<E> clone = (TinkerVertexStep<E>) super.clone();
+        clone.hasContainers = new ArrayList<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        return clone;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = super.hashCode() ^ this.hasContainers.hashCode();
+        if (null != this.adjacentVertexId)
+            result ^= this.adjacentVertexId.hashCode();
+        return result;
+    }
+}
@@ -19,21 +19,30 @@
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect;
 
 import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerEdge;
 import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerHelper;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -43,7 +52,10 @@ import java.util.stream.Collectors;
  */
 public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E> implements HasContainerHolder {
 
-    private final List<HasContainer> hasContainers = new ArrayList<>();
+    private List<HasContainer> hasContainers = new ArrayList<>();
+    private String orderKey = null;
+    private boolean orderDescending = false;
+    private long orderLimit = Long.MAX_VALUE;
 
     public TinkerGraphStep(final GraphStep<S, E> originalGraphStep) {
         super(originalGraphStep.getTraversal(), originalGraphStep.getReturnClass(), originalGraphStep.isStartStep(), originalGraphStep.getIds());
@@ -58,40 +70,115 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
 
     private Iterator<? extends Edge> edges() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Edge.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
             return this.iteratorList(graph.edges(this.ids));
-        else
-            return null == indexedContainer ?
+
+        final Collection<TinkerEdge> indexedEdges = TinkerHelper.queryEdgeIndex(graph, this.getEqualityConstraints());
+        if (null != indexedEdges)
+            return indexedEdges.stream()
+                    .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
+                    .collect(Collectors.<Edge>toList()).iterator();
+        else if (isIndexOrdered(Edge.class))
+            return this.orderedList(TinkerHelper.queryEdgeIndex(graph, this.orderKey, getOrderPredicate(), this.orderDescending));
+        else {
+            final HasContainer rangeContainer = getRangeIndexKey(Edge.class);
+            return null == rangeContainer ?
                     this.iteratorList(graph.edges()) :
-                    TinkerHelper.queryEdgeIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                            .filter(edge -> HasContainer.testAll(edge, this.hasContainers))
-                            .collect(Collectors.<Edge>toList()).iterator();
+                    this.distinctList(TinkerHelper.queryEdgeIndex(graph, rangeContainer.getKey(), rangeContainer.getPredicate(), false));
+        }
     }
 
     private Iterator<? extends Vertex> vertices() {
         final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
-        final HasContainer indexedContainer = getIndexKey(Vertex.class);
         // ids are present, filter on them first
         if (this.ids != null && this.ids.length > 0)
             return this.iteratorList(graph.vertices(this.ids));
-        else
-            return null == indexedContainer ?
+
+        final Collection<TinkerVertex> indexedVertices = TinkerHelper.queryVertexIndex(graph, this.getEqualityConstraints());
+        if (null != indexedVertices)
+            return indexedVertices.stream()
+                    .filter(vertex -> HasContainer.testAll(vertex, this.hasContainers))
+                    .collect(Collectors.<Vertex>toList()).iterator();
+        else if (isIndexOrdered(Vertex.class))
+            return this.orderedList(TinkerHelper.queryVertexIndex(graph, this.orderKey, getOrderPredicate(), this.orderDescending));
+        else {
+            final HasContainer rangeContainer = getRangeIndexKey(Vertex.class);
+            return null == rangeContainer ?
                     this.iteratorList(graph.vertices()) :
-                    TinkerHelper.queryVertexIndex(graph, indexedContainer.getKey(), indexedContainer.getPredicate().getValue()).stream()
-                            .filter(vertex -> HasContainer.testAll(vertex, this.hasContainers))
-                            .collect(Collectors.<Vertex>toList()).iterator();
+                    this.distinctList(TinkerHelper.queryVertexIndex(graph, rangeContainer.getKey(), rangeContainer.getPredicate(), false));
+        }
+    }
+
+    /**
+     * Collects the keys (including {@link T#label}) that the has-containers constrain with {@code eq} so that the
+     * most selective single key or composite index for them can be chosen.
+     */
+    private Map<String, Object> getEqualityConstraints() {
+        final Map<String, Object> keyValues = new HashMap<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            if (hasContainer.getPredicate().getBiPredicate() == Compare.eq && null != hasContainer.getValue())
+                keyValues.putIfAbsent(hasContainer.getKey(), hasContainer.getValue());
+        }
+        return keyValues;
+    }
+
+    private HasContainer getRangeIndexKey(final Class<? extends Element> indexedClass) {
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        return this.hasContainers.stream()
+                .filter(c -> TinkerGraph.IndexType.RANGE == graph.getIndexType(c.getKey(), indexedClass) && TinkerHelper.isRangeIndexable(c.getPredicate()))
+                .findAny()
+                .orElseGet(() -> null);
     }
 
-    private HasContainer getIndexKey(final Class<? extends Element> indexedClass) {
-        final Set<String> indexedKeys = ((TinkerGraph) this.getTraversal().getGraph().get()).getIndexedKeys(indexedClass);
+    /**
+     * The range index of the order key only holds the elements that have the key, so an element lacking it would be
+     * silently dropped by the ordered walk. The walk is therefore only used when the has-containers already exclude
+     * such elements or when there are none.
+     */
+    private boolean isIndexOrdered(final Class<? extends Element> indexedClass) {
+        if (null == this.orderKey)
+            return false;
+        final TinkerGraph graph = (TinkerGraph) this.getTraversal().getGraph().get();
+        if (TinkerGraph.IndexType.RANGE != graph.getIndexType(this.orderKey, indexedClass))
+            return false;
+        return this.hasContainers.stream().anyMatch(c -> this.orderKey.equals(c.getKey())) ||
+                (Vertex.class.isAssignableFrom(indexedClass) ?
+                        TinkerHelper.isVertexIndexComplete(graph, this.orderKey) :
+                        TinkerHelper.isEdgeIndexComplete(graph, this.orderKey));
+    }
+
+    /**
+     * A predicate on the order key that describes a single range can bound the ordered index scan.
+     */
+    private P<?> getOrderPredicate() {
         return this.hasContainers.stream()
-                .filter(c -> indexedKeys.contains(c.getKey()) && c.getPredicate().getBiPredicate() == Compare.eq)
+                .filter(c -> this.orderKey.equals(c.getKey()) && !(c.getPredicate() instanceof OrP) && TinkerHelper.isRangeIndexable(c.getPredicate()))
+                .map(HasContainer::getPredicate)
                 .findAny()
                 .orElseGet(() -> null);
     }
 
+    /**
+     * Informs the step that its results are sorted by the specified key and that only the first {@code limit} of
+     * them are required. When the key has a {@link TinkerGraph.IndexType#RANGE} index, the step walks the index in
+     * order and stops once it has the {@code limit} first elements (and those tied with the last of them), rather
+     * than handing every element to the subsequent {@code order()}.
+     */
+    public void setIndexOrder(final String orderKey, final boolean orderDescending, final long orderLimit) {
+        this.orderKey = orderKey;
+        this.orderDescending = orderDescending;
+        this.orderLimit = orderLimit;
+    }
+
+    public String getOrderKey() {
+        return this.orderKey;
+    }
+
+    public long getOrderLimit() {
+        return this.orderLimit;
+    }
+
     @Override
     public String toString() {
         if (this.hasContainers.isEmpty())
@@ -102,6 +189,34 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
                     StringFactory.stepString(this, this.returnClass.getSimpleName().toLowerCase(), Arrays.toString(this.ids), this.hasContainers);
     }
 
+    private <E extends Element> Iterator<E> distinctList(final Iterator<E> iterator) {
+        final Set<E> set = new LinkedHashSet<>();
+        while (iterator.hasNext()) {
+            final E e = iterator.next();
+            if (HasContainer.testAll(e, this.hasContainers))
+                set.add(e);
+        }
+        return set.iterator();
+    }
+
+    private <E extends Element> Iterator<E> orderedList(final Iterator<E> iterator) {
+        final Set<E> set = new LinkedHashSet<>();
+        Object lastValue = null;
+        while (iterator.hasNext()) {
+            final E e = iterator.next();
+            if (!HasContainer.testAll(e, this.hasContainers))
+                continue;
+            final Object value = e.value(this.orderKey);
+            // keep going past the limit while values tie with the last one so that order() sees all of them. the
+            // index comparator is used as the index may hold numbers of differing types side by side
+            if (set.size() >= this.orderLimit && TinkerHelper.compareIndexValues(value, lastValue) != 0)
+                break;
+            set.add(e);
+            lastValue = value;
+        }
+        return set.iterator();
+    }
+
     private <E extends Element> Iterator<E> iteratorList(final Iterator<E> iterator) {
         final List<E> list = new ArrayList<>();
         while (iterator.hasNext()) {
@@ -122,8 +237,22 @@ public final class TinkerGraphStep<S, E extends Element> extends GraphStep<S, E>
         this.hasContainers.add(hasContainer);
     }
 
+    @Override
+    public TinkerGraphStep<S, E> clone() {
+        final TinkerGraphStep<S, E> clone = (TinkerGraphStep<S, E>) super.clone();
+        clone.hasContainers = new ArrayList<>();
+        for (final HasContainer hasContainer : this.hasContainers) {
+            clone.hasContainers.add(hasContainer.clone());
+        }
+        clone.setIteratorSupplier(() -> (Iterator<E>) (Vertex.class.isAssignableFrom(clone.returnClass) ? clone.vertices() : clone.edges()));
+        return clone;
+    }
+
     @Override
     public int hashCode() {
-        return super.hashCode() ^ this.hasContainers.hashCode();
+        int result = super.hashCode() ^ this.hasContainers.hashCode();
+        if (null != this.orderKey)
+            result ^= this.orderKey.hashCode() ^ Long.hashCode(this.orderLimit) ^ Boolean.hashCode(this.orderDescending);
+        return result;
     }
 }
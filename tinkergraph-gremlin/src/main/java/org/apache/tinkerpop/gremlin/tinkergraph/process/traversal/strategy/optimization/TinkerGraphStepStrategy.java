@@ -18,14 +18,22 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.Step;
 import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.lambda.ElementValueTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
 import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.javatuples.Pair;
+
+import java.util.Comparator;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -55,9 +63,27 @@ public final class TinkerGraphStepStrategy extends AbstractTraversalStrategy<Tra
                 traversal.removeStep(currentStep);
                 currentStep = currentStep.getNextStep();
             }
+            if (tinkerGraphStep.isStartStep() && currentStep instanceof OrderGlobalStep && currentStep.getNextStep() instanceof RangeGlobalStep)
+                TinkerGraphStepStrategy.processOrderLimit(tinkerGraphStep, (OrderGlobalStep<?, ?>) currentStep, (RangeGlobalStep<?>) currentStep.getNextStep());
         });
     }
 
+    /**
+     * An {@code order().by(key).limit(n)} that directly follows the graph step only needs the first {@code n} elements
+     * by that key, which the {@link TinkerGraphStep} can read off a {@link TinkerGraph.IndexType#RANGE} index. The
+     * order and range steps are left in place to do the actual sorting and limiting.
+     */
+    private static void processOrderLimit(final TinkerGraphStep<?, ?> tinkerGraphStep, final OrderGlobalStep<?, ?> orderGlobalStep, final RangeGlobalStep<?> rangeGlobalStep) {
+        if (orderGlobalStep.getComparators().size() != 1 || rangeGlobalStep.getHighRange() <= 0)
+            return;
+        final Pair<? extends Traversal.Admin<?, ?>, ? extends Comparator<?>> comparator = orderGlobalStep.getComparators().get(0);
+        if (comparator.getValue0() instanceof ElementValueTraversal &&
+                (comparator.getValue1() == Order.incr || comparator.getValue1() == Order.decr)) {
+            tinkerGraphStep.setIndexOrder(((ElementValueTraversal<?>) comparator.getValue0()).getPropertyKey(),
+                    comparator.getValue1() == Order.decr, rangeGlobalStep.getHighRange());
+        }
+    }
+
     public static TinkerGraphStepStrategy instance() {
         return INSTANCE;
     }
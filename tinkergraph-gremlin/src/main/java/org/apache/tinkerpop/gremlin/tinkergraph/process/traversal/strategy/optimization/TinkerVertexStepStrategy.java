@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TraversalFilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.EdgeVertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.AbstractTraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.map.TinkerVertexStep;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replaces a {@link VertexStep} with a {@link TinkerVertexStep} when the graph has a vertex-centric index that can
+ * answer the has-containers which follow it, such as {@code outE().has("weight", 0.5)}, {@code out().hasId(1)} or
+ * {@code outE().where(inV().hasId(1))}.
+ */
+public final class TinkerVertexStepStrategy extends AbstractTraversalStrategy<TraversalStrategy.ProviderOptimizationStrategy> implements TraversalStrategy.ProviderOptimizationStrategy {
+
+    private static final TinkerVertexStepStrategy INSTANCE = new TinkerVertexStepStrategy();
+
+    private TinkerVertexStepStrategy() {
+    }
+
+    @Override
+    public void apply(final Traversal.Admin<?, ?> traversal) {
+        if (TraversalHelper.onGraphComputer(traversal))
+            return;
+
+        final Graph graph = traversal.getGraph().orElse(null);
+        if (!(graph instanceof TinkerGraph))
+            return;
+        final Set<String> vertexCentricKeys = ((TinkerGraph) graph).getVertexCentricIndexKeys();
+        if (vertexCentricKeys.isEmpty())
+            return;
+
+        TraversalHelper.getStepsOfClass(VertexStep.class, traversal).forEach(originalVertexStep -> {
+            if (originalVertexStep instanceof TinkerVertexStep)
+                return;
+            final Object adjacentVertexId = originalVertexStep.returnsEdge() && vertexCentricKeys.contains(TinkerGraph.ADJACENT_VERTEX_ID) ?
+                    getAdjacentVertexId(originalVertexStep.getDirection(), originalVertexStep.getNextStep()) :
+                    null;
+            if (null == adjacentVertexId && !isIndexable(originalVertexStep, vertexCentricKeys))
+                return;
+
+            final TinkerVertexStep<?> tinkerVertexStep = new TinkerVertexStep<>(originalVertexStep);
+            tinkerVertexStep.setAdjacentVertexId(adjacentVertexId);
+            TraversalHelper.replaceStep(originalVertexStep, (Step) tinkerVertexStep, traversal);
+            Step<?, ?> currentStep = tinkerVertexStep.getNextStep();
+            while (isFoldable(currentStep)) {
+                ((HasContainerHolder) currentStep).getHasContainers().forEach(tinkerVertexStep::addHasContainer);
+                traversal.removeStep(currentStep);
+                currentStep = currentStep.getNextStep();
+            }
+        });
+    }
+
+    /**
+     * Determines if one of the has-containers that directly follow the step can be answered by a vertex-centric
+     * index: an {@code eq} on an indexed edge property for a step that returns edges or an {@code eq} on the id for a
+     * step that returns vertices.
+     */
+    private static boolean isIndexable(final VertexStep<?> vertexStep, final Set<String> vertexCentricKeys) {
+        Step<?, ?> currentStep = vertexStep.getNextStep();
+        while (isFoldable(currentStep)) {
+            for (final HasContainer hasContainer : ((HasContainerHolder) currentStep).getHasContainers()) {
+                if (hasContainer.getBiPredicate() != Compare.eq)
+                    continue;
+                if (vertexStep.returnsVertex() ?
+                        T.id.getAccessor().equals(hasContainer.getKey()) && vertexCentricKeys.contains(TinkerGraph.ADJACENT_VERTEX_ID) :
+                        vertexCentricKeys.contains(hasContainer.getKey()))
+                    return true;
+            }
+            currentStep = currentStep.getNextStep();
+        }
+        return false;
+    }
+
+    /**
+     * Determines if the step is a {@code has()} that can be folded into the preceding {@link TinkerVertexStep}. A
+     * labeled {@code has()} is not folded, and neither is anything after it, as the step it labels would be gone.
+     */
+    private static boolean isFoldable(final Step<?, ?> step) {
+        return step instanceof HasStep && step.getLabels().isEmpty();
+    }
+
+    /**
+     * Extracts the id from a {@code where(inV().hasId(id))} (or {@code outV()} for incoming edges) that directly
+     * follows the step.
+     */
+    private static Object getAdjacentVertexId(final Direction direction, final Step<?, ?> nextStep) {
+        if (Direction.BOTH == direction || !(nextStep instanceof TraversalFilterStep))
+            return null;
+        final List<Step> steps = ((TraversalFilterStep<?>) nextStep).getLocalChildren().get(0).getSteps();
+        if (steps.size() != 2 || !(steps.get(0) instanceof EdgeVertexStep) || !(steps.get(1) instanceof HasContainerHolder) ||
+                ((EdgeVertexStep) steps.get(0)).getDirection() != direction.opposite())
+            return null;
+        final List<HasContainer> hasContainers = ((HasContainerHolder) steps.get(1)).getHasContainers();
+        return hasContainers.size() == 1 &&
+                T.id.getAccessor().equals(hasContainers.get(0).getKey()) &&
+                hasContainers.get(0).getBiPredicate() == Compare.eq ? hasContainers.get(0).getValue() : null;
+    }
+
+    public static TinkerVertexStepStrategy instance() {
+        return INSTANCE;
+    }
+}
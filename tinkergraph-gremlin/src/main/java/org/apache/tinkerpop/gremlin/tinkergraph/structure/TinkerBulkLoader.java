@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.structure.io.gryo.VertexByteArrayInputStream;
+import org.apache.tinkerpop.gremlin.structure.util.Attachable;
+import org.apache.tinkerpop.gremlin.structure.util.star.StarGraph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Loads a graph file in an adjacency list format, where each vertex is written with all of its edges, into a
+ * {@link TinkerGraph} on all cores. The records of the file are split off into chunks as the file is read and each
+ * chunk is deserialized and turned into vertices by its own task. The edges are then wired in two parallel passes
+ * that each only touch the vertices of their own chunk: the first creates the out edges of a vertex and the second
+ * finds the edges that point into it. Only the ids, labels and properties of its edges are kept for a vertex between
+ * the passes rather than the whole record, and each pass lets go of what it used. Indices are not updated as elements
+ * are added but are rebuilt for the loaded elements at the end.
+ */
+final class TinkerBulkLoader {
+
+    /**
+     * The number of vertices deserialized by a single task.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final TinkerGraph graph;
+    private final String graphFormat;
+    private final ThreadLocal<GraphReader> readers;
+
+    public TinkerBulkLoader(final TinkerGraph graph, final String graphFormat) {
+        this.graph = graph;
+        this.graphFormat = graphFormat;
+        if (graphFormat.equals("gryo"))
+            this.readers = ThreadLocal.withInitial(() -> graph.io(IoCore.gryo()).reader().create());
+        else if (graphFormat.equals("graphson"))
+            this.readers = ThreadLocal.withInitial(() -> graph.io(IoCore.graphson()).reader().create());
+        else
+            throw new IllegalArgumentException(String.format("The %s format cannot be bulk loaded", graphFormat));
+    }
+
+    public void load(final InputStream inputStream) throws IOException {
+        final TinkerIndex<TinkerVertex> vertexIndex = this.graph.vertexIndex;
+        final TinkerIndex<TinkerEdge> edgeIndex = this.graph.edgeIndex;
+        final List<List<Loaded>> chunks;
+        this.graph.vertexIndex = null;
+        this.graph.edgeIndex = null;
+        try {
+            chunks = this.readVertices(inputStream);
+            chunks.parallelStream().forEach(this::addOutEdges);
+            chunks.parallelStream().forEach(this::addInEdges);
+        } finally {
+            this.graph.vertexIndex = vertexIndex;
+            this.graph.edgeIndex = edgeIndex;
+        }
+
+        if (null != vertexIndex) {
+            final List<TinkerVertex> vertices = new ArrayList<>();
+            chunks.forEach(chunk -> chunk.forEach(loaded -> vertices.add(loaded.vertex)));
+            vertexIndex.addAll(vertices);
+        }
+        if (null != edgeIndex) {
+            final List<TinkerEdge> edges = new ArrayList<>();
+            chunks.forEach(chunk -> chunk.forEach(loaded -> loaded.vertex.edges(Direction.OUT).forEachRemaining(edge -> edges.add((TinkerEdge) edge))));
+            edgeIndex.addAll(edges);
+        }
+    }
+
+    /**
+     * Splits the stream into chunks of records and hands each chunk to a task as soon as it is complete so that
+     * deserialization overlaps with reading the rest of the file.
+     */
+    private List<List<Loaded>> readVertices(final InputStream inputStream) throws IOException {
+        final List<CompletableFuture<List<Loaded>>> futures = new ArrayList<>();
+        final Supplier<byte[]> records = this.graphFormat.equals("gryo") ? gryoRecords(inputStream) : graphsonRecords(inputStream);
+        List<byte[]> chunk = new ArrayList<>(CHUNK_SIZE);
+        byte[] record;
+        while (null != (record = records.get())) {
+            chunk.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                final List<byte[]> full = chunk;
+                futures.add(CompletableFuture.supplyAsync(() -> this.addVertices(full)));
+                chunk = new ArrayList<>(CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            final List<byte[]> last = chunk;
+            futures.add(CompletableFuture.supplyAsync(() -> this.addVertices(last)));
+        }
+
+        final List<List<Loaded>> chunks = new ArrayList<>(futures.size());
+        try {
+            for (final CompletableFuture<List<Loaded>> future : futures) {
+                chunks.add(future.join());
+            }
+        } catch (CompletionException ce) {
+            if (ce.getCause() instanceof RuntimeException)
+                throw (RuntimeException) ce.getCause();
+            throw ce;
+        }
+        return chunks;
+    }
+
+    private List<Loaded> addVertices(final List<byte[]> records) {
+        final GraphReader reader = this.readers.get();
+        final List<Loaded> chunk = new ArrayList<>(records.size());
+        for (final byte[] record : records) {
+            final StarGraph.StarVertex starVertex;
+            try {
+                starVertex = (StarGraph.StarVertex) (this.graphFormat.equals("gryo") ?
+                        reader.readVertex(new ByteArrayInputStream(record), Attachable::get) :
+                        reader.readVertex(new ByteArrayInputStream(record), null, null, Direction.BOTH));
+            } catch (IOException ioe) {
+                throw new IllegalStateException(ioe.getMessage(), ioe);
+            }
+
+            final Object id = this.graph.vertexIdManager.convert(starVertex.id());
+            final TinkerVertex vertex = new TinkerVertex(id, starVertex.label(), this.graph);
+            if (null != this.graph.vertices.putIfAbsent(id, vertex))
+                throw Graph.Exceptions.vertexWithIdAlreadyExists(id);
+            this.graph.statistics.addVertex(vertex.label());
+
+            starVertex.properties().forEachRemaining(starProperty -> {
+                final TinkerVertexProperty<?> vertexProperty = new TinkerVertexProperty<>(
+                        this.graph.vertexPropertyIdManager.convert(starProperty.id()), vertex, starProperty.key(), starProperty.value());
+                starProperty.properties().forEachRemaining(p -> {
+                    if (null == vertexProperty.properties) vertexProperty.properties = new HashMap<>();
+                    vertexProperty.properties.put(p.key(), new TinkerProperty<>(vertexProperty, p.key(), p.value()));
+                });
+                if (null == vertex.properties) vertex.properties = this.graph.compact ? new HashMap<>(2) : new HashMap<>();
+                final List<VertexProperty> list = vertex.properties.computeIfAbsent(starProperty.key(), k -> this.graph.compact ? new ArrayList<>(1) : new ArrayList<>());
+                // as when the vertex is attached by a GraphReader, only the last value is kept with single cardinality
+                if (VertexProperty.Cardinality.single == this.graph.defaultVertexPropertyCardinality) list.clear();
+                list.add(vertexProperty);
+            });
+            chunk.add(new Loaded(vertex, outEdges(starVertex), inEdgeIds(starVertex)));
+        }
+        return chunk;
+    }
+
+    private LoadedEdge[] outEdges(final StarGraph.StarVertex starVertex) {
+        final List<LoadedEdge> edges = new ArrayList<>();
+        starVertex.edges(Direction.OUT).forEachRemaining(starEdge -> {
+            final List<Object> keyValues = new ArrayList<>();
+            starEdge.properties().forEachRemaining(p -> {
+                keyValues.add(p.key());
+                keyValues.add(p.value());
+            });
+            edges.add(new LoadedEdge(this.graph.edgeIdManager.convert(starEdge.id()), starEdge.label(),
+                    this.graph.vertexIdManager.convert(starEdge.inVertex().id()), keyValues.toArray()));
+        });
+        return edges.toArray(new LoadedEdge[edges.size()]);
+    }
+
+    private Object[] inEdgeIds(final StarGraph.StarVertex starVertex) {
+        final List<Object> ids = new ArrayList<>();
+        starVertex.edges(Direction.IN).forEachRemaining(starEdge -> ids.add(this.graph.edgeIdManager.convert(starEdge.id())));
+        return ids.toArray();
+    }
+
+    private void addOutEdges(final List<Loaded> chunk) {
+        for (final Loaded loaded : chunk) {
+            for (final LoadedEdge loadedEdge : loaded.outEdges) {
+                final Vertex inVertex = this.graph.vertices.get(loadedEdge.inVertexId);
+                if (null == inVertex)
+                    throw new IllegalStateException(String.format("The edge %s points to vertex %s which is not in the graph", loadedEdge.id, loadedEdge.inVertexId));
+
+                final TinkerEdge edge = new TinkerEdge(loadedEdge.id, loaded.vertex, loadedEdge.label, inVertex);
+                for (int i = 0; i < loadedEdge.keyValues.length; i = i + 2) {
+                    final String key = (String) loadedEdge.keyValues[i];
+                    if (null == edge.properties) edge.properties = this.graph.compact ? new HashMap<>(2) : new HashMap<>();
+                    edge.properties.put(key, new TinkerProperty<>(edge, key, loadedEdge.keyValues[i + 1]));
+                }
+                if (null != this.graph.edges.putIfAbsent(loadedEdge.id, edge))
+                    throw Graph.Exceptions.edgeWithIdAlreadyExists(loadedEdge.id);
+                TinkerHelper.addOutEdge(loaded.vertex, edge.label(), edge);
+            }
+            loaded.outEdges = null;
+        }
+    }
+
+    private void addInEdges(final List<Loaded> chunk) {
+        for (final Loaded loaded : chunk) {
+            for (final Object id : loaded.inEdgeIds) {
+                final Edge edge = this.graph.edges.get(id);
+                if (null == edge)
+                    throw new IllegalStateException(String.format("The edge %s comes from a vertex which is not in the graph", id));
+                TinkerHelper.addInEdge(loaded.vertex, edge.label(), edge);
+            }
+            loaded.inEdgeIds = null;
+        }
+    }
+
+    private static Supplier<byte[]> gryoRecords(final InputStream inputStream) {
+        final VertexByteArrayInputStream vertexStream = new VertexByteArrayInputStream(new BufferedInputStream(inputStream));
+        return () -> {
+            try {
+                final ByteArrayOutputStream record = vertexStream.readVertexBytes();
+                return record.size() == 0 ? null : record.toByteArray();
+            } catch (IOException ioe) {
+                throw new IllegalStateException(ioe.getMessage(), ioe);
+            }
+        };
+    }
+
+    private static Supplier<byte[]> graphsonRecords(final InputStream inputStream) {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return () -> {
+            try {
+                String line;
+                do {
+                    line = reader.readLine();
+                } while (null != line && line.isEmpty());
+                return null == line ? null : line.getBytes(StandardCharsets.UTF_8);
+            } catch (IOException ioe) {
+                throw new IllegalStateException(ioe.getMessage(), ioe);
+            }
+        };
+    }
+
+    /**
+     * A vertex that was added to the graph along with the edges of its record that are still to be wired.
+     */
+    private static final class Loaded {
+        private final TinkerVertex vertex;
+        private LoadedEdge[] outEdges;
+        private Object[] inEdgeIds;
+
+        private Loaded(final TinkerVertex vertex, final LoadedEdge[] outEdges, final Object[] inEdgeIds) {
+            this.vertex = vertex;
+            this.outEdges = outEdges;
+            this.inEdgeIds = inEdgeIds;
+        }
+    }
+
+    /**
+     * An out edge of a record with its property keys and values alternating in {@code keyValues}.
+     */
+    private static final class LoadedEdge {
+        private final Object id;
+        private final String label;
+        private final Object inVertexId;
+        private final Object[] keyValues;
+
+        private LoadedEdge(final Object id, final String label, final Object inVertexId, final Object[] keyValues) {
+            this.id = id;
+            this.label = label;
+            this.inVertexId = inVertexId;
+            this.keyValues = keyValues;
+        }
+    }
+}
@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.shaded.kryo.Kryo;
+import org.apache.tinkerpop.shaded.kryo.KryoException;
+import org.apache.tinkerpop.shaded.kryo.io.Input;
+import org.apache.tinkerpop.shaded.kryo.io.Output;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/**
+ * An append-only log of the mutations made to a {@link TinkerGraph} since its last checkpoint. Each mutation is
+ * written with Gryo while it is applied, so that a graph opened with {@link TinkerGraph#GREMLIN_TINKERGRAPH_CHANGE_LOG}
+ * only has to read its last checkpoint and replay this log, rather than having to be written out in full when it is
+ * closed. Entries are appended one at a time and a mutation appends its entry before the mutated element can be seen
+ * by other threads, so the log holds a mutation after those it depends on even though mutations are applied
+ * concurrently. An entry is handed to the operating system before its mutation completes, which survives the process
+ * stopping, and is only forced to the disk, which survives the machine stopping, when the log is synced. Replaying is
+ * idempotent, which allows the log to be applied again over a checkpoint that already contains some of its entries.
+ * <p/>
+ * A checkpoint rotates the log so that mutations can continue to be logged while the graph is written out. The
+ * rotated log is deleted once the checkpoint is written and is otherwise replayed ahead of the log.
+ */
+final class TinkerChangeLog implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TinkerChangeLog.class);
+
+    private static final byte ADD_VERTEX = 1;
+    private static final byte REMOVE_VERTEX = 2;
+    private static final byte ADD_EDGE = 3;
+    private static final byte REMOVE_EDGE = 4;
+    private static final byte ADD_VERTEX_PROPERTY = 5;
+    private static final byte REMOVE_VERTEX_PROPERTY = 6;
+    private static final byte ADD_META_PROPERTY = 7;
+    private static final byte REMOVE_META_PROPERTY = 8;
+    private static final byte ADD_EDGE_PROPERTY = 9;
+    private static final byte REMOVE_EDGE_PROPERTY = 10;
+    private static final byte CLEAR = 11;
+
+    private final File file;
+    private final File rotatedFile;
+    private final boolean sync;
+    private final Kryo kryo;
+    private FileOutputStream stream;
+    private Output output;
+
+    /**
+     * @param sync whether each entry is forced to the disk before the mutation that it records completes
+     */
+    public TinkerChangeLog(final TinkerGraph graph, final File file, final File rotatedFile, final boolean sync) {
+        this.file = file;
+        this.rotatedFile = rotatedFile;
+        this.sync = sync;
+        this.kryo = graph.io(IoCore.gryo()).mapper().create().createMapper();
+    }
+
+    /**
+     * Applies the entries of the rotated log, if a checkpoint did not complete, and of the log to the graph and then
+     * opens the log for appending. An entry that was only partially written, because the process stopped while
+     * writing it, is discarded.
+     */
+    public synchronized void replay(final TinkerGraph graph) {
+        this.replay(graph, this.rotatedFile);
+        this.replay(graph, this.file);
+        this.open(true);
+    }
+
+    private void replay(final TinkerGraph graph, final File logFile) {
+        if (!logFile.exists())
+            return;
+
+        long validLength = 0;
+        try (final Input input = new Input(new FileInputStream(logFile))) {
+            while (!input.eof()) {
+                this.apply(graph, input);
+                validLength = input.total();
+            }
+        } catch (KryoException ke) {
+            logger.warn("Discarding incomplete entry at the end of the change log {} at position {}", logFile, validLength);
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not replay change log at %s", logFile), ioe);
+        }
+
+        try (final RandomAccessFile raf = new RandomAccessFile(logFile, "rw")) {
+            if (raf.length() > validLength)
+                raf.setLength(validLength);
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not truncate change log at %s", logFile), ioe);
+        }
+    }
+
+    /**
+     * Determines if a rotated log was left behind by a checkpoint that did not complete.
+     */
+    public boolean hasRotated() {
+        return this.rotatedFile.exists();
+    }
+
+    /**
+     * Moves the entries of the log to the rotated log and empties the log, which must only be done while no mutation
+     * is being logged. If the rotated log of a checkpoint that did not complete is still there, the entries are
+     * appended to it so that they are replayed after its own.
+     */
+    public synchronized void rotate() {
+        this.output.close();
+        try {
+            if (this.rotatedFile.exists()) {
+                try (final FileOutputStream rotated = new FileOutputStream(this.rotatedFile, true)) {
+                    Files.copy(this.file.toPath(), rotated);
+                    if (this.sync) rotated.getChannel().force(false);
+                }
+            } else {
+                Files.move(this.file.toPath(), this.rotatedFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not rotate change log at %s", this.file), ioe);
+        }
+        // the log is emptied even if it was copied as replaying its entries after the rotated ones is harmless
+        this.open(false);
+    }
+
+    /**
+     * Deletes the rotated log, which must only be done once the graph has been written out in full.
+     */
+    public synchronized void deleteRotated() {
+        try {
+            Files.deleteIfExists(this.rotatedFile.toPath());
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not delete change log at %s", this.rotatedFile), ioe);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (null != this.output) {
+            this.output.close();
+            this.output = null;
+            this.stream = null;
+        }
+    }
+
+    public synchronized void addVertex(final Vertex vertex) {
+        this.begin(ADD_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.output.writeString(vertex.label());
+        this.end();
+    }
+
+    public synchronized void removeVertex(final Vertex vertex) {
+        this.begin(REMOVE_VERTEX);
+        this.kryo.writeClassAndObject(this.output, vertex.id());
+        this.end();
+    }
+
+    public synchronized void addEdge(final Edge edge) {
+        this.begin(ADD_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.output.writeString(edge.label());
+        this.kryo.writeClassAndObject(this.output, edge.outVertex().id());
+        this.kryo.writeClassAndObject(this.output, edge.inVertex().id());
+        this.end();
+    }
+
+    public synchronized void removeEdge(final Edge edge) {
+        this.begin(REMOVE_EDGE);
+        this.kryo.writeClassAndObject(this.output, edge.id());
+        this.end();
+    }
+
+    public synchronized void addVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.begin(ADD_VERTEX_PROPERTY);
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.value());
+        this.end();
+    }
+
+    public synchronized void removeVertexProperty(final VertexProperty<?> vertexProperty) {
+        this.begin(REMOVE_VERTEX_PROPERTY);
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+        this.end();
+    }
+
+    public synchronized void addProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            this.begin(ADD_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, property.element().id());
+        } else {
+            this.begin(ADD_META_PROPERTY);
+            this.writeVertexPropertyReference((VertexProperty<?>) property.element());
+        }
+        this.output.writeString(property.key());
+        this.kryo.writeClassAndObject(this.output, property.value());
+        this.end();
+    }
+
+    public synchronized void removeProperty(final Property<?> property) {
+        if (property.element() instanceof Edge) {
+            this.begin(REMOVE_EDGE_PROPERTY);
+            this.kryo.writeClassAndObject(this.output, property.element().id());
+        } else {
+            this.begin(REMOVE_META_PROPERTY);
+            this.writeVertexPropertyReference((VertexProperty<?>) property.element());
+        }
+        this.output.writeString(property.key());
+        this.end();
+    }
+
+    public synchronized void clear() {
+        this.begin(CLEAR);
+        this.end();
+    }
+
+    private void writeVertexPropertyReference(final VertexProperty<?> vertexProperty) {
+        this.kryo.writeClassAndObject(this.output, vertexProperty.element().id());
+        this.kryo.writeClassAndObject(this.output, vertexProperty.id());
+        this.output.writeString(vertexProperty.key());
+    }
+
+    private void begin(final byte operation) {
+        if (null == this.output)
+            throw new IllegalStateException(String.format("The change log at %s is closed", this.file));
+        this.output.writeByte(operation);
+    }
+
+    private void end() {
+        this.output.flush();
+        if (this.sync) {
+            try {
+                this.stream.getChannel().force(false);
+            } catch (IOException ioe) {
+                throw new RuntimeException(String.format("Could not sync change log at %s", this.file), ioe);
+            }
+        }
+    }
+
+    private void open(final boolean append) {
+        try {
+            this.stream = new FileOutputStream(this.file, append);
+            this.output = new Output(this.stream);
+        } catch (IOException ioe) {
+            throw new RuntimeException(String.format("Could not open change log at %s", this.file), ioe);
+        }
+    }
+
+    private void apply(final TinkerGraph graph, final Input input) {
+        final byte operation = input.readByte();
+        switch (operation) {
+            case ADD_VERTEX: {
+                final Object id = this.kryo.readClassAndObject(input);
+                final String label = input.readString();
+                if (!graph.vertices.containsKey(id))
+                    graph.addVertex(T.id, id, T.label, label);
+                break;
+            }
+            case REMOVE_VERTEX: {
+                final Vertex vertex = graph.vertices.get(this.kryo.readClassAndObject(input));
+                if (null != vertex)
+                    vertex.remove();
+                break;
+            }
+            case ADD_EDGE: {
+                final Object id = this.kryo.readClassAndObject(input);
+                final String label = input.readString();
+                final Vertex outVertex = graph.vertices.get(this.kryo.readClassAndObject(input));
+                final Vertex inVertex = graph.vertices.get(this.kryo.readClassAndObject(input));
+                if (!graph.edges.containsKey(id) && null != outVertex && null != inVertex)
+                    outVertex.addEdge(label, inVertex, T.id, id);
+                break;
+            }
+            case REMOVE_EDGE: {
+                final Edge edge = graph.edges.get(this.kryo.readClassAndObject(input));
+                if (null != edge)
+                    edge.remove();
+                break;
+            }
+            case ADD_VERTEX_PROPERTY: {
+                final Vertex vertex = graph.vertices.get(this.kryo.readClassAndObject(input));
+                final Object id = this.kryo.readClassAndObject(input);
+                final String key = input.readString();
+                final Object value = this.kryo.readClassAndObject(input);
+                if (null != vertex && null == findVertexProperty(vertex, key, id))
+                    vertex.property(VertexProperty.Cardinality.list, key, value, T.id, id);
+                break;
+            }
+            case REMOVE_VERTEX_PROPERTY: {
+                final VertexProperty<?> vertexProperty = this.readVertexPropertyReference(graph, input);
+                if (null != vertexProperty)
+                    vertexProperty.remove();
+                break;
+            }
+            case ADD_META_PROPERTY: {
+                final VertexProperty<?> vertexProperty = this.readVertexPropertyReference(graph, input);
+                final String key = input.readString();
+                final Object value = this.kryo.readClassAndObject(input);
+                if (null != vertexProperty)
+                    vertexProperty.property(key, value);
+                break;
+            }
+            case REMOVE_META_PROPERTY: {
+                final VertexProperty<?> vertexProperty = this.readVertexPropertyReference(graph, input);
+                final String key = input.readString();
+                if (null != vertexProperty)
+                    removeProperty(vertexProperty.property(key));
+                break;
+            }
+            case ADD_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(this.kryo.readClassAndObject(input));
+                final String key = input.readString();
+                final Object value = this.kryo.readClassAndObject(input);
+                if (null != edge)
+                    edge.property(key, value);
+                break;
+            }
+            case REMOVE_EDGE_PROPERTY: {
+                final Edge edge = graph.edges.get(this.kryo.readClassAndObject(input));
+                final String key = input.readString();
+                if (null != edge)
+                    removeProperty(edge.property(key));
+                break;
+            }
+            case CLEAR:
+                graph.clear();
+                break;
+            default:
+                throw new IllegalStateException(String.format("The change log at %s contains an unknown operation %s", this.file, operation));
+        }
+    }
+
+    private VertexProperty<?> readVertexPropertyReference(final TinkerGraph graph, final Input input) {
+        final Vertex vertex = graph.vertices.get(this.kryo.readClassAndObject(input));
+        final Object id = this.kryo.readClassAndObject(input);
+        final String key = input.readString();
+        return null == vertex ? null : findVertexProperty(vertex, key, id);
+    }
+
+    private static void removeProperty(final Property<?> property) {
+        if (property.isPresent())
+            property.remove();
+    }
+
+    private static VertexProperty<?> findVertexProperty(final Vertex vertex, final String key, final Object id) {
+        final Iterator<VertexProperty<Object>> vertexProperties = vertex.properties(key);
+        while (vertexProperties.hasNext()) {
+            final VertexProperty<Object> vertexProperty = vertexProperties.next();
+            if (vertexProperty.id().equals(id))
+                return vertexProperty;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.T;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index over an ordered tuple of property keys that is optionally restricted to the elements of a single label.
+ * Every element with the label and a value for each of the keys is held in the bucket of its tuple of values and in
+ * the buckets of the leading parts of that tuple, so a lookup with values for only the first keys of the index is
+ * answered as well. A multi-property contributes one tuple per combination of its values.
+ */
+final class TinkerCompositeIndex<T extends Element> {
+
+    private final String label;
+    private final List<String> keys;
+    /**
+     * The buckets by the number of leading keys of their tuples, where the last holds the tuples of all keys.
+     */
+    private final List<Map<List<Object>, Set<T>>> prefixes;
+    private final Map<T, Set<List<Object>>> elementTuples = new ConcurrentHashMap<>();
+
+    public TinkerCompositeIndex(final String label, final List<String> keys) {
+        this.label = label;
+        this.keys = Collections.unmodifiableList(new ArrayList<>(keys));
+        this.prefixes = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            this.prefixes.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    public String getLabel() {
+        return this.label;
+    }
+
+    public List<String> getKeys() {
+        return this.keys;
+    }
+
+    public boolean isIndexed(final String key) {
+        return T.label.getAccessor().equals(key) || this.keys.contains(key);
+    }
+
+    /**
+     * Determines if the index can answer a lookup for the specified key/values, which is the case when there is a
+     * value for the first key of the index and, for a label-scoped index, when the label is the label of the index.
+     */
+    public boolean covers(final Map<String, Object> keyValues) {
+        return (null == this.label || this.label.equals(keyValues.get(T.label.getAccessor()))) &&
+                keyValues.containsKey(this.keys.get(0));
+    }
+
+    /**
+     * Gets a read-only view of the elements for the values of the longest run of leading index keys that the
+     * key/values, which must {@link #covers cover} the index, have values for.
+     */
+    public Set<T> get(final Map<String, Object> keyValues) {
+        final List<Object> tuple = this.tuple(keyValues);
+        final Set<T> set = this.prefixes.get(tuple.size() - 1).get(tuple);
+        return null == set ? Collections.emptySet() : Collections.unmodifiableSet(set);
+    }
+
+    public long count(final Map<String, Object> keyValues) {
+        final List<Object> tuple = this.tuple(keyValues);
+        final Set<T> set = this.prefixes.get(tuple.size() - 1).get(tuple);
+        return null == set ? 0 : set.size();
+    }
+
+    /**
+     * Re-reads the label and the index key values of the element and moves it to the buckets of its current tuples.
+     */
+    public void update(final T element) {
+        this.elementTuples.compute(element, (e, oldTuples) -> {
+            final Set<List<Object>> newTuples = this.tuples(e);
+            for (int length = 1; length <= this.keys.size(); length++) {
+                final Map<List<Object>, Set<T>> index = this.prefixes.get(length - 1);
+                final Set<List<Object>> oldPrefixes = null == oldTuples ? Collections.emptySet() : prefixes(oldTuples, length);
+                final Set<List<Object>> newPrefixes = prefixes(newTuples, length);
+                for (final List<Object> prefix : oldPrefixes) {
+                    if (!newPrefixes.contains(prefix))
+                        index.computeIfPresent(prefix, (t, set) -> set.remove(e) && set.isEmpty() ? null : set);
+                }
+                for (final List<Object> prefix : newPrefixes) {
+                    if (!oldPrefixes.contains(prefix))
+                        index.compute(prefix, (t, set) -> {
+                            final Set<T> bucket = null == set ? ConcurrentHashMap.newKeySet() : set;
+                            bucket.add(e);
+                            return bucket;
+                        });
+                }
+            }
+            return newTuples.isEmpty() ? null : newTuples;
+        });
+    }
+
+    public void remove(final T element) {
+        this.elementTuples.computeIfPresent(element, (e, oldTuples) -> {
+            for (int length = 1; length <= this.keys.size(); length++) {
+                final Map<List<Object>, Set<T>> index = this.prefixes.get(length - 1);
+                for (final List<Object> prefix : prefixes(oldTuples, length)) {
+                    index.computeIfPresent(prefix, (t, set) -> set.remove(e) && set.isEmpty() ? null : set);
+                }
+            }
+            return null;
+        });
+    }
+
+    public void clear() {
+        for (final Map<List<Object>, Set<T>> index : this.prefixes) {
+            index.clear();
+        }
+        this.elementTuples.clear();
+    }
+
+    /**
+     * Gets the values of the leading index keys that the key/values have a value for.
+     */
+    private List<Object> tuple(final Map<String, Object> keyValues) {
+        final List<Object> tuple = new ArrayList<>(this.keys.size());
+        for (final String key : this.keys) {
+            if (!keyValues.containsKey(key))
+                break;
+            tuple.add(keyValues.get(key));
+        }
+        return tuple;
+    }
+
+    private static Set<List<Object>> prefixes(final Set<List<Object>> tuples, final int length) {
+        final Set<List<Object>> prefixes = new HashSet<>();
+        for (final List<Object> tuple : tuples) {
+            prefixes.add(tuple.size() == length ? tuple : tuple.subList(0, length));
+        }
+        return prefixes;
+    }
+    private Set<List<Object>> tuples(final T element) {
+        if (null != this.label && !this.label.equals(element.label()))
+            return Collections.emptySet();
+
+        Set<List<Object>> tuples = Collections.singleton(Collections.emptyList());
+        for (final String key : this.keys) {
+            final Set<Object> values = new LinkedHashSet<>();
+            element.properties(key).forEachRemaining(p -> values.add(((Property) p).value()));
+            if (values.isEmpty())
+                return Collections.emptySet();
+
+            final Set<List<Object>> extended = new HashSet<>();
+            for (final List<Object> tuple : tuples) {
+                for (final Object value : values) {
+                    final List<Object> longer = new ArrayList<>(tuple);
+                    longer.add(value);
+                    extended.add(longer);
+                }
+            }
+            tuples = extended;
+        }
+        return tuples;
+    }
+}
@@ -33,6 +33,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -51,17 +52,37 @@ public final class TinkerEdge extends TinkerElement implements Edge {
         TinkerHelper.autoUpdateIndex(this, T.label.getAccessor(), this.label, null);
     }
 
+    /**
+     * Copies the properties of the edge for a {@link TinkerSnapshot} that must not see the mutations that are about
+     * to be made to it. Unlike the edge, the copy is not indexed.
+     */
+    TinkerEdge(final TinkerEdge edge) {
+        super(edge.id, edge.label);
+        this.outVertex = edge.outVertex;
+        this.inVertex = edge.inVertex;
+        this.properties = null == edge.properties ? null : new HashMap<>(edge.properties);
+        this.removed = edge.removed;
+    }
+
     @Override
     public <V> Property<V> property(final String key, final V value) {
         if (this.removed) throw elementAlreadyRemoved(Edge.class, id);
         ElementHelper.validateProperty(key, value);
-        final Property oldProperty = super.property(key);
-        final Property<V> newProperty = new TinkerProperty<>(this, key, value);
-        if (null == this.properties) this.properties = new HashMap<>();
-        this.properties.put(key, newProperty);
-        TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
-        return newProperty;
-
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final Lock lock = TinkerHelper.lockMutation(graph);
+        try {
+            TinkerHelper.preserve(graph, this);
+            final Property oldProperty = super.property(key);
+            final Property<V> newProperty = new TinkerProperty<>(this, key, value);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(graph);
+            if (null != changeLog) changeLog.addProperty(newProperty);
+            if (null == this.properties) this.properties = graph.compact ? new HashMap<>(2) : new HashMap<>();
+            this.properties.put(key, newProperty);
+            TinkerHelper.autoUpdateIndex(this, key, value, oldProperty.isPresent() ? oldProperty.value() : null);
+            return newProperty;
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
     }
 
     @Override
@@ -78,22 +99,34 @@ public final class TinkerEdge extends TinkerElement implements Edge {
     public void remove() {
         final TinkerVertex outVertex = (TinkerVertex) this.outVertex;
         final TinkerVertex inVertex = (TinkerVertex) this.inVertex;
-
-        if (null != outVertex && null != outVertex.outEdges) {
-            final Set<Edge> edges = outVertex.outEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
-        }
-        if (null != inVertex && null != inVertex.inEdges) {
-            final Set<Edge> edges = inVertex.inEdges.get(this.label());
-            if (null != edges)
-                edges.remove(this);
+        final TinkerGraph graph = (TinkerGraph) this.graph();
+        final Lock lock = TinkerHelper.lockMutation(graph);
+        try {
+            TinkerHelper.preserve(graph, this);
+            if (null != outVertex) TinkerHelper.preserve(graph, outVertex);
+            if (null != inVertex) TinkerHelper.preserve(graph, inVertex);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(graph);
+            if (null != changeLog) changeLog.removeEdge(this);
+
+            if (null != outVertex && null != outVertex.outEdges) {
+                final Set<Edge> edges = outVertex.outEdges.get(this.label());
+                if (null != edges && edges.remove(this) && edges.isEmpty())
+                    graph.statistics.incidentVertex(Direction.OUT, this.label(), false);
+            }
+            if (null != inVertex && null != inVertex.inEdges) {
+                final Set<Edge> edges = inVertex.inEdges.get(this.label());
+                if (null != edges && edges.remove(this) && edges.isEmpty())
+                    graph.statistics.incidentVertex(Direction.IN, this.label(), false);
+            }
+
+            TinkerHelper.removeElementIndex(this);
+            if (null != graph.edges.remove(this.id()))
+                graph.statistics.removeEdge(this.label());
+            this.properties = null;
+            this.removed = true;
+        } finally {
+            TinkerHelper.unlockMutation(lock);
         }
-
-        TinkerHelper.removeElementIndex(this);
-        ((TinkerGraph) this.graph()).edges.remove(this.id());
-        this.properties = null;
-        this.removed = true;
     }
 
     @Override
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Edge;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The adjacency of a {@link TinkerVertex} for one edge label when the graph is {@link TinkerGraph#GREMLIN_TINKERGRAPH_COMPACT
+ * compact}. The edges are held in a growable array which costs a reference per edge where a {@code HashSet} costs a
+ * hash table slot and an entry object, and which is iterated sequentially. An edge is only ever added once, when it is
+ * created, so {@link #add} does not check for duplicates, while {@link #remove} and {@link #contains} are linear in
+ * the number of edges. The order of the edges is not kept as an edge is removed by moving the last edge into its slot.
+ * <p/>
+ * An iterator reads the array and size as they were when it was created. The array is shared with the iterators
+ * until the next removal, which copies it once and leaves the copy to later removals, so edges can be removed while
+ * they are iterated without the adjacency having to be copied first or on every removal.
+ */
+final class TinkerEdgeArraySet extends AbstractSet<Edge> {
+
+    private static final Edge[] EMPTY = new Edge[0];
+
+    private Edge[] edges = EMPTY;
+    private int size = 0;
+    private boolean shared = false;
+
+    @Override
+    public boolean add(final Edge edge) {
+        // appending does not touch the slots an iterator reads, so a shared array is only copied when it is full
+        if (this.size == this.edges.length) {
+            this.edges = Arrays.copyOf(this.edges, Math.max(4, this.size + (this.size >> 1)));
+            this.shared = false;
+        }
+        this.edges[this.size++] = edge;
+        return true;
+    }
+
+    @Override
+    public boolean remove(final Object object) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.edges[i].equals(object)) {
+                this.removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public boolean contains(final Object object) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.edges[i].equals(object))
+                return true;
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public void clear() {
+        this.edges = EMPTY;
+        this.size = 0;
+        this.shared = false;
+    }
+
+    @Override
+    public Iterator<Edge> iterator() {
+        final Edge[] snapshot = this.edges;
+        final int snapshotSize = this.size;
+        this.shared = snapshotSize > 0;
+        return new Iterator<Edge>() {
+            private int cursor = 0;
+            private Edge last = null;
+
+            @Override
+            public boolean hasNext() {
+                return this.cursor < snapshotSize;
+            }
+
+            @Override
+            public Edge next() {
+                if (this.cursor >= snapshotSize)
+                    throw new NoSuchElementException();
+                this.last = snapshot[this.cursor++];
+                return this.last;
+            }
+
+            @Override
+            public void remove() {
+                if (null == this.last)
+                    throw new IllegalStateException();
+                TinkerEdgeArraySet.this.remove(this.last);
+                this.last = null;
+            }
+        };
+    }
+
+    /**
+     * Removes the edge at the index by moving the last edge into its slot, first copying the array if an iterator
+     * may still be reading it.
+     */
+    private void removeAt(final int index) {
+        final int newSize = this.size - 1;
+        if (0 == newSize) {
+            this.edges = EMPTY;
+            this.shared = false;
+        } else {
+            if (this.shared) {
+                this.edges = Arrays.copyOf(this.edges, this.size);
+                this.shared = false;
+            }
+            this.edges[index] = this.edges[newSize];
+            this.edges[newSize] = null;
+        }
+        this.size = newSize;
+    }
+}
@@ -21,13 +21,20 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.Contains;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategies;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.CardinalityEstimator;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.IoCore;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
@@ -36,17 +43,33 @@ import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputer;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerGraphStepStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization.TinkerVertexStepStrategy;
 import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
 import java.util.stream.Stream;
 
 /**
@@ -68,10 +91,10 @@ import java.util.stream.Stream;
 @Graph.OptIn(Graph.OptIn.SUITE_GROOVY_ENVIRONMENT_INTEGRATE)
 @Graph.OptIn(Graph.OptIn.SUITE_GROOVY_ENVIRONMENT_PERFORMANCE)
 @Graph.OptIn("org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.TinkerGraphStrategySuite")
-public final class TinkerGraph implements Graph {
+public final class TinkerGraph implements Graph, CardinalityEstimator {
 
     static {
-        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(TinkerGraphStepStrategy.instance()));
+        TraversalStrategies.GlobalCache.registerStrategies(TinkerGraph.class, TraversalStrategies.GlobalCache.getStrategies(Graph.class).clone().addStrategies(TinkerGraphStepStrategy.instance(), TinkerVertexStepStrategy.instance()));
     }
 
     private static final Configuration EMPTY_CONFIGURATION = new BaseConfiguration() {{
@@ -115,6 +138,20 @@ public final class TinkerGraph implements Graph {
     public static final String GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY = "gremlin.tinkergraph.defaultVertexPropertyCardinality";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_LOCATION = "gremlin.tinkergraph.graphLocation";
     public static final String GREMLIN_TINKERGRAPH_GRAPH_FORMAT = "gremlin.tinkergraph.graphFormat";
+    public static final String GREMLIN_TINKERGRAPH_COMPACT = "gremlin.tinkergraph.compact";
+    public static final String GREMLIN_TINKERGRAPH_CHANGE_LOG = "gremlin.tinkergraph.changeLog";
+    public static final String GREMLIN_TINKERGRAPH_CHANGE_LOG_SYNC = "gremlin.tinkergraph.changeLogSync";
+    public static final String GREMLIN_TINKERGRAPH_SNAPSHOTS = "gremlin.tinkergraph.snapshots";
+    public static final String GREMLIN_TINKERGRAPH_SPILL_THRESHOLD = "gremlin.tinkergraph.spillThreshold";
+
+    /**
+     * The key of a vertex-centric index that organizes the adjacent edges of a vertex by the id of the vertex at
+     * their other end.
+     */
+    public static final String ADJACENT_VERTEX_ID = Graph.Hidden.hide("adjacentVertexId");
+
+    private static final String CHANGE_LOG_EXTENSION = ".log";
+    private static final String ROTATED_CHANGE_LOG_EXTENSION = ".log.old";
 
     private final TinkerGraphFeatures features = new TinkerGraphFeatures();
 
@@ -126,11 +163,18 @@ public final class TinkerGraph implements Graph {
     protected TinkerGraphComputerView graphComputerView = null;
     protected TinkerIndex<TinkerVertex> vertexIndex = null;
     protected TinkerIndex<TinkerEdge> edgeIndex = null;
+    protected Set<String> vertexCentricKeys = null;
+    protected TinkerChangeLog changeLog = null;
+    protected final TinkerStatistics statistics = new TinkerStatistics();
 
     protected final IdManager<?> vertexIdManager;
     protected final IdManager<?> edgeIdManager;
     protected final IdManager<?> vertexPropertyIdManager;
     protected final VertexProperty.Cardinality defaultVertexPropertyCardinality;
+    protected final boolean compact;
+    protected final ReentrantReadWriteLock snapshotLock;
+    private final Object checkpointLock = new Object();
+    protected final List<TinkerSnapshot> snapshots = new CopyOnWriteArrayList<>();
 
     private final Configuration configuration;
     private final String graphLocation;
@@ -146,6 +190,10 @@ public final class TinkerGraph implements Graph {
         vertexPropertyIdManager = selectIdManager(configuration, GREMLIN_TINKERGRAPH_VERTEX_PROPERTY_ID_MANAGER, VertexProperty.class);
         defaultVertexPropertyCardinality = VertexProperty.Cardinality.valueOf(
                 configuration.getString(GREMLIN_TINKERGRAPH_DEFAULT_VERTEX_PROPERTY_CARDINALITY, VertexProperty.Cardinality.single.name()));
+        compact = configuration.getBoolean(GREMLIN_TINKERGRAPH_COMPACT, false);
+        // a checkpoint writes the graph out from a snapshot
+        snapshotLock = configuration.getBoolean(GREMLIN_TINKERGRAPH_SNAPSHOTS, false) || configuration.getBoolean(GREMLIN_TINKERGRAPH_CHANGE_LOG, false) ?
+                new ReentrantReadWriteLock() : null;
 
         graphLocation = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_LOCATION, null);
         graphFormat = configuration.getString(GREMLIN_TINKERGRAPH_GRAPH_FORMAT, null);
@@ -154,7 +202,20 @@ public final class TinkerGraph implements Graph {
             throw new IllegalStateException(String.format("The %s and %s must both be specified if either is present",
                     GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_GRAPH_FORMAT));
 
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_CHANGE_LOG, false) && null == graphLocation)
+            throw new IllegalStateException(String.format("The %s must be specified if %s is enabled",
+                    GREMLIN_TINKERGRAPH_GRAPH_LOCATION, GREMLIN_TINKERGRAPH_CHANGE_LOG));
+
         if (graphLocation != null) loadGraph();
+
+        if (configuration.getBoolean(GREMLIN_TINKERGRAPH_CHANGE_LOG, false)) {
+            // the log is only assigned after the replay so that replaying does not write to it
+            final TinkerChangeLog log = new TinkerChangeLog(this, new File(graphLocation + CHANGE_LOG_EXTENSION),
+                    new File(graphLocation + ROTATED_CHANGE_LOG_EXTENSION), configuration.getBoolean(GREMLIN_TINKERGRAPH_CHANGE_LOG_SYNC, false));
+            log.replay(this);
+            changeLog = log;
+            if (log.hasRotated()) checkpoint();
+        }
     }
 
     /**
@@ -191,21 +252,32 @@ public final class TinkerGraph implements Graph {
     @Override
     public Vertex addVertex(final Object... keyValues) {
         ElementHelper.legalPropertyKeyValueArray(keyValues);
-        Object idValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+        final Object suppliedIdValue = vertexIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
         final String label = ElementHelper.getLabelValue(keyValues).orElse(Vertex.DEFAULT_LABEL);
 
-        if (null != idValue) {
-            if (this.vertices.containsKey(idValue))
-                throw Exceptions.vertexWithIdAlreadyExists(idValue);
-        } else {
-            idValue = vertexIdManager.getNextId(this);
-        }
-
-        final Vertex vertex = new TinkerVertex(idValue, label, this);
-        this.vertices.put(vertex.id(), vertex);
+        final Lock lock = TinkerHelper.lockMutation(this);
+        try {
+            final Object idValue;
+            if (null != suppliedIdValue) {
+                if (this.vertices.containsKey(suppliedIdValue))
+                    throw Exceptions.vertexWithIdAlreadyExists(suppliedIdValue);
+                idValue = suppliedIdValue;
+            } else {
+                idValue = vertexIdManager.getNextId(this);
+            }
 
-        ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
-        return vertex;
+            final TinkerVertex vertex = new TinkerVertex(idValue, label, this);
+            TinkerHelper.hide(this, vertex);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(this);
+            if (null != changeLog) changeLog.addVertex(vertex);
+            this.vertices.put(vertex.id(), vertex);
+            this.statistics.addVertex(label);
+
+            ElementHelper.attachProperties(vertex, VertexProperty.Cardinality.list, keyValues);
+            return vertex;
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
     }
 
     @Override
@@ -238,18 +310,95 @@ public final class TinkerGraph implements Graph {
     }
 
     public void clear() {
+        final Lock lock = TinkerHelper.lockMutation(this);
+        try {
+            if (!this.snapshots.isEmpty())
+                throw new IllegalStateException("The graph cannot be cleared while it has open snapshots or is being checkpointed");
+            this.clearElements();
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
+    }
+
+    private void clearElements() {
+        if (null != this.changeLog) this.changeLog.clear();
         this.vertices.clear();
         this.edges.clear();
+        this.statistics.clear();
         this.variables = null;
         this.currentId.set(-1l);
         this.vertexIndex = null;
         this.edgeIndex = null;
+        this.vertexCentricKeys = null;
         this.graphComputerView = null;
     }
 
     @Override
     public void close() {
-        if (graphLocation != null) saveGraph();
+        if (null != this.changeLog)
+            this.changeLog.close();
+        else if (graphLocation != null)
+            saveGraph(this);
+    }
+
+    /**
+     * Takes a read-only snapshot of the graph that can be traversed while other threads continue to mutate the graph
+     * and that is not affected by their mutations. Each mutation made through the {@link Graph} API, such as adding a
+     * vertex with its properties or removing a vertex with its edges, is either entirely in the snapshot or not in it
+     * at all. Taking a snapshot waits for mutations in progress to complete but does not visit the elements of the
+     * graph. Mutations made while snapshots are open publish copies of the elements they change to the snapshots
+     * before changing them, so each snapshot should be closed as soon as it is no longer read. Reading an element
+     * that has not been copied briefly holds its monitor, which is only contended by a writer about to copy it.
+     *
+     * @throws IllegalStateException if {@link #GREMLIN_TINKERGRAPH_SNAPSHOTS} is not enabled
+     */
+    public TinkerSnapshot snapshot() {
+        if (!this.configuration.getBoolean(GREMLIN_TINKERGRAPH_SNAPSHOTS, false))
+            throw new IllegalStateException(String.format("The %s must be enabled to take a snapshot", GREMLIN_TINKERGRAPH_SNAPSHOTS));
+        return this.openSnapshot();
+    }
+
+    private TinkerSnapshot openSnapshot() {
+        final TinkerSnapshot snapshot = new TinkerSnapshot(this);
+        this.snapshotLock.writeLock().lock();
+        try {
+            this.snapshots.add(snapshot);
+        } finally {
+            this.snapshotLock.writeLock().unlock();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Writes the graph out in full to the {@link #GREMLIN_TINKERGRAPH_GRAPH_LOCATION} and empties the change log.
+     * With {@link #GREMLIN_TINKERGRAPH_CHANGE_LOG} enabled, {@link #close()} only closes the change log and the
+     * graph is restored on open by reading its last checkpoint and replaying the log. Checkpointing regularly keeps
+     * the log, and therefore the time it takes to open the graph, short. The graph is written out from a snapshot
+     * taken along with the rotation of the log, so mutations only wait for the rotation and not for the write.
+     *
+     * @throws IllegalStateException if the change log is not enabled
+     */
+    public void checkpoint() {
+        if (null == this.changeLog)
+            throw new IllegalStateException(String.format("The %s must be enabled to checkpoint", GREMLIN_TINKERGRAPH_CHANGE_LOG));
+        // each checkpoint deletes the log that it rotated, so they are written one at a time
+        synchronized (this.checkpointLock) {
+            final TinkerSnapshot snapshot;
+            this.snapshotLock.writeLock().lock();
+            try {
+                this.changeLog.rotate();
+                snapshot = this.openSnapshot();
+            } finally {
+                this.snapshotLock.writeLock().unlock();
+            }
+
+            try {
+                saveGraph(snapshot);
+            } finally {
+                snapshot.close();
+            }
+            this.changeLog.deleteRotated();
+        }
     }
 
     @Override
@@ -272,16 +421,46 @@ public final class TinkerGraph implements Graph {
         return createElementIterator(Edge.class, edges, edgeIdManager, edgeIds);
     }
 
+    /**
+     * Loads a graph file written by {@link org.apache.tinkerpop.gremlin.structure.io.GraphWriter#writeGraph} in the
+     * {@code gryo} or {@code graphson} format into this graph using all available cores. Indices are not updated as
+     * each element is added but are instead brought up to date for the loaded elements once the load completes. The
+     * graph must not be read or modified by other threads while the load is in progress. If the change log is
+     * enabled, the graph is checkpointed afterwards.
+     *
+     * @param location the path of the graph file
+     * @param format   either {@code gryo} or {@code graphson}
+     */
+    public void bulkLoad(final String location, final String format) {
+        if (null == location)
+            throw Graph.Exceptions.argumentCanNotBeNull("location");
+        if (null == format)
+            throw Graph.Exceptions.argumentCanNotBeNull("format");
+
+        final TinkerBulkLoader loader = new TinkerBulkLoader(this, format);
+        final Lock lock = TinkerHelper.lockMutation(this);
+        try (final InputStream inputStream = new FileInputStream(location)) {
+            // the loader adds elements without hiding them from snapshots
+            if (!this.snapshots.isEmpty())
+                throw new IllegalStateException("The graph cannot be bulk loaded while it has open snapshots or is being checkpointed");
+            loader.load(inputStream);
+        } catch (IOException ioe) {
+            throw new IllegalStateException(String.format("Could not bulk load graph at %s with %s", location, format), ioe);
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
+
+        if (null != this.changeLog) checkpoint();
+    }
+
     private void loadGraph() {
         final File f = new File(graphLocation);
         if (f.exists() && f.isFile()) {
             try {
                 if (graphFormat.equals("graphml")) {
                     io(IoCore.graphml()).readGraph(graphLocation);
-                } else if (graphFormat.equals("graphson")) {
-                    io(IoCore.graphson()).readGraph(graphLocation);
-                } else if (graphFormat.equals("gryo")) {
-                    io(IoCore.gryo()).readGraph(graphLocation);
+                } else if (graphFormat.equals("graphson") || graphFormat.equals("gryo")) {
+                    bulkLoad(graphLocation, graphFormat);
                 } else {
                     io(IoCore.createIoBuilder(graphFormat)).readGraph(graphLocation);
                 }
@@ -291,27 +470,30 @@ public final class TinkerGraph implements Graph {
         }
     }
 
-    private void saveGraph() {
+    private void saveGraph(final Graph graph) {
         final File f = new File(graphLocation);
-        if (f.exists()) {
-            f.delete();
-        } else {
-            final File parent = f.getParentFile();
-            if (!parent.exists()) {
-                parent.mkdirs();
-            }
+        final File parent = f.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
         }
 
+        // write to a temporary file first so that the previous graph survives a failure while writing
+        final String tempLocation = graphLocation + ".tmp";
         try {
+            final GraphWriter writer;
             if (graphFormat.equals("graphml")) {
-                io(IoCore.graphml()).writeGraph(graphLocation);
+                writer = io(IoCore.graphml()).writer().create();
             } else if (graphFormat.equals("graphson")) {
-                io(IoCore.graphson()).writeGraph(graphLocation);
+                writer = io(IoCore.graphson()).writer().create();
             } else if (graphFormat.equals("gryo")) {
-                io(IoCore.gryo()).writeGraph(graphLocation);
+                writer = io(IoCore.gryo()).writer().create();
             } else {
-                io(IoCore.createIoBuilder(graphFormat)).writeGraph(graphLocation);
+                writer = io(IoCore.createIoBuilder(graphFormat)).writer().create();
             }
+            try (final OutputStream outputStream = new FileOutputStream(tempLocation)) {
+                writer.writeGraph(outputStream, graph);
+            }
+            Files.move(Paths.get(tempLocation), f.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
         } catch (Exception ex) {
             throw new RuntimeException(String.format("Could not save graph at %s with %s", graphLocation, graphFormat), ex);
         }
@@ -488,12 +670,90 @@ public final class TinkerGraph implements Graph {
      * @param <E>          The type of the element class
      */
     public <E extends Element> void createIndex(final String key, final Class<E> elementClass) {
+        this.createIndex(key, elementClass, IndexType.HASH);
+    }
+
+    /**
+     * Create an index of the specified {@link IndexType} for said element class ({@link Vertex} or {@link Edge}) and
+     * said property key. A {@link IndexType#RANGE} index keeps the values of the key sorted so that, beyond equality
+     * lookups, it can answer {@code lt}, {@code lte}, {@code gt}, {@code gte}, {@code inside}, {@code outside} and
+     * {@code between} predicates as well as {@code order().by(key).limit(n)} without scanning all elements.
+     *
+     * @param key          the property key to index
+     * @param elementClass the element class to index
+     * @param indexType    the type of index to create
+     * @param <E>          The type of the element class
+     * @throws IllegalStateException if the key is already indexed with a different {@link IndexType}
+     */
+    public <E extends Element> void createIndex(final String key, final Class<E> elementClass, final IndexType indexType) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
+            this.vertexIndex.createKeyIndex(key, indexType);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
+            this.edgeIndex.createKeyIndex(key, indexType);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Create a composite index for said element class ({@link Vertex} or {@link Edge}) over the ordered tuple of
+     * property keys. An element is indexed when it has a value for every key and, if a label is given, when it has
+     * that label. The index is used for lookups that specify an equality constraint for each of its keys (and its
+     * label, if any), such as {@code g.V().hasLabel("person").has("country","US").has("city","SF")}. A composite
+     * index with a label and a single key is a label-scoped index.
+     *
+     * @param label        the label of the elements to index or {@code null} to index elements of any label
+     * @param elementClass the element class to index
+     * @param keys         the property keys to index
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void createCompositeIndex(final String label, final Class<E> elementClass, final String... keys) {
         if (Vertex.class.isAssignableFrom(elementClass)) {
             if (null == this.vertexIndex) this.vertexIndex = new TinkerIndex<>(this, TinkerVertex.class);
-            this.vertexIndex.createKeyIndex(key);
+            this.vertexIndex.createCompositeIndex(label, Arrays.asList(keys));
         } else if (Edge.class.isAssignableFrom(elementClass)) {
             if (null == this.edgeIndex) this.edgeIndex = new TinkerIndex<>(this, TinkerEdge.class);
-            this.edgeIndex.createKeyIndex(key);
+            this.edgeIndex.createCompositeIndex(label, Arrays.asList(keys));
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Drop the composite index for the specified label, element class ({@link Vertex} or {@link Edge}) and keys.
+     *
+     * @param label        the label of the index or {@code null} for an index across all labels
+     * @param elementClass the element class of the index to drop
+     * @param keys         the property keys of the index in the order they were given when it was created
+     * @param <E>          The type of the element class
+     */
+    public <E extends Element> void dropCompositeIndex(final String label, final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            if (null != this.vertexIndex) this.vertexIndex.dropCompositeIndex(label, Arrays.asList(keys));
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            if (null != this.edgeIndex) this.edgeIndex.dropCompositeIndex(label, Arrays.asList(keys));
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Determine if there is a composite index for the specified label, element class ({@link Vertex} or
+     * {@link Edge}) and keys.
+     *
+     * @param label        the label of the index or {@code null} for an index across all labels
+     * @param elementClass the element class of the index
+     * @param keys         the property keys of the index in the order they were given when it was created
+     * @param <E>          The type of the element class
+     * @return true if the composite index exists
+     */
+    public <E extends Element> boolean hasCompositeIndex(final String label, final Class<E> elementClass, final String... keys) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null != this.vertexIndex && this.vertexIndex.isCompositeIndexed(label, Arrays.asList(keys));
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null != this.edgeIndex && this.edgeIndex.isCompositeIndexed(label, Arrays.asList(keys));
         } else {
             throw new IllegalArgumentException("Class is not indexable: " + elementClass);
         }
@@ -533,6 +793,155 @@ public final class TinkerGraph implements Graph {
         }
     }
 
+    /**
+     * Return the {@link IndexType} of the index on said key for said element class ({@link Vertex} or {@link Edge}).
+     *
+     * @param key          the property key to get the index type for
+     * @param elementClass the element class to get the index type for
+     * @param <E>          The type of the element class
+     * @return the type of the index or {@code null} if the key is not indexed
+     */
+    public <E extends Element> IndexType getIndexType(final String key, final Class<E> elementClass) {
+        if (Vertex.class.isAssignableFrom(elementClass)) {
+            return null == this.vertexIndex ? null : this.vertexIndex.getIndexType(key);
+        } else if (Edge.class.isAssignableFrom(elementClass)) {
+            return null == this.edgeIndex ? null : this.edgeIndex.getIndexType(key);
+        } else {
+            throw new IllegalArgumentException("Class is not indexable: " + elementClass);
+        }
+    }
+
+    /**
+     * Estimates the count from the number of elements of the class and of each label, as well as from the size of the
+     * matching entries of the indices of the keys that the has-containers constrain with {@code eq} or
+     * {@code within}.
+     */
+    @Override
+    public long estimateCount(final Class<? extends Element> elementClass, final List<HasContainer> hasContainers) {
+        final boolean vertices = Vertex.class.isAssignableFrom(elementClass);
+        final TinkerIndex<?> index = vertices ? this.vertexIndex : this.edgeIndex;
+        long count = vertices ? this.vertices.size() : this.edges.size();
+        for (final HasContainer hasContainer : hasContainers) {
+            final Collection<?> values = getEqualValues(hasContainer);
+            if (null == values)
+                continue;
+            long matches = 0l;
+            if (hasContainer.getKey().equals(T.label.getAccessor())) {
+                for (final Object label : values) {
+                    matches = matches + (vertices ? this.statistics.getVertexCount(String.valueOf(label)) : this.statistics.getEdgeCount(String.valueOf(label)));
+                }
+            } else if (null != index && index.getIndexedKeys().contains(hasContainer.getKey())) {
+                for (final Object value : values) {
+                    matches = matches + index.count(hasContainer.getKey(), value);
+                }
+            } else
+                continue;
+            count = Math.min(count, matches);
+        }
+        return count;
+    }
+
+    private static Collection<?> getEqualValues(final HasContainer hasContainer) {
+        final BiPredicate<?, ?> biPredicate = hasContainer.getBiPredicate();
+        if (biPredicate == Compare.eq && null != hasContainer.getValue())
+            return Collections.singleton(hasContainer.getValue());
+        else if (biPredicate == Contains.within && hasContainer.getValue() instanceof Collection)
+            return (Collection<?>) hasContainer.getValue();
+        else
+            return null;
+    }
+
+    /**
+     * Estimates the degree as the number of edges with the labels per vertex.
+     */
+    @Override
+    public double estimateDegree(final Direction direction, final String... edgeLabels) {
+        if (this.vertices.isEmpty())
+            return 0.0d;
+        final double degree = (double) (0 == edgeLabels.length ? this.edges.size() : this.statistics.getEdgeCount(edgeLabels)) / this.vertices.size();
+        return Direction.BOTH == direction ? 2.0d * degree : degree;
+    }
+
+    /**
+     * Estimates the degree as the number of edges with the labels per vertex that has at least one of them in the
+     * direction.
+     */
+    @Override
+    public double estimateNonZeroDegree(final Direction direction, final String... edgeLabels) {
+        final long edges = this.statistics.getEdgeCount(edgeLabels);
+        final long incidentVertices = Direction.BOTH == direction ?
+                this.statistics.getIncidentVertexCount(Direction.OUT, edgeLabels) + this.statistics.getIncidentVertexCount(Direction.IN, edgeLabels) :
+                this.statistics.getIncidentVertexCount(direction, edgeLabels);
+        if (0 == incidentVertices)
+            return 0.0d;
+        return (Direction.BOTH == direction ? 2.0d * edges : edges) / incidentVertices;
+    }
+
+    /**
+     * Counts the distinct values of a key that has an index.
+     */
+    @Override
+    public long estimateDistinctValues(final Class<? extends Element> elementClass, final String key) {
+        final TinkerIndex<?> index = Vertex.class.isAssignableFrom(elementClass) ? this.vertexIndex : this.edgeIndex;
+        return null != index && index.getIndexedKeys().contains(key) ? index.countValues(key) : -1;
+    }
+
+    /**
+     * Create a vertex-centric index which organizes the incident edges of every vertex by the value of said edge
+     * property key, or by the id of the adjacent vertex when the key is {@link #ADJACENT_VERTEX_ID}. An
+     * {@code outE()} followed by {@code has(key, value)}, an {@code out()} followed by {@code hasId(id)} and an
+     * {@code outE().where(inV().hasId(id))} then seek the edges of the vertex rather than scan all of them, which
+     * matters for vertices with a large number of edges.
+     *
+     * @param key the edge property key to index or {@link #ADJACENT_VERTEX_ID}
+     */
+    public void createVertexCentricIndex(final String key) {
+        if (null == key)
+            throw Graph.Exceptions.argumentCanNotBeNull("key");
+        if (key.isEmpty())
+            throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (Graph.Hidden.isHidden(key) && !ADJACENT_VERTEX_ID.equals(key))
+            throw new IllegalArgumentException("The key for a vertex-centric index cannot be a hidden key: " + key);
+
+        if (null == this.vertexCentricKeys) this.vertexCentricKeys = ConcurrentHashMap.newKeySet();
+        if (this.vertexCentricKeys.add(key))
+            this.edges.values().forEach(edge -> TinkerHelper.indexVertexCentric((TinkerEdge) edge, key));
+    }
+
+    /**
+     * Drop the vertex-centric index for the specified key.
+     *
+     * @param key the edge property key or {@link #ADJACENT_VERTEX_ID}
+     */
+    public void dropVertexCentricIndex(final String key) {
+        if (null != this.vertexCentricKeys && this.vertexCentricKeys.remove(key))
+            this.vertices.values().forEach(vertex -> TinkerHelper.dropVertexCentric((TinkerVertex) vertex, key));
+    }
+
+    /**
+     * Return the keys that have a vertex-centric index.
+     *
+     * @return the set of edge property keys, and possibly {@link #ADJACENT_VERTEX_ID}, with a vertex-centric index
+     */
+    public Set<String> getVertexCentricIndexKeys() {
+        return null == this.vertexCentricKeys ? Collections.emptySet() : Collections.unmodifiableSet(this.vertexCentricKeys);
+    }
+
+    /**
+     * The types of index that can be created with {@link #createIndex(String, Class, IndexType)}.
+     */
+    public enum IndexType {
+        /**
+         * Hashes the values of the key and therefore can only serve equality lookups.
+         */
+        HASH,
+
+        /**
+         * Sorts the values of the key and can serve equality lookups, range lookups and ordered iteration.
+         */
+        RANGE
+    }
+
     /**
      * Construct an {@link TinkerGraph.IdManager} from the TinkerGraph {@code Configuration}.
      */
@@ -20,15 +20,24 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
 import org.apache.tinkerpop.gremlin.process.computer.GraphFilter;
 import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.traversal.Compare;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.util.AndP;
+import org.apache.tinkerpop.gremlin.process.traversal.util.OrP;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.computer.TinkerGraphComputerView;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -37,6 +46,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Stream;
 
 /**
@@ -44,6 +54,9 @@ import java.util.stream.Stream;
  */
 public final class TinkerHelper {
 
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(Long.MIN_VALUE);
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+
     private TinkerHelper() {
     }
 
@@ -51,53 +64,285 @@ public final class TinkerHelper {
         ElementHelper.validateLabel(label);
         ElementHelper.legalPropertyKeyValueArray(keyValues);
 
-        Object idValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
+        final Object suppliedIdValue = graph.edgeIdManager.convert(ElementHelper.getIdValue(keyValues).orElse(null));
 
-        final Edge edge;
-        if (null != idValue) {
-            if (graph.edges.containsKey(idValue))
-                throw Graph.Exceptions.edgeWithIdAlreadyExists(idValue);
-        } else {
-            idValue = graph.edgeIdManager.getNextId(graph);
-        }
+        final TinkerEdge edge;
+        final Lock lock = lockMutation(graph);
+        try {
+            final Object idValue;
+            if (null != suppliedIdValue) {
+                if (graph.edges.containsKey(suppliedIdValue))
+                    throw Graph.Exceptions.edgeWithIdAlreadyExists(suppliedIdValue);
+                idValue = suppliedIdValue;
+            } else {
+                idValue = graph.edgeIdManager.getNextId(graph);
+            }
 
-        edge = new TinkerEdge(idValue, outVertex, label, inVertex);
-        ElementHelper.attachProperties(edge, keyValues);
-        graph.edges.put(edge.id(), edge);
-        TinkerHelper.addOutEdge(outVertex, label, edge);
-        TinkerHelper.addInEdge(inVertex, label, edge);
+            edge = new TinkerEdge(idValue, outVertex, label, inVertex);
+            hide(graph, edge);
+            final TinkerChangeLog changeLog = getChangeLog(graph);
+            if (null != changeLog) changeLog.addEdge(edge);
+            ElementHelper.attachProperties(edge, keyValues);
+            graph.edges.put(edge.id(), edge);
+            preserve(graph, outVertex);
+            preserve(graph, inVertex);
+            TinkerHelper.addOutEdge(outVertex, label, edge);
+            TinkerHelper.addInEdge(inVertex, label, edge);
+        } finally {
+            unlockMutation(lock);
+        }
         return edge;
 
     }
 
     protected static void addOutEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.outEdges) vertex.outEdges = new HashMap<>();
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.outEdges) vertex.outEdges = graph.compact ? new HashMap<>(2) : new HashMap<>();
         Set<Edge> edges = vertex.outEdges.get(label);
         if (null == edges) {
-            edges = new HashSet<>();
+            edges = graph.compact ? new TinkerEdgeArraySet() : new HashSet<>();
             vertex.outEdges.put(label, edges);
         }
         edges.add(edge);
+        graph.statistics.addEdge(label);
+        if (1 == edges.size()) graph.statistics.incidentVertex(Direction.OUT, label, true);
+        if (null != graph.vertexCentricKeys) {
+            for (final String key : graph.vertexCentricKeys) {
+                addVertexCentric(vertex, Direction.OUT, key, getVertexCentricValue((TinkerEdge) edge, Direction.OUT, key), edge);
+            }
+        }
     }
 
     protected static void addInEdge(final TinkerVertex vertex, final String label, final Edge edge) {
-        if (null == vertex.inEdges) vertex.inEdges = new HashMap<>();
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == vertex.inEdges) vertex.inEdges = graph.compact ? new HashMap<>(2) : new HashMap<>();
         Set<Edge> edges = vertex.inEdges.get(label);
         if (null == edges) {
-            edges = new HashSet<>();
+            edges = graph.compact ? new TinkerEdgeArraySet() : new HashSet<>();
             vertex.inEdges.put(label, edges);
         }
         edges.add(edge);
+        if (1 == edges.size()) graph.statistics.incidentVertex(Direction.IN, label, true);
+        if (null != graph.vertexCentricKeys) {
+            for (final String key : graph.vertexCentricKeys) {
+                addVertexCentric(vertex, Direction.IN, key, getVertexCentricValue((TinkerEdge) edge, Direction.IN, key), edge);
+            }
+        }
     }
 
-    public static List<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
+    /**
+     * Query the vertex index for the vertices whose value for the key is equal to the value. The returned collection
+     * is a read-only view of the index and is not copied.
+     */
+    public static Collection<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.vertexIndex ? Collections.emptyList() : graph.vertexIndex.get(key, value);
     }
 
-    public static List<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
+    /**
+     * Query the edge index for the edges whose value for the key is equal to the value. The returned collection is a
+     * read-only view of the index and is not copied.
+     */
+    public static Collection<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final Object value) {
         return null == graph.edgeIndex ? Collections.emptyList() : graph.edgeIndex.get(key, value);
     }
 
+    /**
+     * Query the most selective vertex index, single key or composite, that covers some of the equality constraints
+     * in the map of keys to values. The label constraint is keyed by {@link org.apache.tinkerpop.gremlin.structure.T#label}.
+     * The returned vertices are a read-only view of the index and must still be tested against all constraints.
+     *
+     * @return the vertices of the chosen index bucket or {@code null} if no index applies
+     */
+    public static Collection<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final Map<String, Object> keyValues) {
+        return null == graph.vertexIndex ? null : graph.vertexIndex.getMostSelective(keyValues);
+    }
+
+    /**
+     * Query the most selective edge index that covers some of the equality constraints. See
+     * {@link #queryVertexIndex(TinkerGraph, Map)} for the semantics of the result.
+     */
+    public static Collection<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final Map<String, Object> keyValues) {
+        return null == graph.edgeIndex ? null : graph.edgeIndex.getMostSelective(keyValues);
+    }
+
+    /**
+     * Query a {@link TinkerGraph.IndexType#RANGE} vertex index for the vertices whose value for the key may satisfy
+     * the predicate. If the predicate is not {@link #isRangeIndexable(P) range indexable} or is {@code null}, all
+     * indexed vertices are returned. Vertices are returned in the order of their values when the predicate
+     * describes a single range and the result is a superset of the matches, so the predicate must still be tested.
+     */
+    public static Iterator<TinkerVertex> queryVertexIndex(final TinkerGraph graph, final String key, final P<?> predicate, final boolean descending) {
+        return null == graph.vertexIndex ? Collections.emptyIterator() : queryRangeIndex(graph.vertexIndex, key, predicate, descending);
+    }
+
+    /**
+     * Query a {@link TinkerGraph.IndexType#RANGE} edge index for the edges whose value for the key may satisfy the
+     * predicate. See {@link #queryVertexIndex(TinkerGraph, String, P, boolean)} for the semantics of the result.
+     */
+    public static Iterator<TinkerEdge> queryEdgeIndex(final TinkerGraph graph, final String key, final P<?> predicate, final boolean descending) {
+        return null == graph.edgeIndex ? Collections.emptyIterator() : queryRangeIndex(graph.edgeIndex, key, predicate, descending);
+    }
+
+    /**
+     * Determines if every vertex of the graph has a value in the vertex index of the key, so that an ordered walk of
+     * a {@link TinkerGraph.IndexType#RANGE} index sees all of them.
+     */
+    public static boolean isVertexIndexComplete(final TinkerGraph graph, final String key) {
+        return null != graph.vertexIndex && graph.vertexIndex.countElements(key) == graph.vertices.size();
+    }
+
+    /**
+     * Determines if every edge of the graph has a value in the edge index of the key. See
+     * {@link #isVertexIndexComplete(TinkerGraph, String)}.
+     */
+    public static boolean isEdgeIndexComplete(final TinkerGraph graph, final String key) {
+        return null != graph.edgeIndex && graph.edgeIndex.countElements(key) == graph.edges.size();
+    }
+
+    /**
+     * Compares two values in the order of a {@link TinkerGraph.IndexType#RANGE} index, under which numbers of
+     * differing types are comparable.
+     */
+    public static int compareIndexValues(final Object a, final Object b) {
+        return TinkerIndex.compareValues(a, b);
+    }
+
+    /**
+     * Determines if the predicate can be answered by seeking a {@link TinkerGraph.IndexType#RANGE} index, which is
+     * the case for {@code eq}, {@code lt}, {@code lte}, {@code gt}, {@code gte} and their conjunctions and
+     * disjunctions (e.g. {@code between}, {@code inside} and {@code outside}).
+     */
+    public static boolean isRangeIndexable(final P<?> predicate) {
+        return null != predicate && indexRanges(predicate, new ArrayList<>());
+    }
+
+    private static <T extends Element> Iterator<T> queryRangeIndex(final TinkerIndex<T> index, final String key, final P<?> predicate, final boolean descending) {
+        final List<Object[]> ranges = new ArrayList<>();
+        if (null == predicate || !indexRanges(predicate, ranges) || ranges.isEmpty())
+            return index.getRange(key, null, false, null, false, descending);
+        else if (ranges.size() == 1)
+            return rangeIterator(index, key, ranges.get(0), descending);
+        else {
+            if (descending) Collections.reverse(ranges);
+            final Set<T> seen = new HashSet<>();
+            return IteratorUtils.filter(IteratorUtils.flatMap(ranges.iterator(), range -> rangeIterator(index, key, range, descending)), seen::add);
+        }
+    }
+
+    private static <T extends Element> Iterator<T> rangeIterator(final TinkerIndex<T> index, final String key, final Object[] range, final boolean descending) {
+        return index.getRange(key, range[0], (boolean) range[1], range[2], (boolean) range[3], descending);
+    }
+
+    /**
+     * Collects the ranges described by the predicate as {@code [from, fromInclusive, to, toInclusive]} arrays where a
+     * {@code null} bound is open. A conjunction keeps the first lower and upper bound it finds, which may widen the
+     * range but never loses a match.
+     */
+    private static boolean indexRanges(final P<?> predicate, final List<Object[]> ranges) {
+        if (predicate instanceof AndP) {
+            final Object[] range = new Object[]{null, false, null, false};
+            for (final P<?> p : ((AndP<?>) predicate).getPredicates()) {
+                final List<Object[]> pRanges = new ArrayList<>();
+                if (!indexRanges(p, pRanges) || pRanges.size() != 1)
+                    continue;
+                final Object[] pRange = pRanges.get(0);
+                if (null == range[0] && null != pRange[0]) {
+                    range[0] = pRange[0];
+                    range[1] = pRange[1];
+                }
+                if (null == range[2] && null != pRange[2]) {
+                    range[2] = pRange[2];
+                    range[3] = pRange[3];
+                }
+            }
+            if (null == range[0] && null == range[2])
+                return false;
+            ranges.add(range);
+            return true;
+        } else if (predicate instanceof OrP) {
+            for (final P<?> p : ((OrP<?>) predicate).getPredicates()) {
+                if (!indexRanges(p, ranges))
+                    return false;
+            }
+            return true;
+        } else {
+            final Object value = predicate.getValue();
+            if (null == value || !(predicate.getBiPredicate() instanceof Compare))
+                return false;
+            switch ((Compare) predicate.getBiPredicate()) {
+                case eq:
+                    ranges.add(new Object[]{value, true, value, true});
+                    return true;
+                case gt:
+                    ranges.add(new Object[]{value, false, null, false});
+                    return true;
+                case gte:
+                    ranges.add(new Object[]{value, true, null, false});
+                    return true;
+                case lt:
+                    ranges.add(new Object[]{null, false, value, false});
+                    return true;
+                case lte:
+                    ranges.add(new Object[]{null, false, value, true});
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Gets the change log that mutations of the graph are recorded in or {@code null} if the graph does not have one
+     * or is being mutated by a {@link org.apache.tinkerpop.gremlin.process.computer.GraphComputer}.
+     */
+    static TinkerChangeLog getChangeLog(final TinkerGraph graph) {
+        return null == graph.changeLog || inComputerMode(graph) ? null : graph.changeLog;
+    }
+
+    /**
+     * Takes the lock that keeps a snapshot of the graph from being taken, or the change log from being rotated, while
+     * a mutation is partially applied. The lock is shared by all mutations and is reentrant so that a mutation may be
+     * made up of others. The change log orders its entries itself as they are appended one at a time, and a mutation
+     * appends its entry before the mutated element can be seen by another thread, so a mutation that depends on one
+     * that it has seen is always logged after it.
+     *
+     * @return the lock to release once the mutation is applied or {@code null} if the graph does not take snapshots
+     */
+    static Lock lockMutation(final TinkerGraph graph) {
+        if (null == graph.snapshotLock) return null;
+        final Lock lock = graph.snapshotLock.readLock();
+        lock.lock();
+        return lock;
+    }
+
+    static void unlockMutation(final Lock lock) {
+        if (null != lock) lock.unlock();
+    }
+
+    /**
+     * Has every open snapshot of the graph keep a copy of the element before it is mutated.
+     */
+    static void preserve(final TinkerGraph graph, final TinkerElement element) {
+        if (graph.snapshots.isEmpty()) return;
+        // snapshot readers of an element without a copy hold its monitor, so they finish before the copy is
+        // published and the element is mutated, or they find the copy
+        synchronized (element) {
+            for (final TinkerSnapshot snapshot : graph.snapshots) {
+                snapshot.preserve(element);
+            }
+        }
+    }
+
+    /**
+     * Hides an element that is being created from every open snapshot of the graph.
+     */
+    static void hide(final TinkerGraph graph, final TinkerElement element) {
+        if (graph.snapshots.isEmpty()) return;
+        for (final TinkerSnapshot snapshot : graph.snapshots) {
+            snapshot.hide(element);
+        }
+    }
+
     public static boolean inComputerMode(final TinkerGraph graph) {
         return null != graph.graphComputerView;
     }
@@ -114,6 +359,35 @@ public final class TinkerHelper {
         graph.graphComputerView = null;
     }
 
+    /**
+     * Gets the position of the vertex in the {@link TinkerGraphComputerView} that was last created for its graph.
+     */
+    public static int getComputeOrdinal(final TinkerVertex vertex) {
+        return vertex.computeOrdinal;
+    }
+
+    public static void setComputeOrdinal(final TinkerVertex vertex, final int ordinal) {
+        vertex.computeOrdinal = ordinal;
+    }
+
+    /**
+     * Counts the incident edges of the vertex without iterating them.
+     */
+    public static int getDegree(final TinkerVertex vertex) {
+        int degree = 0;
+        if (null != vertex.outEdges) {
+            for (final Set<Edge> edges : vertex.outEdges.values()) {
+                degree = degree + edges.size();
+            }
+        }
+        if (null != vertex.inEdges) {
+            for (final Set<Edge> edges : vertex.inEdges.values()) {
+                degree = degree + edges.size();
+            }
+        }
+        return degree;
+    }
+
     public static Map<String, List<VertexProperty>> getProperties(final TinkerVertex vertex) {
         return null == vertex.properties ? Collections.emptyMap() : vertex.properties;
     }
@@ -122,6 +396,14 @@ public final class TinkerHelper {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.autoUpdate(key, newValue, oldValue, edge);
+        if (graph.vertexCentricKeys != null && graph.vertexCentricKeys.contains(key)) {
+            final TinkerVertex outVertex = (TinkerVertex) edge.outVertex;
+            final TinkerVertex inVertex = (TinkerVertex) edge.inVertex;
+            removeVertexCentric(outVertex, Direction.OUT, key, oldValue, edge);
+            removeVertexCentric(inVertex, Direction.IN, key, oldValue, edge);
+            addVertexCentric(outVertex, Direction.OUT, key, newValue, edge);
+            addVertexCentric(inVertex, Direction.IN, key, newValue, edge);
+        }
     }
 
     public static void autoUpdateIndex(final TinkerVertex vertex, final String key, final Object newValue, final Object oldValue) {
@@ -140,21 +422,152 @@ public final class TinkerHelper {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
             graph.edgeIndex.removeElement(edge);
+        if (graph.vertexCentricKeys != null) {
+            for (final String key : graph.vertexCentricKeys) {
+                removeVertexCentric((TinkerVertex) edge.outVertex, Direction.OUT, key, getVertexCentricValue(edge, Direction.OUT, key), edge);
+                removeVertexCentric((TinkerVertex) edge.inVertex, Direction.IN, key, getVertexCentricValue(edge, Direction.IN, key), edge);
+            }
+        }
     }
 
     public static void removeIndex(final TinkerVertex vertex, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) vertex.graph();
         if (graph.vertexIndex != null)
-            graph.vertexIndex.remove(key, value, vertex);
+            graph.vertexIndex.autoRemove(key, value, vertex);
     }
 
     public static void removeIndex(final TinkerEdge edge, final String key, final Object value) {
         final TinkerGraph graph = (TinkerGraph) edge.graph();
         if (graph.edgeIndex != null)
-            graph.edgeIndex.remove(key, value, edge);
+            graph.edgeIndex.autoRemove(key, value, edge);
+        if (graph.vertexCentricKeys != null && graph.vertexCentricKeys.contains(key)) {
+            removeVertexCentric((TinkerVertex) edge.outVertex, Direction.OUT, key, value, edge);
+            removeVertexCentric((TinkerVertex) edge.inVertex, Direction.IN, key, value, edge);
+        }
+    }
+
+    /**
+     * Gets the edges of the vertex whose value for the key of a vertex-centric index is equal to the value.  The key
+     * may be {@link TinkerGraph#ADJACENT_VERTEX_ID} in which case the value is the id of the adjacent vertex and is
+     * converted by the vertex {@link TinkerGraph.IdManager} just like the ids given to {@link TinkerGraph#vertices(Object...)}
+     * and, as there, must otherwise be of the same type as the id of the vertex.
+     *
+     * @return the matching edges with one of the labels or {@code null} if the key has no vertex-centric index
+     */
+    public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String key, final Object value, final String... edgeLabels) {
+        final TinkerGraph graph = (TinkerGraph) vertex.graph();
+        if (null == graph.vertexCentricKeys || !graph.vertexCentricKeys.contains(key))
+            return null;
+
+        final Object indexValue;
+        if (TinkerGraph.ADJACENT_VERTEX_ID.equals(key)) {
+            try {
+                indexValue = graph.vertexIdManager.convert(value instanceof Element ? ((Element) value).id() : value);
+            } catch (IllegalArgumentException iae) {
+                // the id manager could never have assigned such an id so there is no adjacent vertex with it
+                return Collections.emptyIterator();
+            }
+        } else
+            indexValue = value;
+        final List<Edge> edges = new ArrayList<>();
+        if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH))
+            collectVertexCentric(vertex.outEdgeIndex, key, indexValue, edgeLabels, edges);
+        if (direction.equals(Direction.IN) || direction.equals(Direction.BOTH))
+            collectVertexCentric(vertex.inEdgeIndex, key, indexValue, edgeLabels, edges);
+        return (Iterator) edges.iterator();
+    }
+
+    private static void collectVertexCentric(final Map<String, Map<Object, Set<Edge>>> edgeIndex, final String key, final Object value,
+                                             final String[] edgeLabels, final List<Edge> edges) {
+        if (null == edgeIndex || null == value) return;
+        final Map<Object, Set<Edge>> keyMap = edgeIndex.get(key);
+        final Set<Edge> bucket = null == keyMap ? null : keyMap.get(normalizeVertexCentricValue(value));
+        if (null == bucket) return;
+        for (final Edge edge : bucket) {
+            if (edgeLabels.length == 0 || ElementHelper.keyExists(edge.label(), edgeLabels))
+                edges.add(edge);
+        }
+    }
+
+    protected static void indexVertexCentric(final TinkerEdge edge, final String key) {
+        addVertexCentric((TinkerVertex) edge.outVertex, Direction.OUT, key, getVertexCentricValue(edge, Direction.OUT, key), edge);
+        addVertexCentric((TinkerVertex) edge.inVertex, Direction.IN, key, getVertexCentricValue(edge, Direction.IN, key), edge);
+    }
+
+    protected static void dropVertexCentric(final TinkerVertex vertex, final String key) {
+        if (null != vertex.outEdgeIndex) vertex.outEdgeIndex.remove(key);
+        if (null != vertex.inEdgeIndex) vertex.inEdgeIndex.remove(key);
+    }
+
+    /**
+     * The value under which an edge is held in the vertex-centric index of its vertex at the given end.
+     */
+    private static Object getVertexCentricValue(final TinkerEdge edge, final Direction direction, final String key) {
+        if (TinkerGraph.ADJACENT_VERTEX_ID.equals(key))
+            return (Direction.OUT == direction ? edge.inVertex : edge.outVertex).id();
+        final Property<?> property = edge.property(key);
+        return property.isPresent() ? property.value() : null;
+    }
+
+    /**
+     * Gets the key under which a value is held in a vertex-centric index. {@link Compare#eq} considers numbers of
+     * different classes equal when their {@code BigDecimal} forms are, so {@code 1}, {@code 1l} and {@code 1.0d} have
+     * to share a bucket: integral numbers become a {@code Long} and other finite numbers a {@code BigDecimal} without
+     * trailing zeros. The edges found in a bucket are still tested against the has-containers, which removes the
+     * few that {@link Compare#eq} does not consider equal, like {@code 0.0d} and {@code -0.0d}.
+     */
+    private static Object normalizeVertexCentricValue(final Object value) {
+        if (!(value instanceof Number) || value instanceof Long)
+            return value;
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte)
+            return ((Number) value).longValue();
+        if ((value instanceof Double && !Double.isFinite((Double) value)) || (value instanceof Float && !Float.isFinite((Float) value)))
+            return value;
+
+        final BigDecimal decimal;
+        try {
+            decimal = new BigDecimal(value.toString()).stripTrailingZeros();
+        } catch (NumberFormatException nfe) {
+            // a Number implementation whose string form is not a decimal can only ever be equal to itself
+            return value;
+        }
+        if (decimal.scale() <= 0 && decimal.compareTo(LONG_MIN) >= 0 && decimal.compareTo(LONG_MAX) <= 0)
+            return decimal.longValue();
+        return decimal;
+    }
+
+    private static void addVertexCentric(final TinkerVertex vertex, final Direction direction, final String key, final Object value, final Edge edge) {
+        if (null == value) return;
+        if (Direction.OUT == direction) {
+            if (null == vertex.outEdgeIndex) vertex.outEdgeIndex = new HashMap<>();
+            vertex.outEdgeIndex.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(normalizeVertexCentricValue(value), v -> new HashSet<>()).add(edge);
+        } else {
+            if (null == vertex.inEdgeIndex) vertex.inEdgeIndex = new HashMap<>();
+            vertex.inEdgeIndex.computeIfAbsent(key, k -> new HashMap<>()).computeIfAbsent(normalizeVertexCentricValue(value), v -> new HashSet<>()).add(edge);
+        }
+    }
+
+    private static void removeVertexCentric(final TinkerVertex vertex, final Direction direction, final String key, final Object value, final Edge edge) {
+        final Map<String, Map<Object, Set<Edge>>> edgeIndex = Direction.OUT == direction ? vertex.outEdgeIndex : vertex.inEdgeIndex;
+        if (null == edgeIndex || null == value) return;
+        final Map<Object, Set<Edge>> keyMap = edgeIndex.get(key);
+        if (null != keyMap) {
+            final Object indexValue = normalizeVertexCentricValue(value);
+            final Set<Edge> edges = keyMap.get(indexValue);
+            if (null != edges) {
+                edges.remove(edge);
+                if (edges.isEmpty())
+                    keyMap.remove(indexValue);
+            }
+        }
     }
 
     public static Iterator<TinkerEdge> getEdges(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (((TinkerGraph) vertex.graph()).compact) {
+            final Iterator<Edge> outEdges = direction.equals(Direction.IN) ? Collections.emptyIterator() : adjacentEdges(vertex.outEdges, edgeLabels);
+            final Iterator<Edge> inEdges = direction.equals(Direction.OUT) ? Collections.emptyIterator() : adjacentEdges(vertex.inEdges, edgeLabels);
+            return (Iterator) IteratorUtils.concat(outEdges, inEdges);
+        }
         final List<Edge> edges = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -180,6 +593,13 @@ public final class TinkerHelper {
     }
 
     public static Iterator<TinkerVertex> getVertices(final TinkerVertex vertex, final Direction direction, final String... edgeLabels) {
+        if (((TinkerGraph) vertex.graph()).compact) {
+            final Iterator<Vertex> outVertices = direction.equals(Direction.IN) ? Collections.emptyIterator() :
+                    IteratorUtils.map(adjacentEdges(vertex.outEdges, edgeLabels), edge -> ((TinkerEdge) edge).inVertex);
+            final Iterator<Vertex> inVertices = direction.equals(Direction.OUT) ? Collections.emptyIterator() :
+                    IteratorUtils.map(adjacentEdges(vertex.inEdges, edgeLabels), edge -> ((TinkerEdge) edge).outVertex);
+            return (Iterator) IteratorUtils.concat(outVertices, inVertices);
+        }
         final List<Vertex> vertices = new ArrayList<>();
         if (direction.equals(Direction.OUT) || direction.equals(Direction.BOTH)) {
             if (vertex.outEdges != null) {
@@ -203,4 +623,24 @@ public final class TinkerHelper {
         }
         return (Iterator) vertices.iterator();
     }
+
+    /**
+     * Iterates the edges with one of the labels in the adjacency of a vertex of a compact graph. The iterators of the
+     * {@link TinkerEdgeArraySet} instances are all created up front and read the arrays as they are now, so the edges
+     * may be removed while they are iterated without first being copied to a list.
+     */
+    private static Iterator<Edge> adjacentEdges(final Map<String, Set<Edge>> adjacency, final String[] edgeLabels) {
+        if (null == adjacency)
+            return Collections.emptyIterator();
+        if (edgeLabels.length == 1) {
+            final Set<Edge> edges = adjacency.get(edgeLabels[0]);
+            return null == edges ? Collections.emptyIterator() : edges.iterator();
+        }
+        final List<Iterator<Edge>> iterators = new ArrayList<>();
+        if (edgeLabels.length == 0)
+            adjacency.values().forEach(edges -> iterators.add(edges.iterator()));
+        else
+            Stream.of(edgeLabels).map(adjacency::get).filter(Objects::nonNull).forEach(edges -> iterators.add(edges.iterator()));
+        return IteratorUtils.concat(iterators.toArray(new Iterator[iterators.size()]));
+    }
 }
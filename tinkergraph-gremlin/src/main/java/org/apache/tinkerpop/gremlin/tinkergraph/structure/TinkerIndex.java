@@ -18,18 +18,26 @@
  */
 package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 
+import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Element;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -38,48 +46,88 @@ final class TinkerIndex<T extends Element> {
 
     protected Map<String, Map<Object, Set<T>>> index = new ConcurrentHashMap<>();
     protected final Class<T> indexClass;
-    private final Set<String> indexedKeys = new HashSet<>();
+    private final Map<String, TinkerGraph.IndexType> indexedKeys = new ConcurrentHashMap<>();
+    private final Map<List<String>, TinkerCompositeIndex<T>> compositeIndices = new ConcurrentHashMap<>();
     private final TinkerGraph graph;
 
+    /**
+     * Writers to the same bucket serialize on one of these locks so that a bucket emptied by {@link #remove} is
+     * never dropped from the index while another thread is adding to it.  Readers take no lock.
+     */
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
     public TinkerIndex(final TinkerGraph graph, final Class<T> indexClass) {
         this.graph = graph;
         this.indexClass = indexClass;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            this.locks[i] = new Object();
+        }
     }
 
     protected void put(final String key, final Object value, final T element) {
-        Map<Object, Set<T>> keyMap = this.index.get(key);
-        if (keyMap == null) {
-            keyMap = new ConcurrentHashMap<>();
-            this.index.put(key, keyMap);
+        final Map<Object, Set<T>> keyMap = this.index.computeIfAbsent(key, k ->
+                TinkerGraph.IndexType.RANGE == this.indexedKeys.get(k) ?
+                        new ConcurrentSkipListMap<>(VALUE_COMPARATOR) :
+                        new ConcurrentHashMap<>());
+        synchronized (this.lockFor(key, value)) {
+            keyMap.computeIfAbsent(value, v -> ConcurrentHashMap.newKeySet()).add(element);
         }
-        Set<T> objects = keyMap.get(value);
-        if (null == objects) {
-            objects = new HashSet<>();
-            keyMap.put(value, objects);
-        }
-        objects.add(element);
-
     }
 
-    public List<T> get(final String key, final Object value) {
+    /**
+     * Gets a read-only view of the elements whose value for the key is equal to the value.  The view is backed by
+     * the index bucket and is not copied, so it reflects concurrent updates and can be iterated while the index is
+     * being modified.
+     */
+    public Set<T> get(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
-            return Collections.emptyList();
+            return Collections.emptySet();
         } else {
-            Set<T> set = keyMap.get(value);
+            final Set<T> set = keyMap.get(value);
             if (null == set)
-                return Collections.emptyList();
+                return Collections.emptySet();
             else
-                return new ArrayList<>(set);
+                return Collections.unmodifiableSet(set);
         }
     }
 
+    /**
+     * Iterates the elements of a {@link TinkerGraph.IndexType#RANGE} index whose values fall between the two
+     * bounds, in the order of the values.  A {@code null} bound leaves that end of the range open. Values that are
+     * considered equal by the index comparator (e.g. {@code 1} and {@code 1l}) share a bucket, so callers are
+     * expected to re-test the returned elements against their original predicate.
+     */
+    public Iterator<T> getRange(final String key, final Object from, final boolean fromInclusive,
+                                final Object to, final boolean toInclusive, final boolean descending) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (!(keyMap instanceof NavigableMap))
+            return Collections.emptyIterator();
+
+        NavigableMap<Object, Set<T>> range = (NavigableMap<Object, Set<T>>) keyMap;
+        if (null != from && null != to) {
+            if (VALUE_COMPARATOR.compare(from, to) > 0)
+                return Collections.emptyIterator();
+            range = range.subMap(from, fromInclusive, to, toInclusive);
+        } else if (null != from)
+            range = range.tailMap(from, fromInclusive);
+        else if (null != to)
+            range = range.headMap(to, toInclusive);
+        if (descending)
+            range = range.descendingMap();
+        return IteratorUtils.flatMap(range.values().iterator(), Set::iterator);
+    }
+
+    public boolean isRangeIndexed(final String key) {
+        return TinkerGraph.IndexType.RANGE == this.indexedKeys.get(key);
+    }
+
     public long count(final String key, final Object value) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null == keyMap) {
             return 0;
         } else {
-            Set<T> set = keyMap.get(value);
+            final Set<T> set = keyMap.get(value);
             if (null == set)
                 return 0;
             else
@@ -87,14 +135,45 @@ final class TinkerIndex<T extends Element> {
         }
     }
 
+    /**
+     * Gets the number of distinct values of the key in the index. A range index counts its values one by one.
+     */
+    public long countValues(final String key) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        return null == keyMap ? 0 : keyMap.size();
+    }
+
+    /**
+     * Gets the number of elements that have a value for the key in the index.
+     */
+    public long countElements(final String key) {
+        final Map<Object, Set<T>> keyMap = this.index.get(key);
+        if (null == keyMap)
+            return 0;
+        long count = 0;
+        for (final Set<T> set : keyMap.values()) {
+            count += set.size();
+        }
+        return count;
+    }
+
+    /**
+     * Compares two values the way a {@link TinkerGraph.IndexType#RANGE} index orders them.
+     */
+    public static int compareValues(final Object a, final Object b) {
+        return VALUE_COMPARATOR.compare(a, b);
+    }
+
     public void remove(final String key, final Object value, final T element) {
         final Map<Object, Set<T>> keyMap = this.index.get(key);
         if (null != keyMap) {
-            Set<T> objects = keyMap.get(value);
-            if (null != objects) {
-                objects.remove(element);
-                if (objects.size() == 0) {
-                    keyMap.remove(value);
+            synchronized (this.lockFor(key, value)) {
+                final Set<T> objects = keyMap.get(value);
+                if (null != objects) {
+                    objects.remove(element);
+                    if (objects.isEmpty()) {
+                        keyMap.remove(value);
+                    }
                 }
             }
         }
@@ -107,31 +186,102 @@ final class TinkerIndex<T extends Element> {
                     set.remove(element);
                 }
             }
+            for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+                compositeIndex.remove(element);
+            }
         }
     }
 
     public void autoUpdate(final String key, final Object newValue, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key)) {
+        if (this.indexedKeys.containsKey(key)) {
             if (oldValue != null)
                 this.remove(key, oldValue, element);
             this.put(key, newValue, element);
         }
+        this.autoUpdateComposites(key, element);
     }
 
     public void autoRemove(final String key, final Object oldValue, final T element) {
-        if (this.indexedKeys.contains(key))
+        if (this.indexedKeys.containsKey(key))
             this.remove(key, oldValue, element);
+        this.autoUpdateComposites(key, element);
+    }
+
+    /**
+     * Indexes elements that were added to the graph without updating the index, as a bulk load does, under all of
+     * the indexed keys and composite indices.
+     */
+    public void addAll(final Collection<T> elements) {
+        elements.parallelStream().forEach(element -> {
+            for (final String key : this.indexedKeys.keySet()) {
+                if (org.apache.tinkerpop.gremlin.structure.T.label.getAccessor().equals(key)) {
+                    // only edges are indexed by label, which happens as they are constructed
+                    if (element instanceof Edge)
+                        this.put(key, element.label(), element);
+                } else {
+                    final Iterator<? extends Property<Object>> properties = element.properties(key);
+                    while (properties.hasNext()) {
+                        this.put(key, properties.next().value(), element);
+                    }
+                }
+            }
+            for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+                compositeIndex.update(element);
+            }
+        });
+    }
+
+    private void autoUpdateComposites(final String key, final T element) {
+        for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+            if (compositeIndex.isIndexed(key))
+                compositeIndex.update(element);
+        }
+    }
+
+    /**
+     * Gets the elements of the most selective index that can answer a lookup for the specified equality constraints.
+     * Both single key and composite indices are considered and the one with the smallest bucket for the values is
+     * chosen. The elements of that bucket are a superset of the elements that satisfy all of the constraints.
+     *
+     * @return a read-only view of the chosen bucket or {@code null} if no index covers any of the constraints
+     */
+    public Collection<T> getMostSelective(final Map<String, Object> keyValues) {
+        Collection<T> best = null;
+        for (final Map.Entry<String, Object> keyValue : keyValues.entrySet()) {
+            if (this.indexedKeys.containsKey(keyValue.getKey())) {
+                final Set<T> candidate = this.get(keyValue.getKey(), keyValue.getValue());
+                if (null == best || candidate.size() < best.size())
+                    best = candidate;
+            }
+        }
+        for (final TinkerCompositeIndex<T> compositeIndex : this.compositeIndices.values()) {
+            if (compositeIndex.covers(keyValues)) {
+                final Set<T> candidate = compositeIndex.get(keyValues);
+                if (null == best || candidate.size() < best.size())
+                    best = candidate;
+            }
+        }
+        return best;
     }
 
     public void createKeyIndex(final String key) {
+        this.createKeyIndex(key, TinkerGraph.IndexType.HASH);
+    }
+
+    public void createKeyIndex(final String key, final TinkerGraph.IndexType indexType) {
         if (null == key)
             throw Graph.Exceptions.argumentCanNotBeNull("key");
         if (key.isEmpty())
             throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        if (null == indexType)
+            throw Graph.Exceptions.argumentCanNotBeNull("indexType");
 
-        if (this.indexedKeys.contains(key))
-            return;
-        this.indexedKeys.add(key);
+        if (this.indexedKeys.containsKey(key)) {
+            if (this.indexedKeys.get(key) == indexType)
+                return;
+            throw new IllegalStateException(String.format("The key %s is already indexed as %s", key, this.indexedKeys.get(key)));
+        }
+        this.indexedKeys.put(key, indexType);
 
         (Vertex.class.isAssignableFrom(this.indexClass) ?
                 this.graph.vertices.values().<T>parallelStream() :
@@ -148,7 +298,96 @@ final class TinkerIndex<T extends Element> {
         this.indexedKeys.remove(key);
     }
 
+    public void createCompositeIndex(final String label, final List<String> keys) {
+        if (null == keys || keys.isEmpty())
+            throw new IllegalArgumentException("A composite index requires at least one key");
+        for (final String key : keys) {
+            if (null == key)
+                throw Graph.Exceptions.argumentCanNotBeNull("key");
+            if (key.isEmpty())
+                throw new IllegalArgumentException("The key for the index cannot be an empty string");
+        }
+
+        final TinkerCompositeIndex<T> compositeIndex = new TinkerCompositeIndex<>(label, keys);
+        if (null != this.compositeIndices.putIfAbsent(compositeIndexId(label, keys), compositeIndex))
+            return;
+
+        (Vertex.class.isAssignableFrom(this.indexClass) ?
+                this.graph.vertices.values().<T>parallelStream() :
+                this.graph.edges.values().<T>parallelStream())
+                .forEach(e -> compositeIndex.update((T) e));
+    }
+
+    public void dropCompositeIndex(final String label, final List<String> keys) {
+        final TinkerCompositeIndex<T> compositeIndex = this.compositeIndices.remove(compositeIndexId(label, keys));
+        if (null != compositeIndex)
+            compositeIndex.clear();
+    }
+
+    public boolean isCompositeIndexed(final String label, final List<String> keys) {
+        return this.compositeIndices.containsKey(compositeIndexId(label, keys));
+    }
+
     public Set<String> getIndexedKeys() {
-        return this.indexedKeys;
+        return this.indexedKeys.keySet();
+    }
+
+    public TinkerGraph.IndexType getIndexType(final String key) {
+        return this.indexedKeys.get(key);
+    }
+
+    /**
+     * Selects the lock that guards the bucket of the value.  Numbers are striped by their rounded value as a
+     * {@link TinkerGraph.IndexType#RANGE} index puts numbers of different types that compare as equal (e.g.
+     * {@code 1} and {@code 1l}) in the same bucket even though their hash codes differ.
+     */
+    private Object lockFor(final String key, final Object value) {
+        final int valueHash = value instanceof Number ?
+                Long.hashCode(Math.round(((Number) value).doubleValue())) :
+                value.hashCode();
+        final int hash = 31 * key.hashCode() + valueHash;
+        return this.locks[(hash ^ (hash >>> 16)) & (LOCK_STRIPES - 1)];
     }
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * A composite index is identified by its label, which is {@code null} for an index across all labels, followed
+     * by its keys in order.
+     */
+    private static List<String> compositeIndexId(final String label, final List<String> keys) {
+        final List<String> id = new ArrayList<>(keys.size() + 1);
+        id.add(label);
+        id.addAll(keys);
+        return id;
+    }
+
+    /**
+     * Orders the values of a {@link TinkerGraph.IndexType#RANGE} index.  Numbers of differing types are compared the
+     * way {@link org.apache.tinkerpop.gremlin.process.traversal.Compare} compares them and values of unrelated types
+     * are grouped by class name so that a mixed-type key can still be indexed.  The ordering need not be consistent
+     * with {@code equals()} as the index only narrows the candidates that are subsequently filtered.
+     */
+    private static final Comparator<Object> VALUE_COMPARATOR = (a, b) -> {
+        if (a instanceof Number && b instanceof Number) {
+            if (a.getClass().equals(b.getClass()) && a instanceof Comparable)
+                return ((Comparable) a).compareTo(b);
+            try {
+                return new BigDecimal(a.toString()).compareTo(new BigDecimal(b.toString()));
+            } catch (NumberFormatException nfe) {
+                // NaN and infinity have no BigDecimal representation
+                return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+            }
+        }
+
+        final String aClass = a instanceof Number ? Number.class.getName() : a.getClass().getName();
+        final String bClass = b instanceof Number ? Number.class.getName() : b.getClass().getName();
+        final int classComparison = aClass.compareTo(bClass);
+        if (classComparison != 0)
+            return classComparison;
+
+        return a instanceof Comparable ?
+                ((Comparable) a).compareTo(b) :
+                Integer.compare(a.hashCode(), b.hashCode());
+    };
 }
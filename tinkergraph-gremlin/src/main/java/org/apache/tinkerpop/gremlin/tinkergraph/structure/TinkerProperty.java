@@ -24,6 +24,8 @@ import org.apache.tinkerpop.gremlin.structure.Property;
 import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
 import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
 
+import java.util.concurrent.locks.Lock;
+
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
  */
@@ -76,11 +78,20 @@ public final class TinkerProperty<V> implements Property<V> {
 
     @Override
     public void remove() {
-        if (this.element instanceof Edge) {
-            ((TinkerEdge) this.element).properties.remove(this.key);
-            TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
-        } else {
-            ((TinkerVertexProperty) this.element).properties.remove(this.key);
+        final TinkerGraph graph = (TinkerGraph) this.element.graph();
+        final Lock lock = TinkerHelper.lockMutation(graph);
+        try {
+            TinkerHelper.preserve(graph, (TinkerElement) this.element);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(graph);
+            if (null != changeLog) changeLog.removeProperty(this);
+            if (this.element instanceof Edge) {
+                ((TinkerEdge) this.element).properties.remove(this.key);
+                TinkerHelper.removeIndex((TinkerEdge) this.element, this.key, this.value);
+            } else {
+                ((TinkerVertexProperty) this.element).properties.remove(this.key);
+            }
+        } finally {
+            TinkerHelper.unlockMutation(lock);
         }
     }
 }
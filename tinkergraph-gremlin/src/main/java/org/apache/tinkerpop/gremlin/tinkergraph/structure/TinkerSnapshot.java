@@ -0,0 +1,648 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.commons.configuration.Configuration;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Element;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Property;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.structure.util.ElementHelper;
+import org.apache.tinkerpop.gremlin.structure.util.StringFactory;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedEdge;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedGraph;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertex;
+import org.apache.tinkerpop.gremlin.structure.util.wrapped.WrappedVertexProperty;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A read-only view of a {@link TinkerGraph} as it was when {@link TinkerGraph#snapshot()} was called. Readers of a
+ * snapshot never see the mutations that writers continue to make to the graph. Before an element is first mutated
+ * after the snapshot was taken, a copy of its state is published to the snapshot, and elements that are created
+ * afterwards are hidden from it. Taking a snapshot does not visit the elements of the graph, so a snapshot must be
+ * closed once it is no longer read so that the graph stops keeping copies for it.
+ */
+public final class TinkerSnapshot implements Graph, WrappedGraph<TinkerGraph> {
+
+    private static final Object HIDDEN = new Object();
+
+    private final TinkerGraph graph;
+    private final Map<ElementKey, Object> preImages = new ConcurrentHashMap<>();
+    private final Map<Object, TinkerVertex> touchedVertices = new ConcurrentHashMap<>();
+    private final Map<Object, TinkerEdge> touchedEdges = new ConcurrentHashMap<>();
+    private volatile boolean closed = false;
+
+    TinkerSnapshot(final TinkerGraph graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Publishes a copy of the current state of the element unless one is already kept or the element is hidden. The
+     * caller holds the monitor of the element and only mutates it once the copy is published.
+     */
+    void preserve(final TinkerElement element) {
+        final Object preImage = this.preImages.computeIfAbsent(new ElementKey(element), key -> copy(element));
+        if (HIDDEN == preImage)
+            return;
+        // a vertex or an edge of the snapshot that is mutated may be removed from the graph, so it is kept by id
+        if (element instanceof TinkerVertex)
+            this.touchedVertices.putIfAbsent(element.id(), (TinkerVertex) element);
+        else if (element instanceof TinkerEdge)
+            this.touchedEdges.putIfAbsent(element.id(), (TinkerEdge) element);
+    }
+
+    /**
+     * Hides an element that is being created from the snapshot.
+     */
+    void hide(final TinkerElement element) {
+        this.preImages.putIfAbsent(new ElementKey(element), HIDDEN);
+    }
+
+    /**
+     * Reads the state of the element as of the snapshot. The reader must collect what it needs from the element
+     * rather than return a lazy view of it. The copy of the element is read if one was published. Otherwise the
+     * element itself is read while holding its monitor, which a writer also holds to publish the copy before it
+     * mutates the element, so the element cannot change while it is read.
+     */
+    <E extends TinkerElement, R> R read(final E element, final Function<E, R> reader) {
+        final ElementKey key = new ElementKey(element);
+        Object preImage = this.preImages.get(key);
+        if (null == preImage) {
+            synchronized (element) {
+                preImage = this.preImages.get(key);
+                if (null == preImage)
+                    return reader.apply(element);
+            }
+        }
+        if (HIDDEN == preImage)
+            throw new IllegalStateException(String.format("%s was created after the snapshot was taken", element));
+        return reader.apply((E) preImage);
+    }
+
+    private boolean isHidden(final TinkerElement element) {
+        return HIDDEN == this.preImages.get(new ElementKey(element));
+    }
+
+    private static TinkerElement copy(final TinkerElement element) {
+        if (element instanceof TinkerVertex)
+            return new TinkerVertex((TinkerVertex) element);
+        else if (element instanceof TinkerEdge)
+            return new TinkerEdge((TinkerEdge) element);
+        else
+            return new TinkerVertexProperty<>((TinkerVertexProperty<?>) element);
+    }
+
+    @Override
+    public Vertex addVertex(final Object... keyValues) {
+        throw Graph.Exceptions.vertexAdditionsNotSupported();
+    }
+
+    @Override
+    public <C extends GraphComputer> C compute(final Class<C> graphComputerClass) throws IllegalArgumentException {
+        throw Graph.Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public GraphComputer compute() throws IllegalArgumentException {
+        throw Graph.Exceptions.graphComputerNotSupported();
+    }
+
+    @Override
+    public Iterator<Vertex> vertices(final Object... vertexIds) {
+        return this.elements((Map) this.graph.vertices, this.touchedVertices, this.graph.vertexIdManager, vertexIds, TinkerSnapshotVertex::new);
+    }
+
+    @Override
+    public Iterator<Edge> edges(final Object... edgeIds) {
+        return this.elements((Map) this.graph.edges, this.touchedEdges, this.graph.edgeIdManager, edgeIds, TinkerSnapshotEdge::new);
+    }
+
+    /**
+     * Finds the elements of the snapshot among the elements that are in the graph now and are not hidden, and those
+     * that were mutated since the snapshot was taken and are no longer in the graph. A scan of all elements returns
+     * the current ones first and then the removed ones. An element may be removed from the graph while it is
+     * scanned, so the scan remembers the elements it returned in order not to return them twice.
+     */
+    private <T extends TinkerElement, E extends Element> Iterator<E> elements(final Map<Object, T> current, final Map<Object, T> touched,
+                                                                             final TinkerGraph.IdManager<?> idManager,
+                                                                             final Object[] ids, final Function<T, E> wrapper) {
+        if (this.closed)
+            throw new IllegalStateException("The snapshot is closed");
+        if (0 == ids.length) {
+            final Set<T> returned = Collections.newSetFromMap(new IdentityHashMap<>());
+            final Iterator<T> currentElements = IteratorUtils.filter(current.values().iterator(), element -> !this.isHidden(element) && returned.add(element));
+            // the removed elements are only looked for once the current ones have been returned
+            final Iterator<T> removedElements = IteratorUtils.flatMap(IteratorUtils.of(touched), map ->
+                    IteratorUtils.filter(map.values().iterator(), element -> current.get(element.id()) != element && !returned.contains(element)));
+            return IteratorUtils.map(IteratorUtils.concat(currentElements, removedElements), wrapper);
+        }
+
+        final List<E> elements = new ArrayList<>(ids.length);
+        for (final Object id : ids) {
+            final Object elementId = idManager.convert(id instanceof Element ? ((Element) id).id() : id);
+            final T element = current.get(elementId);
+            if (null != element && !this.isHidden(element))
+                elements.add(wrapper.apply(element));
+            else {
+                final T removed = touched.get(elementId);
+                if (null != removed && current.get(elementId) != removed)
+                    elements.add(wrapper.apply(removed));
+            }
+        }
+        return elements.iterator();
+    }
+
+    @Override
+    public Transaction tx() {
+        throw Graph.Exceptions.transactionsNotSupported();
+    }
+
+    @Override
+    public Variables variables() {
+        throw Graph.Exceptions.variablesNotSupported();
+    }
+
+    @Override
+    public Configuration configuration() {
+        return this.graph.configuration();
+    }
+
+    @Override
+    public Features features() {
+        return TinkerSnapshotFeatures.INSTANCE;
+    }
+
+    /**
+     * Stops the graph from keeping copies of mutated elements for this snapshot.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.graph.snapshots.remove(this);
+    }
+
+    @Override
+    public TinkerGraph getBaseGraph() {
+        return this.graph;
+    }
+
+    @Override
+    public String toString() {
+        return StringFactory.graphString(this, this.graph.toString());
+    }
+
+    /**
+     * Compares elements by identity as elements with equal ids may be removed and created again while the snapshot
+     * is open.
+     */
+    private static final class ElementKey {
+        private final TinkerElement element;
+
+        private ElementKey(final TinkerElement element) {
+            this.element = element;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return other instanceof ElementKey && ((ElementKey) other).element == this.element;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this.element);
+        }
+    }
+
+    private abstract class TinkerSnapshotElement<E extends TinkerElement> implements Element {
+
+        protected final E baseElement;
+
+        private TinkerSnapshotElement(final E baseElement) {
+            this.baseElement = baseElement;
+        }
+
+        @Override
+        public Object id() {
+            return this.baseElement.id();
+        }
+
+        @Override
+        public String label() {
+            return this.baseElement.label();
+        }
+
+        @Override
+        public Graph graph() {
+            return TinkerSnapshot.this;
+        }
+
+        @Override
+        public <V> Property<V> property(final String key, final V value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            return ElementHelper.areEqual(this, other);
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+    }
+
+    public final class TinkerSnapshotVertex extends TinkerSnapshotElement<TinkerVertex> implements Vertex, WrappedVertex<TinkerVertex> {
+
+        private TinkerSnapshotVertex(final TinkerVertex vertex) {
+            super(vertex);
+        }
+
+        @Override
+        public Edge addEdge(final String label, final Vertex inVertex, final Object... keyValues) {
+            throw Vertex.Exceptions.edgeAdditionsNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final String key, final V value) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public <V> VertexProperty<V> property(final VertexProperty.Cardinality cardinality, final String key, final V value, final Object... keyValues) {
+            throw Element.Exceptions.propertyAdditionNotSupported();
+        }
+
+        @Override
+        public Iterator<Edge> edges(final Direction direction, final String... edgeLabels) {
+            final List<TinkerEdge> edges = read(this.baseElement, vertex -> IteratorUtils.list(TinkerHelper.getEdges(vertex, direction, edgeLabels)));
+            return IteratorUtils.<TinkerEdge, Edge>map(edges.iterator(), TinkerSnapshotEdge::new);
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction, final String... edgeLabels) {
+            final List<TinkerVertex> vertices = read(this.baseElement, vertex -> IteratorUtils.list(TinkerHelper.getVertices(vertex, direction, edgeLabels)));
+            return IteratorUtils.<TinkerVertex, Vertex>map(vertices.iterator(), TinkerSnapshotVertex::new);
+        }
+
+        @Override
+        public <V> Iterator<VertexProperty<V>> properties(final String... propertyKeys) {
+            final List<VertexProperty<V>> properties = read(this.baseElement, vertex -> IteratorUtils.list(vertex.<V>properties(propertyKeys)));
+            return IteratorUtils.<VertexProperty<V>, VertexProperty<V>>map(properties.iterator(), property -> new TinkerSnapshotVertexProperty<>(this, (TinkerVertexProperty<V>) property));
+        }
+
+        @Override
+        public void remove() {
+            throw Vertex.Exceptions.vertexRemovalNotSupported();
+        }
+
+        @Override
+        public TinkerVertex getBaseVertex() {
+            return this.baseElement;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.vertexString(this);
+        }
+    }
+
+    public final class TinkerSnapshotEdge extends TinkerSnapshotElement<TinkerEdge> implements Edge, WrappedEdge<TinkerEdge> {
+
+        private TinkerSnapshotEdge(final TinkerEdge edge) {
+            super(edge);
+        }
+
+        @Override
+        public Iterator<Vertex> vertices(final Direction direction) {
+            final Vertex outVertex = new TinkerSnapshotVertex((TinkerVertex) this.baseElement.outVertex);
+            final Vertex inVertex = new TinkerSnapshotVertex((TinkerVertex) this.baseElement.inVertex);
+            switch (direction) {
+                case OUT:
+                    return IteratorUtils.of(outVertex);
+                case IN:
+                    return IteratorUtils.of(inVertex);
+                default:
+                    return IteratorUtils.of(outVertex, inVertex);
+            }
+        }
+
+        @Override
+        public <V> Iterator<Property<V>> properties(final String... propertyKeys) {
+            final List<Property<V>> properties = read(this.baseElement, edge -> IteratorUtils.list(edge.<V>properties(propertyKeys)));
+            return IteratorUtils.<Property<V>, Property<V>>map(properties.iterator(), property -> new TinkerSnapshotProperty<>(this, property.key(), property.value()));
+        }
+
+        @Override
+        public void remove() {
+            throw Edge.Exceptions.edgeRemovalNotSupported();
+        }
+
+        @Override
+        public TinkerEdge getBaseEdge() {
+            return this.baseElement;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.edgeString(this);
+        }
+    }
+
+    public final class TinkerSnapshotVertexProperty<V> extends TinkerSnapshotElement<TinkerVertexProperty<V>> implements VertexProperty<V>, WrappedVertexProperty<TinkerVertexProperty<V>> {
+
+        private final TinkerSnapshotVertex vertex;
+
+        private TinkerSnapshotVertexProperty(final TinkerSnapshotVertex vertex, final TinkerVertexProperty<V> vertexProperty) {
+            super(vertexProperty);
+            this.vertex = vertex;
+        }
+
+        @Override
+        public String key() {
+            return this.baseElement.key();
+        }
+
+        @Override
+        public V value() {
+            return this.baseElement.value();
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Vertex element() {
+            return this.vertex;
+        }
+
+        @Override
+        public <U> Iterator<Property<U>> properties(final String... propertyKeys) {
+            final List<Property<U>> properties = read(this.baseElement, vertexProperty -> IteratorUtils.list(vertexProperty.<U>properties(propertyKeys)));
+            return IteratorUtils.<Property<U>, Property<U>>map(properties.iterator(), property -> new TinkerSnapshotProperty<>(this, property.key(), property.value()));
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public TinkerVertexProperty<V> getBaseVertexProperty() {
+            return this.baseElement;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+
+    public static final class TinkerSnapshotProperty<V> implements Property<V> {
+
+        private final Element element;
+        private final String key;
+        private final V value;
+
+        private TinkerSnapshotProperty(final Element element, final String key, final V value) {
+            this.element = element;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public String key() {
+            return this.key;
+        }
+
+        @Override
+        public V value() {
+            return this.value;
+        }
+
+        @Override
+        public boolean isPresent() {
+            return true;
+        }
+
+        @Override
+        public Element element() {
+            return this.element;
+        }
+
+        @Override
+        public void remove() {
+            throw Property.Exceptions.propertyRemovalNotSupported();
+        }
+
+        @Override
+        public boolean equals(final Object object) {
+            return ElementHelper.areEqual(this, object);
+        }
+
+        @Override
+        public int hashCode() {
+            return ElementHelper.hashCode(this);
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.propertyString(this);
+        }
+    }
+
+    public static class TinkerSnapshotFeatures implements Features {
+        public static final TinkerSnapshotFeatures INSTANCE = new TinkerSnapshotFeatures();
+
+        private TinkerSnapshotFeatures() {
+        }
+
+        @Override
+        public GraphFeatures graph() {
+            return TinkerSnapshotGraphFeatures.INSTANCE;
+        }
+
+        @Override
+        public EdgeFeatures edge() {
+            return TinkerSnapshotEdgeFeatures.INSTANCE;
+        }
+
+        @Override
+        public VertexFeatures vertex() {
+            return TinkerSnapshotVertexFeatures.INSTANCE;
+        }
+
+        @Override
+        public String toString() {
+            return StringFactory.featureString(this);
+        }
+    }
+
+    static class TinkerSnapshotGraphFeatures implements Features.GraphFeatures {
+        public static final TinkerSnapshotGraphFeatures INSTANCE = new TinkerSnapshotGraphFeatures();
+
+        private TinkerSnapshotGraphFeatures() {
+        }
+
+        @Override
+        public boolean supportsComputer() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsPersistence() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsTransactions() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsThreadedTransactions() {
+            return false;
+        }
+
+        @Override
+        public Features.VariableFeatures variables() {
+            return TinkerSnapshotVariableFeatures.INSTANCE;
+        }
+    }
+
+    static class TinkerSnapshotVariableFeatures implements Features.VariableFeatures {
+        public static final TinkerSnapshotVariableFeatures INSTANCE = new TinkerSnapshotVariableFeatures();
+
+        private TinkerSnapshotVariableFeatures() {
+        }
+
+        @Override
+        public boolean supportsVariables() {
+            return false;
+        }
+    }
+
+    static class TinkerSnapshotVertexFeatures implements Features.VertexFeatures {
+        public static final TinkerSnapshotVertexFeatures INSTANCE = new TinkerSnapshotVertexFeatures();
+
+        private TinkerSnapshotVertexFeatures() {
+        }
+
+        @Override
+        public boolean supportsAddVertices() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsRemoveVertices() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsAddProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsRemoveProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsUserSuppliedIds() {
+            return false;
+        }
+
+        @Override
+        public Features.VertexPropertyFeatures properties() {
+            return TinkerSnapshotVertexPropertyFeatures.INSTANCE;
+        }
+    }
+
+    static class TinkerSnapshotEdgeFeatures implements Features.EdgeFeatures {
+        public static final TinkerSnapshotEdgeFeatures INSTANCE = new TinkerSnapshotEdgeFeatures();
+
+        private TinkerSnapshotEdgeFeatures() {
+        }
+
+        @Override
+        public boolean supportsAddEdges() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsRemoveEdges() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsAddProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsRemoveProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsUserSuppliedIds() {
+            return false;
+        }
+    }
+
+    static class TinkerSnapshotVertexPropertyFeatures implements Features.VertexPropertyFeatures {
+        public static final TinkerSnapshotVertexPropertyFeatures INSTANCE = new TinkerSnapshotVertexPropertyFeatures();
+
+        private TinkerSnapshotVertexPropertyFeatures() {
+        }
+
+        @Override
+        public boolean supportsAddProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsRemoveProperty() {
+            return false;
+        }
+
+        @Override
+        public boolean supportsUserSuppliedIds() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.structure;
+
+import org.apache.tinkerpop.gremlin.structure.Direction;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts that {@link TinkerGraph} keeps up to date as elements are added and removed so that it can estimate the
+ * cardinalities of traversals: the number of vertices and edges of each label and the number of vertices with at
+ * least one outgoing or incoming edge of each label.
+ */
+final class TinkerStatistics {
+
+    private final Map<String, LongAdder> vertexLabelCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> edgeLabelCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outVertexCounts = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> inVertexCounts = new ConcurrentHashMap<>();
+
+    void addVertex(final String label) {
+        increment(this.vertexLabelCounts, label, 1);
+    }
+
+    void removeVertex(final String label) {
+        increment(this.vertexLabelCounts, label, -1);
+    }
+
+    void addEdge(final String label) {
+        increment(this.edgeLabelCounts, label, 1);
+    }
+
+    void removeEdge(final String label) {
+        increment(this.edgeLabelCounts, label, -1);
+    }
+
+    /**
+     * Called when a vertex gets its first edge of the label in the direction or loses its last one.
+     */
+    void incidentVertex(final Direction direction, final String label, final boolean added) {
+        increment(Direction.OUT == direction ? this.outVertexCounts : this.inVertexCounts, label, added ? 1 : -1);
+    }
+
+    long getVertexCount(final String label) {
+        return sum(this.vertexLabelCounts, label);
+    }
+
+    /**
+     * Gets the number of edges with one of the labels or of all edges if no labels are given.
+     */
+    long getEdgeCount(final String... labels) {
+        return sum(this.edgeLabelCounts, labels);
+    }
+
+    /**
+     * Gets the sum over the labels, or over all labels if none are given, of the number of vertices with at least one
+     * edge of the label in the direction.
+     */
+    long getIncidentVertexCount(final Direction direction, final String... labels) {
+        return sum(Direction.OUT == direction ? this.outVertexCounts : this.inVertexCounts, labels);
+    }
+
+    void clear() {
+        this.vertexLabelCounts.clear();
+        this.edgeLabelCounts.clear();
+        this.outVertexCounts.clear();
+        this.inVertexCounts.clear();
+    }
+
+    private static void increment(final Map<String, LongAdder> counts, final String label, final long delta) {
+        counts.computeIfAbsent(label, k -> new LongAdder()).add(delta);
+    }
+
+    private static long sum(final Map<String, LongAdder> counts, final String label) {
+        final LongAdder count = counts.get(label);
+        return null == count ? 0l : count.sum();
+    }
+
+    private static long sum(final Map<String, LongAdder> counts, final String... labels) {
+        long sum = 0l;
+        if (0 == labels.length) {
+            for (final LongAdder count : counts.values()) {
+                sum = sum + count.sum();
+            }
+        } else {
+            for (final String label : labels) {
+                sum = sum + sum(counts, label);
+            }
+        }
+        return sum;
+    }
+}
@@ -30,11 +30,13 @@ import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -45,6 +47,9 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
     protected Map<String, List<VertexProperty>> properties;
     protected Map<String, Set<Edge>> outEdges;
     protected Map<String, Set<Edge>> inEdges;
+    protected Map<String, Map<Object, Set<Edge>>> outEdgeIndex;
+    protected Map<String, Map<Object, Set<Edge>>> inEdgeIndex;
+    protected int computeOrdinal = -1;
     private final TinkerGraph graph;
 
     protected TinkerVertex(final Object id, final String label, final TinkerGraph graph) {
@@ -52,6 +57,33 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         this.graph = graph;
     }
 
+    /**
+     * Copies the properties and adjacency of the vertex for a {@link TinkerSnapshot} that must not see the mutations
+     * that are about to be made to it.
+     */
+    TinkerVertex(final TinkerVertex vertex) {
+        super(vertex.id, vertex.label);
+        this.graph = vertex.graph;
+        if (null != vertex.properties) {
+            this.properties = new HashMap<>();
+            vertex.properties.forEach((key, list) -> this.properties.put(key, new ArrayList<>(list)));
+        }
+        this.outEdges = copyEdges(vertex.outEdges);
+        this.inEdges = copyEdges(vertex.inEdges);
+        this.removed = vertex.removed;
+    }
+
+    private Map<String, Set<Edge>> copyEdges(final Map<String, Set<Edge>> edges) {
+        if (null == edges) return null;
+        final Map<String, Set<Edge>> copy = new HashMap<>();
+        edges.forEach((label, set) -> {
+            final Set<Edge> copySet = this.graph.compact ? new TinkerEdgeArraySet() : new HashSet<>();
+            copySet.addAll(set);
+            copy.put(label, copySet);
+        });
+        return copy;
+    }
+
     @Override
     public Graph graph() {
         return this.graph;
@@ -86,27 +118,34 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
         ElementHelper.legalPropertyKeyValueArray(keyValues);
         ElementHelper.validateProperty(key, value);
         final Optional<Object> optionalId = ElementHelper.getIdValue(keyValues);
-        final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
-        if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
-
-        if (TinkerHelper.inComputerMode(this.graph)) {
-            final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
-        } else {
-            final Object idValue = optionalId.isPresent() ?
-                    graph.vertexPropertyIdManager.convert(optionalId.get()) :
-                    graph.vertexPropertyIdManager.getNextId(graph);
-
-            final VertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
-
-            if (null == this.properties) this.properties = new HashMap<>();
-            final List<VertexProperty> list = this.properties.getOrDefault(key, new ArrayList<>());
-            list.add(vertexProperty);
-            this.properties.put(key, list);
-            TinkerHelper.autoUpdateIndex(this, key, value, null);
-            ElementHelper.attachProperties(vertexProperty, keyValues);
-            return vertexProperty;
+        final Lock lock = TinkerHelper.lockMutation(this.graph);
+        try {
+            final Optional<VertexProperty<V>> optionalVertexProperty = ElementHelper.stageVertexProperty(this, cardinality, key, value, keyValues);
+            if (optionalVertexProperty.isPresent()) return optionalVertexProperty.get();
+
+            if (TinkerHelper.inComputerMode(this.graph)) {
+                final VertexProperty<V> vertexProperty = (VertexProperty<V>) this.graph.graphComputerView.addProperty(this, key, value);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            } else {
+                final Object idValue = optionalId.isPresent() ?
+                        graph.vertexPropertyIdManager.convert(optionalId.get()) :
+                        graph.vertexPropertyIdManager.getNextId(graph);
+
+                final TinkerVertexProperty<V> vertexProperty = new TinkerVertexProperty<V>(idValue, this, key, value);
+                TinkerHelper.hide(this.graph, vertexProperty);
+                TinkerHelper.preserve(this.graph, this);
+                final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(this.graph);
+                if (null != changeLog) changeLog.addVertexProperty(vertexProperty);
+
+                if (null == this.properties) this.properties = this.graph.compact ? new HashMap<>(2) : new HashMap<>();
+                this.properties.computeIfAbsent(key, k -> this.graph.compact ? new ArrayList<>(1) : new ArrayList<>()).add(vertexProperty);
+                TinkerHelper.autoUpdateIndex(this, key, value, null);
+                ElementHelper.attachProperties(vertexProperty, keyValues);
+                return vertexProperty;
+            }
+        } finally {
+            TinkerHelper.unlockMutation(lock);
         }
     }
 
@@ -127,13 +166,24 @@ public final class TinkerVertex extends TinkerElement implements Vertex {
 
     @Override
     public void remove() {
-        final List<Edge> edges = new ArrayList<>();
-        this.edges(Direction.BOTH).forEachRemaining(edges::add);
-        edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
-        this.properties = null;
-        TinkerHelper.removeElementIndex(this);
-        this.graph.vertices.remove(this.id);
-        this.removed = true;
+        final Lock lock = TinkerHelper.lockMutation(this.graph);
+        try {
+            TinkerHelper.preserve(this.graph, this);
+            // replaying the removal of the vertex removes its edges, so the removals of the edges logged below are
+            // no-ops when they are replayed
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(this.graph);
+            if (null != changeLog) changeLog.removeVertex(this);
+            final List<Edge> edges = new ArrayList<>();
+            this.edges(Direction.BOTH).forEachRemaining(edges::add);
+            edges.stream().filter(edge -> !((TinkerEdge) edge).removed).forEach(Edge::remove);
+            this.properties = null;
+            TinkerHelper.removeElementIndex(this);
+            if (null != this.graph.vertices.remove(this.id))
+                this.graph.statistics.removeVertex(this.label);
+            this.removed = true;
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
     }
 
     @Override
@@ -34,6 +34,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 /**
@@ -73,6 +74,19 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
         ElementHelper.attachProperties(this, propertyKeyValues);
     }
 
+    /**
+     * Copies the properties of the vertex property for a {@link TinkerSnapshot} that must not see the mutations that
+     * are about to be made to it.
+     */
+    TinkerVertexProperty(final TinkerVertexProperty<V> vertexProperty) {
+        super(vertexProperty.id, vertexProperty.key);
+        this.vertex = vertexProperty.vertex;
+        this.key = vertexProperty.key;
+        this.value = vertexProperty.value;
+        this.properties = null == vertexProperty.properties ? null : new HashMap<>(vertexProperty.properties);
+        this.removed = vertexProperty.removed;
+    }
+
     @Override
     public String key() {
         return this.key;
@@ -117,10 +131,19 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
     @Override
     public <U> Property<U> property(final String key, final U value) {
         if (this.removed) throw elementAlreadyRemoved(VertexProperty.class, id);
-        final Property<U> property = new TinkerProperty<>(this, key, value);
-        if (this.properties == null) this.properties = new HashMap<>();
-        this.properties.put(key, property);
-        return property;
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        final Lock lock = TinkerHelper.lockMutation(graph);
+        try {
+            TinkerHelper.preserve(graph, this);
+            final Property<U> property = new TinkerProperty<>(this, key, value);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(graph);
+            if (null != changeLog) changeLog.addProperty(property);
+            if (this.properties == null) this.properties = new HashMap<>();
+            this.properties.put(key, property);
+            return property;
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
     }
 
     @Override
@@ -130,7 +153,21 @@ public class TinkerVertexProperty<V> extends TinkerElement implements VertexProp
 
     @Override
     public void remove() {
+        final TinkerGraph graph = (TinkerGraph) this.vertex.graph();
+        final Lock lock = TinkerHelper.lockMutation(graph);
+        try {
+            this.removeProperty(graph);
+        } finally {
+            TinkerHelper.unlockMutation(lock);
+        }
+    }
+
+    private void removeProperty(final TinkerGraph graph) {
         if (null != this.vertex.properties && this.vertex.properties.containsKey(this.key)) {
+            TinkerHelper.preserve(graph, this.vertex);
+            TinkerHelper.preserve(graph, this);
+            final TinkerChangeLog changeLog = TinkerHelper.getChangeLog(graph);
+            if (null != changeLog) changeLog.removeVertexProperty(this);
             this.vertex.properties.get(this.key).remove(this);
             if (this.vertex.properties.get(this.key).size() == 0) {
                 this.vertex.properties.remove(this.key);
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.computer;
+
+import org.apache.tinkerpop.gremlin.process.computer.Computer;
+import org.apache.tinkerpop.gremlin.process.computer.ComputerResult;
+import org.apache.tinkerpop.gremlin.process.computer.GraphComputer;
+import org.apache.tinkerpop.gremlin.process.computer.KeyValue;
+import org.apache.tinkerpop.gremlin.process.computer.MapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.Memory;
+import org.apache.tinkerpop.gremlin.process.computer.MemoryComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.MessageScope;
+import org.apache.tinkerpop.gremlin.process.computer.Messenger;
+import org.apache.tinkerpop.gremlin.process.computer.VertexComputeKey;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.ClusterPopulationMapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.clustering.peerpressure.PeerPressureVertexProgram;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticMapReduce;
+import org.apache.tinkerpop.gremlin.process.computer.util.StaticVertexProgram;
+import org.apache.tinkerpop.gremlin.process.traversal.Operator;
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerVertex;
+import org.apache.tinkerpop.gremlin.util.iterator.IteratorUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphComputerTest {
+
+    @Test
+    public void shouldPartitionVerticesByDegree() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex hub = graph.addVertex(T.id, 0);
+        for (int i = 1; i <= 1000; i++) {
+            hub.addEdge("link", graph.addVertex(T.id, i));
+        }
+        final TinkerVertex[] vertices = IteratorUtils.list(graph.vertices()).toArray(new TinkerVertex[1001]);
+        final TinkerVertexPartitions partitions = new TinkerVertexPartitions(vertices, 4);
+        assertTrue(partitions.getNumberOfPartitions() > 4);
+
+        // a single worker steals the partitions of the others
+        final List<Vertex> visited = new ArrayList<>();
+        partitions.forEach(2, visited::add);
+        assertEquals(1001, visited.size());
+        assertEquals(1001, new HashSet<>(visited).size());
+        partitions.forEach(0, visited::add);
+        assertEquals(1001, visited.size());
+
+        partitions.reset();
+        final AtomicInteger count = new AtomicInteger();
+        partitions.forEach(0, vertex -> count.incrementAndGet());
+        assertEquals(1001, count.get());
+    }
+
+    @Test
+    public void shouldHandOutValuesInChunks() {
+        for (final int size : Arrays.asList(0, 1, 63, 64, 65, 128, 129)) {
+            final List<Integer> values = IntStream.range(0, size).boxed().collect(Collectors.toList());
+            final TinkerGraphComputer.ChunkedIterator<Integer> chunks = new TinkerGraphComputer.ChunkedIterator<>(values.iterator(), 64);
+            final List<Integer> handedOut = new ArrayList<>();
+            List<Integer> chunk;
+            int numberOfChunks = 0;
+            while (!(chunk = chunks.nextChunk()).isEmpty()) {
+                // only the last chunk may be short
+                assertEquals(Math.min(64, size - handedOut.size()), chunk.size());
+                handedOut.addAll(chunk);
+                numberOfChunks++;
+            }
+            assertEquals(values, handedOut);
+            assertEquals((size + 63) / 64, numberOfChunks);
+            assertTrue(chunks.nextChunk().isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldHandOutEveryValueOnceToConcurrentWorkers() throws Exception {
+        final TinkerGraphComputer.ChunkedIterator<Integer> chunks =
+                new TinkerGraphComputer.ChunkedIterator<>(IntStream.range(0, 10001).iterator(), 64);
+        final Set<Integer> handedOut = ConcurrentHashMap.newKeySet();
+        final AtomicInteger count = new AtomicInteger();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> chunks.forEach(value -> {
+                    handedOut.add(value);
+                    count.incrementAndGet();
+                })));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(10001, count.get());
+        assertEquals(10001, handedOut.size());
+    }
+
+    @Test
+    public void shouldCombineMessagesSentConcurrentlyToTheSameVertex() {
+        final TinkerGraph graph = TinkerGraph.open();
+        final Vertex hub = graph.addVertex(T.id, 0);
+        for (int i = 1; i <= 2000; i++) {
+            final Vertex leaf = graph.addVertex(T.id, i);
+            leaf.addEdge("link", hub);
+            hub.addEdge("link", leaf);
+        }
+
+        // every worker sends the traversers of its leaves to the hub at once
+        final GraphTraversalSource g = graph.traversal();
+        for (int i = 0; i < 10; i++) {
+            final GraphTraversalSource olap = g.withComputer(Computer.compute().workers(4));
+            assertEquals(new Long(4000), olap.V().out().count().next());
+            assertEquals(new Long(4002000), olap.V().out().out().count().next());
+            assertEquals(new Long(2000), olap.V().out().groupCount().by(T.id).next().get(0));
+        }
+        assertEquals(g.V().out().out().count().next(), g.withComputer(Computer.compute().workers(4)).V().out().out().count().next());
+    }
+
+    @Test
+    public void shouldOnlyExecuteVerticesThatDidNotVoteToHalt() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        Vertex previous = graph.addVertex(T.id, 0);
+        for (int i = 1; i < 10; i++) {
+            final Vertex next = graph.addVertex(T.id, i);
+            previous.addEdge("next", next);
+            previous = next;
+        }
+
+        final ComputerResult result = graph.compute().program(new RelayVertexProgram()).submit().get();
+        assertEquals(9, result.graph().traversal().V(9).values(RelayVertexProgram.HOPS).next());
+        // every vertex runs in the first two iterations and then only the vertex that was sent the message
+        assertEquals(28L, (long) result.memory().get(RelayVertexProgram.EXECUTIONS));
+    }
+
+    @Test
+    public void shouldFilterEdgesOfEveryWorker() {
+        final TinkerGraph graph = TinkerGraph.open();
+        for (int i = 0; i < 500; i++) {
+            graph.addVertex(T.id, i);
+        }
+        for (int i = 0; i < 500; i++) {
+            final Vertex vertex = graph.vertices(i).next();
+            vertex.addEdge("a", graph.vertices((i + 1) % 500).next(), "weight", (i % 10) / 10.0d);
+            vertex.addEdge("b", graph.vertices((i + 7) % 500).next());
+        }
+
+        final GraphTraversalSource g = graph.traversal();
+        for (int i = 0; i < 5; i++) {
+            // each worker evaluates the edge filter with its own copy of it
+            final GraphTraversalSource heavy = g.withComputer(Computer.compute().workers(4).edges(__.bothE("a").has("weight", P.gte(0.5d))));
+            assertEquals(new Long(250), heavy.V().out().count().next());
+            assertEquals(new Long(250), heavy.V().in().count().next());
+            assertEquals(new Long(0), heavy.V().out("b").count().next());
+            assertEquals(g.V().outE("a").has("weight", P.gte(0.5d)).inV().id().groupCount().next(),
+                    heavy.V().out().id().groupCount().next());
+
+            // a view with another filter on the same graph does not see the edges of the previous one
+            final GraphTraversalSource b = g.withComputer(Computer.compute().workers(4).edges(__.outE("b")));
+            assertEquals(new Long(500), b.V().out().count().next());
+            assertEquals(new Long(0), b.V().out("a").count().next());
+        }
+    }
+
+    @Test
+    public void shouldReassignOrdinalsOfEveryComputerRun() throws Exception {
+        final TinkerGraph graph = TinkerGraph.open();
+        Vertex previous = graph.addVertex(T.id, 0);
+        for (int i = 1; i < 10; i++) {
+            final Vertex next = graph.addVertex(T.id, i);
+            previous.addEdge("next", next);
+            previous = next;
+        }
+
+        ComputerResult result = graph.compute().program(new RelayVertexProgram()).submit().get();
+        assertEquals(9, result.graph().traversal().V(9).values(RelayVertexProgram.HOPS).next());
+        assertEquals(28L, (long) result.memory().get(RelayVertexProgram.EXECUTIONS));
+
+        // replacing a vertex moves it in the iteration order of the graph so the vertices get different ordinals
+        graph.vertices(5).next().remove();
+        final Vertex replacement = graph.addVertex(T.id, 5);
+        graph.vertices(4).next().addEdge("next", replacement);
+        replacement.addEdge("next", graph.vertices(6).next());
+        for (int i = 10; i < 20; i++) {
+            graph.addVertex(T.id, i);
+        }
+
+        result = graph.compute().program(new RelayVertexProgram()).submit().get();
+        for (int i = 1; i < 10; i++) {
+            assertEquals(i, result.graph().traversal().V(i).values(RelayVertexProgram.HOPS).next());
+        }
+        assertEquals(new Long(10), result.graph().traversal().V().has(RelayVertexProgram.HOPS).count().next());
+        assertEquals(48L, (long) result.memory().get(RelayVertexProgram.EXECUTIONS));
+
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(g.V().out().id().groupCount().next(), g.withComputer().V().out().id().groupCount().next());
+    }
+
+    @Test
+    public void shouldSpillMapReduceToDisk() throws Exception {
+        final TinkerGraph modern = TinkerFactory.createModern();
+        final Graph graph = modern.compute().program(PeerPressureVertexProgram.build().create(modern)).submit().get().graph();
+        final ComputerResult inMemory = graph.compute()
+                .mapReduce(ClusterPopulationMapReduce.build().create())
+                .mapReduce(new NameMapReduce()).submit().get();
+        // a threshold of one spills every key/value that is emitted
+        final ComputerResult spilled = graph.compute().configure(TinkerGraph.GREMLIN_TINKERGRAPH_SPILL_THRESHOLD, 1)
+                .mapReduce(ClusterPopulationMapReduce.build().create())
+                .mapReduce(new NameMapReduce()).submit().get();
+
+        assertEquals(inMemory.memory().<Map>get(ClusterPopulationMapReduce.DEFAULT_MEMORY_KEY),
+                spilled.memory().<Map>get(ClusterPopulationMapReduce.DEFAULT_MEMORY_KEY));
+        assertEquals(Arrays.asList("josh", "lop", "marko", "peter", "ripple", "vadas"), inMemory.memory().get(NameMapReduce.NAMES));
+        assertEquals(Arrays.asList("josh", "lop", "marko", "peter", "ripple", "vadas"), spilled.memory().get(NameMapReduce.NAMES));
+    }
+
+    private static class RelayVertexProgram extends StaticVertexProgram<Integer> {
+
+        private static final String HOPS = "hops";
+        private static final String EXECUTIONS = "executions";
+        private static final MessageScope.Local<Integer> NEXT = MessageScope.Local.of(() -> __.outE());
+
+        @Override
+        public void setup(final Memory memory) {
+            memory.set(EXECUTIONS, 0L);
+        }
+
+        @Override
+        public void execute(final Vertex vertex, final Messenger<Integer> messenger, final Memory memory) {
+            memory.add(EXECUTIONS, 1L);
+            if (memory.isInitialIteration()) {
+                if (vertex.id().equals(0)) {
+                    vertex.property(VertexProperty.Cardinality.single, HOPS, 0);
+                    messenger.sendMessage(NEXT, 1);
+                }
+            } else {
+                final Iterator<Integer> hops = messenger.receiveMessages();
+                if (hops.hasNext()) {
+                    final int hop = hops.next();
+                    vertex.property(VertexProperty.Cardinality.single, HOPS, hop);
+                    messenger.sendMessage(NEXT, hop + 1);
+                }
+            }
+            messenger.voteToHalt();
+        }
+
+        @Override
+        public boolean terminate(final Memory memory) {
+            return memory.getIteration() >= 9;
+        }
+
+        @Override
+        public Set<VertexComputeKey> getVertexComputeKeys() {
+            return Collections.singleton(VertexComputeKey.of(HOPS, false));
+        }
+
+        @Override
+        public Set<MemoryComputeKey> getMemoryComputeKeys() {
+            return Collections.singleton(MemoryComputeKey.of(EXECUTIONS, Operator.sumLong, false, false));
+        }
+
+        @Override
+        public Set<MessageScope> getMessageScopes(final Memory memory) {
+            return Collections.singleton(NEXT);
+        }
+
+        @Override
+        public GraphComputer.ResultGraph getPreferredResultGraph() {
+            return GraphComputer.ResultGraph.NEW;
+        }
+
+        @Override
+        public GraphComputer.Persist getPreferredPersist() {
+            return GraphComputer.Persist.VERTEX_PROPERTIES;
+        }
+    }
+
+    private static class NameMapReduce extends StaticMapReduce<String, MapReduce.NullObject, String, MapReduce.NullObject, List<String>> {
+
+        private static final String NAMES = "names";
+
+        @Override
+        public boolean doStage(final Stage stage) {
+            return stage.equals(Stage.MAP);
+        }
+
+        @Override
+        public void map(final Vertex vertex, final MapEmitter<String, MapReduce.NullObject> emitter) {
+            emitter.emit(vertex.value("name"), MapReduce.NullObject.instance());
+        }
+
+        @Override
+        public Optional<Comparator<String>> getMapKeySort() {
+            return Optional.of(Comparator.naturalOrder());
+        }
+
+        @Override
+        public List<String> generateFinalResult(final Iterator<KeyValue<String, MapReduce.NullObject>> keyValues) {
+            final List<String> names = new ArrayList<>();
+            keyValues.forEachRemaining(keyValue -> names.add(keyValue.getKey()));
+            return names;
+        }
+
+        @Override
+        public String getMemoryKey() {
+            return NAMES;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.decoration;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.PlanCacheStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalPlanCache;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TinkerGraphPlanCacheStrategyTest {
+
+    @Test
+    public void shouldReuseCachedPlansForTraversalsOfTheSameShape() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        graph.createIndex("name", Vertex.class);
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(10).create();
+        final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+        final TraversalPlanCache planCache = strategy.getPlanCache();
+
+        assertEquals(new HashSet<>(Arrays.asList("vadas", "josh")), new HashSet<>(g.V().has("name", "marko").out("knows").values("name").toList()));
+        assertEquals(0l, planCache.getHits());
+        assertEquals(1l, planCache.getMisses());
+        assertEquals(1, planCache.size());
+
+        // the cached plan is bound to the values of each traversal
+        assertEquals(new HashSet<>(Arrays.asList("ripple", "lop")), new HashSet<>(g.V().has("name", "josh").out("created").values("name").toList()));
+        assertEquals(Collections.emptyList(), g.V().has("name", "josh").out("knows").values("name").toList());
+        assertEquals(new HashSet<>(Arrays.asList("vadas", "josh")), new HashSet<>(g.V().has("name", "marko").out("knows").values("name").toList()));
+        assertEquals(2l, planCache.getHits());
+        assertEquals(2l, planCache.getMisses());
+        assertEquals(2, planCache.size());
+
+        final Traversal.Admin<?, ?> traversal = g.V().has("name", "peter").out("knows").values("name").asAdmin();
+        traversal.applyStrategies();
+        assertEquals(3l, planCache.getHits());
+        assertEquals("peter", ((HasContainerHolder) traversal.getStartStep()).getHasContainers().get(0).getValue());
+        assertFalse(traversal.hasNext());
+
+        // traversals with lambdas are not cached
+        assertEquals(1, g.V().has("name", "marko").out("knows").filter(t -> t.get().value("age").equals(27)).count().next().intValue());
+        assertEquals(2, planCache.size());
+        assertEquals(2l, planCache.getMisses());
+    }
+
+    @Test
+    public void shouldBindCachedPlansOfConcurrentTraversals() throws Exception {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(10).create();
+        final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final Object[] binding : Arrays.asList(new Object[]{27, "vadas"}, new Object[]{32, "josh"})) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        assertEquals(Collections.singletonList(binding[1]), g.V().has("name", "marko").out().has("age", binding[0]).values("name").toList());
+                    }
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, strategy.getPlanCache().size());
+        assertEquals(1000l, strategy.getPlanCache().getHits() + strategy.getPlanCache().getMisses());
+    }
+
+    @Test
+    public void shouldNotShareCachedPlansOfValuesOfDifferentClasses() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        final PlanCacheStrategy strategy = PlanCacheStrategy.build().maxSize(20).create();
+        final GraphTraversalSource g = graph.traversal().withStrategies(strategy);
+        final TraversalPlanCache planCache = strategy.getPlanCache();
+
+        assertEquals(new Long(1), g.V().values("age").is(29).count().next());
+        assertEquals(new Long(0), g.V().values("age").is("29").count().next());
+        assertEquals(2, planCache.size());
+
+        assertEquals(new Long(1), g.V(1).count().next());
+        assertEquals(new Long(0), g.V("1").count().next());
+        assertEquals(4, planCache.size());
+
+        assertEquals(new Long(1), g.V().where(__.has("age", 29)).count().next());
+        assertEquals(new Long(0), g.V().where(__.has("age", "29")).count().next());
+        assertEquals(6, planCache.size());
+
+        assertEquals(new Long(2), g.V().values("age").is(P.eq(29).or(P.eq(27))).count().next());
+        assertEquals(new Long(1), g.V().values("age").is(P.eq(29).or(P.eq("27"))).count().next());
+        assertEquals(8, planCache.size());
+
+        // the same values hit the plans cached for them
+        final long hits = planCache.getHits();
+        assertEquals(new Long(0), g.V().values("age").is("29").count().next());
+        assertEquals(new Long(1), g.V(1).count().next());
+        assertEquals(hits + 2, planCache.getHits());
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.DedupSetStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+public class TinkerGraphDedupSetStrategyTest {
+
+    @Test
+    public void shouldDedupWithTheDedupSetOfTheStrategy() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final GraphTraversalSource spilled = g.withStrategies(DedupSetStrategy.build().spillThreshold(1).create());
+        final GraphTraversalSource approximate = g.withStrategies(DedupSetStrategy.build().approximate(100, 0.01d).create());
+        for (final GraphTraversalSource dedup : Arrays.asList(spilled, approximate)) {
+            assertEquals(g.V().both().both().dedup().id().toSet(), dedup.V().both().both().dedup().id().toSet());
+            assertEquals(g.V().both().both().dedup().count().next(), dedup.V().both().both().dedup().count().next());
+            assertEquals(g.V().outE().dedup().by("weight").count().next(), dedup.V().outE().dedup().by("weight").count().next());
+            assertEquals(g.V().as("a").out().as("b").dedup("a", "b").count().next(), dedup.V().as("a").out().as("b").dedup("a", "b").count().next());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.NoOpBarrierStep;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.LazyBarrierStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TinkerGraphLazyBarrierStrategyTest {
+
+    @Test
+    public void shouldPlaceBarriersFromCardinalityEstimates() {
+        final TinkerGraph graph = TinkerGraph.open();
+        for (int i = 0; i < 50; i++) {
+            graph.addVertex(T.id, i);
+        }
+        for (int i = 0; i < 50; i++) {
+            for (int j = 1; j <= 10; j++) {
+                graph.vertices(i).next().addEdge("link", graph.vertices((i + j * 7) % 50).next());
+            }
+        }
+        graph.createIndex("name", Vertex.class);
+        graph.vertices(0).next().property("name", "marko");
+
+        assertEquals(50, graph.estimateCount(Vertex.class, Collections.emptyList()));
+        assertEquals(10.0d, graph.estimateDegree(Direction.OUT), 0.0d);
+        assertEquals(20.0d, graph.estimateDegree(Direction.BOTH), 0.0d);
+
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource lazy = g.withStrategies(LazyBarrierStrategy.build().memoryBudget(1024 * 1024).create());
+
+        final Traversal.Admin<?, ?> traversal = lazy.V().out().out().out().count().asAdmin();
+        traversal.applyStrategies();
+        // the last out() is an outE() that is counted and its traversers are not bulked
+        assertEquals(2, TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, traversal).size());
+        assertEquals(50000l, traversal.next());
+        assertEquals(g.V().out().out().out().count().next(), lazy.V().out().out().out().count().next());
+
+        // the ten traversers of the indexed vertex are not expected to bulk but the hundred after the second out() are
+        final Traversal.Admin<?, ?> selective = lazy.V().has("name", "marko").out().out().values("name").asAdmin();
+        selective.applyStrategies();
+        assertEquals(1, TraversalHelper.getStepsOfClass(NoOpBarrierStep.class, selective).size());
+        assertTrue(selective.getSteps().get(3) instanceof NoOpBarrierStep);
+
+        final TraversalMetrics metrics = lazy.V().out().out().out().count().profile().next();
+        int barriers = 0;
+        for (final Metrics m : metrics.getMetrics()) {
+            if (m.getName().startsWith(NoOpBarrierStep.class.getSimpleName())) {
+                // every traverser of the first out() enters the first barrier
+                if (0 == barriers++)
+                    assertEquals(500l, m.getCount(TraversalMetrics.BARRIER_INPUT_COUNT_ID).longValue());
+                assertTrue((Double) m.getAnnotation(TraversalMetrics.BULKING_RATIO_KEY) > 1.0d);
+            }
+        }
+        assertEquals(2, barriers);
+    }
+}
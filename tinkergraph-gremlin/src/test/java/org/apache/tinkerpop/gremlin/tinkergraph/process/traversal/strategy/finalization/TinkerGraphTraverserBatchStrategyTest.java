@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.finalization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.finalization.TraverserBatchStrategy;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TinkerGraphTraverserBatchStrategyTest {
+
+    @Test
+    public void shouldTraverseTheSameInTraverserBatches() {
+        final GraphTraversalSource g = TinkerFactory.createModern().traversal();
+        final GraphTraversalSource batched = g.withStrategies(TraverserBatchStrategy.build().batchSize(2).create());
+        assertEquals(g.V().out().out().values("name").toList(), batched.V().out().out().values("name").toList());
+        assertEquals(g.V().both().both().both().id().toList(), batched.V().both().both().both().id().toList());
+        assertEquals(g.V().outE().inV().has("lang", "java").label().toList(), batched.V().outE().inV().has("lang", "java").label().toList());
+        assertEquals(g.V().has("age", P.gt(30)).values("name").toList(), batched.V().has("age", P.gt(30)).values("name").toList());
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.optimization;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.HasContainerHolder;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.MatchStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.VertexStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.optimization.CostBasedStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerFactory;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class TinkerGraphCostBasedStrategyTest {
+
+    @Test
+    public void shouldOrderWorkFromStatisticsWithCostBasedStrategy() {
+        final TinkerGraph graph = TinkerFactory.createModern();
+        graph.createIndex("name", Vertex.class);
+        assertEquals(4, graph.estimateCount(Vertex.class, Collections.singletonList(new HasContainer(T.label.getAccessor(), P.eq("person")))));
+        assertEquals(1, graph.estimateCount(Vertex.class, Collections.singletonList(new HasContainer("name", P.eq("josh")))));
+        assertEquals(6, graph.estimateDistinctValues(Vertex.class, "name"));
+        assertEquals(-1, graph.estimateDistinctValues(Vertex.class, "age"));
+        assertEquals(4.0d / 3.0d, graph.estimateNonZeroDegree(Direction.OUT, "created"), 0.0d);
+        assertEquals(2.0d, graph.estimateNonZeroDegree(Direction.IN, "created"), 0.0d);
+
+        final GraphTraversalSource g = graph.traversal();
+        final GraphTraversalSource cost = g.withStrategies(CostBasedStrategy.instance());
+
+        // the indexed equality is more selective than the range
+        final Traversal.Admin<?, ?> has = cost.V().has("age", P.gt(30)).has("name", "josh").asAdmin();
+        has.applyStrategies();
+        assertEquals("name", ((HasContainerHolder) has.getStartStep()).getHasContainers().get(0).getKey());
+        assertEquals("josh", has.next().value("name"));
+
+        // as('b').in('created').as('c') is reversed as the vertices with created-edges have fewer out- than in-edges
+        final Traversal.Admin<?, Map<String, Object>> match = cost.V().match(
+                __.as("a").out("created").as("b"),
+                __.as("b").in("created").as("c"),
+                __.as("c").out("knows").as("a")).asAdmin();
+        match.applyStrategies();
+        final MatchStep<?, ?> matchStep = TraversalHelper.getStepsOfClass(MatchStep.class, match).get(0);
+        for (final Traversal.Admin<Object, Object> matchTraversal : matchStep.getGlobalChildren()) {
+            assertEquals(Direction.OUT, ((VertexStep<?>) matchTraversal.getSteps().get(1)).getDirection());
+        }
+        final Map<String, Object> result = match.next();
+        assertFalse(match.hasNext());
+        assertEquals(g.V().has("name", "josh").next(), result.get("a"));
+        assertEquals(g.V().has("name", "lop").next(), result.get("b"));
+        assertEquals(g.V().has("name", "marko").next(), result.get("c"));
+        assertEquals(g.V().match(
+                __.as("a").out("created").as("b"),
+                __.as("b").in("created").as("c"),
+                __.as("c").out("knows").as("a")).toList(), Collections.singletonList(result));
+
+        // the statistics follow the removal of elements
+        g.V().has("name", "marko").next().remove();
+        assertEquals(3, graph.estimateCount(Vertex.class, Collections.singletonList(new HasContainer(T.label.getAccessor(), P.eq("person")))));
+        assertEquals(0.0d, graph.estimateNonZeroDegree(Direction.OUT, "knows"), 0.0d);
+        assertEquals(1.5d, graph.estimateNonZeroDegree(Direction.IN, "created"), 0.0d);
+    }
+}
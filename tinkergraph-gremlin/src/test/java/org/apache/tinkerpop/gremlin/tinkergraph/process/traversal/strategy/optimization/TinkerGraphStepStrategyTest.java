@@ -20,14 +20,18 @@ package org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.strategy.opti
 
 import org.apache.tinkerpop.gremlin.process.AbstractGremlinProcessTest;
 import org.apache.tinkerpop.gremlin.process.IgnoreEngine;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.TraversalEngine;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.OrderGlobalStep;
 import org.apache.tinkerpop.gremlin.tinkergraph.process.traversal.step.sideEffect.TinkerGraphStep;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * @author Marko A. Rodriguez (http://markorodriguez.com)
@@ -79,4 +83,22 @@ public class TinkerGraphStepStrategyTest extends AbstractGremlinProcessTest {
         assertEquals(TinkerGraphStep.class, traversal.getEndStep().getClass());
     }
 
+    @Test
+    @IgnoreEngine(TraversalEngine.Type.COMPUTER)
+    public void shouldPassOrderLimitToGraphStep() {
+        GraphTraversal.Admin traversal = g.V().has("name", "marko").order().by("age", Order.decr).limit(2).asAdmin();
+        traversal.applyStrategies();
+        assertEquals(TinkerGraphStep.class, traversal.getStartStep().getClass());
+        assertEquals("age", ((TinkerGraphStep) traversal.getStartStep()).getOrderKey());
+        assertEquals(2, ((TinkerGraphStep) traversal.getStartStep()).getOrderLimit());
+        assertEquals(OrderGlobalStep.class, traversal.getSteps().get(1).getClass());
+        ////
+        traversal = g.V().order().by("age").asAdmin();
+        traversal.applyStrategies();
+        assertNull(((TinkerGraphStep) traversal.getStartStep()).getOrderKey());
+        ////
+        traversal = g.V().order().by(__.values("age")).limit(2).asAdmin();
+        traversal.applyStrategies();
+        assertNull(((TinkerGraphStep) traversal.getStartStep()).getOrderKey());
+    }
 }
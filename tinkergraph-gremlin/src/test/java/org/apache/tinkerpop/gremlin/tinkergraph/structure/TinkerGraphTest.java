@@ -21,12 +21,19 @@ package org.apache.tinkerpop.gremlin.tinkergraph.structure;
 import org.apache.commons.configuration.BaseConfiguration;
 import org.apache.commons.configuration.Configuration;
 import org.apache.tinkerpop.gremlin.TestHelper;
+import org.apache.tinkerpop.gremlin.process.traversal.Order;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Edge;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.VertexProperty;
 import org.apache.tinkerpop.gremlin.structure.io.Io;
 import org.apache.tinkerpop.gremlin.structure.io.GraphReader;
 import org.apache.tinkerpop.gremlin.structure.io.GraphWriter;
@@ -56,17 +63,27 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -297,6 +314,315 @@ public class TinkerGraphTest {
         }, 0.5)).has("oid", "1").count().next());
     }
 
+    @Test
+    public void shouldUseRangeIndexForRangePredicates() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "vadas", "age", 27);
+        g.addVertex("name", "josh", "age", 32);
+        g.addVertex("name", "peter", "age", 35);
+        g.addVertex("name", "stephen", "age", 35L);
+
+        // the spy on "name" only sees the vertices the range index handed to the step
+        assertEquals(new Long(3), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("josh") || t.equals("peter") || t.equals("stephen"));
+            return true;
+        }, "")).has("age", P.gt(30)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(t.equals("marko") || t.equals("josh"));
+            return true;
+        }, "")).has("age", P.between(28, 35)).count().next());
+        assertEquals(new Long(3), g.traversal().V().has("name", P.test((t, u) -> {
+            assertTrue(!t.equals("marko") && !t.equals("josh"));
+            return true;
+        }, "")).has("age", P.outside(28, 33)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("age", 35).count().next());
+        assertEquals(TinkerGraph.IndexType.RANGE, g.getIndexType("age", Vertex.class));
+    }
+
+    @Test
+    public void shouldKeepRangeIndexUpToDate() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex marko = g.addVertex("name", "marko", "age", 29);
+        final Vertex josh = g.addVertex("name", "josh", "age", 32);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+
+        assertEquals(new Long(1), g.traversal().V().has("age", P.lt(30)).count().next());
+        marko.property("age", 31);
+        assertEquals(new Long(0), g.traversal().V().has("age", P.lt(30)).count().next());
+        assertEquals(new Long(2), g.traversal().V().has("age", P.gte(31)).count().next());
+        josh.remove();
+        assertEquals(new Long(1), g.traversal().V().has("age", P.gte(31)).count().next());
+    }
+
+    @Test
+    public void shouldUseRangeIndexForOrderLimit() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("weight", Edge.class, TinkerGraph.IndexType.RANGE);
+        final Vertex v = g.addVertex();
+        for (int i = 0; i < 100; i++) {
+            v.addEdge("knows", v, "weight", (double) i);
+        }
+        v.addEdge("knows", v, "weight", 98.0d);
+
+        final AtomicInteger tested = new AtomicInteger(0);
+        final List<Object> weights = g.traversal().E().has("weight", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).order().by("weight", Order.decr).limit(2).values("weight").toList();
+        assertEquals(Arrays.asList(99.0d, 98.0d), weights);
+        // the index is walked until the limit is met and the tie on 98.0 is resolved
+        assertEquals(4, tested.get());
+
+        assertEquals(Arrays.asList(0.0d, 1.0d, 2.0d), g.traversal().E().order().by("weight", Order.incr).limit(3).values("weight").toList());
+        assertEquals(Arrays.asList(51.0d, 52.0d), g.traversal().E().has("weight", P.gt(50.0d)).order().by("weight", Order.incr).limit(2).values("weight").toList());
+    }
+
+    @Test
+    public void shouldUseRangeIndexForOrderLimitOfMixedNumbers() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        g.addVertex("name", "marko", "age", 10);
+        g.addVertex("name", "vadas", "age", 20l);
+        g.addVertex("name", "josh", "age", 30);
+
+        assertEquals(Collections.singletonList(10), g.traversal().V().order().by("age", Order.incr).limit(1).values("age").toList());
+        assertEquals(Collections.singletonList(30), g.traversal().V().order().by("age", Order.decr).limit(1).values("age").toList());
+        assertEquals(Collections.singletonList(20l), g.traversal().V().has("age", P.gt(15)).order().by("age", Order.incr).limit(1).values("age").toList());
+    }
+
+    @Test
+    public void shouldNotUseRangeIndexForOrderLimitIfElementsLackTheKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+        g.addVertex("name", "marko", "age", 29);
+        g.addVertex("name", "josh", "age", 32);
+        g.addVertex("name", "lop");
+
+        final AtomicInteger tested = new AtomicInteger(0);
+        try {
+            g.traversal().V().has("name", P.test((t, u) -> {
+                tested.incrementAndGet();
+                return true;
+            }, "")).order().by("age", Order.incr).limit(1).toList();
+            fail("The vertex without an age should have reached order() as it does without the index");
+        } catch (IllegalStateException ex) {
+            // all vertices were scanned rather than only those in the index
+            assertEquals(3, tested.get());
+        }
+
+        // a constraint on the key excludes the vertex without it, so the index can still be walked
+        assertEquals(Collections.singletonList(29), g.traversal().V().has("age", P.gt(0)).order().by("age", Order.incr).limit(1).values("age").toList());
+    }
+
+    @Test
+    public void shouldKeepIndexConsistentUnderConcurrentUpdates() throws Exception {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("status", Vertex.class);
+        final int threads = 8;
+        final int verticesPerThread = 100;
+        final List<List<Vertex>> partitions = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final List<Vertex> partition = new ArrayList<>();
+            for (int j = 0; j < verticesPerThread; j++) {
+                partition.add(g.addVertex("status", "new"));
+            }
+            partitions.add(partition);
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (final List<Vertex> partition : partitions) {
+                futures.add(executor.submit(() -> {
+                    for (int round = 0; round < 10; round++) {
+                        for (final Vertex v : partition) {
+                            v.property("status", round % 2 == 0 ? "active" : "idle");
+                        }
+                    }
+                    partition.forEach(v -> v.property("status", "done"));
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(new Long(threads * verticesPerThread), g.traversal().V().has("status", "done").count().next());
+        assertEquals(new Long(0), g.traversal().V().has("status", "active").count().next());
+        assertEquals(new Long(0), g.traversal().V().has("status", "idle").count().next());
+        assertEquals(new Long(0), g.traversal().V().has("status", "new").count().next());
+    }
+
+    @Test
+    public void shouldUseCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("country", Vertex.class);
+        g.createCompositeIndex("person", Vertex.class, "country", "city");
+        assertTrue(g.hasCompositeIndex("person", Vertex.class, "country", "city"));
+
+        for (int i = 0; i < 10; i++) {
+            g.addVertex(T.label, "person", "name", "p" + i, "country", "US", "city", "NYC");
+            g.addVertex(T.label, "company", "name", "c" + i, "country", "US", "city", "SF");
+        }
+        final Vertex marko = g.addVertex(T.label, "person", "name", "marko", "country", "US", "city", "SF");
+
+        // the composite index narrows the candidates to the single person in SF where the "country" index alone
+        // would have passed all 21 vertices through the pipeline
+        final AtomicInteger tested = new AtomicInteger(0);
+        assertEquals(Arrays.asList(marko), g.traversal().V().hasLabel("person").has("country", "US").has("city", "SF").has("name", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).toList());
+        assertEquals(1, tested.get());
+
+        marko.property("city", "NYC");
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("country", "US").has("city", "SF").count().next());
+        assertEquals(new Long(11), g.traversal().V().hasLabel("person").has("country", "US").has("city", "NYC").count().next());
+        marko.remove();
+        assertEquals(new Long(10), g.traversal().V().hasLabel("person").has("country", "US").has("city", "NYC").count().next());
+
+        g.dropCompositeIndex("person", Vertex.class, "country", "city");
+        assertFalse(g.hasCompositeIndex("person", Vertex.class, "country", "city"));
+        assertEquals(new Long(10), g.traversal().V().hasLabel("person").has("country", "US").has("city", "NYC").count().next());
+    }
+
+    @Test
+    public void shouldUseLeadingKeysOfCompositeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createCompositeIndex("person", Vertex.class, "country", "city");
+
+        for (int i = 0; i < 10; i++) {
+            g.addVertex(T.label, "person", "name", "p" + i, "country", "DE", "city", "Berlin");
+        }
+        final Vertex marko = g.addVertex(T.label, "person", "name", "marko", "country", "US", "city", "SF");
+        final Vertex josh = g.addVertex(T.label, "person", "name", "josh", "country", "US", "city", "NYC");
+
+        // only the "country" of the index is constrained, so the two people in the US are the candidates
+        final AtomicInteger tested = new AtomicInteger(0);
+        assertEquals(new HashSet<>(Arrays.asList(marko, josh)), g.traversal().V().hasLabel("person").has("country", "US").has("name", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).toSet());
+        assertEquals(2, tested.get());
+
+        josh.property("city", "SF");
+        assertEquals(new Long(2), g.traversal().V().hasLabel("person").has("country", "US").count().next());
+        josh.property("country", "DE");
+        assertEquals(new Long(1), g.traversal().V().hasLabel("person").has("country", "US").count().next());
+        assertEquals(new Long(11), g.traversal().V().hasLabel("person").has("country", "DE").count().next());
+        marko.remove();
+        assertEquals(new Long(0), g.traversal().V().hasLabel("person").has("country", "US").count().next());
+    }
+
+    @Test
+    public void shouldUseLabelScopedEdgeIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        final Vertex v = g.addVertex();
+        g.createCompositeIndex("knows", Edge.class, "weight");
+        v.addEdge("knows", v, "weight", 0.5d);
+        v.addEdge("created", v, "weight", 0.5d);
+        v.addEdge("knows", v, "weight", 1.0d);
+
+        final AtomicInteger tested = new AtomicInteger(0);
+        assertEquals(new Long(1), g.traversal().E().hasLabel("knows").has("weight", 0.5d).has("weight", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).count().next());
+        assertEquals(1, tested.get());
+        assertEquals(new Long(2), g.traversal().E().has("weight", 0.5d).count().next());
+    }
+
+    @Test
+    public void shouldUseVertexCentricIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createVertexCentricIndex("weight");
+        g.createVertexCentricIndex(TinkerGraph.ADJACENT_VERTEX_ID);
+        final Vertex hub = g.addVertex();
+        final List<Vertex> spokes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final Vertex spoke = g.addVertex();
+            spokes.add(spoke);
+            hub.addEdge("knows", spoke, "weight", (double) (i % 10));
+        }
+        final Edge heavy = hub.addEdge("likes", spokes.get(0), "weight", 0.0d);
+
+        // only the edges in the "weight" bucket of the hub should reach the predicate
+        final AtomicInteger tested = new AtomicInteger(0);
+        assertEquals(new Long(10), g.traversal().V(hub).outE("knows").has("weight", 0.0d).has("weight", P.test((t, u) -> {
+            tested.incrementAndGet();
+            return true;
+        }, "")).count().next());
+        assertEquals(10, tested.get());
+        assertEquals(new Long(11), g.traversal().V(hub).outE().has("weight", 0.0d).count().next());
+        assertEquals(new Long(10), g.traversal().V(hub).bothE("knows").has("weight", 9.0d).count().next());
+
+        assertEquals(Arrays.asList(spokes.get(42)), g.traversal().V(hub).out().hasId(spokes.get(42).id()).toList());
+        assertEquals(new Long(2), g.traversal().V(hub).outE().where(__.inV().hasId(spokes.get(0).id())).count().next());
+        assertEquals(Arrays.asList(hub), g.traversal().V(spokes.get(0)).in("likes").hasId(hub.id()).toList());
+
+        heavy.property("weight", 5.0d);
+        assertEquals(new Long(10), g.traversal().V(hub).outE().has("weight", 0.0d).count().next());
+        assertEquals(new Long(11), g.traversal().V(hub).outE().has("weight", 5.0d).count().next());
+        heavy.property("weight").remove();
+        assertEquals(new Long(10), g.traversal().V(hub).outE().has("weight", 5.0d).count().next());
+        spokes.get(0).remove();
+        assertEquals(new Long(0), g.traversal().V(hub).outE().where(__.inV().hasId(spokes.get(0).id())).count().next());
+        assertEquals(new Long(9), g.traversal().V(hub).outE().has("weight", 0.0d).count().next());
+
+        g.dropVertexCentricIndex("weight");
+        assertEquals(new Long(9), g.traversal().V(hub).outE().has("weight", 0.0d).count().next());
+    }
+
+    @Test
+    public void shouldFindNumbersOfAnyTypeInVertexCentricIndex() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createVertexCentricIndex("weight");
+        final Vertex v = g.addVertex();
+        v.addEdge("knows", v, "weight", 1);
+        v.addEdge("knows", v, "weight", 1l);
+        v.addEdge("knows", v, "weight", 1.0d);
+        v.addEdge("knows", v, "weight", 0.5f);
+        v.addEdge("knows", v, "weight", 0.5d);
+        v.addEdge("knows", v, "weight", new BigDecimal("1.50"));
+
+        for (int i = 0; i < 2; i++) {
+            assertEquals(new Long(3), g.traversal().V(v).outE().has("weight", 1).count().next());
+            assertEquals(new Long(3), g.traversal().V(v).outE().has("weight", 1l).count().next());
+            assertEquals(new Long(3), g.traversal().V(v).outE().has("weight", 1.0d).count().next());
+            assertEquals(new Long(2), g.traversal().V(v).outE().has("weight", 0.5d).count().next());
+            assertEquals(new Long(1), g.traversal().V(v).outE().has("weight", 1.5d).count().next());
+            // the same counts without the index
+            g.dropVertexCentricIndex("weight");
+        }
+    }
+
+    @Test
+    public void shouldNotFoldLabeledHasIntoVertexCentricStep() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createVertexCentricIndex("weight");
+        final Vertex v = g.addVertex();
+        v.addEdge("knows", v, "weight", 0.5d, "name", "a");
+        v.addEdge("knows", v, "weight", 0.5d, "name", "b");
+        v.addEdge("knows", v, "weight", 1.0d, "name", "a");
+
+        final Traversal<Vertex, Object> traversal = g.traversal().V(v).outE().has("weight", 0.5d).has("name", "a").as("x").select("x").values("name");
+        assertEquals(Arrays.asList("a"), traversal.toList());
+        assertEquals(1, TraversalHelper.getStepsOfClass(HasStep.class, traversal.asAdmin()).size());
+        assertEquals(Collections.singleton("x"), TraversalHelper.getStepsOfClass(HasStep.class, traversal.asAdmin()).get(0).getLabels());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotChangeIndexTypeOfIndexedKey() {
+        final TinkerGraph g = TinkerGraph.open();
+        g.createIndex("age", Vertex.class);
+        g.createIndex("age", Vertex.class, TinkerGraph.IndexType.RANGE);
+    }
+
     @Test
     public void shouldSerializeTinkerGraphToGryo() throws Exception {
         final TinkerGraph graph = TinkerFactory.createModern();
@@ -337,6 +663,32 @@ public class TinkerGraphTest {
         }
     }
 
+    @Test
+    public void shouldTraverseCompactGraph() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_COMPACT, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final GraphTraversalSource g = graph.traversal();
+
+        assertEquals(Arrays.asList("josh", "lop", "vadas"), g.V().has("name", "marko").out().<String>values("name").order().toList());
+        assertEquals(new Long(6), g.E().count().next());
+
+        final Vertex marko = g.V().has("name", "marko").next();
+        for (int i = 0; i < 20; i++) {
+            marko.addEdge("knows", marko, "weight", (double) i);
+        }
+        assertEquals(new Long(22), g.V(marko).outE("knows").count().next());
+        g.V(marko).outE("knows").has("weight", P.gte(10.0d)).drop().iterate();
+        assertEquals(new Long(12), g.V(marko).outE("knows").count().next());
+        assertEquals(new Long(10), g.V(marko).outE("knows").has("weight", P.lt(10.0d)).dedup().count().next());
+        assertEquals(new Long(0), g.V(marko).outE("knows").has("weight", P.gte(10.0d)).count().next());
+        assertEquals(new Long(10), g.V(marko).inE("knows").count().next());
+        marko.remove();
+        assertEquals(new Long(3), g.E().count().next());
+        assertEquals(new Long(0), g.V().has("name", "josh").inE().count().next());
+    }
+
     @Test(expected = IllegalStateException.class)
     public void shouldRequireGraphLocationIfFormatIsSet() {
         final Configuration conf = new BaseConfiguration();
@@ -439,6 +791,305 @@ public class TinkerGraphTest {
         reloadedGraph.close();
     }
 
+    @Test
+    public void shouldBulkLoadIntoIndexedGraph() throws Exception {
+        for (final String format : Arrays.asList("gryo", "graphson")) {
+            final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldBulkLoadIntoIndexedGraph." + format;
+            final File f = new File(graphLocation);
+            if (f.exists() && f.isFile()) f.delete();
+
+            // enough vertices to be split across several chunks
+            final TinkerGraph source = TinkerGraph.open();
+            for (int i = 0; i < 2500; i++) {
+                source.addVertex(T.id, i, T.label, i % 2 == 0 ? "even" : "odd", "number", i, "parity", i % 2);
+            }
+            for (int i = 0; i < 2500; i++) {
+                source.vertices(i).next().addEdge("next", source.vertices((i + 1) % 2500).next(), T.id, 10000 + i, "weight", i % 10);
+            }
+            // graphson records are read as utf-8 whatever the platform encoding
+            source.vertices(0).next().property("name", "Zo\u00eb \u6771\u4eac");
+            if (format.equals("gryo"))
+                source.io(IoCore.gryo()).writeGraph(graphLocation);
+            else
+                source.io(IoCore.graphson()).writeGraph(graphLocation);
+
+            final TinkerGraph graph = TinkerGraph.open();
+            graph.createIndex("number", Vertex.class);
+            graph.createIndex("weight", Edge.class);
+            graph.createCompositeIndex("even", Vertex.class, "parity");
+            graph.createVertexCentricIndex("weight");
+            graph.bulkLoad(graphLocation, format);
+
+            final GraphTraversalSource g = graph.traversal();
+            assertEquals(new Long(2500), g.V().count().next());
+            assertEquals(new Long(2500), g.E().count().next());
+            assertEquals(new Long(2500), g.V().outE("next").inV().count().next());
+            assertEquals(new Long(2500), g.V().inE("next").outV().count().next());
+            assertEquals(1, TinkerHelper.queryVertexIndex(graph, "number", 42).size());
+            assertEquals(250, TinkerHelper.queryEdgeIndex(graph, "weight", 3).size());
+            assertEquals(1250, TinkerHelper.queryVertexIndex(graph, new HashMap<String, Object>() {{
+                put(T.label.getAccessor(), "even");
+                put("parity", 0);
+            }}).size());
+            assertEquals(1, IteratorUtils.count(TinkerHelper.getEdges((TinkerVertex) graph.vertices(3).next(), Direction.OUT, "weight", 3)));
+            assertEquals(1, IteratorUtils.count(TinkerHelper.getEdges((TinkerVertex) graph.vertices(4).next(), Direction.IN, "weight", 3)));
+            assertEquals(4, g.V(3).out("next").values("number").next());
+            assertEquals("Zo\u00eb \u6771\u4eac", g.V(0).values("name").next());
+            graph.close();
+        }
+    }
+
+    @Test
+    public void shouldPersistWithChangeLog() {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistWithChangeLog.kryo";
+        final File f = new File(graphLocation);
+        final File log = new File(graphLocation + ".log");
+        if (f.exists() && f.isFile()) f.delete();
+        if (log.exists() && log.isFile()) log.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHANGE_LOG, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        // closing only closes the log so the graph is restored from the log alone
+        assertFalse(f.exists());
+        final TinkerGraph replayedGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(replayedGraph, true, false);
+        replayedGraph.checkpoint();
+        assertTrue(f.exists());
+        assertEquals(0, log.length());
+
+        final Vertex marko = replayedGraph.traversal().V().has("name", "marko").next();
+        marko.property("age", 30);
+        final Vertex stephen = replayedGraph.addVertex(T.id, 100, T.label, "person", "name", "stephen");
+        stephen.property(VertexProperty.Cardinality.list, "location", "centreville", "startTime", 1990);
+        stephen.addEdge("knows", marko, T.id, 101, "weight", 0.1d);
+        replayedGraph.traversal().E().hasLabel("created").has("weight", 0.2d).drop().iterate();
+        replayedGraph.traversal().V().has("name", "vadas").properties("age").drop().iterate();
+        replayedGraph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = reloadedGraph.traversal();
+        assertEquals(30, g.V().has("name", "marko").values("age").next());
+        assertEquals(new Long(1), g.V().has("name", "marko").properties("age").count().next());
+        assertEquals("stephen", g.V(100).values("name").next());
+        assertEquals(1990, g.V(100).properties("location").values("startTime").next());
+        assertEquals("marko", g.E(101).inV().values("name").next());
+        assertEquals(0.1d, g.E(101).values("weight").next());
+        assertEquals(new Long(3), g.E().hasLabel("created").count().next());
+        assertFalse(g.V().has("name", "vadas").properties("age").hasNext());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReplayRotatedChangeLogOfIncompleteCheckpoint() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldReplayRotatedChangeLogOfIncompleteCheckpoint.kryo";
+        final File f = new File(graphLocation);
+        final File log = new File(graphLocation + ".log");
+        final File rotatedLog = new File(graphLocation + ".log.old");
+        for (final File file : Arrays.asList(f, log, rotatedLog)) {
+            if (file.exists() && file.isFile()) file.delete();
+        }
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHANGE_LOG, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        graph.close();
+
+        // a checkpoint that stopped after rotating the log leaves the mutations in the rotated log only
+        Files.move(log.toPath(), rotatedLog.toPath());
+        final TinkerGraph recoveredGraph = TinkerGraph.open(conf);
+        IoTest.assertModernGraph(recoveredGraph, true, false);
+        assertTrue(f.exists());
+        assertFalse(rotatedLog.exists());
+        assertEquals(0, log.length());
+        recoveredGraph.close();
+    }
+
+    @Test
+    public void shouldLogMutationsMadeWhileCheckpointing() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldLogMutationsMadeWhileCheckpointing.kryo";
+        final File f = new File(graphLocation);
+        final File log = new File(graphLocation + ".log");
+        if (f.exists() && f.isFile()) f.delete();
+        if (log.exists() && log.isFile()) log.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHANGE_LOG, true);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHANGE_LOG_SYNC, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                Vertex previous = graph.addVertex(T.id, 0);
+                for (int i = 1; i < 500; i++) {
+                    final Vertex next = graph.addVertex(T.id, i, "number", i);
+                    previous.addEdge("next", next, T.id, i);
+                    if (i % 50 == 0) graph.vertices(i - 1).next().remove();
+                    previous = next;
+                }
+            });
+            while (!writer.isDone()) {
+                graph.checkpoint();
+            }
+            writer.get();
+        } finally {
+            executor.shutdownNow();
+        }
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = reloadedGraph.traversal();
+        assertEquals(new Long(491), g.V().count().next());
+        assertEquals(new Long(481), g.E().count().next());
+        assertEquals(499, g.V(498).out("next").values("number").next());
+        assertFalse(g.V(49).hasNext());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldLogConcurrentMutations() throws Exception {
+        final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldLogConcurrentMutations.kryo";
+        final File f = new File(graphLocation);
+        final File log = new File(graphLocation + ".log");
+        if (f.exists() && f.isFile()) f.delete();
+        if (log.exists() && log.isFile()) log.delete();
+
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_FORMAT, "gryo");
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_GRAPH_LOCATION, graphLocation);
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_CHANGE_LOG, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        final Vertex hub = graph.addVertex(T.id, -1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                final int offset = t * 1000;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        final Vertex vertex = graph.addVertex(T.id, offset + i, "number", i);
+                        vertex.addEdge("hub", hub, T.id, offset + i, "weight", i);
+                        if (i % 10 == 0) vertex.remove();
+                        else if (i % 10 == 1) vertex.property("number").remove();
+                    }
+                }));
+            }
+            for (final Future<?> writer : writers) {
+                writer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        graph.close();
+
+        final TinkerGraph reloadedGraph = TinkerGraph.open(conf);
+        final GraphTraversalSource g = reloadedGraph.traversal();
+        assertEquals(new Long(721), g.V().count().next());
+        assertEquals(new Long(720), g.V(-1).inE("hub").count().next());
+        assertEquals(new Long(640), g.V().has("number").count().next());
+        assertFalse(g.V(3010).hasNext());
+        assertEquals(199, g.V(3199).values("number").next());
+        reloadedGraph.close();
+    }
+
+    @Test
+    public void shouldReadConsistentSnapshot() {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOTS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+
+        final TinkerSnapshot snapshot = graph.snapshot();
+        final Vertex marko = graph.vertices(1).next();
+        final Vertex stephen = graph.addVertex(T.id, 100, T.label, "person", "name", "stephen");
+        marko.addEdge("knows", stephen, T.id, 101, "weight", 0.1d);
+        marko.property("age", 30);
+        graph.edges(7).next().remove();
+        graph.vertices(6).next().remove();
+
+        final GraphTraversalSource g = graph.traversal();
+        assertEquals(new Long(6), g.V().count().next());
+        assertEquals(new Long(5), g.E().count().next());
+        assertEquals(30, g.V(1).values("age").next());
+        assertEquals(Arrays.asList("josh", "stephen"), g.V(1).out("knows").<String>values("name").order().toList());
+
+        final GraphTraversalSource s = snapshot.traversal();
+        assertEquals(new Long(6), s.V().count().next());
+        assertEquals(new Long(6), s.E().count().next());
+        assertEquals(29, s.V(1).values("age").next());
+        assertEquals(new Long(1), s.V(1).properties("age").count().next());
+        assertEquals(Arrays.asList("josh", "vadas"), s.V(1).out("knows").<String>values("name").order().toList());
+        assertEquals("peter", s.V(6).values("name").next());
+        assertEquals(new Long(3), s.V(3).in("created").count().next());
+        assertFalse(s.V(100).hasNext());
+        assertFalse(s.E(101).hasNext());
+
+        try {
+            graph.clear();
+            fail("The graph should not be cleared while a snapshot is open");
+        } catch (IllegalStateException ise) {
+            // expected
+        }
+
+        snapshot.close();
+        graph.clear();
+        assertEquals(new Long(0), g.V().count().next());
+    }
+
+    @Test
+    public void shouldReadSnapshotWhileGraphIsMutated() throws Exception {
+        final Configuration conf = new BaseConfiguration();
+        conf.setProperty(TinkerGraph.GREMLIN_TINKERGRAPH_SNAPSHOTS, true);
+        final TinkerGraph graph = TinkerGraph.open(conf);
+        TinkerFactory.generateModern(graph);
+        final TinkerSnapshot snapshot = graph.snapshot();
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> writer = executor.submit(() -> {
+                final Vertex marko = graph.vertices(1).next();
+                for (int i = 0; i < 1000; i++) {
+                    marko.property("age", i);
+                    final Vertex v = graph.addVertex("name", "v" + i);
+                    marko.addEdge("knows", v, "weight", 1.0d);
+                    if (i % 2 == 0) v.remove();
+                }
+                graph.vertices(6).next().remove();
+            });
+
+            final GraphTraversalSource s = snapshot.traversal();
+            while (!writer.isDone()) {
+                assertEquals(29, s.V(1).values("age").next());
+                assertEquals(new Long(6), s.V().count().next());
+                assertEquals(new Long(6), s.E().count().next());
+                assertEquals(new Long(3), s.V(1).out().count().next());
+            }
+            writer.get();
+            assertEquals(new Long(6), s.V().count().next());
+            assertEquals(new Long(6), s.E().count().next());
+        } finally {
+            executor.shutdownNow();
+            snapshot.close();
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotSnapshotWithoutSnapshotsEnabled() {
+        TinkerFactory.createModern().snapshot();
+    }
+
     @Test
     public void shouldPersistToAnyGraphFormat() {
         final String graphLocation = TestHelper.makeTestDataDirectory(TinkerGraphTest.class) + "shouldPersistToAnyGraphFormat.dat";